@@ -14,9 +14,12 @@
 
 package org.eclipse.debug.jdi.tests;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 
+import org.eclipse.jdi.internal.ArrayReferenceImpl;
+
 import com.sun.jdi.ArrayReference;
 import com.sun.jdi.ClassNotLoadedException;
 import com.sun.jdi.DoubleValue;
@@ -152,6 +155,40 @@ public class ArrayReferenceTest extends AbstractJDITest {
 		values = fDoubleArray.getValues(0, 2);
 		assertEquals("testJDIGetSetDoubleValue.12", values, newValues);
 	}
+	/**
+	 * Test getPrimitiveValues(int,int) and getValueChunks(int,int,int)
+	 * of ArrayReferenceImpl.
+	 */
+	public void testJDIGetPrimitiveValues() {
+		ArrayReferenceImpl doubleArray = (ArrayReferenceImpl) fDoubleArray;
+		List<Value> values = doubleArray.getValues();
+		Object primitives = doubleArray.getPrimitiveValues(0, -1);
+		assertTrue("1", primitives instanceof double[]);
+		double[] doubles = (double[]) primitives;
+		assertEquals("2", values.size(), doubles.length);
+		for (int i = 0; i < doubles.length; i++) {
+			assertEquals("3." + i, ((DoubleValue) values.get(i)).value(), doubles[i], 0.0);
+		}
+
+		// one chunk per component
+		Iterator<Object> chunks = doubleArray.getValueChunks(1, 2, 1);
+		for (int i = 1; i <= 2; i++) {
+			assertTrue("4." + i, chunks.hasNext());
+			double[] chunk = (double[]) chunks.next();
+			assertEquals("5." + i, 1, chunk.length);
+			assertEquals("6." + i, doubles[i], chunk[0], 0.0);
+		}
+		assertFalse("7", chunks.hasNext());
+
+		// reference arrays come in lists of values
+		chunks = ((ArrayReferenceImpl) fArray).getValueChunks(0, -1, 2);
+		assertTrue("8", chunks.next() instanceof List);
+		try {
+			((ArrayReferenceImpl) fArray).getPrimitiveValues(0, -1);
+			fail("9");
+		} catch (IllegalArgumentException e) {
+		}
+	}
 	/**
 	 * Test JDI getValue(int), getValues(), getValues(int,int)
 	 * setValue(Value,int), setValues(List) and setValues(int,List,int,int),
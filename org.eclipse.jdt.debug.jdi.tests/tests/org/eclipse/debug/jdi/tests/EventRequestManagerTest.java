@@ -17,6 +17,8 @@ package org.eclipse.debug.jdi.tests;
 import java.util.List;
 import java.util.ListIterator;
 
+import org.eclipse.jdi.ThreadLifecycleRequest;
+
 import com.sun.jdi.Field;
 import com.sun.jdi.Location;
 import com.sun.jdi.request.AccessWatchpointRequest;
@@ -262,4 +264,26 @@ public class EventRequestManagerTest extends AbstractJDITest {
 		fManager.deleteEventRequest(request);
 		assertEquals("2", 0, fManager.classUnloadRequests().size());
 	}
+	/**
+	 * Test that ThreadStart and ThreadDeath requests restricted to
+	 * platform threads can be enabled and deleted.
+	 */
+	public void testJDIPlatformThreadsOnlyFilter() {
+		ThreadStartRequest startRequest = fManager.createThreadStartRequest();
+		assertTrue("1", startRequest instanceof ThreadLifecycleRequest);
+		((ThreadLifecycleRequest) startRequest).addPlatformThreadsOnlyFilter();
+		startRequest.enable();
+		assertTrue("2", startRequest.isEnabled());
+
+		ThreadDeathRequest deathRequest = fManager.createThreadDeathRequest();
+		assertTrue("3", deathRequest instanceof ThreadLifecycleRequest);
+		((ThreadLifecycleRequest) deathRequest).addPlatformThreadsOnlyFilter();
+		deathRequest.enable();
+		assertTrue("4", deathRequest.isEnabled());
+
+		fManager.deleteEventRequest(startRequest);
+		fManager.deleteEventRequest(deathRequest);
+		assertEquals("5", 0, fManager.threadStartRequests().size());
+		assertEquals("6", 0, fManager.threadDeathRequests().size());
+	}
 }
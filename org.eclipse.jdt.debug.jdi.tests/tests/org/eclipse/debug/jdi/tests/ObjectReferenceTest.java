@@ -17,12 +17,15 @@ import static org.junit.Assert.assertNotEquals;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Vector;
 
+import org.eclipse.jdi.internal.ObjectReferenceImpl;
+
 import com.sun.jdi.ClassNotLoadedException;
 import com.sun.jdi.ClassType;
 import com.sun.jdi.Field;
@@ -199,6 +202,28 @@ public class ObjectReferenceTest extends AbstractJDITest {
 		//assertEquals("10", fVM.mirrorOf("HEY"), fObject.getValue(field));
 
 	}
+	/**
+	 * Test pipelined ObjectReferenceImpl.getValues(Map) for several objects.
+	 */
+	public void testJDIGetValuesPipelined() {
+		ReferenceType type = fObject.referenceType();
+		List<Field> instanceFields = new LinkedList<>();
+		for (Field field : type.fields()) {
+			if (!field.isStatic()) {
+				instanceFields.add(field);
+			}
+		}
+		ThreadReference thread = getThread();
+		List<Field> threadFields = thread.referenceType().allFields();
+
+		Map<ObjectReference, List<Field>> request = new LinkedHashMap<>();
+		request.put(fObject, instanceFields);
+		request.put(thread, threadFields);
+		Map<ObjectReference, Map<Field, Value>> values = ObjectReferenceImpl.getValues(request);
+		assertEquals("1", 2, values.size());
+		assertEquals("2", fObject.getValues(instanceFields), values.get(fObject));
+		assertEquals("3", threadFields.size(), values.get(thread).size());
+	}
 	/**
 	 * Test JDI invokeMethod.
 	 */
@@ -124,6 +124,13 @@ public class ThreadReferenceTest extends AbstractJDITest {
 	public void testJDIIsAtBreakpoint() {
 		assertFalse("1", fThread.isAtBreakpoint());
 	}
+	/**
+	 * Test JDI isVirtual() and JDWP 'Thread - Is virtual'.
+	 */
+	public void testJDIIsVirtual() {
+		assertTrue("1", fThread instanceof org.eclipse.jdi.ThreadReference);
+		assertFalse("2", ((org.eclipse.jdi.ThreadReference) fThread).isVirtual());
+	}
 	/**
 	 * Test JDI isSuspended().
 	 */
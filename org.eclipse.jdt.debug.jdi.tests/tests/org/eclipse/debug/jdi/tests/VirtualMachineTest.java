@@ -18,6 +18,11 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Vector;
 
+import org.eclipse.jdi.internal.JdwpCommandStatistics;
+import org.eclipse.jdi.internal.JdwpMetrics;
+import org.eclipse.jdi.internal.VirtualMachineImpl;
+import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+
 import com.sun.jdi.BooleanValue;
 import com.sun.jdi.ByteValue;
 import com.sun.jdi.CharValue;
@@ -178,6 +183,26 @@ public class VirtualMachineTest extends AbstractJDITest {
 	public void testJDIEventRequestManager() {
 		assertNotNull("1", fVM.eventRequestManager());
 	}
+	/**
+	 * Test the JDWP metrics of VirtualMachineImpl.
+	 */
+	public void testJDIMetrics() {
+		JdwpMetrics metrics = ((VirtualMachineImpl) fVM).metrics();
+		long before = metrics.getRequestCount();
+		fVM.allThreads();
+		assertTrue("1", metrics.getRequestCount() > before);
+		assertTrue("2", metrics.getBytesSent() > 0);
+		assertTrue("3", metrics.getBytesReceived() > 0);
+		boolean found = false;
+		for (JdwpCommandStatistics statistics : metrics.getCommandStatistics()) {
+			if (statistics.getCommand() == JdwpCommandPacket.VM_ALL_THREADS) {
+				found = true;
+				assertTrue("4", statistics.getCount() > 0);
+				assertTrue("5", statistics.getP99Micros() >= statistics.getP50Micros());
+			}
+		}
+		assertTrue("6", found);
+	}
 	/**
 	 * Test JDI mirrorOf(boolean).
 	 */
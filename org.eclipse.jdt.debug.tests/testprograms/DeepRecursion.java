@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+public class DeepRecursion {
+
+	public static void main(String[] args) {
+		recurse(500);
+	}
+
+	static int recurse(int depth) {
+		if (depth == 0) {
+			return 0; // breakpoint here
+		}
+		return recurse(depth - 1) + 1;
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+import java.util.concurrent.CountDownLatch;
+
+public class MonitorDeadlock {
+
+	static final Object fFirst = new Object();
+	static final Object fSecond = new Object();
+	static final CountDownLatch fLatch = new CountDownLatch(2);
+
+	public static void main(String[] args) throws InterruptedException {
+		lock("DeadlockOne", fFirst, fSecond).start();
+		lock("DeadlockTwo", fSecond, fFirst).start();
+		fLatch.await();
+		Thread.sleep(500);
+		System.out.println("deadlocked"); // breakpoint here
+	}
+
+	static Thread lock(String name, final Object first, final Object second) {
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				synchronized (first) {
+					try {
+						fLatch.countDown();
+						fLatch.await();
+					} catch (InterruptedException e) {
+					}
+					synchronized (second) {
+						System.out.println("not deadlocked");
+					}
+				}
+			}
+		}, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+}
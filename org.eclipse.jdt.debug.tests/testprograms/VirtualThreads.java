@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+import java.lang.reflect.Method;
+
+/**
+ * Starts a few virtual threads, one of which reaches a breakpoint while the others sleep. Falls back to platform threads on VMs without
+ * virtual threads.
+ */
+public class VirtualThreads {
+
+	static void work() {
+		System.out.println("virtual thread"); // breakpoint
+	}
+
+	static void idle() {
+		try {
+			Thread.sleep(60000);
+		} catch (InterruptedException e) {
+		}
+	}
+
+	static Thread start(Runnable runnable) throws Exception {
+		try {
+			Method method = Thread.class.getMethod("startVirtualThread", Runnable.class);
+			return (Thread) method.invoke(null, runnable);
+		} catch (NoSuchMethodException e) {
+			Thread thread = new Thread(runnable);
+			thread.start();
+			return thread;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Thread[] idlers = new Thread[3];
+		for (int i = 0; i < idlers.length; i++) {
+			idlers[i] = start(VirtualThreads::idle);
+		}
+		Thread.sleep(500);
+		start(VirtualThreads::work).join();
+		for (Thread idler : idlers) {
+			idler.interrupt();
+		}
+	}
+}
@@ -293,6 +293,36 @@ public class StepFilterTests extends AbstractDebugTest {
 		}
 	}
 
+	/**
+	 * Tests that turning off the getter filter while debugging takes effect for the next step, even though methods were
+	 * already classified as getters
+	 * @throws Exception
+	 */
+	public void testGetterFilterChanged() throws Exception {
+		getPrefStore().setValue(IJDIPreferencesConstants.PREF_FILTER_GETTERS, true);
+		getPrefStore().setValue(IJDIPreferencesConstants.PREF_FILTER_SETTERS, false);
+		String typeName = "StepFilterFour";
+		ILineBreakpoint bp = createLineBreakpoint(94, typeName);
+		bp.setEnabled(true);
+
+		IJavaThread thread = null;
+		try {
+			thread= launchToLineBreakpoint(typeName, bp, false);
+			IJavaStackFrame stackFrame = (IJavaStackFrame) thread.getTopStackFrame();
+			stackFrame = (IJavaStackFrame)stepIntoWithFilters(stackFrame).getTopStackFrame();
+			assertEquals("Wrong line number", 95, stackFrame.getLineNumber());
+			// getL() is a simple getter, but getters are no longer filtered
+			getPrefStore().setValue(IJDIPreferencesConstants.PREF_FILTER_GETTERS, false);
+			stackFrame = (IJavaStackFrame)stepIntoWithFilters(stackFrame).getTopStackFrame();
+			assertEquals("Wrong line number", 49, stackFrame.getLineNumber());
+			assertEquals("Should be in getL()", "getL", stackFrame.getMethodName());
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+			resetStepFilters();
+		}
+	}
+
 	/**
 	 * Tests filtering from a contributed filter
 	 *
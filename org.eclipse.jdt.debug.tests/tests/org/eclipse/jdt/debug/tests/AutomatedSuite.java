@@ -79,17 +79,21 @@ import org.eclipse.jdt.debug.tests.core.InstructionPointerTests;
 import org.eclipse.jdt.debug.tests.core.JDWPTests;
 import org.eclipse.jdt.debug.tests.core.JavaDebugTargetTests;
 import org.eclipse.jdt.debug.tests.core.JavaLibraryPathTests;
+import org.eclipse.jdt.debug.tests.core.LambdaVariableNamesCacheTests;
 import org.eclipse.jdt.debug.tests.core.LineTrackerTests;
 import org.eclipse.jdt.debug.tests.core.LiteralTests17;
 import org.eclipse.jdt.debug.tests.core.LocalVariableTests;
 import org.eclipse.jdt.debug.tests.core.ModuleOptionsTests;
+import org.eclipse.jdt.debug.tests.core.MonitorSnapshotTests;
 import org.eclipse.jdt.debug.tests.core.ProcessTests;
 import org.eclipse.jdt.debug.tests.core.RuntimeClasspathEntryTests;
+import org.eclipse.jdt.debug.tests.core.StackFrameWindowTests;
 import org.eclipse.jdt.debug.tests.core.StaticVariableTests;
 import org.eclipse.jdt.debug.tests.core.StratumTests;
 import org.eclipse.jdt.debug.tests.core.StringSubstitutionTests;
 import org.eclipse.jdt.debug.tests.core.TypeTests;
 import org.eclipse.jdt.debug.tests.core.VMInstallTests;
+import org.eclipse.jdt.debug.tests.core.VirtualThreadTests;
 import org.eclipse.jdt.debug.tests.core.WatchExpressionTests;
 import org.eclipse.jdt.debug.tests.core.WorkingDirectoryTests;
 import org.eclipse.jdt.debug.tests.core.WorkspaceSourceContainerTests;
@@ -101,6 +105,13 @@ import org.eclipse.jdt.debug.tests.eval.GenericsEvalTests;
 import org.eclipse.jdt.debug.tests.eval.Java9Tests;
 import org.eclipse.jdt.debug.tests.eval.LambdaVariableTest;
 import org.eclipse.jdt.debug.tests.eval.SyntheticVariableTests;
+import org.eclipse.jdt.debug.tests.jdi.JdwpMetricsTests;
+import org.eclipse.jdt.debug.tests.jdi.JdwpPacketBufferTests;
+import org.eclipse.jdt.debug.tests.jdi.LongHashMapTests;
+import org.eclipse.jdt.debug.tests.jdi.PacketReceiveManagerTests;
+import org.eclipse.jdt.debug.tests.jdi.ReplyCacheTests;
+import org.eclipse.jdt.debug.tests.jdi.SocketChannelConnectionTests;
+import org.eclipse.jdt.debug.tests.jdi.ValueCacheTests;
 import org.eclipse.jdt.debug.tests.launching.ClasspathShortenerTests;
 import org.eclipse.jdt.debug.tests.launching.ConfigurationEncodingTests;
 import org.eclipse.jdt.debug.tests.launching.ConfigurationResourceMappingTests;
@@ -131,6 +142,7 @@ import org.eclipse.jdt.debug.tests.sourcelookup.DefaultSourceContainerTests;
 import org.eclipse.jdt.debug.tests.sourcelookup.DirectorySourceContainerTests;
 import org.eclipse.jdt.debug.tests.sourcelookup.DirectorySourceLookupTests;
 import org.eclipse.jdt.debug.tests.sourcelookup.ExternalArchiveSourceContainerTests;
+import org.eclipse.jdt.debug.tests.sourcelookup.FileHashIndexTests;
 import org.eclipse.jdt.debug.tests.sourcelookup.FolderSourceContainerTests;
 import org.eclipse.jdt.debug.tests.sourcelookup.JarSourceLookupTests;
 import org.eclipse.jdt.debug.tests.sourcelookup.JavaProjectSourceContainerTests;
@@ -212,6 +224,7 @@ public class AutomatedSuite extends DebugSuite {
 		addTest(new TestSuite(TypeResolutionTests.class));
 		addTest(new TestSuite(JarSourceLookupTests.class));
 		addTest(new TestSuite(Bug565462Tests.class));
+		addTest(new TestSuite(FileHashIndexTests.class));
 
 	// Variable tests
 		addTest(new TestSuite(InstanceVariableTests.class));
@@ -275,6 +288,10 @@ public class AutomatedSuite extends DebugSuite {
 		addTest(new TestSuite(JavaDebugTargetTests.class));
 		addTest(new TestSuite(WorkingDirectoryTests.class));
 		addTest(new TestSuite(EventDispatcherTest.class));
+		addTest(new TestSuite(StackFrameWindowTests.class));
+		addTest(new TestSuite(LambdaVariableNamesCacheTests.class));
+		addTest(new TestSuite(VirtualThreadTests.class));
+		addTest(new TestSuite(MonitorSnapshotTests.class));
 		addTest(new TestSuite(SyntheticVariableTests.class));
 
 	// Refactoring tests
@@ -308,6 +325,13 @@ public class AutomatedSuite extends DebugSuite {
 	// JDWP tests
 		addTest(new TestSuite(JDWPTests.class));
 		addTest(new TestSuite(MultipleConnectionsTest.class));
+		addTest(new TestSuite(LongHashMapTests.class));
+		addTest(new TestSuite(ValueCacheTests.class));
+		addTest(new TestSuite(ReplyCacheTests.class));
+		addTest(new TestSuite(JdwpPacketBufferTests.class));
+		addTest(new TestSuite(SocketChannelConnectionTests.class));
+		addTest(new TestSuite(PacketReceiveManagerTests.class));
+		addTest(new TestSuite(JdwpMetricsTests.class));
 	// Refresh state tests
 		addTest(new TestSuite(RefreshStateTests.class));
 
@@ -13,6 +13,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.debug.tests.breakpoints;
 
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.model.IBreakpoint;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.model.IVariable;
@@ -23,6 +27,14 @@ import org.eclipse.jdt.debug.core.IJavaStackFrame;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.tests.AbstractDebugTest;
 import org.eclipse.jdt.debug.tests.TestUtil;
+import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
+import org.eclipse.jdt.internal.debug.core.breakpoints.ConditionEvaluationStatistics;
+import org.eclipse.jdt.internal.debug.core.breakpoints.JavaLineBreakpoint;
+import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
+
+import com.sun.jdi.ClassLoaderReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.VirtualMachine;
 
 /**
  * Tests conditional breakpoints.
@@ -572,4 +584,211 @@ public class ConditionalBreakpointsTests extends AbstractDebugTest {
 			removeAllBreakpoints();
 		}
 	}
+
+	/**
+	 * Tests that a condition shared by threads hitting the same location is evaluated in each of them
+	 *
+	 * @throws Exception
+	 */
+	public void testConditionSharedAcrossThreads() throws Exception {
+		String typeName = "MultiThreadedLoop";
+		IJavaLineBreakpoint bp = createConditionalLineBreakpoint(43, typeName, "i == 5", true);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToLineBreakpoint(typeName, bp);
+			assertEquals("Wrong value of 'i'", 5, ((IJavaPrimitiveValue) findVariable((IJavaStackFrame) thread.getTopStackFrame(), "i").getValue()).getIntValue());
+			String firstName = thread.getName();
+
+			IJavaThread other = resumeToLineBreakpoint(thread, bp);
+			assertFalse("Should suspend in the other thread", firstName.equals(other.getName()));
+			assertEquals("Wrong value of 'i'", 5, ((IJavaPrimitiveValue) findVariable((IJavaStackFrame) other.getTopStackFrame(), "i").getValue()).getIntValue());
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Tests a condition calling a method that is evaluated in the target once the preference is enabled
+	 *
+	 * @throws Exception
+	 */
+	public void testConditionEvaluatedInTarget() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		prefs.putBoolean(JDIDebugPlugin.PREF_EVALUATE_CONDITIONS_IN_TARGET, false);
+		String typeName = "HitCountLooper";
+		// leading whitespace and comments must not keep the condition from being evaluated in the target
+		IJavaLineBreakpoint bp = createConditionalLineBreakpoint(19, typeName, " /* in target */ Integer.toString(i).endsWith(\"3\")", true);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToLineBreakpoint(typeName, bp);
+			IVariable var = findVariable((IJavaStackFrame) thread.getTopStackFrame(), "i");
+			assertNotNull("Could not find variable 'i'", var);
+			int iValue = ((IJavaPrimitiveValue) var.getValue()).getIntValue();
+			assertEquals("value of 'i' should be '3', but was " + iValue, 3, iValue);
+			assertEquals("Condition should have been interpreted", 0, countSnippetClasses(thread, typeName));
+
+			// the condition compiled before must be compiled again to run in the target
+			prefs.putBoolean(JDIDebugPlugin.PREF_EVALUATE_CONDITIONS_IN_TARGET, true);
+			thread = resumeToLineBreakpoint(thread, bp);
+			var = findVariable((IJavaStackFrame) thread.getTopStackFrame(), "i");
+			assertNotNull("Could not find variable 'i'", var);
+			iValue = ((IJavaPrimitiveValue) var.getValue()).getIntValue();
+			assertEquals("value of 'i' should be '13', but was " + iValue, 13, iValue);
+			assertEquals("Condition should have been evaluated in the target", 1, countSnippetClasses(thread, typeName));
+		} finally {
+			prefs.remove(JDIDebugPlugin.PREF_EVALUATE_CONDITIONS_IN_TARGET);
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Returns the number of code snippet classes defined in the class loader of the given type
+	 */
+	private int countSnippetClasses(IJavaThread thread, String typeName) {
+		VirtualMachine vm = ((JDIDebugTarget) thread.getDebugTarget()).getVM();
+		ClassLoaderReference classloader = vm.classesByName(typeName).get(0).classLoader();
+		int count = 0;
+		for (ReferenceType type : vm.allClasses()) {
+			if (type.name().startsWith("CodeSnippet_") && classloader.equals(type.classLoader())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Tests that a thread suspends when its condition does not complete within the evaluation timeout
+	 *
+	 * @throws Exception
+	 */
+	public void testConditionEvaluationTimeout() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		prefs.putInt(JDIDebugPlugin.PREF_CONDITION_EVALUATION_TIMEOUT, 200);
+		String typeName = "HitCountLooper";
+		IJavaLineBreakpoint bp = createConditionalLineBreakpoint(19, typeName, "Thread.sleep(2000); return false;", true);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToLineBreakpoint(typeName, bp);
+
+			ConditionEvaluationStatistics statistics = ((JavaLineBreakpoint) bp).getConditionStatistics();
+			assertEquals("Wrong number of hits", 1, statistics.getHitCount());
+			assertEquals("Wrong number of timeouts", 1, statistics.getTimeoutCount());
+		} finally {
+			prefs.remove(JDIDebugPlugin.PREF_CONDITION_EVALUATION_TIMEOUT);
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Tests that a hit refused by the cap on concurrent condition evaluations suspends by default, and that the condition is evaluated again once
+	 * a permit is available. Changing the cap applies to the running target.
+	 *
+	 * @throws Exception
+	 */
+	public void testConditionEvaluationCap() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		String typeName = "HitCountLooper";
+		createLineBreakpoint(17, typeName);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			prefs.putInt(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS, 1);
+			Semaphore permits = ((JDIDebugTarget) thread.getDebugTarget()).getConditionEvaluationPermits();
+			assertNotNull("Cap should apply to the running target", permits);
+			// an evaluation of another breakpoint holds the only permit
+			permits.acquire();
+			IJavaLineBreakpoint bp = createConditionalLineBreakpoint(19, typeName, "return false;", true);
+
+			thread = resumeToLineBreakpoint(thread, bp);
+			ConditionEvaluationStatistics statistics = ((JavaLineBreakpoint) bp).getConditionStatistics();
+			assertEquals("Wrong number of overloads", 1, statistics.getOverloadCount());
+			assertEquals("Condition should not have been evaluated", 0, statistics.getEvaluationCount());
+
+			permits.release();
+			resumeAndExit(thread);
+			assertEquals("Wrong number of hits", 20, statistics.getHitCount());
+			assertEquals("Wrong number of overloads", 1, statistics.getOverloadCount());
+			assertEquals("Condition should have been evaluated once a permit was available", 19, statistics.getEvaluationCount());
+		} finally {
+			prefs.remove(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS);
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Tests that hits refused by the cap on concurrent condition evaluations do not suspend with the skip policy
+	 *
+	 * @throws Exception
+	 */
+	public void testConditionOverloadSkip() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		prefs.put(JDIDebugPlugin.PREF_CONDITION_OVERLOAD_POLICY, JDIDebugPlugin.CONDITION_OVERLOAD_SKIP);
+		String typeName = "HitCountLooper";
+		createLineBreakpoint(17, typeName);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			prefs.putInt(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS, 1);
+			((JDIDebugTarget) thread.getDebugTarget()).getConditionEvaluationPermits().acquire();
+			IJavaLineBreakpoint bp = createConditionalLineBreakpoint(19, typeName, "return true;", true);
+
+			resumeAndExit(thread);
+			ConditionEvaluationStatistics statistics = ((JavaLineBreakpoint) bp).getConditionStatistics();
+			assertEquals("Wrong number of hits", 20, statistics.getHitCount());
+			assertEquals("Every hit should have been refused", 20, statistics.getOverloadCount());
+			assertEquals("Condition should not have been evaluated", 0, statistics.getEvaluationCount());
+		} finally {
+			prefs.remove(JDIDebugPlugin.PREF_CONDITION_OVERLOAD_POLICY);
+			prefs.remove(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS);
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Tests that one in every {@link JDIDebugPlugin#CONDITION_OVERLOAD_SAMPLE_INTERVAL} hits refused by the cap on concurrent condition
+	 * evaluations suspends with the sample policy
+	 *
+	 * @throws Exception
+	 */
+	public void testConditionOverloadSample() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		prefs.put(JDIDebugPlugin.PREF_CONDITION_OVERLOAD_POLICY, JDIDebugPlugin.CONDITION_OVERLOAD_SAMPLE);
+		String typeName = "HitCountLooper";
+		createLineBreakpoint(17, typeName);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			prefs.putInt(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS, 1);
+			((JDIDebugTarget) thread.getDebugTarget()).getConditionEvaluationPermits().acquire();
+			IJavaLineBreakpoint bp = createConditionalLineBreakpoint(19, typeName, "return false;", true);
+
+			thread = resumeToLineBreakpoint(thread, bp);
+			assertEquals("First refused hit should suspend", 0, ((IJavaPrimitiveValue) findVariable((IJavaStackFrame) thread.getTopStackFrame(), "i").getValue()).getIntValue());
+			thread = resumeToLineBreakpoint(thread, bp);
+			assertEquals("Refused hit after the sample interval should suspend", JDIDebugPlugin.CONDITION_OVERLOAD_SAMPLE_INTERVAL, ((IJavaPrimitiveValue) findVariable((IJavaStackFrame) thread.getTopStackFrame(), "i").getValue()).getIntValue());
+			resumeAndExit(thread);
+			ConditionEvaluationStatistics statistics = ((JavaLineBreakpoint) bp).getConditionStatistics();
+			assertEquals("Every hit should have been refused", 20, statistics.getOverloadCount());
+			assertEquals("Condition should not have been evaluated", 0, statistics.getEvaluationCount());
+		} finally {
+			prefs.remove(JDIDebugPlugin.PREF_CONDITION_OVERLOAD_POLICY);
+			prefs.remove(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS);
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
 }
@@ -82,6 +82,56 @@ public class MethodBreakpointTests extends AbstractDebugTest {
 		}
 	}
 
+	/**
+	 * Tests that an exit breakpoint on a void method suspends at the return of the method
+	 * @throws Exception
+	 */
+	public void testExitBreakpointOnVoidMethod() throws Exception {
+		String typeName = "DropTests";
+		IJavaMethodBreakpoint bp = createMethodBreakpoint(typeName, "method1", "()V", false, true);
+
+		IJavaThread thread= null;
+		try {
+			thread= launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			assertEquals("suspended by wrong breakpoint", bp, getBreakpoint(thread));
+			assertFalse("should be an exit suspend", bp.isEntrySuspend(thread.getDebugTarget()));
+
+			IJavaStackFrame frame = (IJavaStackFrame)thread.getTopStackFrame();
+			assertEquals("Wrong method", "method1", frame.getMethodName());
+			assertEquals("Wrong line number", 24, frame.getLineNumber());
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Tests that a breakpoint on entry and exit of a method whose first
+	 * instruction returns suspends once on entry and once on exit.
+	 */
+	public void testEntryAndExitBreakpointOnEmptyMethod() throws Exception {
+		String typeName = "EmptyMethod";
+		IJavaMethodBreakpoint bp = createMethodBreakpoint(typeName, "empty", "()V", true, true);
+
+		IJavaThread thread= null;
+		try {
+			thread= launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			assertEquals("suspended by wrong breakpoint", bp, getBreakpoint(thread));
+			assertTrue("should be an entry suspend", bp.isEntrySuspend(thread.getDebugTarget()));
+			assertEquals("Wrong method", "empty", ((IJavaStackFrame)thread.getTopStackFrame()).getMethodName());
+
+			thread= resume(thread);
+			assertEquals("suspended by wrong breakpoint", bp, getBreakpoint(thread));
+			assertFalse("should be an exit suspend", bp.isEntrySuspend(thread.getDebugTarget()));
+			assertEquals("Wrong method", "empty", ((IJavaStackFrame)thread.getTopStackFrame()).getMethodName());
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
 	/**
 	 * Tests the 'stop in main' launching preference
 	 * {@link IJavaLaunchConfigurationConstants#ATTR_STOP_IN_MAIN}
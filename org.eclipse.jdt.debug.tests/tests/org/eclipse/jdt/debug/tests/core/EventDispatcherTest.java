@@ -21,6 +21,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
@@ -30,6 +32,7 @@ import org.eclipse.jdt.debug.core.IJavaLineBreakpoint;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.tests.AbstractDebugTest;
 import org.eclipse.jdt.internal.debug.core.EventDispatcher.AbstractDispatchJob;
+import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
 import org.eclipse.jdt.internal.debug.core.model.JDIThread;
 
 public class EventDispatcherTest extends AbstractDebugTest {
@@ -72,6 +75,34 @@ public class EventDispatcherTest extends AbstractDebugTest {
 		// as sanity check, assert expected number of DebugEvent was delivered during the test
 
 		// sanity check: count number of JDIThread thread-create events
+		assertEquals("Unexpected number of JDIThread thread-create events", 1000, launchBulkThreadCreation());
+		assertEquals("Unexpected number of event dispatching jobs: " + jobs.size() + " | " + jobs.keySet(), 0, jobs.size());
+	}
+
+	/**
+	 * Tests that events are dispatched completely and per thread in order when they are dispatched on several worker threads.
+	 *
+	 * @throws Exception
+	 */
+	public void testParallelEventDispatching() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		prefs.putInt(JDIDebugPlugin.PREF_EVENT_DISPATCH_THREADS, 4);
+		try {
+			// each thread must be created before it dies, or its create event would be lost
+			assertEquals("Unexpected number of JDIThread thread-create events", 1000, launchBulkThreadCreation());
+		}
+		finally {
+			prefs.remove(JDIDebugPlugin.PREF_EVENT_DISPATCH_THREADS);
+		}
+		assertEquals("Unexpected number of event dispatching jobs: " + jobs.size() + " | " + jobs.keySet(), 0, jobs.size());
+	}
+
+	/**
+	 * Launches the bulk thread creation test to its breakpoint.
+	 *
+	 * @return the number of JDIThread thread-create events for the created threads
+	 */
+	private int launchBulkThreadCreation() throws Exception {
 		AtomicInteger threadCount = new AtomicInteger();
 		IDebugEventSetListener debugListener = events -> {
 			for (DebugEvent event : events) {
@@ -98,9 +129,7 @@ public class EventDispatcherTest extends AbstractDebugTest {
 			removeAllBreakpoints();
 			DebugPlugin.getDefault().removeDebugEventListener(debugListener);
 		}
-
-		assertEquals("Unexpected number of JDIThread thread-create events", 1000, threadCount.get());
-		assertEquals("Unexpected number of event dispatching jobs: " + jobs.size() + " | " + jobs.keySet(), 0, jobs.size());
+		return threadCount.get();
 	}
 
 	/**
@@ -1292,4 +1292,106 @@ public class HcrTests extends AbstractDebugTest {
 			JDIDebugModel.removeHotCodeReplaceListener(listener);
 		}
 	}
+
+	/**
+	 * Tests that a build that does not change the class files already replaced in a target does not redefine them again.
+	 */
+	public void testNoHcrOfUnchangedClassFile() throws Exception {
+		String typeName = "org.eclipse.debug.tests.targets.HcrClass";
+		createLineBreakpoint(42, typeName);
+		HCRListener listener = new HCRListener();
+		IJavaThread thread = null;
+		ICompilationUnit cu = getHcrClass();
+		String originalContent = cu.getBuffer().getContents();
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+
+			IJavaDebugTarget target = (IJavaDebugTarget) thread.getDebugTarget();
+			if (target.supportsHotCodeReplace()) {
+				target.addHotCodeReplaceListener(listener);
+				removeAllBreakpoints();
+				IBuffer buffer = cu.getBuffer();
+				String contents = buffer.getContents();
+				int index = contents.indexOf("\"One\"");
+				assertTrue("Could not find code to replace", index > 0);
+				buffer.setContents(contents.substring(0, index) + "\"Two\"" + contents.substring(index + 5));
+				cu.commitWorkingCopy(true, null);
+				waitForBuild();
+				assertTrue("Listener should have been notified of the replaced class", listener.waitNotification());
+
+				// a comment after the type does not change the class file
+				HCRListener listener2 = new HCRListener();
+				target.removeHotCodeReplaceListener(listener);
+				target.addHotCodeReplaceListener(listener2);
+				buffer.append("\n// no code change\n");
+				cu.commitWorkingCopy(true, null);
+				waitForBuild();
+				assertFalse("Unchanged class file should not be replaced again", listener2.waitNotification());
+			} else {
+				System.err.println("Warning: HCR test skipped since target VM does not support HCR.");
+			}
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+			cu.getBuffer().setContents(originalContent);
+			cu.commitWorkingCopy(true, null);
+			waitForBuild();
+		}
+	}
+
+	/**
+	 * Tests that code is replaced in every target running the changed type, each target notifying its own listener.
+	 */
+	public void testHcrInSeveralTargets() throws Exception {
+		String typeName = "org.eclipse.debug.tests.targets.HcrClass";
+		createLineBreakpoint(42, typeName);
+		HCRListener listener1 = new HCRListener();
+		HCRListener listener2 = new HCRListener();
+		IJavaThread thread1 = null;
+		IJavaThread thread2 = null;
+		try {
+			thread1 = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread1);
+			thread2 = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread2);
+
+			IJavaDebugTarget target1 = (IJavaDebugTarget) thread1.getDebugTarget();
+			IJavaDebugTarget target2 = (IJavaDebugTarget) thread2.getDebugTarget();
+			assertNotSame("Should run in two targets", target1, target2);
+			if (target1.supportsHotCodeReplace() && target2.supportsHotCodeReplace()) {
+				target1.addHotCodeReplaceListener(listener1);
+				target2.addHotCodeReplaceListener(listener2);
+				removeAllBreakpoints();
+				ICompilationUnit cu = getHcrClass();
+				IBuffer buffer = cu.getBuffer();
+				String contents = buffer.getContents();
+				int index = contents.indexOf("\"One\"");
+				assertTrue("Could not find code to replace", index > 0);
+				buffer.setContents(contents.substring(0, index) + "\"Two\"" + contents.substring(index + 5));
+				cu.commitWorkingCopy(true, null);
+				waitForBuild();
+				assertTrue("First listener should have been notified", listener1.waitNotification());
+				assertTrue("Second listener should have been notified", listener2.waitNotification());
+				assertSame("First listener should be notified of the first target", target1, listener1.target);
+				assertSame("Second listener should be notified of the second target", target2, listener2.target);
+			} else {
+				System.err.println("Warning: HCR test skipped since target VM does not support HCR.");
+			}
+		} finally {
+			terminateAndRemove(thread1);
+			terminateAndRemove(thread2);
+			removeAllBreakpoints();
+		}
+	}
+
+	private ICompilationUnit getHcrClass() throws Exception {
+		ICompilationUnit cu = getCompilationUnit(get14Project(), "src", "org.eclipse.debug.tests.targets", "HcrClass.java");
+		cu = cu.getPrimary();
+		if (!cu.isWorkingCopy()) {
+			cu = cu.getWorkingCopy(null);
+		}
+		assertTrue("HcrClass.java does not exist", cu.exists());
+		return cu;
+	}
 }
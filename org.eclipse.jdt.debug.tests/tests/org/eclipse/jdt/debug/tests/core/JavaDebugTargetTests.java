@@ -19,6 +19,7 @@ import java.lang.reflect.Method;
 import java.util.List;
 
 import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.core.model.IThread;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.debug.core.IJavaDebugTarget;
@@ -26,6 +27,7 @@ import org.eclipse.jdt.debug.core.IJavaLineBreakpoint;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.tests.AbstractDebugTest;
 import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
+import org.eclipse.jdt.internal.debug.core.model.JDIThread;
 
 /**
  * Tests IJavaDebugTarget API
@@ -74,6 +76,40 @@ public class JavaDebugTargetTests extends AbstractDebugTest {
 		}
 	}
 
+	/**
+	 * Tests that every thread of a target is found from its underlying thread
+	 * reference, and that non-system threads are listed first.
+	 */
+	public void testFindThread() throws Exception {
+		String typeName = "MultiThreadedLoop";
+		createLineBreakpoint(43, typeName);
+
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			JDIDebugTarget target = (JDIDebugTarget) thread.getDebugTarget();
+			assertSame("Wrong suspended thread", thread, target.findThread(((JDIThread) thread).getUnderlyingThread()));
+			IThread[] threads = target.getThreads();
+			assertTrue("Missing threads", threads.length > 1);
+			boolean systemThreads = false;
+			for (IThread t : threads) {
+				JDIThread jdiThread = (JDIThread) t;
+				assertSame("Wrong thread found", jdiThread, target.findThread(jdiThread.getUnderlyingThread()));
+				if (jdiThread.isSystemThread()) {
+					systemThreads = true;
+				} else {
+					assertFalse("Non-system thread listed after system threads", systemThreads);
+				}
+			}
+			threads[0] = null;
+			assertNotNull("Threads returned should be a copy", target.getThreads()[0]);
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
 	public void testIsAvailable() throws Exception {
 		String typeName = "Breakpoints";
 		createLineBreakpoint(55, typeName);
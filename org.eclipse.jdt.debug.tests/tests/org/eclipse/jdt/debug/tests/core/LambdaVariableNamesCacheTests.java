@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.core;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.internal.debug.core.model.LambdaVariableNamesCache;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the cache of the captured variable names of lambda methods.
+ */
+public class LambdaVariableNamesCacheTests extends TestCase {
+
+	public LambdaVariableNamesCacheTests(String name) {
+		super(name);
+	}
+
+	private static String key(int line) {
+		return LambdaVariableNamesCache.getKey("=Project/src<p{A.java", "p.A", "lambda$0", "(I)V", line, 1);
+	}
+
+	private static List<String[]> names(String name) {
+		return Collections.singletonList(new String[] { name });
+	}
+
+	/**
+	 * Tests that the least recently used entry is evicted once the cache is full.
+	 */
+	public void testEvictLeastRecentlyUsed() {
+		LambdaVariableNamesCache cache = new LambdaVariableNamesCache(3);
+		List<String[]> first = names("a");
+		cache.put(key(1), first);
+		cache.put(key(2), names("b"));
+		cache.put(key(3), names("c"));
+		// reading the first entry makes the second one the least recently used
+		assertSame("Wrong names", first, cache.get(key(1)));
+		cache.put(key(4), names("d"));
+		assertEquals("Cache should keep its maximum size", 3, cache.size());
+		assertNull("Least recently used entry should be evicted", cache.get(key(2)));
+		assertSame("Recently read entry should be kept", first, cache.get(key(1)));
+		assertNotNull("Recent entry should be kept", cache.get(key(3)));
+		assertNotNull("New entry should be kept", cache.get(key(4)));
+	}
+
+	/**
+	 * Tests that names are looked up again once the source changes.
+	 */
+	public void testKeyChangesWithSource() {
+		String key = key(1);
+		assertEquals("Key should be stable", key, key(1));
+		assertFalse("Key should change with the modification stamp", key.equals(LambdaVariableNamesCache.getKey("=Project/src<p{A.java", "p.A", "lambda$0", "(I)V", 1, 2)));
+		assertFalse("Key should change with the method", key.equals(LambdaVariableNamesCache.getKey("=Project/src<p{A.java", "p.A", "lambda$1", "(I)V", 1, 1)));
+		assertFalse("Key should change with the line", key.equals(key(2)));
+
+		LambdaVariableNamesCache cache = new LambdaVariableNamesCache(3);
+		cache.put(key, names("a"));
+		assertNull("Names of an older source should not be found", cache.get(LambdaVariableNamesCache.getKey("=Project/src<p{A.java", "p.A", "lambda$0", "(I)V", 1, 2)));
+	}
+
+	/**
+	 * Tests concurrent use of the cache, which is shared by all stack frames.
+	 */
+	public void testConcurrentAccess() throws Exception {
+		final LambdaVariableNamesCache cache = new LambdaVariableNamesCache(64);
+		Thread[] threads = new Thread[8];
+		final Throwable[] error = new Throwable[1];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				try {
+					for (int i = 0; i < 10000; i++) {
+						String key = key(i % 100);
+						List<String[]> names = cache.get(key);
+						if (names == null) {
+							cache.put(key, names(key));
+						} else if (!key.equals(names.get(0)[0])) {
+							throw new AssertionError("Wrong names for " + key);
+						}
+					}
+				} catch (Throwable e) {
+					error[0] = e;
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull("Concurrent access failed: " + error[0], error[0]);
+		assertEquals("Cache should keep its maximum size", 64, cache.size());
+	}
+}
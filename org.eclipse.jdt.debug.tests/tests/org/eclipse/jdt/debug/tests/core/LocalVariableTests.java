@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.debug.tests.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.debug.core.model.ILineBreakpoint;
 import org.eclipse.debug.core.model.IValue;
 import org.eclipse.debug.core.model.IVariable;
@@ -124,6 +127,52 @@ public class LocalVariableTests extends AbstractDebugTest implements IValueDetai
 		}
 	}
 
+	/**
+	 * Tests that the values of locals retrieved together with the variables of a frame are current after steps.
+	 */
+	public void testPrefetchedValues() throws Exception {
+		String typeName = "LocalVariablesTests";
+
+		ILineBreakpoint bp = createLineBreakpoint(23, typeName);
+
+		IJavaThread thread= null;
+		try {
+			thread= launchToLineBreakpoint(typeName, bp);
+
+			IJavaStackFrame frame = (IJavaStackFrame)thread.getTopStackFrame();
+			List<IJavaVariable> vars = getLocals(frame);
+			assertEquals("Should be one visible local", 1, vars.size());
+
+			stepOver(frame);
+			frame = (IJavaStackFrame)thread.getTopStackFrame();
+			stepOver(frame);
+			frame = (IJavaStackFrame)thread.getTopStackFrame();
+
+			vars = getLocals(frame);
+			assertEquals("Should be two visible locals", 2, vars.size());
+			assertEquals("Visible var 1 should be 'i1'", "i1", vars.get(0).getName());
+			assertEquals("Wrong value of i1", "0", vars.get(0).getValue().getValueString());
+			assertEquals("Visible var 2 should be 'i2'", "i2", vars.get(1).getName());
+			assertEquals("Wrong value of i2", "1", vars.get(1).getValue().getValueString());
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Returns the local variables among the variables of the given frame.
+	 */
+	private List<IJavaVariable> getLocals(IJavaStackFrame frame) throws Exception {
+		List<IJavaVariable> locals = new ArrayList<>();
+		for (IVariable var : frame.getVariables()) {
+			if (((IJavaVariable) var).isLocal()) {
+				locals.add((IJavaVariable) var);
+			}
+		}
+		return locals;
+	}
+
 	public void testEvaluationAssignments() throws Exception {
 		String typeName = "LocalVariablesTests";
 
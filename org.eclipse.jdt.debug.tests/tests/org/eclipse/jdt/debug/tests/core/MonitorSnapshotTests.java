@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.core;
+
+import org.eclipse.jdt.debug.core.IJavaDebugTarget;
+import org.eclipse.jdt.debug.core.IJavaMonitorSnapshot;
+import org.eclipse.jdt.debug.core.IJavaObject;
+import org.eclipse.jdt.debug.core.IJavaThread;
+import org.eclipse.jdt.debug.tests.AbstractDebugTest;
+
+/**
+ * Tests the monitor snapshot of a debug target.
+ */
+public class MonitorSnapshotTests extends AbstractDebugTest {
+
+	public MonitorSnapshotTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that the snapshot reports the cycle of two threads waiting for the monitor owned by the other one.
+	 */
+	public void testDeadlock() throws Exception {
+		String typeName = "MonitorDeadlock";
+		createLineBreakpoint(28, typeName);
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			IJavaDebugTarget target = (IJavaDebugTarget) thread.getDebugTarget();
+			if (!target.supportsMonitorInformation()) {
+				return;
+			}
+			target.suspend();
+
+			IJavaMonitorSnapshot snapshot = target.getMonitorSnapshot();
+			IJavaThread one = findThread(snapshot, "DeadlockOne");
+			IJavaThread two = findThread(snapshot, "DeadlockTwo");
+
+			IJavaThread[][] deadlocks = snapshot.getDeadlocks();
+			assertEquals("Wrong number of deadlocks", 1, deadlocks.length);
+			assertEquals("Wrong number of deadlocked threads", 2, deadlocks[0].length);
+			assertTrue("Thread one should be in the deadlock", deadlocks[0][0] == one || deadlocks[0][1] == one);
+			assertTrue("Thread two should be in the deadlock", deadlocks[0][0] == two || deadlocks[0][1] == two);
+			assertTrue("Thread one should be deadlocked", snapshot.isInDeadlock(one));
+			assertTrue("Thread two should be deadlocked", snapshot.isInDeadlock(two));
+			assertFalse("Breakpoint thread should not be deadlocked", snapshot.isInDeadlock(thread));
+
+			IJavaObject monitor = snapshot.getContendedMonitor(one);
+			assertNotNull("Thread one should wait for a monitor", monitor);
+			assertSame("Thread two should own the monitor thread one waits for", two, snapshot.getOwningThread(monitor));
+			assertTrue("Monitor should be deadlocked", snapshot.isInDeadlock(monitor));
+			IJavaThread[] contending = snapshot.getContendingThreads(monitor);
+			assertEquals("Wrong number of contending threads", 1, contending.length);
+			assertSame("Thread one should contend for the monitor", one, contending[0]);
+			IJavaObject[] owned = snapshot.getOwnedMonitors(two);
+			assertEquals("Thread two should own one monitor", 1, owned.length);
+			assertEquals("Thread two should own the monitor thread one waits for", monitor, owned[0]);
+			assertNull("Breakpoint thread should not wait for a monitor", snapshot.getContendedMonitor(thread));
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	private IJavaThread findThread(IJavaMonitorSnapshot snapshot, String name) throws Exception {
+		for (IJavaThread thread : snapshot.getThreads()) {
+			if (name.equals(thread.getName())) {
+				return thread;
+			}
+		}
+		fail("Thread " + name + " should be part of the snapshot");
+		return null;
+	}
+}
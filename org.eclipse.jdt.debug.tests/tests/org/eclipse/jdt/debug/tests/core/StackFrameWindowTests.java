@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.core;
+
+import org.eclipse.debug.core.model.IStackFrame;
+import org.eclipse.jdt.debug.core.IJavaStackFrame;
+import org.eclipse.jdt.debug.core.IJavaThread;
+import org.eclipse.jdt.debug.tests.AbstractDebugTest;
+import org.eclipse.jdt.internal.debug.core.model.JDIThread;
+
+/**
+ * Tests retrieving the stack frames of a deep stack by range.
+ */
+public class StackFrameWindowTests extends AbstractDebugTest {
+
+	public StackFrameWindowTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that frames retrieved by range are the frames of the complete stack, and keep their identity once the rest of the stack is
+	 * retrieved.
+	 */
+	public void testFramesByRange() throws Exception {
+		String typeName = "DeepRecursion";
+		createLineBreakpoint(23, typeName);
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			JDIThread jdiThread = (JDIThread) thread;
+
+			int count = jdiThread.getFrameCount();
+			assertTrue("Stack should be deeper than 500 frames: " + count, count > 500);
+			IStackFrame[] top = jdiThread.getStackFrames(0, 10);
+			assertEquals("Wrong number of top frames", 10, top.length);
+			assertSame("Wrong top frame", thread.getTopStackFrame(), top[0]);
+			IStackFrame[] deep = jdiThread.getStackFrames(400, 10);
+			assertEquals("Wrong number of deep frames", 10, deep.length);
+			IStackFrame[] bottom = jdiThread.getStackFrames(count - 5, 10);
+			assertEquals("Wrong number of bottom frames", 5, bottom.length);
+			assertEquals("Bottom frame should be main", "main", ((IJavaStackFrame) bottom[4]).getMethodName());
+			assertEquals("No frames expected below the stack", 0, jdiThread.getStackFrames(count, 10).length);
+
+			IStackFrame[] all = thread.getStackFrames();
+			assertEquals("Wrong number of frames", count, all.length);
+			for (int i = 0; i < top.length; i++) {
+				assertSame("Top frame " + i + " should be retained", all[i], top[i]);
+			}
+			for (int i = 0; i < deep.length; i++) {
+				assertSame("Deep frame " + i + " should be retained", all[400 + i], deep[i]);
+			}
+			for (int i = 0; i < bottom.length; i++) {
+				assertSame("Bottom frame " + i + " should be retained", all[count - 5 + i], bottom[i]);
+			}
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	/**
+	 * Tests stepping out of a frame below the top frame of a deep stack, which locates the frame by its depth rather than in the complete
+	 * stack.
+	 */
+	public void testStepInDeepStack() throws Exception {
+		String typeName = "DeepRecursion";
+		createLineBreakpoint(23, typeName);
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			JDIThread jdiThread = (JDIThread) thread;
+
+			int count = jdiThread.getFrameCount();
+			IJavaStackFrame frame = (IJavaStackFrame) jdiThread.getStackFrames(2, 1)[0];
+			assertTrue("Should be able to step out of a frame below the top", frame.canStepReturn());
+			assertTrue("Should be able to drop to a frame below the top", frame.canDropToFrame());
+			thread = stepReturn(frame);
+			assertEquals("Should have returned from three frames", count - 3, ((JDIThread) thread).getFrameCount());
+		} finally {
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.core;
+
+import java.util.List;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.model.IThread;
+import org.eclipse.jdt.debug.core.IJavaThread;
+import org.eclipse.jdt.debug.tests.AbstractDebugTest;
+import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
+import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
+import org.eclipse.jdt.internal.debug.core.model.JDIThread;
+
+/**
+ * Tests that virtual threads are added to the debug target on demand in virtual thread mode.
+ */
+public class VirtualThreadTests extends AbstractDebugTest {
+
+	public VirtualThreadTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that only the virtual thread suspended on a breakpoint is added to the target, that it is found again for its thread reference,
+	 * and that listing virtual threads only adds the threads of the requested page.
+	 */
+	public void testVirtualThreadsAddedOnDemand() throws Exception {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(JDIDebugPlugin.getUniqueIdentifier());
+		prefs.putBoolean(JDIDebugPlugin.PREF_VIRTUAL_THREAD_MODE, true);
+		String typeName = "VirtualThreads";
+		createLineBreakpoint(24, typeName);
+		IJavaThread thread = null;
+		try {
+			thread = launchToBreakpoint(typeName);
+			assertNotNull("Breakpoint not hit within timeout period", thread);
+			JDIDebugTarget target = (JDIDebugTarget) thread.getDebugTarget();
+			if (!target.isVirtualThreadMode()) {
+				// the target VM has no virtual threads
+				return;
+			}
+			JDIThread jdiThread = (JDIThread) thread;
+			assertTrue("Suspended thread should be virtual", jdiThread.isVirtual());
+			assertSame("Thread should be found for its reference", jdiThread, target.findOrCreateThread(jdiThread.getUnderlyingThread()));
+			assertEquals("Only the suspended virtual thread should have been added", 1, countVirtualThreads(target));
+
+			List<JDIThread> page = target.getVirtualThreads(0, 1);
+			assertTrue("Page should hold at most one thread: " + page.size(), page.size() <= 1);
+			for (JDIThread virtual : page) {
+				assertTrue("Listed thread should be virtual", virtual.isVirtual());
+				assertSame("Listed thread should be found for its reference", virtual, target.findOrCreateThread(virtual.getUnderlyingThread()));
+			}
+			assertTrue("Only the threads of the page should have been added", countVirtualThreads(target) <= 2);
+			List<JDIThread> next = target.getVirtualThreads(1, 1);
+			if (!page.isEmpty() && !next.isEmpty()) {
+				assertNotSame("Pages should not overlap", page.get(0), next.get(0));
+			}
+		} finally {
+			prefs.remove(JDIDebugPlugin.PREF_VIRTUAL_THREAD_MODE);
+			terminateAndRemove(thread);
+			removeAllBreakpoints();
+		}
+	}
+
+	private int countVirtualThreads(JDIDebugTarget target) {
+		int count = 0;
+		for (IThread thread : target.getThreads()) {
+			if (((JDIThread) thread).isVirtual()) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdi.internal.JdwpCommandStatistics;
+import org.eclipse.jdi.internal.JdwpMetrics;
+import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the statistics of JDWP commands.
+ */
+public class JdwpMetricsTests extends TestCase {
+
+	public JdwpMetricsTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that commands received from the VM count towards the commands but not towards the mean latency.
+	 */
+	public void testMeanOfRequestsOnly() {
+		JdwpMetrics metrics = new JdwpMetrics();
+		metrics.recordRequest(JdwpCommandPacket.E_COMPOSITE, 11, 11, TimeUnit.MICROSECONDS.toNanos(100));
+		metrics.recordRequest(JdwpCommandPacket.E_COMPOSITE, 11, 11, TimeUnit.MICROSECONDS.toNanos(300));
+		metrics.recordCommandFromVM(JdwpCommandPacket.E_COMPOSITE, 50);
+		metrics.recordCommandFromVM(JdwpCommandPacket.E_COMPOSITE, 50);
+
+		JdwpCommandStatistics[] statistics = metrics.getCommandStatistics();
+		assertEquals("Wrong number of commands", 1, statistics.length);
+		assertEquals("Wrong count", 4, statistics[0].getCount());
+		assertEquals("Wrong number of requests", 2, statistics[0].getRequests());
+		assertEquals("Wrong mean latency", 200, statistics[0].getMeanMicros());
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+import org.eclipse.jdi.internal.jdwp.JdwpPacket;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests building JDWP packets in pooled buffers.
+ */
+public class JdwpPacketBufferTests extends TestCase {
+
+	public JdwpPacketBufferTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Takes all buffers out of the pool, so the next buffer acquired is the next one released.
+	 */
+	private static void drainPool() {
+		List<JdwpPacketBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			buffers.add(JdwpPacketBuffer.acquire());
+		}
+	}
+
+	/**
+	 * Tests that a packet built in a buffer carries the written data, and that the buffer is reused empty once the packet was sent.
+	 */
+	public void testReuseAfterRelease() throws Exception {
+		drainPool();
+		JdwpPacketBuffer buffer = JdwpPacketBuffer.acquire();
+		buffer.writeInt(0x01020304);
+		buffer.writeID(0x0506, 2);
+		JdwpCommandPacket packet = new JdwpCommandPacket(JdwpCommandPacket.VM_VERSION);
+		packet.setData(buffer);
+		assertEquals("Wrong data length", 6, packet.getDataLength());
+		assertTrue("Wrong data", Arrays.equals(new byte[] { 1, 2, 3, 4, 5, 6 }, packet.data()));
+
+		byte[] bytes = packet.getPacketAsBytes();
+		assertEquals("Wrong packet length", 17, bytes.length);
+		JdwpPacket read = JdwpPacket.build(bytes);
+		assertEquals("Wrong packet id", packet.getId(), read.getId());
+		assertTrue("Wrong data read back", Arrays.equals(new byte[] { 1, 2, 3, 4, 5, 6 }, read.data()));
+
+		packet.releaseBuffer();
+		JdwpPacketBuffer reused = JdwpPacketBuffer.acquire();
+		assertSame("Released buffer should be reused", buffer, reused);
+		assertEquals("Reused buffer should be empty", 0, reused.dataLength());
+		assertEquals("Sent packet should keep its length", 6, packet.getDataLength());
+	}
+
+	/**
+	 * Tests that the data of a sent packet can no longer be read once its buffer was released.
+	 */
+	public void testDataAfterRelease() throws Exception {
+		JdwpPacketBuffer buffer = JdwpPacketBuffer.acquire();
+		buffer.writeInt(42);
+		JdwpCommandPacket packet = new JdwpCommandPacket(JdwpCommandPacket.VM_VERSION);
+		packet.setData(buffer);
+		packet.releaseBuffer();
+		try {
+			packet.data();
+			fail("Data of a released packet should not be available");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			packet.getPacketAsBytes();
+			fail("Bytes of a released packet should not be available");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		packet.setData(new byte[] { 7 });
+		assertTrue("Data assigned after release should be available", Arrays.equals(new byte[] { 7 }, packet.data()));
+	}
+
+	/**
+	 * Tests that a buffer that grew large is not pooled.
+	 */
+	public void testLargeBufferNotPooled() {
+		drainPool();
+		JdwpPacketBuffer buffer = JdwpPacketBuffer.acquire();
+		byte[] data = new byte[128 * 1024];
+		buffer.writeBytes(data, 0, data.length);
+		JdwpCommandPacket packet = new JdwpCommandPacket(JdwpCommandPacket.VM_VERSION);
+		packet.setData(buffer);
+		assertEquals("Wrong data length", data.length, packet.getDataLength());
+		packet.releaseBuffer();
+		assertNotSame("Large buffer should not be reused", buffer, JdwpPacketBuffer.acquire());
+	}
+}
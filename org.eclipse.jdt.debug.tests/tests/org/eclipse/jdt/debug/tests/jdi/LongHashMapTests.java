@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jdi.internal.LongHashMap;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the map from JDWP ID values to mirrors.
+ */
+public class LongHashMapTests extends TestCase {
+
+	public LongHashMapTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests put, get and remove, including the key 0 and negative keys.
+	 */
+	public void testPutGetRemove() {
+		LongHashMap<String> map = new LongHashMap<>();
+		assertTrue("New map should be empty", map.isEmpty());
+		assertNull("No previous value expected", map.put(0, "zero"));
+		assertNull("No previous value expected", map.put(-1, "minus one"));
+		assertNull("No previous value expected", map.put(Long.MIN_VALUE, "min"));
+		assertEquals("Wrong size", 3, map.size());
+		assertEquals("Wrong value for key 0", "zero", map.get(0));
+		assertEquals("Wrong value for key -1", "minus one", map.get(-1));
+		assertEquals("Wrong value for Long.MIN_VALUE", "min", map.get(Long.MIN_VALUE));
+		assertNull("Unknown key should have no value", map.get(1));
+
+		assertEquals("Put should return the replaced value", "zero", map.put(0, "nil"));
+		assertEquals("Replacing should not change the size", 3, map.size());
+		assertEquals("Remove should return the removed value", "nil", map.remove(0));
+		assertNull("Removed key should have no value", map.get(0));
+		assertNull("Removing an unknown key should return null", map.remove(0));
+		assertEquals("Wrong size after remove", 2, map.size());
+
+		map.clear();
+		assertTrue("Cleared map should be empty", map.isEmpty());
+		assertNull("Cleared map should have no values", map.get(-1));
+	}
+
+	/**
+	 * Tests that entries are found after the map grew and after other entries of the same probe sequences were removed.
+	 */
+	public void testGrowAndRemove() {
+		LongHashMap<Long> map = new LongHashMap<>(4);
+		int count = 10000;
+		for (long key = 0; key < count; key++) {
+			// IDs of one VM often differ only in a few bits
+			map.put(key << 8, Long.valueOf(key));
+		}
+		assertEquals("Wrong size after growing", count, map.size());
+		for (long key = 0; key < count; key += 2) {
+			assertEquals("Wrong removed value", Long.valueOf(key), map.remove(key << 8));
+		}
+		assertEquals("Wrong size after removal", count / 2, map.size());
+		for (long key = 0; key < count; key++) {
+			Long value = map.get(key << 8);
+			if (key % 2 == 0) {
+				assertNull("Removed key " + key + " should have no value", value);
+			} else {
+				assertEquals("Wrong value for key " + key, Long.valueOf(key), value);
+			}
+		}
+		Set<Long> values = new HashSet<>(map.values());
+		assertEquals("Wrong number of values", count / 2, values.size());
+		for (long key = 1; key < count; key += 2) {
+			assertTrue("Missing value " + key, values.contains(Long.valueOf(key)));
+		}
+	}
+}
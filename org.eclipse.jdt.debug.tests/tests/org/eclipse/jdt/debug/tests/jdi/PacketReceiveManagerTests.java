@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdi.Bootstrap;
+import org.eclipse.jdi.TimeoutException;
+import org.eclipse.jdi.internal.VirtualMachineImpl;
+import org.eclipse.jdi.internal.connect.PacketReceiveManager;
+import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
+
+import com.sun.jdi.VMDisconnectedException;
+import com.sun.jdi.connect.spi.ClosedConnectionException;
+import com.sun.jdi.connect.spi.Connection;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests how replies from the target VM are handed to their requesters. Replies are delivered through an in-memory connection instead of a
+ * target VM.
+ */
+public class PacketReceiveManagerTests extends TestCase {
+
+	/**
+	 * Connection that reads the packets given to {@link #deliver(byte[])} and discards written packets.
+	 */
+	static class QueueConnection extends Connection {
+		private static final byte[] CLOSED = new byte[0];
+		private final BlockingQueue<byte[]> fPackets = new LinkedBlockingQueue<>();
+		private volatile boolean fOpen = true;
+
+		void deliver(byte[] packet) {
+			fPackets.add(packet);
+		}
+
+		@Override
+		public byte[] readPacket() throws IOException {
+			try {
+				byte[] packet = fPackets.take();
+				if (packet == CLOSED) {
+					throw new ClosedConnectionException();
+				}
+				return packet;
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+		}
+
+		@Override
+		public void writePacket(byte[] packet) throws IOException {
+			if (!fOpen) {
+				throw new ClosedConnectionException();
+			}
+		}
+
+		@Override
+		public void close() {
+			fOpen = false;
+			fPackets.add(CLOSED);
+		}
+
+		@Override
+		public boolean isOpen() {
+			return fOpen;
+		}
+	}
+
+	private QueueConnection fConnection;
+	private VirtualMachineImpl fVM;
+
+	public PacketReceiveManagerTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fConnection = new QueueConnection();
+		fVM = (VirtualMachineImpl) Bootstrap.virtualMachineManager().createVirtualMachine(fConnection);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fConnection.close();
+		super.tearDown();
+	}
+
+	/**
+	 * @return a reply packet with the given id
+	 */
+	static byte[] reply(int id) {
+		ByteBuffer packet = ByteBuffer.allocate(15);
+		packet.putInt(15).putInt(id).put((byte) 0x80).putShort((short) 0).putInt(id);
+		return packet.array();
+	}
+
+	private PacketReceiveManager manager() {
+		return fVM.packetReceiveManager();
+	}
+
+	/**
+	 * Tests that a reply that arrives before it is asked for is handed out.
+	 */
+	public void testReplyBeforeRequest() throws Exception {
+		fConnection.deliver(reply(1001));
+		JdwpReplyPacket reply = manager().getReply(1001, 5000);
+		assertEquals("Wrong reply", 1001, reply.getId());
+		assertEquals("Wrong reply data", 1001, reply.dataInStream().readInt());
+	}
+
+	/**
+	 * Tests that a requester waiting for its reply gets it once it arrives, and other replies do not interfere.
+	 */
+	public void testReplyWhileWaiting() throws Exception {
+		Thread vm = new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+			}
+			fConnection.deliver(reply(1003));
+			fConnection.deliver(reply(1002));
+		});
+		vm.start();
+		assertEquals("Wrong reply", 1002, manager().getReply(1002, 5000).getId());
+		assertEquals("Wrong reply", 1003, manager().getReply(1003, 5000).getId());
+		vm.join();
+	}
+
+	/**
+	 * Tests that a reply arriving after its request timed out is discarded rather than kept for a later request.
+	 */
+	public void testLateReplyDiscarded() throws Exception {
+		try {
+			manager().getReply(1004, 50);
+			fail("Request should time out");
+		} catch (TimeoutException e) {
+			// expected
+		}
+		fConnection.deliver(reply(1004));
+		// replies are read in order, so the late reply was handled once the next one is handed out
+		fConnection.deliver(reply(1005));
+		assertEquals("Wrong reply", 1005, manager().getReply(1005, 5000).getId());
+		try {
+			manager().getReply(1004, 50);
+			fail("Late reply should have been discarded");
+		} catch (TimeoutException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that a requester waiting for its reply is released when the connection closes.
+	 */
+	public void testDisconnectWhileWaiting() throws Exception {
+		Thread vm = new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+			}
+			fConnection.close();
+		});
+		vm.start();
+		long start = System.currentTimeMillis();
+		try {
+			manager().getReply(1006, 30000);
+			fail("Request should fail on disconnect");
+		} catch (VMDisconnectedException e) {
+			// expected
+		}
+		assertTrue("Requester should be released on disconnect", System.currentTimeMillis() - start < 20000);
+		vm.join();
+	}
+
+	/**
+	 * Tests that an asynchronous request is completed with its reply.
+	 */
+	public void testAsyncReply() throws Exception {
+		JdwpCommandPacket command = new JdwpCommandPacket(JdwpCommandPacket.VM_VERSION);
+		CompletableFuture<JdwpReplyPacket> reply = manager().getReplyAsync(command);
+		fConnection.deliver(reply(command.getId()));
+		assertEquals("Wrong reply", command.getId(), reply.get(5000, TimeUnit.MILLISECONDS).getId());
+	}
+
+	/**
+	 * Tests that an asynchronous request without reply times out, and its late reply is discarded.
+	 */
+	public void testAsyncTimeout() throws Exception {
+		fVM.setRequestTimeout(50);
+		JdwpCommandPacket command = new JdwpCommandPacket(JdwpCommandPacket.VM_VERSION);
+		CompletableFuture<JdwpReplyPacket> reply = manager().getReplyAsync(command);
+		try {
+			reply.get(5000, TimeUnit.MILLISECONDS);
+			fail("Request should time out");
+		} catch (ExecutionException e) {
+			assertTrue("Request should time out", e.getCause() instanceof TimeoutException);
+		}
+		fConnection.deliver(reply(command.getId()));
+		fConnection.deliver(reply(1007));
+		assertEquals("Wrong reply", 1007, manager().getReply(1007, 5000).getId());
+		try {
+			manager().getReply(command.getId(), 50);
+			fail("Late reply should have been discarded");
+		} catch (TimeoutException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that an asynchronous request does not time out if the request timeout is not positive.
+	 */
+	public void testAsyncNoTimeout() throws Exception {
+		fVM.setRequestTimeout(0);
+		JdwpCommandPacket command = new JdwpCommandPacket(JdwpCommandPacket.VM_VERSION);
+		CompletableFuture<JdwpReplyPacket> reply = manager().getReplyAsync(command);
+		Thread.sleep(200);
+		assertFalse("Request should still wait for its reply", reply.isDone());
+		fConnection.deliver(reply(command.getId()));
+		assertEquals("Wrong reply", command.getId(), reply.get(5000, TimeUnit.MILLISECONDS).getId());
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import org.eclipse.jdi.internal.ReplyCache;
+import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the cache of replies to type queries, in particular that redefinition and hot code replace discard them.
+ */
+public class ReplyCacheTests extends TestCase {
+
+	private static final long TYPE = 42;
+	private static final long OTHER_TYPE = 43;
+	private static final long METHOD = 7;
+
+	public ReplyCacheTests(String name) {
+		super(name);
+	}
+
+	private static JdwpReplyPacket reply(int errorCode) {
+		JdwpReplyPacket reply = new JdwpReplyPacket();
+		reply.setErrorCode((short) errorCode);
+		reply.setData(new byte[] { 1, 2, 3 });
+		return reply;
+	}
+
+	/**
+	 * Tests that replies are cached per command, type and member.
+	 */
+	public void testPutGet() {
+		ReplyCache cache = new ReplyCache();
+		JdwpReplyPacket lines = reply(JdwpReplyPacket.NONE);
+		JdwpReplyPacket variables = reply(JdwpReplyPacket.ABSENT_INFORMATION);
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD, cache.epoch(), lines);
+		cache.put(JdwpCommandPacket.M_VARIABLE_TABLE, TYPE, METHOD, cache.epoch(), variables);
+		assertSame("Wrong line table", lines, cache.get(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD));
+		assertSame("Absent information should be cached", variables, cache.get(JdwpCommandPacket.M_VARIABLE_TABLE, TYPE, METHOD));
+		assertNull("Other member should not be cached", cache.get(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD + 1));
+		assertNull("Other type should not be cached", cache.get(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD));
+	}
+
+	/**
+	 * Tests that errors that may not persist are not cached.
+	 */
+	public void testErrorNotCached() {
+		ReplyCache cache = new ReplyCache();
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD, cache.epoch(), reply(JdwpReplyPacket.INVALID_CLASS));
+		assertNull("Error reply should not be cached", cache.get(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD));
+	}
+
+	/**
+	 * Tests that redefining a type discards its replies only, as done when classes are redefined.
+	 */
+	public void testInvalidateOnRedefine() {
+		ReplyCache cache = new ReplyCache();
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD, cache.epoch(), reply(JdwpReplyPacket.NONE));
+		JdwpReplyPacket other = reply(JdwpReplyPacket.NONE);
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD, cache.epoch(), other);
+		cache.invalidate(TYPE);
+		assertNull("Replies of the redefined type should be discarded", cache.get(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD));
+		assertSame("Replies of other types should be kept", other, cache.get(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD));
+	}
+
+	/**
+	 * Tests that a reply to a command sent before a redefinition is not cached after it.
+	 */
+	public void testStaleReplyNotCached() {
+		ReplyCache cache = new ReplyCache();
+		long epoch = cache.epoch();
+		// the type is redefined while the command is in flight
+		cache.invalidate(TYPE);
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD, epoch, reply(JdwpReplyPacket.NONE));
+		assertNull("Reply from before the redefinition should not be cached", cache.get(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD));
+
+		epoch = cache.epoch();
+		// a hot code replace that does not name the replaced types clears the cache
+		cache.clear();
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD, epoch, reply(JdwpReplyPacket.NONE));
+		assertNull("Reply from before the hot code replace should not be cached", cache.get(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD));
+	}
+
+	/**
+	 * Tests that clearing the cache, as done after a hot code replace that does not name the replaced types, discards all replies.
+	 */
+	public void testClearOnHotCodeReplace() {
+		ReplyCache cache = new ReplyCache();
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD, cache.epoch(), reply(JdwpReplyPacket.NONE));
+		cache.put(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD, cache.epoch(), reply(JdwpReplyPacket.NONE));
+		cache.clear();
+		assertNull("Replies should be discarded", cache.get(JdwpCommandPacket.M_LINE_TABLE, TYPE, METHOD));
+		assertNull("Replies should be discarded", cache.get(JdwpCommandPacket.M_LINE_TABLE, OTHER_TYPE, METHOD));
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.eclipse.jdi.internal.connect.SocketChannelConnection;
+import org.eclipse.jdi.internal.connect.SocketTransportService;
+
+import com.sun.jdi.connect.spi.ClosedConnectionException;
+import com.sun.jdi.connect.spi.Connection;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests reading and writing JDWP packets through a {@link SocketChannelConnection}, with a plain socket standing in for the target VM.
+ */
+public class SocketChannelConnectionTests extends TestCase {
+
+	private static final byte[] HANDSHAKE = "JDWP-Handshake".getBytes(); //$NON-NLS-1$
+
+	private String fEnabled;
+	private ServerSocket fServer;
+	private Socket fVM;
+	private Connection fConnection;
+
+	public SocketChannelConnectionTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fEnabled = System.getProperty(SocketChannelConnection.ENABLE_PROPERTY);
+		System.setProperty(SocketChannelConnection.ENABLE_PROPERTY, "true"); //$NON-NLS-1$
+		fServer = new ServerSocket(0);
+		Thread vm = new Thread(() -> {
+			try {
+				Socket socket = fServer.accept();
+				byte[] handshake = new byte[HANDSHAKE.length];
+				new DataInputStream(socket.getInputStream()).readFully(handshake);
+				socket.getOutputStream().write(HANDSHAKE);
+				fVM = socket;
+			} catch (Exception e) {
+				// the attach fails
+			}
+		});
+		vm.start();
+		fConnection = new SocketTransportService().attach("localhost", fServer.getLocalPort(), 10000, 10000); //$NON-NLS-1$
+		vm.join(10000);
+		assertNotNull("Target VM was not connected", fVM);
+		assertTrue("Connection should be channel based", fConnection instanceof SocketChannelConnection);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (fEnabled == null) {
+			System.clearProperty(SocketChannelConnection.ENABLE_PROPERTY);
+		} else {
+			System.setProperty(SocketChannelConnection.ENABLE_PROPERTY, fEnabled);
+		}
+		if (fConnection != null) {
+			fConnection.close();
+		}
+		if (fVM != null) {
+			fVM.close();
+		}
+		fServer.close();
+		super.tearDown();
+	}
+
+	/**
+	 * @return a reply packet with the given id and data length
+	 */
+	private static byte[] packet(int id, int dataLength) {
+		ByteBuffer packet = ByteBuffer.allocate(11 + dataLength);
+		packet.putInt(11 + dataLength).putInt(id).put((byte) 0x80).putShort((short) 0);
+		for (int i = 0; i < dataLength; i++) {
+			packet.put((byte) i);
+		}
+		return packet.array();
+	}
+
+	/**
+	 * Writes the given bytes in pieces of the given sizes, pausing between them so each piece arrives in a read of its own.
+	 */
+	private void writeInPieces(byte[] bytes, int... sizes) throws Exception {
+		OutputStream out = fVM.getOutputStream();
+		int offset = 0;
+		for (int size : sizes) {
+			out.write(bytes, offset, size);
+			out.flush();
+			offset += size;
+			Thread.sleep(50);
+		}
+		out.write(bytes, offset, bytes.length - offset);
+		out.flush();
+	}
+
+	/**
+	 * Tests that a packet whose header and data arrive in several pieces is read whole.
+	 */
+	public void testPartialReads() throws Exception {
+		byte[] packet = packet(1, 1000);
+		writeInPieces(packet, 3, 5, 7, 400);
+		assertTrue("Wrong packet", Arrays.equals(packet, fConnection.readPacket()));
+	}
+
+	/**
+	 * Tests that packets arriving in one piece are read one by one.
+	 */
+	public void testCoalescedPackets() throws Exception {
+		byte[] first = packet(1, 20);
+		byte[] second = packet(2, 0);
+		byte[] third = packet(3, 5000);
+		ByteBuffer all = ByteBuffer.allocate(first.length + second.length + third.length);
+		all.put(first).put(second).put(third);
+		// the last piece ends within the header of the third packet
+		writeInPieces(all.array(), first.length + second.length + 4);
+		assertTrue("Wrong first packet", Arrays.equals(first, fConnection.readPacket()));
+		assertTrue("Wrong second packet", Arrays.equals(second, fConnection.readPacket()));
+		assertTrue("Wrong third packet", Arrays.equals(third, fConnection.readPacket()));
+	}
+
+	/**
+	 * Tests that a packet that is cut off by the target VM closing the connection is not returned.
+	 */
+	public void testTruncatedPacket() throws Exception {
+		byte[] packet = packet(1, 100);
+		fVM.getOutputStream().write(packet, 0, 50);
+		fVM.close();
+		try {
+			fConnection.readPacket();
+			fail("Truncated packet should not be read");
+		} catch (ClosedConnectionException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that written packets arrive whole and in order, up to the length given in their header.
+	 */
+	public void testWritePackets() throws Exception {
+		byte[] first = packet(1, 3000);
+		byte[] second = packet(2, 4);
+		// bytes beyond the length in the header are not sent
+		fConnection.writePacket(Arrays.copyOf(first, first.length + 10));
+		fConnection.writePacket(second);
+		DataInputStream in = new DataInputStream(fVM.getInputStream());
+		byte[] read = new byte[first.length];
+		in.readFully(read);
+		assertTrue("Wrong first packet", Arrays.equals(first, read));
+		read = new byte[second.length];
+		in.readFully(read);
+		assertTrue("Wrong second packet", Arrays.equals(second, read));
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.jdi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.jdi.internal.ValueCache;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the cache of mirrors by JDWP ID value.
+ */
+public class ValueCacheTests extends TestCase {
+
+	public ValueCacheTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that a bounded cache evicts entries that were not read back to 90% of its maximum size, and keeps the entries that were read.
+	 */
+	public void testEviction() {
+		ValueCache cache = new ValueCache(100);
+		// hold the values, so none is reclaimed by the garbage collector
+		Object[] values = new Object[101];
+		for (int i = 0; i < 100; i++) {
+			values[i] = Integer.valueOf(1000 + i);
+			cache.put(i, values[i]);
+		}
+		assertEquals("Cache should not evict below its maximum size", 0, cache.evictions());
+		for (int i = 0; i < 10; i++) {
+			assertSame("Wrong cached value", values[i], cache.get(i));
+		}
+		values[100] = Integer.valueOf(1100);
+		cache.put(100, values[100]);
+		assertEquals("Cache should shrink to 90% of its maximum size", 90, cache.size());
+		assertEquals("Wrong number of evictions", 11, cache.evictions());
+		for (int i = 0; i < 10; i++) {
+			assertSame("Value that was read should not be evicted", values[i], cache.get(i));
+		}
+		int present = 0;
+		for (int i = 0; i <= 100; i++) {
+			Object value = cache.get(i);
+			if (value != null) {
+				assertSame("Wrong cached value", values[i], value);
+				present++;
+			}
+		}
+		assertEquals("Wrong number of cached values", 90, present);
+	}
+
+	/**
+	 * Tests concurrent puts and gets on an unbounded cache.
+	 */
+	public void testConcurrentPutGet() throws Exception {
+		final ValueCache cache = new ValueCache();
+		final int perThread = 2000;
+		List<Object[]> values = runConcurrently(cache, 8, perThread);
+		assertEquals("Wrong size", 8 * perThread, cache.size());
+		for (int t = 0; t < values.size(); t++) {
+			for (int i = 0; i < perThread; i++) {
+				assertSame("Wrong cached value", values.get(t)[i], cache.get(key(t, i)));
+			}
+		}
+		assertEquals("Wrong number of values", 8 * perThread, cache.values().size());
+	}
+
+	/**
+	 * Tests concurrent puts and gets on a bounded cache, which evicts while other threads put and get.
+	 */
+	public void testConcurrentEviction() throws Exception {
+		final ValueCache cache = new ValueCache(1000);
+		final int perThread = 2000;
+		List<Object[]> values = runConcurrently(cache, 8, perThread);
+		assertTrue("Cache should have evicted entries", cache.evictions() > 0);
+		assertTrue("Cache should stay within its maximum size: " + cache.size(), cache.size() <= 1000);
+		int present = 0;
+		for (int t = 0; t < values.size(); t++) {
+			for (int i = 0; i < perThread; i++) {
+				Object value = cache.get(key(t, i));
+				if (value != null) {
+					assertSame("Wrong cached value", values.get(t)[i], value);
+					present++;
+				}
+			}
+		}
+		assertEquals("Size should count the cached values", present, cache.size());
+	}
+
+	private static long key(int thread, int index) {
+		return ((long) thread << 32) | index;
+	}
+
+	/**
+	 * Puts values from several threads at once, each thread reading back each of its values right after putting it. Returns the values per
+	 * thread.
+	 */
+	private List<Object[]> runConcurrently(final ValueCache cache, int threadCount, final int perThread) throws Exception {
+		final List<Object[]> values = new ArrayList<>();
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int thread = t;
+			final Object[] own = new Object[perThread];
+			values.add(own);
+			threads[t] = new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < perThread; i++) {
+						own[i] = new Object();
+						cache.put(key(thread, i), own[i]);
+						Object value = cache.get(key(thread, i));
+						if (value != null && value != own[i]) {
+							throw new AssertionError("Wrong value for key " + key(thread, i));
+						}
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue("Concurrent access failed: " + errors, errors.isEmpty());
+		return values;
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.tests.sourcelookup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.jdt.debug.tests.AbstractDebugTest;
+import org.eclipse.jdt.internal.launching.sourcelookup.advanced.FileHashIndex;
+
+/**
+ * Tests the persistent file digest index used by advanced source lookup.
+ */
+public class FileHashIndexTests extends AbstractDebugTest {
+
+	private File fDirectory;
+
+	public FileHashIndexTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fDirectory = Files.createTempDirectory("fileHashIndex").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : fDirectory.listFiles()) {
+			file.delete();
+		}
+		fDirectory.delete();
+		super.tearDown();
+	}
+
+	private static byte[] digest(int seed) {
+		byte[] digest = new byte[20];
+		Arrays.fill(digest, (byte) seed);
+		return digest;
+	}
+
+	/**
+	 * Tests that a recorded digest is found after the index is reopened.
+	 */
+	public void testDigestPersisted() throws Exception {
+		File indexFile = new File(fDirectory, "test.index");
+		File file = new File(fDirectory, "lib.jar").getCanonicalFile();
+		try (FileHashIndex index = FileHashIndex.open(indexFile)) {
+			assertNull("Digest should not be recorded yet", index.get(file, 10, 20));
+			index.put(file, 10, 20, digest(1));
+			assertTrue("Wrong digest", Arrays.equals(digest(1), index.get(file, 10, 20)));
+		}
+		try (FileHashIndex index = FileHashIndex.open(indexFile)) {
+			assertTrue("Digest should survive reopening the index", Arrays.equals(digest(1), index.get(file, 10, 20)));
+		}
+	}
+
+	/**
+	 * Tests that a digest is not returned once the file length or modification time changed.
+	 */
+	public void testChangedFile() throws Exception {
+		File file = new File(fDirectory, "lib.jar").getCanonicalFile();
+		try (FileHashIndex index = FileHashIndex.open(new File(fDirectory, "test.index"))) {
+			index.put(file, 10, 20, digest(1));
+			assertNull("Digest of a file with another length returned", index.get(file, 11, 20));
+			assertNull("Digest of a file with another modification time returned", index.get(file, 10, 21));
+			index.put(file, 11, 21, digest(2));
+			assertNull("Replaced digest returned", index.get(file, 10, 20));
+			assertTrue("Wrong digest", Arrays.equals(digest(2), index.get(file, 11, 21)));
+			assertNull("Digest of another file returned", index.get(new File(fDirectory, "other.jar").getCanonicalFile(), 11, 21));
+		}
+	}
+
+	/**
+	 * Tests that a file which is not a valid index is replaced by an empty index.
+	 */
+	public void testInvalidIndex() throws Exception {
+		File indexFile = new File(fDirectory, "test.index");
+		Files.write(indexFile.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		File file = new File(fDirectory, "lib.jar").getCanonicalFile();
+		try (FileHashIndex index = FileHashIndex.open(indexFile)) {
+			assertNull("Digest should not be recorded yet", index.get(file, 10, 20));
+			index.put(file, 10, 20, digest(3));
+			assertTrue("Wrong digest", Arrays.equals(digest(3), index.get(file, 10, 20)));
+		}
+	}
+}
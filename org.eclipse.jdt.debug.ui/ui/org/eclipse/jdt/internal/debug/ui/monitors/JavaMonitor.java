@@ -22,6 +22,7 @@ import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.jdt.debug.core.IJavaMonitorSnapshot;
 import org.eclipse.jdt.debug.core.IJavaObject;
 import org.eclipse.jdt.debug.core.IJavaThread;
 
@@ -114,6 +115,16 @@ public class JavaMonitor {
 	 * the waiting threads changed.
 	 */
 	private boolean update() {
+		return update(null);
+	}
+
+	/**
+	 * Update the information for this monitor from the given snapshot, or
+	 * from the monitor itself if the snapshot is <code>null</code>.
+	 * @return <code>true</code> if the owning thread or the waiting threads
+	 * changed.
+	 */
+	private boolean update(IJavaMonitorSnapshot snapshot) {
 		boolean changed= false;
 		boolean toRemove= false;
 		ThreadMonitorManager threadMonitorManager= ThreadMonitorManager.getDefault();
@@ -122,9 +133,9 @@ public class JavaMonitor {
 				return false;
 			}
 			try {
-				if (fMonitor.isAllocated()) {
+				if (snapshot != null || fMonitor.isAllocated()) {
 					// update the owning thread
-					IJavaThread owningThread= fMonitor.getOwningThread();
+					IJavaThread owningThread= snapshot != null ? snapshot.getOwningThread(fMonitor) : fMonitor.getOwningThread();
 					if (owningThread == null) {
 						changed= fOwningThread != null;
 						fOwningThread= null;
@@ -133,7 +144,7 @@ public class JavaMonitor {
 						fOwningThread= ThreadMonitorManager.getDefault().getJavaMonitorThread(owningThread, null);
 					}
 					// update the waiting threads
-					IJavaThread[] waitingThreads= fMonitor.getWaitingThreads();
+					IJavaThread[] waitingThreads= snapshot != null ? snapshot.getContendingThreads(fMonitor) : fMonitor.getWaitingThreads();
 					if (waitingThreads == null || waitingThreads.length == 0) {
 						// if no waiting threads, not much to do
 						changed= fWaitingThreads != null && fWaitingThreads.length != 0;
@@ -229,6 +240,21 @@ public class JavaMonitor {
 		}
 	}
 
+	/**
+	 * Refresh this monitor from the given snapshot of the monitors of its
+	 * debug target, instead of querying the monitor.
+	 */
+	public void refresh(IJavaMonitorSnapshot snapshot) {
+		if (fToUpdate && !update(snapshot)) {
+			if (fOwningThread != null) {
+				fOwningThread.refresh(snapshot);
+			}
+			for (int i= 0; i < fWaitingThreads.length; i++) {
+				fWaitingThreads[i].refresh(snapshot);
+			}
+		}
+	}
+
 	/**
 	 * Indicate if this monitor is currently part of a deadlock
 	 */
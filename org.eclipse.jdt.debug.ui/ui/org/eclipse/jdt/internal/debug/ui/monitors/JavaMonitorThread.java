@@ -25,6 +25,7 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IThread;
+import org.eclipse.jdt.debug.core.IJavaMonitorSnapshot;
 import org.eclipse.jdt.debug.core.IJavaObject;
 import org.eclipse.jdt.debug.core.IJavaThread;
 
@@ -169,6 +170,16 @@ public class JavaMonitorThread extends PlatformObject {
 	 * the owned monitors changed.
 	 */
 	private boolean update() {
+		return update(null);
+	}
+
+	/**
+	 * Update the information for this thread from the given snapshot, or from
+	 * the thread itself if the snapshot is <code>null</code>.
+	 * @return <code>true</code> if the contended monitor or
+	 * the owned monitors changed.
+	 */
+	private boolean update(IJavaMonitorSnapshot snapshot) {
 		boolean changed= false;
 		synchronized(this) {
 			if (!fToUpdate) {
@@ -176,7 +187,7 @@ public class JavaMonitorThread extends PlatformObject {
 			}
 			try {
 				// update the contended monitor
-				IJavaObject contendedMonitor= fThread.getContendedMonitor();
+				IJavaObject contendedMonitor= snapshot != null ? snapshot.getContendedMonitor(fThread) : fThread.getContendedMonitor();
 				if (contendedMonitor == null) {
 					changed= fContendedMonitor != null;
 					fContendedMonitor= null;
@@ -185,7 +196,7 @@ public class JavaMonitorThread extends PlatformObject {
 					fContendedMonitor= ThreadMonitorManager.getDefault().getJavaMonitor(contendedMonitor);
 				}
 				// update the owned monitors
-				IJavaObject[] ownedMonitors= fThread.getOwnedMonitors();
+				IJavaObject[] ownedMonitors= snapshot != null ? snapshot.getOwnedMonitors(fThread) : fThread.getOwnedMonitors();
 				if (ownedMonitors == null || ownedMonitors.length == 0) {
 					// no owned monitor, not much to do
 					changed= fOwnedMonitors != null && fOwnedMonitors.length != 0;
@@ -295,6 +306,21 @@ public class JavaMonitorThread extends PlatformObject {
 		}
 	}
 
+	/**
+	 * Refresh this thread from the given snapshot of the monitors of its
+	 * debug target, instead of querying the thread.
+	 */
+	public void refresh(IJavaMonitorSnapshot snapshot) {
+		if (fToUpdate && !update(snapshot)) {
+			if (fContendedMonitor != null) {
+				fContendedMonitor.refresh(snapshot);
+			}
+			for (int i= 0; i < fOwnedMonitors.length; i++) {
+				fOwnedMonitors[i].refresh(snapshot);
+			}
+		}
+	}
+
 	/**
 	 * Indicate if this thread is currently part of a deadlock
 	 */
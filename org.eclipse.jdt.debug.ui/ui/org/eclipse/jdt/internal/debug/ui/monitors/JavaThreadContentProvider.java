@@ -68,6 +68,18 @@ public class JavaThreadContentProvider extends JavaElementContentProvider {
 		if (!thread.isSuspended()) {
 			return EMPTY;
 		}
+		if (!isDisplayMonitors() && thread instanceof JDIThread) {
+			// only retrieve the frames down to the requested range
+			JDIThread jThread = (JDIThread) thread;
+			if (!jThread.getDebugTarget().isSuspended() && jThread.isSuspendVoteInProgress()) {
+				return EMPTY;
+			}
+			try {
+				return jThread.getStackFrames(index, length);
+			} catch (DebugException e) {
+				return EMPTY;
+			}
+		}
 		return getElements(getChildren(thread), index, length);
 	}
 
@@ -14,18 +14,24 @@
 package org.eclipse.jdt.internal.debug.ui.monitors;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IThread;
 import org.eclipse.jdt.debug.core.IJavaDebugTarget;
+import org.eclipse.jdt.debug.core.IJavaMonitorSnapshot;
 import org.eclipse.jdt.debug.core.IJavaObject;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.ui.IJavaDebugUIConstants;
@@ -229,10 +235,60 @@ public class ThreadMonitorManager implements IDebugEventSetListener, IPropertyCh
 		@Override
 		public void run() {
 			JavaMonitorThread[] threads= getJavaMonitorThreads();
+			// one snapshot per debug target retrieves the monitors of all its
+			// threads at once, instead of querying each thread and monitor
+			Map<IDebugTarget, IJavaMonitorSnapshot> snapshots= new HashMap<>();
+			Set<IJavaThread> snapshotThreads= new HashSet<>();
+			boolean allSnapshots= true;
 			for (int i = 0; i < threads.length; i++) {
-				threads[i].refresh();
+				IJavaMonitorSnapshot snapshot= getMonitorSnapshot(threads[i].getThread().getDebugTarget(), snapshots, snapshotThreads);
+				if (snapshot == null) {
+					allSnapshots= false;
+				}
+				if (snapshotThreads.contains(threads[i].getThread())) {
+					threads[i].refresh(snapshot);
+				} else {
+					threads[i].refresh();
+				}
+			}
+			if (!allSnapshots) {
+				super.run();
+				return;
+			}
+			for (int i = 0; i < threads.length; i++) {
+				JavaMonitorThread thread= threads[i];
+				IJavaMonitorSnapshot snapshot= snapshots.get(thread.getThread().getDebugTarget());
+				thread.setInDeadlock(snapshot.isInDeadlock(thread.getThread()));
+			}
+			JavaMonitor[] monitors= getJavaMonitors();
+			for (int i = 0; i < monitors.length; i++) {
+				JavaMonitor monitor= monitors[i];
+				IJavaMonitorSnapshot snapshot= snapshots.get(monitor.getDebugTarget());
+				monitor.setInDeadlock(snapshot != null && snapshot.isInDeadlock(monitor.getMonitor()));
+			}
+		}
+
+		/**
+		 * Returns the monitor snapshot of the given debug target, taking it if
+		 * it isn't in the given map yet, or <code>null</code> if the target
+		 * can't provide one. The threads of a new snapshot are added to the
+		 * given set.
+		 */
+		private IJavaMonitorSnapshot getMonitorSnapshot(IDebugTarget target, Map<IDebugTarget, IJavaMonitorSnapshot> snapshots, Set<IJavaThread> snapshotThreads) {
+			if (snapshots.containsKey(target)) {
+				return snapshots.get(target);
+			}
+			IJavaMonitorSnapshot snapshot= null;
+			if (target instanceof IJavaDebugTarget && ((IJavaDebugTarget) target).supportsMonitorInformation()) {
+				try {
+					snapshot= ((IJavaDebugTarget) target).getMonitorSnapshot();
+					snapshotThreads.addAll(Arrays.asList(snapshot.getThreads()));
+				} catch (DebugException e) {
+					// query the threads one by one
+				}
 			}
-			super.run();
+			snapshots.put(target, snapshot);
+			return snapshot;
 		}
 	}
 
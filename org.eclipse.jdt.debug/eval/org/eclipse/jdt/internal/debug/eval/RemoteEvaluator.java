@@ -17,6 +17,7 @@ package org.eclipse.jdt.internal.debug.eval;
 
 import static org.eclipse.jdt.core.eval.ICodeSnippetRequestor.LOCAL_VAR_PREFIX;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +34,7 @@ import org.eclipse.jdt.debug.core.IJavaClassType;
 import org.eclipse.jdt.debug.core.IJavaDebugTarget;
 import org.eclipse.jdt.debug.core.IJavaObject;
 import org.eclipse.jdt.debug.core.IJavaReferenceType;
+import org.eclipse.jdt.debug.core.IJavaStackFrame;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.core.IJavaType;
 import org.eclipse.jdt.debug.core.IJavaValue;
@@ -57,7 +59,10 @@ public class RemoteEvaluator {
 
 	private final List<String> variableNames;
 
-	private IJavaClassObject loadedClass = null;
+	/**
+	 * The code snippet classes defined in the target, keyed by the class loader they were defined in
+	 */
+	private final Map<IJavaObject, IJavaClassObject> loadedClasses = new HashMap<>();
 
 	private String enclosingTypeName;
 
@@ -78,21 +83,21 @@ public class RemoteEvaluator {
 	}
 
 	private IJavaClassObject loadTheClasses(IJavaThread theThread) throws DebugException {
-
-		if (loadedClass != null) {
-			return loadedClass;
-		}
 		JDIDebugTarget debugTarget = ((JDIDebugTarget) theThread.getDebugTarget());
 		IJavaClassObject theMainClass = null;
 		IJavaObject classloader = null;
 
-		IJavaReferenceType surroundingClass = findType(this.enclosingTypeName, debugTarget);
+		IJavaReferenceType surroundingClass = findEnclosingType(theThread, debugTarget);
 		classloader = surroundingClass.getClassLoaderObject();
+		IJavaClassObject loadedClass = loadedClasses.get(classloader);
+		if (loadedClass != null) {
+			return loadedClass;
+		}
 
 		for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
 			String className = entry.getKey();
 
-			IJavaReferenceType existingClass = tryLoadType(className, debugTarget);
+			IJavaReferenceType existingClass = tryLoadType(className, debugTarget, classloader);
 			if (existingClass != null) {
 				if (codeSnippetClassName.equals(className)) {
 					theMainClass = existingClass.getClassObject();
@@ -113,9 +118,27 @@ public class RemoteEvaluator {
 				}
 			}
 		}
+		if (theMainClass != null) {
+			loadedClasses.put(classloader, theMainClass);
+		}
 		return theMainClass;
 	}
 
+	/**
+	 * Returns the enclosing type the code snippet classes are defined next to. This is the declaring type of the thread's top frame when it is the
+	 * enclosing type, so that the classes end up in the class loader of the code being debugged.
+	 */
+	private IJavaReferenceType findEnclosingType(IJavaThread theThread, IJavaDebugTarget debugTarget) throws DebugException {
+		IJavaStackFrame frame = (IJavaStackFrame) theThread.getTopStackFrame();
+		if (frame != null) {
+			IJavaReferenceType frameType = frame.getReferenceType();
+			if (this.enclosingTypeName.equals(frameType.getName())) {
+				return frameType;
+			}
+		}
+		return findType(this.enclosingTypeName, debugTarget);
+	}
+
 	private IJavaArray createClassBytes(IJavaThread theThread, JDIDebugTarget debugTarget, Map.Entry<String, byte[]> entry) throws DebugException {
 		IJavaReferenceType byteArrayType = findType("byte[]", debugTarget);//$NON-NLS-1$
 		byte[] classBytes = entry.getValue();
@@ -153,6 +176,19 @@ public class RemoteEvaluator {
 		return clazz;
 	}
 
+	private IJavaReferenceType tryLoadType(String typeName, IJavaDebugTarget debugTarget, IJavaObject classloader) throws DebugException {
+		IJavaType[] types = debugTarget.getJavaTypes(typeName);
+		if (types != null) {
+			for (IJavaType type : types) {
+				IJavaObject typeLoader = ((IJavaReferenceType) type).getClassLoaderObject();
+				if (classloader == null ? typeLoader == null : classloader.equals(typeLoader)) {
+					return (IJavaReferenceType) type;
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Initializes the value of instance variables in the 'code snippet object' that are used as place-holders for free variables and 'this' in the
 	 * current stack frame.
@@ -86,6 +86,18 @@ public class RemoteEvaluatorBuilder {
 		acceptFunctionalExpression(node, expectedResult);
 	}
 
+	/**
+	 * Accepts an expression to be evaluated as a whole in the target, such as a breakpoint condition.
+	 *
+	 * @param node
+	 *            the expression
+	 * @param expectedResult
+	 *            the type of the expression
+	 */
+	public void acceptExpression(Expression node, ITypeBinding expectedResult) {
+		acceptFunctionalExpression(node, expectedResult);
+	}
+
 
 	private void acceptFunctionalExpression(Expression node, ITypeBinding expectedResult) {
 		FunctionalEvalVisitor visitor = new FunctionalEvalVisitor();
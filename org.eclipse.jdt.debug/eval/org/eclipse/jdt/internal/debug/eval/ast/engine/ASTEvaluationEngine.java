@@ -294,6 +294,28 @@ public class ASTEvaluationEngine implements IAstEvaluationEngine {
 	@Override
 	public ICompiledExpression getCompiledExpression(String snippet,
 			IJavaStackFrame frame) {
+		return getCompiledExpression(snippet, frame, false);
+	}
+
+	/**
+	 * Returns a compiled expression for the given snippet in the context of
+	 * the given frame. When <code>compileInTarget</code> is set and the snippet
+	 * consists of a single expression, the expression is compiled into a class
+	 * that is injected into the target and evaluates it there, so that only
+	 * the values of the variables it refers to are retrieved by the debugger.
+	 * The snippet is compiled into interpreted instructions if it cannot be
+	 * compiled for the target.
+	 *
+	 * @param snippet
+	 *            code snippet
+	 * @param frame
+	 *            the stack frame context
+	 * @param compileInTarget
+	 *            whether to evaluate a single expression in the target
+	 * @return compiled expression
+	 */
+	public ICompiledExpression getCompiledExpression(String snippet,
+			IJavaStackFrame frame, boolean compileInTarget) {
 		IJavaProject javaProject = getJavaProject();
 		RuntimeContext context = new RuntimeContext(javaProject, frame);
 
@@ -402,9 +424,27 @@ public class ASTEvaluationEngine implements IAstEvaluationEngine {
 			return expression;
 		}
 
+		if (compileInTarget && canCompileInTarget(frame)) {
+			ICompiledExpression expression = createExpressionFromAST(snippet, mapper, unit, true);
+			if (!expression.hasErrors()) {
+				return expression;
+			}
+		}
 		return createExpressionFromAST(snippet, mapper, unit);
 	}
 
+	/**
+	 * Returns whether classes can be defined next to the declaring type of the
+	 * given frame, which is not the case for types of the bootstrap loader.
+	 */
+	private boolean canCompileInTarget(IJavaStackFrame frame) {
+		try {
+			return frame.getReferenceType().getClassLoaderObject() != null;
+		} catch (DebugException e) {
+			return false;
+		}
+	}
+
 	private IVariable[] extractVariables(IJavaObject thisClass) throws DebugException {
 		IVariable[] vars = thisClass.getVariables();
 		List<IVariable> varList = new ArrayList<>(Arrays.asList(vars));
@@ -664,6 +704,16 @@ public class ASTEvaluationEngine implements IAstEvaluationEngine {
 	 */
 	private ICompiledExpression createExpressionFromAST(String snippet,
 			EvaluationSourceGenerator mapper, CompilationUnit unit) {
+		return createExpressionFromAST(snippet, mapper, unit, false);
+	}
+
+	/**
+	 * Creates a compiled expression for the given snippet using the given
+	 * mapper and compilation unit (AST), evaluating a snippet consisting of a
+	 * single expression in the target if <code>compileInTarget</code> is set.
+	 */
+	private ICompiledExpression createExpressionFromAST(String snippet,
+			EvaluationSourceGenerator mapper, CompilationUnit unit, boolean compileInTarget) {
 		IProblem[] problems = unit.getProblems();
 		if (problems.length != 0) {
 			boolean snippetError = false;
@@ -713,6 +763,7 @@ public class ASTEvaluationEngine implements IAstEvaluationEngine {
 
 		ASTInstructionCompiler visitor = new ASTInstructionCompiler(
 				mapper.getSnippetStart(), snippet, getJavaProject());
+		visitor.setCompileInTarget(compileInTarget);
 		unit.accept(visitor);
 
 		return visitor.getInstructions();
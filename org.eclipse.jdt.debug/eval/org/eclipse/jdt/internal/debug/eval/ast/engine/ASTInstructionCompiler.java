@@ -148,6 +148,11 @@ public class ASTInstructionCompiler extends ASTVisitor {
 
 	private int fStartPosition;
 
+	/**
+	 * The block holding the statements of the snippet
+	 */
+	private Block fSnippetBlock;
+
 	private boolean fActive;
 
 	private boolean fHasErrors;
@@ -161,6 +166,12 @@ public class ASTInstructionCompiler extends ASTVisitor {
 
 	private IJavaProject fJavaProject;
 
+	/**
+	 * Whether a snippet consisting of a single expression is compiled into a
+	 * class run in the target rather than into interpreted instructions
+	 */
+	private boolean fCompileInTarget;
+
 	/**
 	 * Create a new AST instruction compiler
 	 */
@@ -172,6 +183,19 @@ public class ASTInstructionCompiler extends ASTVisitor {
 		fJavaProject = javaProject;
 	}
 
+	/**
+	 * Sets whether a snippet consisting of a single expression is compiled
+	 * into a class that is injected into the target and evaluates the
+	 * expression there. Only the values of the variables the expression refers
+	 * to are then retrieved by the interpreter.
+	 *
+	 * @param compileInTarget
+	 *            whether to evaluate single expressions in the target
+	 */
+	public void setCompileInTarget(boolean compileInTarget) {
+		fCompileInTarget = compileInTarget;
+	}
+
 	/**
 	 * Returns the instruction sequence generated by this AST instruction
 	 * compiler
@@ -1881,6 +1905,9 @@ public class ASTInstructionCompiler extends ASTVisitor {
 		int start = node.getStartPosition();
 		if (start == fStartPosition || start == (fStartPosition + 1)) {
 			setActive(true);
+			if (fSnippetBlock == null) {
+				fSnippetBlock = node;
+			}
 		}
 		if (!isActive()) {
 			return true;
@@ -3747,9 +3774,34 @@ public class ASTInstructionCompiler extends ASTVisitor {
 			return false;
 		}
 		push(new ReturnInstruction(fCounter));
+		if (fCompileInTarget && isSnippetExpression(node)) {
+			Expression expression = node.getExpression();
+			try {
+				RemoteEvaluatorBuilder builder = makeBuilder(node);
+				builder.acceptExpression(expression, expression.resolveTypeBinding());
+				RemoteEvaluator remoteEvaluator = builder.build();
+				push(new RemoteOperator(builder.getSnippet(), expression.getStartPosition(), remoteEvaluator));
+				storeInstruction();
+			} catch (JavaModelException | DebugException e) {
+				addErrorMessage(e.getMessage());
+				setHasError(true);
+			}
+			return false;
+		}
 		return true;
 	}
 
+	/**
+	 * Returns whether the given return statement makes up the whole snippet,
+	 * returning the value of a single expression.
+	 */
+	private boolean isSnippetExpression(ReturnStatement node) {
+		if (node.getExpression() == null) {
+			return false;
+		}
+		return node.getParent() == fSnippetBlock && fSnippetBlock.statements().size() == 1;
+	}
+
 	/**
 	 * @see ASTVisitor#visit(SimpleName)
 	 */
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi;
+
+/**
+ * Virtual thread extension to <code>com.sun.jdi.request.ThreadStartRequest</code>
+ * and <code>com.sun.jdi.request.ThreadDeathRequest</code>, for target VMs
+ * supporting JDWP 19 or later.
+ *
+ * @since 3.20
+ */
+public interface ThreadLifecycleRequest {
+	/**
+	 * Restricts the events generated by this request to platform threads, i.e.
+	 * no events are generated for virtual threads. Has no effect when the
+	 * target VM does not support virtual threads.
+	 *
+	 * @throws com.sun.jdi.request.InvalidRequestStateException
+	 *             if this request is currently enabled or has been deleted
+	 */
+	public void addPlatformThreadsOnlyFilter();
+}
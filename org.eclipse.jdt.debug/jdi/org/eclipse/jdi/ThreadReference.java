@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi;
+
+/**
+ * Virtual thread extension to <code>com.sun.jdi.ThreadReference</code>, for
+ * target VMs supporting JDWP 19 or later.
+ *
+ * @since 3.20
+ */
+public interface ThreadReference {
+	/**
+	 * Returns whether this thread is a virtual thread. Always
+	 * <code>false</code> when the target VM does not support virtual threads.
+	 *
+	 * @return whether this thread is a virtual thread
+	 */
+	public boolean isVirtual();
+}
@@ -25,4 +25,18 @@ public interface VirtualMachine {
 	 * @return Returns request timeout in milliseconds
 	 */
 	public int getRequestTimeout();
+
+	/**
+	 * Returns whether the target VM supports virtual threads, i.e. whether its
+	 * thread references know if they are virtual and its thread start and
+	 * thread death requests can be restricted to platform threads.
+	 *
+	 * @return whether the target VM supports virtual threads
+	 * @see ThreadReference
+	 * @see ThreadLifecycleRequest
+	 * @since 3.20
+	 */
+	public default boolean supportsVirtualThreads() {
+		return false;
+	}
 }
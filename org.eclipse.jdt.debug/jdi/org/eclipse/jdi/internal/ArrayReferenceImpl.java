@@ -16,10 +16,16 @@ package org.eclipse.jdi.internal;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpID;
@@ -45,6 +51,19 @@ public class ArrayReferenceImpl extends ObjectReferenceImpl implements
 	/** JDWP Tag. */
 	public static final byte tag = JdwpID.ARRAY_TAG;
 
+	/**
+	 * Maximum number of components that are fetched with a single
+	 * 'ArrayReference - Get Values' command by {@link #getValues(int, int)} and
+	 * {@link #getPrimitiveValues(int, int)}.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+	/**
+	 * Maximum number of chunk requests that are sent before their replies
+	 * are read.
+	 */
+	private static final int MAX_PENDING_CHUNKS = 4;
+
 	private int fLength = -1;
 
 	/**
@@ -94,9 +113,122 @@ public class ArrayReferenceImpl extends ObjectReferenceImpl implements
 	 * @returns Returns a range of array components.
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public List<Value> getValues(int firstIndex, int length)
 			throws IndexOutOfBoundsException {
+		length = checkRange(firstIndex, length);
+		if (length <= DEFAULT_CHUNK_SIZE) {
+			return getValuesChunk(firstIndex, length);
+		}
 
+		// Large ranges are fetched in pipelined chunks.
+		List<Value> values = new ArrayList<>(length);
+		Iterator<Object> chunks = new ChunkIterator(firstIndex, length, DEFAULT_CHUNK_SIZE, true);
+		while (chunks.hasNext()) {
+			values.addAll((List<Value>) chunks.next());
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the values starting at firstIndex and ending at firstIndex+length
+	 * with a single 'ArrayReference - Get Values' command.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Value> getValuesChunk(int firstIndex, int length) {
+		// Note that this information should not be cached.
+		initJdwpRequest();
+		try {
+			JdwpReplyPacket replyPacket = requestVM(
+					JdwpCommandPacket.AR_GET_VALUES, valuesRequest(firstIndex, length));
+			return (List<Value>) readValues(replyPacket, true);
+		} catch (IOException e) {
+			defaultIOExceptionHandler(e);
+			return null;
+		} finally {
+			handledJdwpRequest();
+		}
+	}
+
+	/**
+	 * Gets the components starting at firstIndex and ending at
+	 * firstIndex+length of an array with a primitive component type as an
+	 * array of that primitive type, e.g. an <code>int[]</code> for an
+	 * <code>int</code> array. No {@link Value} is created for the components.
+	 * Large ranges are fetched in pipelined chunks.
+	 *
+	 * @param firstIndex
+	 *            the start
+	 * @param length
+	 *            the number of values to return, or -1 for all values to the
+	 *            end of the array
+	 * @return a primitive array with the requested components
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is outside the bounds of the array
+	 * @throws IllegalArgumentException
+	 *             if the component type of this array is not primitive
+	 */
+	public Object getPrimitiveValues(int firstIndex, int length)
+			throws IndexOutOfBoundsException {
+		length = checkRange(firstIndex, length);
+		Iterator<Object> chunks = new ChunkIterator(firstIndex, length, DEFAULT_CHUNK_SIZE, false);
+		Object values = null;
+		int offset = 0;
+		while (chunks.hasNext()) {
+			Object chunk = chunks.next();
+			if (chunk instanceof List) {
+				throw new IllegalArgumentException(
+						JDIMessages.ArrayReferenceImpl_Components_are_not_primitive_values_3);
+			}
+			int chunkLength = Array.getLength(chunk);
+			if (values == null) {
+				if (chunkLength == length) {
+					return chunk;
+				}
+				values = Array.newInstance(chunk.getClass().getComponentType(), length);
+			}
+			System.arraycopy(chunk, 0, values, offset, chunkLength);
+			offset += chunkLength;
+		}
+		return values;
+	}
+
+	/**
+	 * Returns an iterator over the components starting at firstIndex and
+	 * ending at firstIndex+length, in chunks of at most chunkSize components.
+	 * A chunk is a primitive array (see {@link #getPrimitiveValues(int, int)})
+	 * if the component type of this array is primitive, and a
+	 * <code>List&lt;Value&gt;</code> otherwise. The commands for the next
+	 * chunks are sent while the current chunk is being consumed.
+	 *
+	 * @param firstIndex
+	 *            the start
+	 * @param length
+	 *            the number of values to return, or -1 for all values to the
+	 *            end of the array
+	 * @param chunkSize
+	 *            the maximum number of components per chunk
+	 * @return an iterator over the chunks of the requested range
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is outside the bounds of the array
+	 */
+	public Iterator<Object> getValueChunks(int firstIndex, int length, int chunkSize)
+			throws IndexOutOfBoundsException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException(
+					JDIMessages.ArrayReferenceImpl_Invalid_chunk_size_4);
+		}
+		length = checkRange(firstIndex, length);
+		return new ChunkIterator(firstIndex, length, chunkSize, false);
+	}
+
+	/**
+	 * Checks that the given range lies within this array.
+	 *
+	 * @return the length of the range, with -1 resolved to the number of
+	 *         components to the end of the array
+	 */
+	private int checkRange(int firstIndex, int length) {
 		int arrayLength = length();
 
 		if (firstIndex < 0 || firstIndex >= arrayLength) {
@@ -114,71 +246,85 @@ public class ArrayReferenceImpl extends ObjectReferenceImpl implements
 			throw new IndexOutOfBoundsException(
 					JDIMessages.ArrayReferenceImpl_Attempted_to_get_more_values_from_array_than_length_of_array_2);
 		}
+		return length;
+	}
 
-		// Note that this information should not be cached.
-		initJdwpRequest();
-		try {
-			ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
-			DataOutputStream outData = new DataOutputStream(outBytes);
-			write(this, outData); // arrayObject
-			writeInt(firstIndex, "firstIndex", outData); //$NON-NLS-1$
-			writeInt(length, "length", outData); //$NON-NLS-1$
-
-			JdwpReplyPacket replyPacket = requestVM(
-					JdwpCommandPacket.AR_GET_VALUES, outBytes);
-			switch (replyPacket.errorCode()) {
-			case JdwpReplyPacket.INVALID_INDEX:
-				throw new IndexOutOfBoundsException(
-						JDIMessages.ArrayReferenceImpl_Invalid_index_of_array_reference_given_1);
-			}
-			defaultReplyErrorHandler(replyPacket.errorCode());
+	/**
+	 * @return Returns the data of an 'ArrayReference - Get Values' command.
+	 */
+	private ByteArrayOutputStream valuesRequest(int firstIndex, int length)
+			throws IOException {
+		ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+		DataOutputStream outData = new DataOutputStream(outBytes);
+		write(this, outData); // arrayObject
+		writeInt(firstIndex, "firstIndex", outData); //$NON-NLS-1$
+		writeInt(length, "length", outData); //$NON-NLS-1$
+		return outBytes;
+	}
 
-			DataInputStream replyData = replyPacket.dataInStream();
-
-			/*
-			 * NOTE: The JDWP documentation is not clear on this: it turns out
-			 * that the following is received from the VM: - type tag; - length
-			 * of array; - values of elements.
-			 */
-
-			int type = readByte("type", JdwpID.tagMap(), replyData); //$NON-NLS-1$
-			int readLength = readInt("length", replyData); //$NON-NLS-1$
-			// See also ValueImpl.
-			switch (type) {
-			// Multidimensional array.
-			case ArrayReferenceImpl.tag:
-				// Object references.
-			case ClassLoaderReferenceImpl.tag:
-			case ClassObjectReferenceImpl.tag:
-			case StringReferenceImpl.tag:
-			case ObjectReferenceImpl.tag:
-			case ThreadGroupReferenceImpl.tag:
-			case ThreadReferenceImpl.tag:
-				return readObjectSequence(readLength, replyData);
-
-				// Primitive type.
-			case BooleanValueImpl.tag:
-			case ByteValueImpl.tag:
-			case CharValueImpl.tag:
-			case DoubleValueImpl.tag:
-			case FloatValueImpl.tag:
-			case IntegerValueImpl.tag:
-			case LongValueImpl.tag:
-			case ShortValueImpl.tag:
+	/**
+	 * Reads the reply to an 'ArrayReference - Get Values' command.
+	 *
+	 * @param replyPacket
+	 *            the reply
+	 * @param boxed
+	 *            whether values of a primitive type are read as
+	 *            {@link Value}s or into a primitive array
+	 * @return Returns a <code>List&lt;Value&gt;</code> or a primitive array
+	 */
+	private Object readValues(JdwpReplyPacket replyPacket, boolean boxed)
+			throws IOException {
+		switch (replyPacket.errorCode()) {
+		case JdwpReplyPacket.INVALID_INDEX:
+			throw new IndexOutOfBoundsException(
+					JDIMessages.ArrayReferenceImpl_Invalid_index_of_array_reference_given_1);
+		}
+		defaultReplyErrorHandler(replyPacket.errorCode());
+
+		DataInputStream replyData = replyPacket.dataInStream();
+
+		/*
+		 * NOTE: The JDWP documentation is not clear on this: it turns out
+		 * that the following is received from the VM: - type tag; - length
+		 * of array; - values of elements.
+		 */
+
+		int type = readByte("type", JdwpID.tagMap(), replyData); //$NON-NLS-1$
+		int readLength = readInt("length", replyData); //$NON-NLS-1$
+		// See also ValueImpl.
+		switch (type) {
+		// Multidimensional array.
+		case ArrayReferenceImpl.tag:
+			// Object references.
+		case ClassLoaderReferenceImpl.tag:
+		case ClassObjectReferenceImpl.tag:
+		case StringReferenceImpl.tag:
+		case ObjectReferenceImpl.tag:
+		case ThreadGroupReferenceImpl.tag:
+		case ThreadReferenceImpl.tag:
+			return readObjectSequence(readLength, replyData);
+
+			// Primitive type.
+		case BooleanValueImpl.tag:
+		case ByteValueImpl.tag:
+		case CharValueImpl.tag:
+		case DoubleValueImpl.tag:
+		case FloatValueImpl.tag:
+		case IntegerValueImpl.tag:
+		case LongValueImpl.tag:
+		case ShortValueImpl.tag:
+			if (boxed) {
 				return readPrimitiveSequence(readLength, type, replyData);
-
-			case VoidValueImpl.tag:
-			case 0:
-			default:
-				throw new InternalException(
-						JDIMessages.ArrayReferenceImpl_Invalid_ArrayReference_Value_tag_encountered___2
-								+ type);
 			}
-		} catch (IOException e) {
-			defaultIOExceptionHandler(e);
-			return null;
-		} finally {
-			handledJdwpRequest();
+			// the components follow the tag and the length
+			return readPrimitiveArray(readLength, type, replyPacket, 5);
+
+		case VoidValueImpl.tag:
+		case 0:
+		default:
+			throw new InternalException(
+					JDIMessages.ArrayReferenceImpl_Invalid_ArrayReference_Value_tag_encountered___2
+							+ type);
 		}
 	}
 
@@ -222,6 +368,117 @@ public class ArrayReferenceImpl extends ObjectReferenceImpl implements
 		return elements;
 	}
 
+	/**
+	 * Reads the components directly from the data of the reply packet,
+	 * without going through a stream.
+	 *
+	 * @param length
+	 *            the number of primitives to read
+	 * @param type
+	 *            the type
+	 * @param replyPacket
+	 *            the reply packet
+	 * @param offset
+	 *            the index of the first component in the data of the packet
+	 * @return Returns sequence of values of primitive type as an array of that
+	 *         type.
+	 * @throws IOException
+	 *             if the packet does not contain all components
+	 */
+	private Object readPrimitiveArray(int length, int type,
+			JdwpReplyPacket replyPacket, int offset) throws IOException {
+		int size = primitiveSize(type);
+		if (size < 0) {
+			throw new InternalException(
+					JDIMessages.ArrayReferenceImpl_Invalid_ArrayReference_Value_tag_encountered___2
+							+ type);
+		}
+		if (length < 0 || offset + (long) length * size > replyPacket.getDataLength()) {
+			throw new EOFException();
+		}
+		switch (type) {
+		case BooleanValueImpl.tag: {
+			boolean[] values = new boolean[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = replyPacket.getByte(offset + i) != 0;
+			}
+			return values;
+		}
+		case ByteValueImpl.tag: {
+			byte[] values = new byte[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = replyPacket.getByte(offset + i);
+			}
+			return values;
+		}
+		case CharValueImpl.tag: {
+			char[] values = new char[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = (char) replyPacket.getShort(offset + 2 * i);
+			}
+			return values;
+		}
+		case DoubleValueImpl.tag: {
+			double[] values = new double[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = Double.longBitsToDouble(replyPacket.getLong(offset + 8 * i));
+			}
+			return values;
+		}
+		case FloatValueImpl.tag: {
+			float[] values = new float[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = Float.intBitsToFloat(replyPacket.getInt(offset + 4 * i));
+			}
+			return values;
+		}
+		case IntegerValueImpl.tag: {
+			int[] values = new int[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = replyPacket.getInt(offset + 4 * i);
+			}
+			return values;
+		}
+		case LongValueImpl.tag: {
+			long[] values = new long[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = replyPacket.getLong(offset + 8 * i);
+			}
+			return values;
+		}
+		default: {
+			short[] values = new short[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = replyPacket.getShort(offset + 2 * i);
+			}
+			return values;
+		}
+		}
+	}
+
+	/**
+	 * @return Returns the size in bytes of a value of the given primitive
+	 *         type, or -1 if the tag is not that of a primitive type.
+	 */
+	private static int primitiveSize(int type) {
+		switch (type) {
+		case BooleanValueImpl.tag:
+		case ByteValueImpl.tag:
+			return 1;
+		case CharValueImpl.tag:
+		case ShortValueImpl.tag:
+			return 2;
+		case FloatValueImpl.tag:
+		case IntegerValueImpl.tag:
+			return 4;
+		case DoubleValueImpl.tag:
+		case LongValueImpl.tag:
+			return 8;
+		default:
+			return -1;
+		}
+	}
+
 	/**
 	 * @return Returns the number of components in this array.
 	 */
@@ -459,4 +716,72 @@ public class ArrayReferenceImpl extends ObjectReferenceImpl implements
 		ArrayReferenceImpl mirror = new ArrayReferenceImpl(vmImpl, ID);
 		return mirror;
 	}
+
+	/**
+	 * Iterates over a range of this array in chunks. Keeps up to
+	 * {@link #MAX_PENDING_CHUNKS} 'ArrayReference - Get Values' commands in
+	 * flight, so the VM is answering the next chunks while the current one is
+	 * being read.
+	 */
+	private class ChunkIterator implements Iterator<Object> {
+		private final int fEnd;
+		private final int fChunkSize;
+		private final boolean fBoxed;
+		private final Deque<CompletableFuture<JdwpReplyPacket>> fPending = new ArrayDeque<>();
+		private int fNextRequestIndex;
+		private boolean fRequested;
+
+		ChunkIterator(int firstIndex, int length, int chunkSize, boolean boxed) {
+			fEnd = firstIndex + length;
+			fChunkSize = chunkSize;
+			fBoxed = boxed;
+			fNextRequestIndex = firstIndex;
+			sendRequests();
+		}
+
+		/**
+		 * Sends commands for the next chunks until the window is full. At
+		 * least one command is sent, also for an empty range.
+		 */
+		private void sendRequests() {
+			while (fPending.size() < MAX_PENDING_CHUNKS
+					&& (fNextRequestIndex < fEnd || !fRequested)) {
+				int length = Math.min(fChunkSize, fEnd - fNextRequestIndex);
+				initJdwpRequest();
+				try {
+					fPending.add(requestVMAsync(JdwpCommandPacket.AR_GET_VALUES,
+							valuesRequest(fNextRequestIndex, length)));
+				} catch (IOException e) {
+					defaultIOExceptionHandler(e);
+				} finally {
+					handledJdwpRequest();
+				}
+				fNextRequestIndex += length;
+				fRequested = true;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !fPending.isEmpty();
+		}
+
+		@Override
+		public Object next() {
+			CompletableFuture<JdwpReplyPacket> reply = fPending.poll();
+			if (reply == null) {
+				throw new NoSuchElementException();
+			}
+			sendRequests();
+			initJdwpRequest();
+			try {
+				return readValues(waitForReply(reply), fBoxed);
+			} catch (IOException e) {
+				defaultIOExceptionHandler(e);
+				return null;
+			} finally {
+				handledJdwpRequest();
+			}
+		}
+	}
 }
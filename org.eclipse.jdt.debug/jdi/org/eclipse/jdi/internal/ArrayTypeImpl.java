@@ -173,16 +173,17 @@ public class ArrayTypeImpl extends ReferenceTypeImpl implements ArrayType {
 	public static ArrayTypeImpl read(MirrorImpl target, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpArrayID ID = new JdwpArrayID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.referenceTypeIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("arrayType", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("arrayType", id); //$NON-NLS-1$
 
-		if (ID.isNull())
+		if (id == 0)
 			return null;
 
-		ArrayTypeImpl mirror = (ArrayTypeImpl) vmImpl.getCachedMirror(ID);
+		ArrayTypeImpl mirror = (ArrayTypeImpl) vmImpl.getCachedReferenceType(id);
 		if (mirror == null) {
+			JdwpArrayID ID = new JdwpArrayID(vmImpl);
+			ID.setValue(id);
 			mirror = new ArrayTypeImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
@@ -256,21 +257,22 @@ public class ArrayTypeImpl extends ReferenceTypeImpl implements ArrayType {
 			boolean withGenericSignature, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpArrayID ID = new JdwpArrayID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.referenceTypeIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("arrayType", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("arrayType", id); //$NON-NLS-1$
 
 		String signature = target.readString("signature", in); //$NON-NLS-1$
 		String genericSignature = null;
 		if (withGenericSignature) {
 			genericSignature = target.readString("generic signature", in); //$NON-NLS-1$
 		}
-		if (ID.isNull())
+		if (id == 0)
 			return null;
 
-		ArrayTypeImpl mirror = (ArrayTypeImpl) vmImpl.getCachedMirror(ID);
+		ArrayTypeImpl mirror = (ArrayTypeImpl) vmImpl.getCachedReferenceType(id);
 		if (mirror == null) {
+			JdwpArrayID ID = new JdwpArrayID(vmImpl);
+			ID.setValue(id);
 			mirror = new ArrayTypeImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
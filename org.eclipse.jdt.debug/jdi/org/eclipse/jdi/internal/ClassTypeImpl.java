@@ -327,16 +327,17 @@ public class ClassTypeImpl extends ReferenceTypeImpl implements ClassType {
 	public static ClassTypeImpl read(MirrorImpl target, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpClassID ID = new JdwpClassID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.referenceTypeIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("classType", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("classType", id); //$NON-NLS-1$
 
-		if (ID.isNull())
+		if (id == 0)
 			return null;
 
-		ClassTypeImpl mirror = (ClassTypeImpl) vmImpl.getCachedMirror(ID);
+		ClassTypeImpl mirror = (ClassTypeImpl) vmImpl.getCachedReferenceType(id);
 		if (mirror == null) {
+			JdwpClassID ID = new JdwpClassID(vmImpl);
+			ID.setValue(id);
 			mirror = new ClassTypeImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
@@ -351,21 +352,22 @@ public class ClassTypeImpl extends ReferenceTypeImpl implements ClassType {
 			boolean withGenericSignature, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpClassID ID = new JdwpClassID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.referenceTypeIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("classType", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("classType", id); //$NON-NLS-1$
 
 		String signature = target.readString("signature", in); //$NON-NLS-1$
 		String genericSignature = null;
 		if (withGenericSignature) {
 			genericSignature = target.readString("generic signature", in); //$NON-NLS-1$
 		}
-		if (ID.isNull())
+		if (id == 0)
 			return null;
 
-		ClassTypeImpl mirror = (ClassTypeImpl) vmImpl.getCachedMirror(ID);
+		ClassTypeImpl mirror = (ClassTypeImpl) vmImpl.getCachedReferenceType(id);
 		if (mirror == null) {
+			JdwpClassID ID = new JdwpClassID(vmImpl);
+			ID.setValue(id);
 			mirror = new ClassTypeImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
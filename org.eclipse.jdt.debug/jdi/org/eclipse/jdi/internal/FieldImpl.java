@@ -18,6 +18,8 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 
 import org.eclipse.jdi.internal.jdwp.JdwpFieldID;
+import org.eclipse.jdi.internal.jdwp.JdwpID;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
 
 import com.sun.jdi.ClassNotLoadedException;
 import com.sun.jdi.Field;
@@ -155,6 +157,15 @@ public class FieldImpl extends TypeComponentImpl implements Field {
 			target.fVerboseWriter.println("field", fFieldID.value()); //$NON-NLS-1$
 	}
 
+	/**
+	 * Writes JDWP representation to a packet buffer.
+	 */
+	public void write(MirrorImpl target, JdwpPacketBuffer out) {
+		fFieldID.write(out);
+		if (target.fVerboseWriter != null)
+			target.fVerboseWriter.println("field", fFieldID.value()); //$NON-NLS-1$
+	}
+
 	/**
 	 * Writes JDWP representation, including ReferenceType.
 	 */
@@ -178,14 +189,13 @@ public class FieldImpl extends TypeComponentImpl implements Field {
 		if (referenceType == null)
 			return null;
 
-		JdwpFieldID ID = new JdwpFieldID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.fieldIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("field", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("field", id); //$NON-NLS-1$
 
-		if (ID.isNull())
+		if (id == 0)
 			return null;
-		FieldImpl field = referenceType.findField(ID);
+		FieldImpl field = referenceType.findField(id);
 		if (field == null)
 			throw new InternalError(
 					JDIMessages.FieldImpl_Got_FieldID_of_ReferenceType_that_is_not_a_member_of_the_ReferenceType_2);
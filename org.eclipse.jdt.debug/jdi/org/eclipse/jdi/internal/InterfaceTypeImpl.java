@@ -219,19 +219,20 @@ public class InterfaceTypeImpl extends ReferenceTypeImpl implements
 	public static InterfaceTypeImpl read(MirrorImpl target, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpInterfaceID ID = new JdwpInterfaceID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.referenceTypeIDSize(), in);
 		if (target.fVerboseWriter != null) {
-			target.fVerboseWriter.println("interfaceType", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("interfaceType", id); //$NON-NLS-1$
 		}
 
-		if (ID.isNull()) {
+		if (id == 0) {
 			return null;
 		}
 
 		InterfaceTypeImpl mirror = (InterfaceTypeImpl) vmImpl
-				.getCachedMirror(ID);
+				.getCachedReferenceType(id);
 		if (mirror == null) {
+			JdwpInterfaceID ID = new JdwpInterfaceID(vmImpl);
+			ID.setValue(id);
 			mirror = new InterfaceTypeImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
@@ -246,10 +247,9 @@ public class InterfaceTypeImpl extends ReferenceTypeImpl implements
 			boolean withGenericSignature, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpInterfaceID ID = new JdwpInterfaceID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.referenceTypeIDSize(), in);
 		if (target.fVerboseWriter != null) {
-			target.fVerboseWriter.println("interfaceType", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("interfaceType", id); //$NON-NLS-1$
 		}
 
 		String signature = target.readString("signature", in); //$NON-NLS-1$
@@ -257,13 +257,15 @@ public class InterfaceTypeImpl extends ReferenceTypeImpl implements
 		if (withGenericSignature) {
 			genericSignature = target.readString("generic signature", in); //$NON-NLS-1$
 		}
-		if (ID.isNull()) {
+		if (id == 0) {
 			return null;
 		}
 
 		InterfaceTypeImpl mirror = (InterfaceTypeImpl) vmImpl
-				.getCachedMirror(ID);
+				.getCachedReferenceType(id);
 		if (mirror == null) {
+			JdwpInterfaceID ID = new JdwpInterfaceID(vmImpl);
+			ID.setValue(id);
 			mirror = new InterfaceTypeImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
@@ -140,6 +140,8 @@ public class JDIMessages extends NLS {
 	public static String ValueImpl_Type_of_the_value_not_compatible_with_the_expected_type__1;
 	public static String ArrayReferenceImpl_Invalid_number_of_value_to_get_from_array_1;
 	public static String ArrayReferenceImpl_Attempted_to_get_more_values_from_array_than_length_of_array_2;
+	public static String ArrayReferenceImpl_Components_are_not_primitive_values_3;
+	public static String ArrayReferenceImpl_Invalid_chunk_size_4;
 	public static String ReferenceTypeImpl_28;
 	public static String ReferenceTypeImpl_29;
 	public static String ReferenceTypeImpl_30;
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal;
+
+import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+
+/**
+ * Snapshot of the statistics of one JDWP command.
+ *
+ * @see JdwpMetrics
+ */
+public class JdwpCommandStatistics {
+	private final int fCommand;
+	private final long fCount;
+	private final long fRequests;
+	private final long fTimeouts;
+	private final long fBytesSent;
+	private final long fBytesReceived;
+	private final long fTotalMicros;
+	private final long fMaxMicros;
+	private final long fP50Micros;
+	private final long fP90Micros;
+	private final long fP99Micros;
+
+	JdwpCommandStatistics(int command, long count, long requests, long timeouts,
+			long bytesSent, long bytesReceived, long totalMicros,
+			long maxMicros, long p50Micros, long p90Micros, long p99Micros) {
+		fCommand = command;
+		fCount = count;
+		fRequests = requests;
+		fTimeouts = timeouts;
+		fBytesSent = bytesSent;
+		fBytesReceived = bytesReceived;
+		fTotalMicros = totalMicros;
+		fMaxMicros = maxMicros;
+		fP50Micros = p50Micros;
+		fP90Micros = p90Micros;
+		fP99Micros = p99Micros;
+	}
+
+	/**
+	 * @return Returns the command, including its command set in the second
+	 *         byte, as defined in {@link JdwpCommandPacket}.
+	 */
+	public int getCommand() {
+		return fCommand;
+	}
+
+	/**
+	 * @return Returns the name of the command, e.g.
+	 *         <code>ARRAY_REFERENCE - GET_VALUES</code>.
+	 */
+	public String getName() {
+		String name = JdwpCommandPacket.commandMap().get(Integer.valueOf(fCommand));
+		if (name == null) {
+			return Integer.toString(fCommand >>> 8) + '/' + (fCommand & 0xFF);
+		}
+		return name;
+	}
+
+	/**
+	 * @return Returns the number of commands that were sent to the VM and
+	 *         answered, or received from the VM.
+	 */
+	public long getCount() {
+		return fCount;
+	}
+
+	/**
+	 * @return Returns the number of commands that were sent to the VM and
+	 *         answered.
+	 */
+	public long getRequests() {
+		return fRequests;
+	}
+
+	/**
+	 * @return Returns the number of commands that were not answered in time.
+	 */
+	public long getTimeouts() {
+		return fTimeouts;
+	}
+
+	/**
+	 * @return Returns the number of bytes sent, including packet headers.
+	 */
+	public long getBytesSent() {
+		return fBytesSent;
+	}
+
+	/**
+	 * @return Returns the number of bytes received, including packet headers.
+	 */
+	public long getBytesReceived() {
+		return fBytesReceived;
+	}
+
+	/**
+	 * @return Returns the sum of the times between sending a command and
+	 *         receiving its reply, in microseconds.
+	 */
+	public long getTotalMicros() {
+		return fTotalMicros;
+	}
+
+	/**
+	 * @return Returns the mean time between sending a command and receiving
+	 *         its reply, in microseconds.
+	 */
+	public long getMeanMicros() {
+		return fRequests == 0 ? 0 : fTotalMicros / fRequests;
+	}
+
+	/**
+	 * @return Returns the longest time between sending a command and
+	 *         receiving its reply, in microseconds.
+	 */
+	public long getMaxMicros() {
+		return fMaxMicros;
+	}
+
+	/**
+	 * @return Returns an upper bound of the median latency, in microseconds.
+	 */
+	public long getP50Micros() {
+		return fP50Micros;
+	}
+
+	/**
+	 * @return Returns an upper bound of the 90th percentile latency, in
+	 *         microseconds.
+	 */
+	public long getP90Micros() {
+		return fP90Micros;
+	}
+
+	/**
+	 * @return Returns an upper bound of the 99th percentile latency, in
+	 *         microseconds.
+	 */
+	public long getP99Micros() {
+		return fP99Micros;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder(getName());
+		buf.append(": count="); //$NON-NLS-1$
+		buf.append(fCount);
+		buf.append(" requests="); //$NON-NLS-1$
+		buf.append(fRequests);
+		buf.append(" timeouts="); //$NON-NLS-1$
+		buf.append(fTimeouts);
+		buf.append(" out="); //$NON-NLS-1$
+		buf.append(fBytesSent);
+		buf.append("B in="); //$NON-NLS-1$
+		buf.append(fBytesReceived);
+		buf.append("B total="); //$NON-NLS-1$
+		buf.append(fTotalMicros);
+		buf.append("us mean="); //$NON-NLS-1$
+		buf.append(getMeanMicros());
+		buf.append("us p50<="); //$NON-NLS-1$
+		buf.append(fP50Micros);
+		buf.append("us p90<="); //$NON-NLS-1$
+		buf.append(fP90Micros);
+		buf.append("us p99<="); //$NON-NLS-1$
+		buf.append(fP99Micros);
+		buf.append("us max="); //$NON-NLS-1$
+		buf.append(fMaxMicros);
+		buf.append("us"); //$NON-NLS-1$
+		return buf.toString();
+	}
+}
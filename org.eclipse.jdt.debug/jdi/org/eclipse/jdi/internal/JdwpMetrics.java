@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
+
+/**
+ * Counts the JDWP commands of a virtual machine mirror, with the bytes sent
+ * and received and a latency histogram per command. Recording is always on
+ * and only updates counters, so it is cheap enough for every request.
+ * <p>
+ * The metrics can be published as a platform MXBean, see
+ * {@link #JMX_PROPERTY}.
+ * </p>
+ */
+public class JdwpMetrics implements JdwpMetricsMXBean {
+	/**
+	 * System property that enables the registration of the metrics of each
+	 * virtual machine with the platform MBean server, under the name
+	 * <code>org.eclipse.jdi:type=JdwpMetrics,id=&lt;n&gt;</code>.
+	 */
+	public static final String JMX_PROPERTY = "org.eclipse.jdi.internal.JdwpMetrics.jmx"; //$NON-NLS-1$
+
+	/**
+	 * Number of latency buckets. Bucket <code>b</code> counts latencies below
+	 * <code>2^b</code> microseconds, the last one all longer latencies.
+	 */
+	private static final int BUCKETS = 32;
+
+	private static final AtomicInteger fgNextId = new AtomicInteger();
+
+	private final ConcurrentHashMap<Integer, CommandMetrics> fCommands = new ConcurrentHashMap<>();
+	private ObjectName fObjectName;
+
+	/**
+	 * Live counters of one command.
+	 */
+	private static class CommandMetrics {
+		final int fCommand;
+		final LongAdder fCount = new LongAdder();
+		final LongAdder fRequests = new LongAdder();
+		final LongAdder fTimeouts = new LongAdder();
+		final LongAdder fBytesSent = new LongAdder();
+		final LongAdder fBytesReceived = new LongAdder();
+		final LongAdder fTotalNanos = new LongAdder();
+		final LongAccumulator fMaxNanos = new LongAccumulator(Math::max, 0);
+		final AtomicLongArray fLatencies = new AtomicLongArray(BUCKETS);
+
+		CommandMetrics(int command) {
+			fCommand = command;
+		}
+
+		JdwpCommandStatistics snapshot() {
+			long[] latencies = new long[BUCKETS];
+			long measured = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				latencies[i] = fLatencies.get(i);
+				measured += latencies[i];
+			}
+			return new JdwpCommandStatistics(fCommand, fCount.sum(),
+					fRequests.sum(), fTimeouts.sum(), fBytesSent.sum(),
+					fBytesReceived.sum(),
+					TimeUnit.NANOSECONDS.toMicros(fTotalNanos.sum()),
+					TimeUnit.NANOSECONDS.toMicros(fMaxNanos.get()),
+					percentile(latencies, measured, 50),
+					percentile(latencies, measured, 90),
+					percentile(latencies, measured, 99));
+		}
+
+		/**
+		 * @return Returns the upper bound in microseconds of the bucket that
+		 *         contains the given percentile.
+		 */
+		private static long percentile(long[] latencies, long measured, int percent) {
+			if (measured == 0) {
+				return 0;
+			}
+			long rank = (measured * percent + 99) / 100;
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += latencies[i];
+				if (seen >= rank) {
+					return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private CommandMetrics metrics(int command) {
+		CommandMetrics metrics = fCommands.get(command);
+		if (metrics == null) {
+			metrics = fCommands.computeIfAbsent(command, CommandMetrics::new);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Records a command sent to the VM and its reply.
+	 *
+	 * @param command
+	 *            the command, see {@link org.eclipse.jdi.internal.jdwp.JdwpCommandPacket}
+	 * @param bytesSent
+	 *            the length of the command packet
+	 * @param bytesReceived
+	 *            the length of the reply packet
+	 * @param nanos
+	 *            the time between sending the command and receiving the reply
+	 */
+	public void recordRequest(int command, int bytesSent, int bytesReceived, long nanos) {
+		CommandMetrics metrics = metrics(command);
+		metrics.fCount.increment();
+		metrics.fRequests.increment();
+		metrics.fBytesSent.add(bytesSent);
+		metrics.fBytesReceived.add(bytesReceived);
+		metrics.fTotalNanos.add(nanos);
+		metrics.fMaxNanos.accumulate(nanos);
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+		metrics.fLatencies.incrementAndGet(bucket);
+	}
+
+	/**
+	 * Records a command sent to the VM that was not answered in time.
+	 */
+	public void recordTimeout(int command, int bytesSent) {
+		CommandMetrics metrics = metrics(command);
+		metrics.fTimeouts.increment();
+		metrics.fBytesSent.add(bytesSent);
+	}
+
+	/**
+	 * Records a command received from the VM, e.g. a composite event.
+	 */
+	public void recordCommandFromVM(int command, int bytesReceived) {
+		CommandMetrics metrics = metrics(command);
+		metrics.fCount.increment();
+		metrics.fBytesReceived.add(bytesReceived);
+	}
+
+	@Override
+	public long getRequestCount() {
+		long count = 0;
+		for (CommandMetrics metrics : fCommands.values()) {
+			count += metrics.fRequests.sum();
+		}
+		return count;
+	}
+
+	@Override
+	public long getTimeoutCount() {
+		long count = 0;
+		for (CommandMetrics metrics : fCommands.values()) {
+			count += metrics.fTimeouts.sum();
+		}
+		return count;
+	}
+
+	@Override
+	public long getBytesSent() {
+		long count = 0;
+		for (CommandMetrics metrics : fCommands.values()) {
+			count += metrics.fBytesSent.sum();
+		}
+		return count;
+	}
+
+	@Override
+	public long getBytesReceived() {
+		long count = 0;
+		for (CommandMetrics metrics : fCommands.values()) {
+			count += metrics.fBytesReceived.sum();
+		}
+		return count;
+	}
+
+	@Override
+	public JdwpCommandStatistics[] getCommandStatistics() {
+		List<JdwpCommandStatistics> statistics = new ArrayList<>(fCommands.size());
+		for (CommandMetrics metrics : fCommands.values()) {
+			statistics.add(metrics.snapshot());
+		}
+		statistics.sort(Comparator.comparingLong(JdwpCommandStatistics::getTotalMicros).reversed());
+		return statistics.toArray(new JdwpCommandStatistics[statistics.size()]);
+	}
+
+	@Override
+	public void reset() {
+		fCommands.clear();
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server if enabled by
+	 * {@link #JMX_PROPERTY}.
+	 */
+	synchronized void register() {
+		if (fObjectName != null || !String.valueOf(Boolean.TRUE).equals(System.getProperty(JMX_PROPERTY))) {
+			return;
+		}
+		try {
+			ObjectName name = new ObjectName("org.eclipse.jdi:type=JdwpMetrics,id=" + fgNextId.incrementAndGet()); //$NON-NLS-1$
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			fObjectName = name;
+		} catch (JMException e) {
+			JDIDebugPlugin.log(e);
+		}
+	}
+
+	/**
+	 * Removes these metrics from the platform MBean server, if registered.
+	 */
+	synchronized void unregister() {
+		if (fObjectName == null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.unregisterMBean(fObjectName);
+		} catch (JMException e) {
+			JDIDebugPlugin.log(e);
+		}
+		fObjectName = null;
+	}
+}
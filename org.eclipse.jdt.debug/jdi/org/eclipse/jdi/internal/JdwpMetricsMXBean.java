@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal;
+
+/**
+ * Management interface of the JDWP metrics of a virtual machine mirror.
+ *
+ * @see JdwpMetrics
+ */
+public interface JdwpMetricsMXBean {
+
+	/**
+	 * @return Returns the number of requests sent to the VM.
+	 */
+	long getRequestCount();
+
+	/**
+	 * @return Returns the number of requests that timed out.
+	 */
+	long getTimeoutCount();
+
+	/**
+	 * @return Returns the number of bytes sent to the VM.
+	 */
+	long getBytesSent();
+
+	/**
+	 * @return Returns the number of bytes received from the VM, including
+	 *         events.
+	 */
+	long getBytesReceived();
+
+	/**
+	 * @return Returns the statistics of each JDWP command that was sent or
+	 *         received, ordered by total latency.
+	 */
+	JdwpCommandStatistics[] getCommandStatistics();
+
+	/**
+	 * Clears all statistics.
+	 */
+	void reset();
+}
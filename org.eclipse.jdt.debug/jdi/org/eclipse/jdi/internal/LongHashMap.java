@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A hash map from primitive <code>long</code> keys to objects, using open
+ * addressing with linear probing. Used to look up mirrors by the value of
+ * their JDWP ID without allocating an ID object or a boxed key.
+ *
+ * This class is not thread safe.
+ *
+ * @param <V>
+ *            the type of the values
+ */
+public class LongHashMap<V> {
+	/** Key marking a free slot. The value of key 0 is held separately. */
+	private static final long FREE = 0;
+
+	private long[] fKeys;
+	private Object[] fValues;
+	/** Number of occupied slots, not counting key 0. */
+	private int fSize;
+	private int fMask;
+	private boolean fHasZeroKey;
+	private V fZeroValue;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public LongHashMap() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty map that can hold the given number of entries without
+	 * growing.
+	 */
+	public LongHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+		fKeys = new long[capacity];
+		fValues = new Object[capacity];
+		fMask = capacity - 1;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * @return Returns the value for the given key, or <code>null</code> if
+	 *         there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == FREE) {
+			return fZeroValue;
+		}
+		int index = hash(key) & fMask;
+		long k;
+		while ((k = fKeys[index]) != FREE) {
+			if (k == key) {
+				return (V) fValues[index];
+			}
+			index = (index + 1) & fMask;
+		}
+		return null;
+	}
+
+	/**
+	 * Associates the given value with the given key.
+	 *
+	 * @return Returns the previous value for the key, or <code>null</code> if
+	 *         there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (key == FREE) {
+			V previous = fZeroValue;
+			fZeroValue = value;
+			fHasZeroKey = true;
+			return previous;
+		}
+		int index = hash(key) & fMask;
+		long k;
+		while ((k = fKeys[index]) != FREE) {
+			if (k == key) {
+				V previous = (V) fValues[index];
+				fValues[index] = value;
+				return previous;
+			}
+			index = (index + 1) & fMask;
+		}
+		fKeys[index] = key;
+		fValues[index] = value;
+		if (++fSize > (fMask + 1) / 4 * 3) {
+			rehash((fMask + 1) * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the entry for the given key.
+	 *
+	 * @return Returns the removed value, or <code>null</code> if there was
+	 *         none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		if (key == FREE) {
+			V previous = fZeroValue;
+			fZeroValue = null;
+			fHasZeroKey = false;
+			return previous;
+		}
+		int index = hash(key) & fMask;
+		long k;
+		while ((k = fKeys[index]) != FREE) {
+			if (k == key) {
+				V previous = (V) fValues[index];
+				shiftBack(index);
+				fSize--;
+				return previous;
+			}
+			index = (index + 1) & fMask;
+		}
+		return null;
+	}
+
+	/**
+	 * Closes the gap at the given free slot by moving back entries of the same
+	 * probe sequence, so that lookups never stop early.
+	 */
+	private void shiftBack(int gap) {
+		int index = gap;
+		while (true) {
+			index = (index + 1) & fMask;
+			long k = fKeys[index];
+			if (k == FREE) {
+				break;
+			}
+			int home = hash(k) & fMask;
+			// move the entry if its home slot is not in (gap, index]
+			if (((index - home) & fMask) >= ((index - gap) & fMask)) {
+				fKeys[gap] = k;
+				fValues[gap] = fValues[index];
+				gap = index;
+			}
+		}
+		fKeys[gap] = FREE;
+		fValues[gap] = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void rehash(int capacity) {
+		long[] keys = fKeys;
+		Object[] values = fValues;
+		fKeys = new long[capacity];
+		fValues = new Object[capacity];
+		fMask = capacity - 1;
+		for (int i = 0; i < keys.length; i++) {
+			long k = keys[i];
+			if (k != FREE) {
+				int index = hash(k) & fMask;
+				while (fKeys[index] != FREE) {
+					index = (index + 1) & fMask;
+				}
+				fKeys[index] = k;
+				fValues[index] = values[i];
+			}
+		}
+	}
+
+	/**
+	 * @return Returns the number of entries.
+	 */
+	public int size() {
+		return fHasZeroKey ? fSize + 1 : fSize;
+	}
+
+	/**
+	 * @return Returns whether the map has no entries.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		Arrays.fill(fKeys, FREE);
+		Arrays.fill(fValues, null);
+		fSize = 0;
+		fHasZeroKey = false;
+		fZeroValue = null;
+	}
+
+	/**
+	 * @return Returns a new list with the values of this map.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> values() {
+		List<V> values = new ArrayList<>(size());
+		if (fHasZeroKey) {
+			values.add(fZeroValue);
+		}
+		for (int i = 0; i < fKeys.length; i++) {
+			if (fKeys[i] != FREE) {
+				values.add((V) fValues[i]);
+			}
+		}
+		return values;
+	}
+}
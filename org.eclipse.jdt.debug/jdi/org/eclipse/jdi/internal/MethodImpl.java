@@ -32,6 +32,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
+import org.eclipse.jdi.internal.jdwp.JdwpID;
 import org.eclipse.jdi.internal.jdwp.JdwpMethodID;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 
@@ -160,8 +161,9 @@ public class MethodImpl extends TypeComponentImpl implements Method, Locatable {
 			DataOutputStream outData = new DataOutputStream(outBytes);
 			writeWithReferenceType(this, outData);
 
-			JdwpReplyPacket replyPacket = requestVM(
-					JdwpCommandPacket.M_LINE_TABLE, outBytes);
+			JdwpReplyPacket replyPacket = requestVMCached(
+					JdwpCommandPacket.M_LINE_TABLE, referenceTypeImpl(),
+					fMethodID.value(), outBytes);
 			switch (replyPacket.errorCode()) {
 			case JdwpReplyPacket.ABSENT_INFORMATION:
 				throw new AbsentInformationException(
@@ -534,7 +536,8 @@ public class MethodImpl extends TypeComponentImpl implements Method, Locatable {
 					.isJdwpVersionGreaterOrEqual(1, 5);
 			int jdwpCommand = withGenericSignature ? JdwpCommandPacket.M_VARIABLE_TABLE_WITH_GENERIC
 					: JdwpCommandPacket.M_VARIABLE_TABLE;
-			JdwpReplyPacket replyPacket = requestVM(jdwpCommand, outBytes);
+			JdwpReplyPacket replyPacket = requestVMCached(jdwpCommand,
+					referenceTypeImpl(), fMethodID.value(), outBytes);
 			switch (replyPacket.errorCode()) {
 			case JdwpReplyPacket.ABSENT_INFORMATION:
 				return inferArguments();
@@ -705,18 +708,17 @@ public class MethodImpl extends TypeComponentImpl implements Method, Locatable {
 			return null;
 		}
 
-		JdwpMethodID ID = new JdwpMethodID(vmImpl);
+		long id = JdwpID.readValue(vmImpl.methodIDSize(), in);
 		if (target.fVerboseWriter != null) {
-			target.fVerboseWriter.println("method", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("method", id); //$NON-NLS-1$
 		}
 
-		ID.read(in);
-		if (ID.isNull()) {
+		if (id == 0) {
 			return null;
 		}
 
 		// The method must be part of a known reference type.
-		Method method = referenceType.findMethod(ID);
+		Method method = referenceType.findMethod(id);
 		if (method == null) {
 			throw new InternalError(
 					JDIMessages.MethodImpl_Got_MethodID_of_ReferenceType_that_is_not_a_member_of_the_ReferenceType_10);
@@ -19,11 +19,17 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.eclipse.jdi.Bootstrap;
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpPacket;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpString;
 import org.eclipse.jdt.internal.debug.core.JDIDebugOptions;
@@ -37,6 +43,7 @@ import com.sun.jdi.ObjectCollectedException;
 import com.sun.jdi.VMDisconnectedException;
 import com.sun.jdi.VMMismatchException;
 import com.sun.jdi.VMOutOfMemoryException;
+import com.sun.jdi.Value;
 import com.sun.jdi.VirtualMachine;
 
 /**
@@ -186,26 +193,265 @@ public class MirrorImpl implements Mirror {
 	public JdwpReplyPacket requestVM(int command, byte[] outData) {
 		JdwpCommandPacket commandPacket = new JdwpCommandPacket(command);
 		commandPacket.setData(outData);
+		return requestVM(commandPacket);
+	}
+
+	/**
+	 * Performs a VM request with data written to a pooled packet buffer. The
+	 * buffer is owned by the request afterwards and must not be used again.
+	 *
+	 * @return Returns reply data.
+	 */
+	public JdwpReplyPacket requestVM(int command, JdwpPacketBuffer outData) {
+		JdwpCommandPacket commandPacket = new JdwpCommandPacket(command);
+		commandPacket.setData(outData);
+		return requestVM(commandPacket);
+	}
+
+	/**
+	 * Sends a command packet and waits for its reply.
+	 *
+	 * @return Returns reply data.
+	 */
+	private JdwpReplyPacket requestVM(JdwpCommandPacket commandPacket) {
+		int command = commandPacket.getCommand();
 		long sent = System.currentTimeMillis();
+		long start = System.nanoTime();
 		fVirtualMachineImpl.packetSendManager().sendPacket(commandPacket);
 		fPendingJdwpRequest = true;
 		writeVerboseCommandPacketHeader(commandPacket);
 
-		JdwpReplyPacket reply = fVirtualMachineImpl.packetReceiveManager()
-				.getReply(commandPacket);
-		long recieved = System.currentTimeMillis();
+		JdwpReplyPacket reply;
+		try {
+			reply = fVirtualMachineImpl.packetReceiveManager().getReply(
+					commandPacket);
+		} catch (org.eclipse.jdi.TimeoutException e) {
+			fVirtualMachineImpl.metrics().recordTimeout(command,
+					commandPacket.getLength());
+			throw e;
+		}
+		fVirtualMachineImpl.metrics().recordRequest(command,
+				commandPacket.getLength(), reply.getLength(),
+				System.nanoTime() - start);
+		if (JDIDebugOptions.DEBUG_JDI_REQUEST_TIMES) {
+			traceRequestTime(commandPacket, sent, reply);
+		}
+		writeVerboseReplyPacketHeader(reply);
+		return reply;
+	}
+
+	/**
+	 * Performs a VM request without waiting for the reply. The command packet
+	 * is queued for sending immediately, so any number of requests can be in
+	 * flight before the first reply is awaited with
+	 * {@link #waitForReply(CompletableFuture)}.
+	 * <p>
+	 * The returned future is completed by the packet receiving thread. Reply
+	 * data must not be decoded in dependent stages, since decoding may issue
+	 * further requests; use {@link #waitForReply(CompletableFuture)} on the
+	 * requesting thread instead.
+	 * </p>
+	 *
+	 * @return Returns a future that is completed with the reply data, or
+	 *         completed exceptionally with a {@link VMDisconnectedException} or
+	 *         {@link org.eclipse.jdi.TimeoutException}.
+	 */
+	public CompletableFuture<JdwpReplyPacket> requestVMAsync(int command,
+			byte[] outData) {
+		JdwpCommandPacket commandPacket = new JdwpCommandPacket(command);
+		commandPacket.setData(outData);
+		return requestVMAsync(commandPacket);
+	}
+
+	/**
+	 * Performs a VM request with data written to a pooled packet buffer
+	 * without waiting for the reply. The buffer is owned by the request
+	 * afterwards and must not be used again.
+	 *
+	 * @return Returns a future that is completed with the reply data.
+	 * @see #requestVMAsync(int, byte[])
+	 */
+	public CompletableFuture<JdwpReplyPacket> requestVMAsync(int command,
+			JdwpPacketBuffer outData) {
+		JdwpCommandPacket commandPacket = new JdwpCommandPacket(command);
+		commandPacket.setData(outData);
+		return requestVMAsync(commandPacket);
+	}
+
+	/**
+	 * Sends a command packet without waiting for its reply.
+	 *
+	 * @return Returns a future that is completed with the reply data.
+	 */
+	private CompletableFuture<JdwpReplyPacket> requestVMAsync(
+			JdwpCommandPacket commandPacket) {
+		int command = commandPacket.getCommand();
+		// register interest before sending so a fast reply cannot be missed
+		CompletableFuture<JdwpReplyPacket> reply = fVirtualMachineImpl
+				.packetReceiveManager().getReplyAsync(commandPacket);
+		long sent = System.currentTimeMillis();
+		long start = System.nanoTime();
+		try {
+			fVirtualMachineImpl.packetSendManager().sendPacket(commandPacket);
+		} catch (VMDisconnectedException e) {
+			reply.completeExceptionally(e);
+			throw e;
+		}
+		fPendingJdwpRequest = true;
+		writeVerboseCommandPacketHeader(commandPacket);
+		JdwpMetrics metrics = fVirtualMachineImpl.metrics();
+		reply.whenComplete((packet, e) -> {
+			if (packet != null) {
+				metrics.recordRequest(command, commandPacket.getLength(),
+						packet.getLength(), System.nanoTime() - start);
+			} else if (e instanceof org.eclipse.jdi.TimeoutException) {
+				metrics.recordTimeout(command, commandPacket.getLength());
+			}
+		});
 		if (JDIDebugOptions.DEBUG_JDI_REQUEST_TIMES) {
-			StringBuilder buf = new StringBuilder();
-			buf.append(JDIDebugOptions.FORMAT.format(new Date(sent)));
-			buf.append(" JDI Request: "); //$NON-NLS-1$
-			buf.append(commandPacket.toString());
-			buf.append("\n\tResponse Time: "); //$NON-NLS-1$
-			buf.append(recieved - sent);
-			buf.append("ms"); //$NON-NLS-1$
-			buf.append(" length: "); //$NON-NLS-1$
-			buf.append(reply.getLength());
-			JDIDebugOptions.trace(buf.toString());
+			reply.thenAccept(packet -> traceRequestTime(commandPacket, sent, packet));
+		}
+		return reply;
+	}
+
+	/**
+	 * Performs a VM request without waiting for the reply.
+	 *
+	 * @return Returns a future that is completed with the reply data.
+	 * @see #requestVMAsync(int, byte[])
+	 */
+	public CompletableFuture<JdwpReplyPacket> requestVMAsync(int command,
+			ByteArrayOutputStream outData) {
+		return requestVMAsync(command, outData.toByteArray());
+	}
+
+	/**
+	 * Waits for the reply of a request sent with
+	 * {@link #requestVMAsync(int, byte[])}.
+	 *
+	 * @return Returns reply data.
+	 */
+	public JdwpReplyPacket waitForReply(CompletableFuture<JdwpReplyPacket> reply) {
+		JdwpReplyPacket packet;
+		try {
+			packet = reply.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+		writeVerboseReplyPacketHeader(packet);
+		return packet;
+	}
+
+	/**
+	 * Writes the data of a 'Get Values' command of a mirror.
+	 *
+	 * @param <M>
+	 *            type of the mirror
+	 * @param <I>
+	 *            type of the items whose values are requested
+	 */
+	interface ValuesRequestWriter<M extends MirrorImpl, I> {
+		/**
+		 * Writes the mirror and the items whose values are requested.
+		 */
+		void write(M mirror, List<I> items, JdwpPacketBuffer outData);
+	}
+
+	/**
+	 * Retrieves the values of items of several mirrors. One command is sent per
+	 * mirror before any reply is awaited, so the replies for all mirrors
+	 * arrive within a single round trip. Each reply holds one tagged value per
+	 * requested item, in request order.
+	 *
+	 * @param command
+	 *            the 'Get Values' command sent for each mirror
+	 * @param requests
+	 *            the items whose values to retrieve, per mirror; mirrors
+	 *            without items are skipped
+	 * @param writer
+	 *            writes the command data of a mirror
+	 * @param countMismatchMessage
+	 *            message of the error thrown if a reply holds a different
+	 *            number of values than requested
+	 * @param result
+	 *            map holding a value map for each requested mirror, to which
+	 *            the retrieved values are added
+	 * @param whileWaiting
+	 *            run once all commands are sent, before the first reply is
+	 *            awaited, or <code>null</code>
+	 */
+	static <M extends MirrorImpl, I> void getValues(int command,
+			Map<M, List<I>> requests, ValuesRequestWriter<M, I> writer,
+			String countMismatchMessage, Map<? super M, Map<I, Value>> result,
+			Runnable whileWaiting) {
+		Map<M, CompletableFuture<JdwpReplyPacket>> replies = new LinkedHashMap<>(requests.size());
+
+		// Send all requests first.
+		for (Entry<M, List<I>> entry : requests.entrySet()) {
+			M mirror = entry.getKey();
+			if (entry.getValue().isEmpty()) {
+				continue;
+			}
+			mirror.initJdwpRequest();
+			JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
+			writer.write(mirror, entry.getValue(), outData);
+			replies.put(mirror, mirror.requestVMAsync(command, outData));
+		}
+
+		if (whileWaiting != null) {
+			whileWaiting.run();
 		}
+
+		// Then collect the replies.
+		for (Entry<M, CompletableFuture<JdwpReplyPacket>> entry : replies.entrySet()) {
+			M mirror = entry.getKey();
+			List<I> items = requests.get(mirror);
+			try {
+				JdwpReplyPacket replyPacket = mirror.waitForReply(entry.getValue());
+				mirror.defaultReplyErrorHandler(replyPacket.errorCode());
+
+				DataInputStream replyData = replyPacket.dataInStream();
+				int nrOfElements = mirror.readInt("elements", replyData); //$NON-NLS-1$
+				if (nrOfElements != items.size()) {
+					throw new InternalError(countMismatchMessage);
+				}
+				Map<I, Value> values = result.get(mirror);
+				for (int i = 0; i < nrOfElements; i++) {
+					values.put(items.get(i), ValueImpl.readWithTag(mirror, replyData));
+				}
+			} catch (IOException e) {
+				mirror.defaultIOExceptionHandler(e);
+			} finally {
+				mirror.handledJdwpRequest();
+			}
+		}
+	}
+
+	/**
+	 * Writes the request time of a command to the trace log.
+	 */
+	private void traceRequestTime(JdwpCommandPacket commandPacket, long sent,
+			JdwpReplyPacket reply) {
+		long recieved = System.currentTimeMillis();
+		StringBuilder buf = new StringBuilder();
+		buf.append(JDIDebugOptions.FORMAT.format(new Date(sent)));
+		buf.append(" JDI Request: "); //$NON-NLS-1$
+		buf.append(commandPacket.toString());
+		buf.append("\n\tResponse Time: "); //$NON-NLS-1$
+		buf.append(recieved - sent);
+		buf.append("ms"); //$NON-NLS-1$
+		buf.append(" length: "); //$NON-NLS-1$
+		buf.append(reply.getLength());
+		JDIDebugOptions.trace(buf.toString());
+	}
+
+	/**
+	 * Writes reply packet header if verbose is on.
+	 */
+	private void writeVerboseReplyPacketHeader(JdwpReplyPacket reply) {
 		if (fVerboseWriter != null) {
 			fVerboseWriter.println();
 			fVerboseWriter.println("Received reply"); //$NON-NLS-1$
@@ -217,8 +463,6 @@ public class MirrorImpl implements Mirror {
 					.println(
 							"error code", reply.errorCode(), JdwpReplyPacket.errorMap()); //$NON-NLS-1$
 		}
-
-		return reply;
 	}
 
 	/**
@@ -236,14 +480,9 @@ public class MirrorImpl implements Mirror {
 	 * @return Returns reply data.
 	 */
 	public JdwpReplyPacket requestVM(int command, ObjectReferenceImpl object) {
-		ByteArrayOutputStream byteOutStream = new ByteArrayOutputStream();
-		DataOutputStream dataOutStream = new DataOutputStream(byteOutStream);
-		try {
-			object.write(this, dataOutStream);
-		} catch (IOException e) {
-			defaultIOExceptionHandler(e);
-		}
-		return requestVM(command, byteOutStream);
+		JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
+		object.write(this, outData);
+		return requestVM(command, outData);
 	}
 
 	/**
@@ -252,14 +491,56 @@ public class MirrorImpl implements Mirror {
 	 * @return Returns reply data.
 	 */
 	public JdwpReplyPacket requestVM(int command, ReferenceTypeImpl refType) {
-		ByteArrayOutputStream byteOutStream = new ByteArrayOutputStream();
-		DataOutputStream dataOutStream = new DataOutputStream(byteOutStream);
-		try {
-			refType.write(this, dataOutStream);
-		} catch (IOException e) {
-			defaultIOExceptionHandler(e);
+		JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
+		refType.write(this, outData);
+		return requestVM(command, outData);
+	}
+
+	/**
+	 * Performs a VM request whose reply depends only on the given type and
+	 * member, and does not change unless the type is redefined or unloaded.
+	 * The reply is taken from the reply cache of the VM if possible.
+	 *
+	 * @param memberID
+	 *            the value of the ID of the method or field the command is
+	 *            about, or 0 if it is about the type itself
+	 * @return Returns reply data.
+	 * @see ReplyCache
+	 */
+	public JdwpReplyPacket requestVMCached(int command,
+			ReferenceTypeImpl refType, long memberID,
+			ByteArrayOutputStream outData) {
+		ReplyCache cache = fVirtualMachineImpl.replyCache();
+		long typeID = refType.getRefTypeID().value();
+		JdwpReplyPacket reply = cache.get(command, typeID, memberID);
+		if (reply != null) {
+			return reply;
+		}
+		long epoch = cache.epoch();
+		reply = requestVM(command, outData);
+		cache.put(command, typeID, memberID, epoch, reply);
+		return reply;
+	}
+
+	/**
+	 * Performs a VM request for a specified type whose reply does not change
+	 * unless the type is redefined or unloaded.
+	 *
+	 * @return Returns reply data.
+	 * @see #requestVMCached(int, ReferenceTypeImpl, long, ByteArrayOutputStream)
+	 */
+	public JdwpReplyPacket requestVMCached(int command,
+			ReferenceTypeImpl refType) {
+		ReplyCache cache = fVirtualMachineImpl.replyCache();
+		long typeID = refType.getRefTypeID().value();
+		JdwpReplyPacket reply = cache.get(command, typeID, 0);
+		if (reply != null) {
+			return reply;
 		}
-		return requestVM(command, byteOutStream);
+		long epoch = cache.epoch();
+		reply = requestVM(command, refType);
+		cache.put(command, typeID, 0, epoch, reply);
+		return reply;
 	}
 
 	/**
@@ -607,6 +888,41 @@ public class MirrorImpl implements Mirror {
 		}
 	}
 
+	/**
+	 * Writes Jdwp data to a packet buffer and, if verbose is on, outputs
+	 * verbose info.
+	 */
+	public void writeByte(byte value, String description,
+			JdwpPacketBuffer out) {
+		out.writeByte(value);
+		if (fVerboseWriter != null) {
+			fVerboseWriter.println(description, value);
+		}
+	}
+
+	/**
+	 * Writes Jdwp data to a packet buffer and, if verbose is on, outputs
+	 * verbose info.
+	 */
+	public void writeInt(int value, String description, JdwpPacketBuffer out) {
+		out.writeInt(value);
+		if (fVerboseWriter != null) {
+			fVerboseWriter.println(description, value);
+		}
+	}
+
+	/**
+	 * Writes Jdwp data to a packet buffer and, if verbose is on, outputs
+	 * verbose info.
+	 */
+	public void writeByte(byte value, String description,
+			Map<Integer, String> valueToString, JdwpPacketBuffer out) {
+		out.writeByte(value);
+		if (fVerboseWriter != null) {
+			fVerboseWriter.println(description, value, valueToString);
+		}
+	}
+
 	/**
 	 * Writes Jdwp data and, if verbose is on, outputs verbose info.
 	 */
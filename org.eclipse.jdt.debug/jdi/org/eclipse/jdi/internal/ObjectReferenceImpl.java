@@ -20,12 +20,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpID;
 import org.eclipse.jdi.internal.jdwp.JdwpObjectID;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 
 import com.sun.jdi.ArrayType;
@@ -279,9 +282,6 @@ public class ObjectReferenceImpl extends ValueImpl implements ObjectReference {
 		// Note that this information should not be cached.
 		initJdwpRequest();
 		try {
-			ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
-			DataOutputStream outData = new DataOutputStream(outBytes);
-
 			/*
 			 * Distinguish static fields from non-static fields: For static
 			 * fields ReferenceTypeImpl.getValues() must be used.
@@ -315,6 +315,7 @@ public class ObjectReferenceImpl extends ValueImpl implements ObjectReference {
 			}
 			// Then get the values for the non-static fields.
 			int nonStaticFieldsSize = nonStaticFields.size();
+			JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
 			write(this, outData);
 			writeInt(nonStaticFieldsSize, "size", outData); //$NON-NLS-1$
 			for (int i = 0; i < nonStaticFieldsSize; i++) {
@@ -323,7 +324,7 @@ public class ObjectReferenceImpl extends ValueImpl implements ObjectReference {
 			}
 
 			JdwpReplyPacket replyPacket = requestVM(
-					JdwpCommandPacket.OR_GET_VALUES, outBytes);
+					JdwpCommandPacket.OR_GET_VALUES, outData);
 			defaultReplyErrorHandler(replyPacket.errorCode());
 
 			DataInputStream replyData = replyPacket.dataInStream();
@@ -345,6 +346,53 @@ public class ObjectReferenceImpl extends ValueImpl implements ObjectReference {
 		}
 	}
 
+	/**
+	 * Returns the values of instance and/or static fields of several objects.
+	 * One 'Object - Get Fields Values' command is sent per object before any
+	 * reply is awaited, so the replies for all objects arrive within a single
+	 * round trip.
+	 *
+	 * @param objectFields
+	 *            the objects with the fields to retrieve for each of them
+	 * @return Returns the values of the requested fields, per object.
+	 */
+	public static Map<ObjectReference, Map<Field, Value>> getValues(
+			Map<? extends ObjectReference, ? extends List<? extends Field>> objectFields) {
+		Map<ObjectReference, Map<Field, Value>> result = new HashMap<>(objectFields.size());
+		Map<ObjectReferenceImpl, List<Field>> nonStaticFields = new LinkedHashMap<>(objectFields.size());
+		Map<ObjectReferenceImpl, List<Field>> staticFields = new LinkedHashMap<>();
+		for (Entry<? extends ObjectReference, ? extends List<? extends Field>> entry : objectFields.entrySet()) {
+			ObjectReferenceImpl object = (ObjectReferenceImpl) entry.getKey();
+			List<Field> fields = new ArrayList<>();
+			for (Field field : entry.getValue()) {
+				object.checkVM(field);
+				if (field.isStatic()) {
+					staticFields.computeIfAbsent(object, o -> new ArrayList<>()).add(field);
+				} else {
+					fields.add(field);
+				}
+			}
+			result.put(object, new HashMap<>());
+			nonStaticFields.put(object, fields);
+		}
+
+		// Static fields are answered by the declaring type while the replies
+		// for the instance fields are on their way.
+		getValues(JdwpCommandPacket.OR_GET_VALUES, nonStaticFields, (object, fields, outData) -> {
+			object.write(object, outData);
+			object.writeInt(fields.size(), "size", outData); //$NON-NLS-1$
+			for (Field field : fields) {
+				((FieldImpl) field).write(object, outData);
+			}
+		}, JDIMessages.ObjectReferenceImpl_Retrieved_a_different_number_of_values_from_the_VM_than_requested_1,
+				result, () -> {
+					for (Entry<ObjectReferenceImpl, List<Field>> entry : staticFields.entrySet()) {
+						result.get(entry.getKey()).putAll(entry.getKey().referenceType().getValues(entry.getValue()));
+					}
+				});
+		return result;
+	}
+
 	/**
 	 * @return Returns the hash code value.
 	 */
@@ -678,4 +726,13 @@ public class ObjectReferenceImpl extends ValueImpl implements ObjectReference {
 		if (target.fVerboseWriter != null)
 			target.fVerboseWriter.println("objectReference", fObjectID.value()); //$NON-NLS-1$
 	}
+
+	/**
+	 * Writes JDWP representation to a packet buffer.
+	 */
+	public void write(MirrorImpl target, JdwpPacketBuffer out) {
+		fObjectID.write(out);
+		if (target.fVerboseWriter != null)
+			target.fVerboseWriter.println("objectReference", fObjectID.value()); //$NON-NLS-1$
+	}
 }
@@ -26,14 +26,17 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpFieldID;
 import org.eclipse.jdi.internal.jdwp.JdwpID;
 import org.eclipse.jdi.internal.jdwp.JdwpMethodID;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
 import org.eclipse.jdi.internal.jdwp.JdwpReferenceTypeID;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 import org.eclipse.osgi.util.NLS;
@@ -355,8 +358,9 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 	/** The following are the stored results of JDWP calls. */
 	protected List<InterfaceType> fInterfaces = null;
 	private List<Method> fMethods = null;
-	private Map<JdwpMethodID, Method> fMethodTable = null;
+	private LongHashMap<Method> fMethodTable = null;
 	private List<Field> fFields = null;
+	private LongHashMap<FieldImpl> fFieldTable = null;
 	private List<Method> fAllMethods = null;
 	private List<Method> fVisibleMethods = null;
 	private List<Field> fAllFields = null;
@@ -439,6 +443,7 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 				((FieldImpl)field).flushStoredJdwpResults();
 			}
 			fFields = null;
+			fFieldTable = null;
 		}
 
 		fInterfaces = null;
@@ -961,14 +966,24 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 	 *         given fieldID, or null if not found.
 	 */
 	public FieldImpl findField(JdwpFieldID fieldID) {
-		Iterator<Field> iter = fields().iterator();
-		while (iter.hasNext()) {
-			FieldImpl field = (FieldImpl) iter.next();
-			if (field.getFieldID().equals(fieldID)) {
-				return field;
+		return findField(fieldID.value());
+	}
+
+	/**
+	 * @return Returns FieldImpl of a field in the reference specified by the
+	 *         value of a fieldID, or null if not found.
+	 */
+	public FieldImpl findField(long fieldID) {
+		LongHashMap<FieldImpl> fieldTable = fFieldTable;
+		if (fieldTable == null) {
+			// use temporary variable to avoid the lazy initialization race of 509259
+			fieldTable = new LongHashMap<>();
+			for (Field field : fields()) {
+				fieldTable.put(((FieldImpl) field).getFieldID().value(), (FieldImpl) field);
 			}
+			fFieldTable = fieldTable;
 		}
-		return null;
+		return fieldTable.get(fieldID);
 	}
 
 	/**
@@ -981,17 +996,29 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 					JDIMessages.ReferenceTypeImpl_Obsolete_method_1,
 					"", null, -1); //$NON-NLS-1$
 		}
-		if (fMethodTable == null) {
+		return findMethod(methodID.value());
+	}
+
+	/**
+	 * @return Returns MethodImpl of a method in the reference specified by the
+	 *         value of a methodID, or null if not found.
+	 */
+	public Method findMethod(long methodID) {
+		if (methodID == 0) {
+			return findMethod(new JdwpMethodID(virtualMachineImpl()));
+		}
+		LongHashMap<Method> methodTable = fMethodTable;
+		if (methodTable == null) {
 			// 509259 use temporary variable to workaround fMethodTable lazy initialization race
-			Map<JdwpMethodID, Method> methodTable = new HashMap<>();
+			methodTable = new LongHashMap<>();
 			Iterator<Method> iter = methods().iterator();
 			while (iter.hasNext()) {
 				MethodImpl method = (MethodImpl) iter.next();
-				methodTable.put(method.getMethodID(), method);
+				methodTable.put(method.getMethodID().value(), method);
 			}
-			fMethodTable = Collections.unmodifiableMap(methodTable);
+			fMethodTable = methodTable;
 		}
-		return fMethodTable.get(methodID);
+		return methodTable.get(methodID);
 	}
 
 	/**
@@ -1016,8 +1043,7 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 		// Note that this information should not be cached.
 		initJdwpRequest();
 		try {
-			ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
-			DataOutputStream outData = new DataOutputStream(outBytes);
+			JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
 			int fieldsSize = fields.size();
 			write(this, outData);
 			writeInt(fieldsSize, "size", outData); //$NON-NLS-1$
@@ -1028,7 +1054,7 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 			}
 
 			JdwpReplyPacket replyPacket = requestVM(
-					JdwpCommandPacket.RT_GET_VALUES, outBytes);
+					JdwpCommandPacket.RT_GET_VALUES, outData);
 			defaultReplyErrorHandler(replyPacket.errorCode());
 
 			DataInputStream replyData = replyPacket.dataInStream();
@@ -1051,6 +1077,39 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 		}
 	}
 
+	/**
+	 * Returns the values of static fields of several reference types. One
+	 * 'ReferenceType - Get Values' command is sent per type before any reply
+	 * is awaited, so the replies for all types arrive within a single round
+	 * trip.
+	 *
+	 * @param typeFields
+	 *            the types with the static fields to retrieve for each of them
+	 * @return Returns the values of the requested fields, per type.
+	 */
+	public static Map<ReferenceType, Map<Field, Value>> getValues(
+			Map<? extends ReferenceType, ? extends List<? extends Field>> typeFields) {
+		Map<ReferenceType, Map<Field, Value>> result = new HashMap<>(typeFields.size());
+		Map<ReferenceTypeImpl, List<Field>> requests = new LinkedHashMap<>(typeFields.size());
+		for (Entry<? extends ReferenceType, ? extends List<? extends Field>> entry : typeFields.entrySet()) {
+			ReferenceTypeImpl type = (ReferenceTypeImpl) entry.getKey();
+			for (Field field : entry.getValue()) {
+				type.checkVM(field);
+			}
+			result.put(type, new HashMap<>());
+			requests.put(type, new ArrayList<>(entry.getValue()));
+		}
+		getValues(JdwpCommandPacket.RT_GET_VALUES, requests, (type, fields, outData) -> {
+			type.write(type, outData);
+			type.writeInt(fields.size(), "size", outData); //$NON-NLS-1$
+			for (Field field : fields) {
+				((FieldImpl) field).getFieldID().write(outData);
+			}
+		}, JDIMessages.ReferenceTypeImpl_Retrieved_a_different_number_of_values_from_the_VM_than_requested_3,
+				result, null);
+		return result;
+	}
+
 	/**
 	 * @return Returns the hash code value.
 	 */
@@ -1219,7 +1278,7 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 		}
 		initJdwpRequest();
 		try {
-			JdwpReplyPacket replyPacket = requestVM(
+			JdwpReplyPacket replyPacket = requestVMCached(
 					JdwpCommandPacket.RT_SIGNATURE, this);
 			defaultReplyErrorHandler(replyPacket.errorCode());
 			DataInputStream replyData = replyPacket.dataInStream();
@@ -1334,6 +1393,17 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 		}
 	}
 
+	/**
+	 * Writes JDWP representation to a packet buffer.
+	 */
+	public void write(MirrorImpl target, JdwpPacketBuffer out) {
+		fReferenceTypeID.write(out);
+		if (target.fVerboseWriter != null) {
+			target.fVerboseWriter.println(
+					"referenceType", fReferenceTypeID.value()); //$NON-NLS-1$
+		}
+	}
+
 	/**
 	 * Writes representation of null referenceType.
 	 */
@@ -1742,7 +1812,7 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 	private void getSourceDebugExtension() throws AbsentInformationException {
 		initJdwpRequest();
 		try {
-			JdwpReplyPacket replyPacket = requestVM(
+			JdwpReplyPacket replyPacket = requestVMCached(
 					JdwpCommandPacket.RT_SOURCE_DEBUG_EXTENSION, this);
 			if (replyPacket.errorCode() == JdwpReplyPacket.ABSENT_INFORMATION) {
 				throw new AbsentInformationException(
@@ -2123,7 +2193,7 @@ public abstract class ReferenceTypeImpl extends TypeImpl implements
 		if (virtualMachineImpl().isJdwpVersionGreaterOrEqual(1, 5)) {
 			initJdwpRequest();
 			try {
-				JdwpReplyPacket replyPacket = requestVM(
+				JdwpReplyPacket replyPacket = requestVMCached(
 						JdwpCommandPacket.RT_SIGNATURE_WITH_GENERIC, this);
 				defaultReplyErrorHandler(replyPacket.errorCode());
 				DataInputStream replyData = replyPacket.dataInStream();
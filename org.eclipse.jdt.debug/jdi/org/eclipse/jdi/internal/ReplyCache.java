@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
+
+/**
+ * Caches the replies of JDWP commands whose answer depends only on a
+ * reference type (and optionally one of its members), such as line tables,
+ * local variable tables, signatures and source debug extensions. Such replies
+ * only change when the type is redefined or unloaded, so they survive the
+ * mirror of the type being discarded and created again.
+ * <p>
+ * Every invalidation advances a redefinition epoch. A reply is only cached if
+ * no invalidation happened since its command was sent, so a reply describing
+ * a type before its redefinition is never cached after it.
+ * </p>
+ */
+public class ReplyCache {
+	/**
+	 * Maximum number of bytes of cached replies. The cache is cleared when it
+	 * would grow beyond this size.
+	 */
+	private static final long MAX_CACHED_BYTES = 8 * 1024 * 1024;
+
+	/**
+	 * Command and member of a cached reply, within the replies of a type.
+	 */
+	private static final class Key {
+		final int fCommand;
+		final long fMemberID;
+
+		Key(int command, long memberID) {
+			fCommand = command;
+			fMemberID = memberID;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) obj;
+			return fCommand == key.fCommand && fMemberID == key.fMemberID;
+		}
+
+		@Override
+		public int hashCode() {
+			return fCommand * 31 + Long.hashCode(fMemberID);
+		}
+	}
+
+	/** Replies per reference type ID. */
+	private final ConcurrentHashMap<Long, Map<Key, JdwpReplyPacket>> fReplies = new ConcurrentHashMap<>();
+
+	/** The redefinition epoch, advanced by every invalidation. */
+	private final AtomicLong fEpoch = new AtomicLong();
+
+	/** Number of bytes of cached replies. */
+	private final AtomicLong fBytes = new AtomicLong();
+
+	/**
+	 * @return Returns the current redefinition epoch. Must be obtained before
+	 *         the command whose reply is to be cached is sent.
+	 */
+	public long epoch() {
+		return fEpoch.get();
+	}
+
+	/**
+	 * @return Returns the cached reply of the given command for the given type
+	 *         and member, or null if it is not cached.
+	 */
+	public JdwpReplyPacket get(int command, long typeID, long memberID) {
+		Map<Key, JdwpReplyPacket> replies = fReplies.get(typeID);
+		if (replies == null) {
+			return null;
+		}
+		return replies.get(new Key(command, memberID));
+	}
+
+	/**
+	 * Caches the reply of the given command for the given type and member,
+	 * unless the reply is an error that may not persist, or the type may have
+	 * been redefined since the given epoch.
+	 */
+	public void put(int command, long typeID, long memberID, long epoch,
+			JdwpReplyPacket reply) {
+		switch (reply.errorCode()) {
+		case JdwpReplyPacket.NONE:
+		case JdwpReplyPacket.ABSENT_INFORMATION:
+		case JdwpReplyPacket.NATIVE_METHOD:
+			break;
+		default:
+			return;
+		}
+		if (epoch != fEpoch.get()) {
+			return;
+		}
+		if (fBytes.addAndGet(reply.getLength()) > MAX_CACHED_BYTES) {
+			clear();
+			return;
+		}
+		Key key = new Key(command, memberID);
+		Map<Key, JdwpReplyPacket> replies = fReplies.computeIfAbsent(typeID,
+				id -> new ConcurrentHashMap<>());
+		JdwpReplyPacket previous = replies.put(key, reply);
+		if (previous != null) {
+			fBytes.addAndGet(-previous.getLength());
+		}
+		if (epoch != fEpoch.get()) {
+			// invalidated while we were adding the reply
+			if (replies.remove(key, reply)) {
+				fBytes.addAndGet(-reply.getLength());
+			}
+		}
+	}
+
+	/**
+	 * Discards the cached replies for the given type, e.g. because it was
+	 * redefined or unloaded.
+	 */
+	public void invalidate(long typeID) {
+		fEpoch.incrementAndGet();
+		Map<Key, JdwpReplyPacket> replies = fReplies.remove(typeID);
+		if (replies != null) {
+			for (JdwpReplyPacket reply : replies.values()) {
+				fBytes.addAndGet(-reply.getLength());
+			}
+		}
+	}
+
+	/**
+	 * Discards all cached replies.
+	 */
+	public void clear() {
+		fEpoch.incrementAndGet();
+		fReplies.clear();
+		fBytes.set(0);
+	}
+}
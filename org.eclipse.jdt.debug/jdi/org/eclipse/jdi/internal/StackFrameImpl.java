@@ -20,12 +20,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpFrameID;
 import org.eclipse.jdi.internal.jdwp.JdwpID;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
 
@@ -124,8 +127,7 @@ public class StackFrameImpl extends MirrorImpl implements StackFrame, Locatable
 		// Request values for local variables other than 'this'.
 		initJdwpRequest();
 		try {
-			ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
-			DataOutputStream outData = new DataOutputStream(outBytes);
+			JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
 			writeWithThread(this, outData);
 			writeInt(sizeNotThis, "size", outData); //$NON-NLS-1$
 			for (int i = 0; i < sizeAll; i++) {
@@ -138,7 +140,7 @@ public class StackFrameImpl extends MirrorImpl implements StackFrame, Locatable
 				}
 			}
 			JdwpReplyPacket replyPacket = requestVM(
-					JdwpCommandPacket.SF_GET_VALUES, outBytes);
+					JdwpCommandPacket.SF_GET_VALUES, outData);
 			defaultReplyErrorHandler(replyPacket.errorCode());
 
 			DataInputStream replyData = replyPacket.dataInStream();
@@ -161,6 +163,60 @@ public class StackFrameImpl extends MirrorImpl implements StackFrame, Locatable
 		}
 	}
 
+	/**
+	 * Returns the values of local variables in several stack frames. One
+	 * 'StackFrame - Get Values' command is sent per frame before any reply is
+	 * awaited, so the replies for all frames arrive within a single round
+	 * trip.
+	 *
+	 * @param frameVariables
+	 *            the frames with the variables to retrieve for each of them
+	 * @return Returns the values of the requested variables, per frame.
+	 */
+	public static Map<StackFrame, Map<LocalVariable, Value>> getValues(
+			Map<? extends StackFrame, ? extends List<? extends LocalVariable>> frameVariables) {
+		Map<StackFrame, Map<LocalVariable, Value>> result = new HashMap<>(frameVariables.size());
+		Map<StackFrameImpl, List<LocalVariable>> requested = new LinkedHashMap<>(frameVariables.size());
+		Map<StackFrameImpl, List<LocalVariable>> thisVariables = new LinkedHashMap<>();
+		for (Entry<? extends StackFrame, ? extends List<? extends LocalVariable>> entry : frameVariables.entrySet()) {
+			StackFrameImpl frame = (StackFrameImpl) entry.getKey();
+			List<LocalVariable> variables = new ArrayList<>();
+			for (LocalVariable variable : entry.getValue()) {
+				LocalVariableImpl var = (LocalVariableImpl) variable;
+				if (var.isThis()) {
+					thisVariables.computeIfAbsent(frame, f -> new ArrayList<>()).add(var);
+				} else {
+					frame.checkVM(var);
+					variables.add(var);
+				}
+			}
+			result.put(frame, new HashMap<>());
+			requested.put(frame, variables);
+		}
+
+		// 'this' needs a special JDWP request, sent while the replies for the
+		// other variables are on their way.
+		getValues(JdwpCommandPacket.SF_GET_VALUES, requested, (frame, variables, outData) -> {
+			frame.writeWithThread(frame, outData);
+			frame.writeInt(variables.size(), "size", outData); //$NON-NLS-1$
+			for (LocalVariable variable : variables) {
+				LocalVariableImpl var = (LocalVariableImpl) variable;
+				frame.writeInt(var.slot(), "slot", outData); //$NON-NLS-1$
+				frame.writeByte(var.tag(), "tag", JdwpID.tagMap(), outData); //$NON-NLS-1$
+			}
+		}, JDIMessages.StackFrameImpl_Retrieved_a_different_number_of_values_from_the_VM_than_requested_1,
+				result, () -> {
+					for (Entry<StackFrameImpl, List<LocalVariable>> entry : thisVariables.entrySet()) {
+						Value thisValue = entry.getKey().thisObject();
+						Map<LocalVariable, Value> values = result.get(entry.getKey());
+						for (LocalVariable var : entry.getValue()) {
+							values.put(var, thisValue);
+						}
+					}
+				});
+		return result;
+	}
+
 	/* (non-Javadoc)
 	 * @see com.sun.jdi.StackFrame#getArgumentValues()
 	 */
@@ -348,6 +404,24 @@ public class StackFrameImpl extends MirrorImpl implements StackFrame, Locatable
 		write(target, out);
 	}
 
+	/**
+	 * Writes JDWP representation to a packet buffer.
+	 */
+	public void write(MirrorImpl target, JdwpPacketBuffer out) {
+		fFrameID.write(out);
+		if (target.fVerboseWriter != null) {
+			target.fVerboseWriter.println("stackFrame", fFrameID.value()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Writes JDWP representation, including the thread, to a packet buffer.
+	 */
+	public void writeWithThread(MirrorImpl target, JdwpPacketBuffer out) {
+		fThread.write(target, out);
+		write(target, out);
+	}
+
 	/**
 	 * @return Reads JDWP representation and returns new instance.
 	 */
@@ -226,17 +226,18 @@ public class ThreadGroupReferenceImpl extends ObjectReferenceImpl implements
 	public static ThreadGroupReferenceImpl read(MirrorImpl target,
 			DataInputStream in) throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpThreadGroupID ID = new JdwpThreadGroupID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.objectIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("threadGroupReference", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("threadGroupReference", id); //$NON-NLS-1$
 
-		if (ID.isNull())
+		if (id == 0)
 			return null;
 
 		ThreadGroupReferenceImpl mirror = (ThreadGroupReferenceImpl) vmImpl
-				.getCachedMirror(ID);
+				.getCachedObject(id);
 		if (mirror == null) {
+			JdwpThreadGroupID ID = new JdwpThreadGroupID(vmImpl);
+			ID.setValue(id);
 			mirror = new ThreadGroupReferenceImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
@@ -21,11 +21,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdi.internal.jdwp.JdwpCommandPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpID;
+import org.eclipse.jdi.internal.jdwp.JdwpPacketBuffer;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 import org.eclipse.jdi.internal.jdwp.JdwpThreadID;
 import org.eclipse.osgi.util.NLS;
@@ -50,7 +53,7 @@ import com.sun.jdi.Value;
  * specification. See the com.sun.jdi package for more information.
  *
  */
-public class ThreadReferenceImpl extends ObjectReferenceImpl implements	ThreadReference, org.eclipse.jdi.hcr.ThreadReference {
+public class ThreadReferenceImpl extends ObjectReferenceImpl implements	ThreadReference, org.eclipse.jdi.hcr.ThreadReference, org.eclipse.jdi.ThreadReference {
 	/** ThreadStatus Constants. */
 	public static final int JDWP_THREAD_STATUS_ZOMBIE = 0;
 	public static final int JDWP_THREAD_STATUS_RUNNING = 1;
@@ -78,6 +81,12 @@ public class ThreadReferenceImpl extends ObjectReferenceImpl implements	ThreadRe
 	 */
 	private ThreadGroupReferenceImpl fThreadGroup = null;
 
+	/**
+	 * Whether this thread is virtual, or <code>null</code> if not known yet. A
+	 * thread cannot become virtual or stop being virtual.
+	 */
+	private volatile Boolean fIsVirtual = null;
+
 	/**
 	 * Creates new ThreadReferenceImpl.
 	 */
@@ -457,6 +466,150 @@ public class ThreadReferenceImpl extends ObjectReferenceImpl implements	ThreadRe
 		}
 	}
 
+	/**
+	 * The monitor information of a suspended thread, as returned by
+	 * {@link ThreadReferenceImpl#getMonitorStates(List)}.
+	 */
+	public static final class MonitorState {
+
+		private final List<com.sun.jdi.MonitorInfo> fOwnedMonitors;
+
+		private final ObjectReference fContendedMonitor;
+
+		MonitorState(List<com.sun.jdi.MonitorInfo> ownedMonitors, ObjectReference contendedMonitor) {
+			fOwnedMonitors = ownedMonitors;
+			fContendedMonitor = contendedMonitor;
+		}
+
+		/**
+		 * @return Returns the monitors owned by the thread with the depth of
+		 *         the frame that acquired them, <code>-1</code> if the VM
+		 *         can't tell the depth.
+		 */
+		public List<com.sun.jdi.MonitorInfo> ownedMonitors() {
+			return fOwnedMonitors;
+		}
+
+		/**
+		 * @return Returns the monitor the thread is waiting for, or
+		 *         <code>null</code> if none.
+		 */
+		public ObjectReference contendedMonitor() {
+			return fContendedMonitor;
+		}
+	}
+
+	/**
+	 * Retrieves the owned and contended monitors of the given threads. The
+	 * requests for all threads are sent before any reply is awaited, so the
+	 * replies for all threads arrive within a single round trip, instead of
+	 * two round trips per thread for {@link #ownedMonitorsAndFrames()} and
+	 * {@link #currentContendedMonitor()}.
+	 * <p>
+	 * Threads that are not suspended or no longer exist are left out of the
+	 * result. Owned monitors are only retrieved if the VM can get owned
+	 * monitor information, contended monitors only if the VM can get current
+	 * contended monitors.
+	 * </p>
+	 *
+	 * @param threads
+	 *            the threads to get the monitor information of
+	 * @return Returns the monitor information per thread.
+	 */
+	public static Map<ThreadReference, MonitorState> getMonitorStates(List<? extends ThreadReference> threads) {
+		Map<ThreadReference, MonitorState> result = new LinkedHashMap<>(threads.size());
+		if (threads.isEmpty()) {
+			return result;
+		}
+		VirtualMachineImpl vm = ((ThreadReferenceImpl) threads.get(0)).virtualMachineImpl();
+		boolean owned = vm.canGetOwnedMonitorInfo();
+		boolean depths = owned && vm.canGetMonitorFrameInfo();
+		boolean contended = vm.canGetCurrentContendedMonitor();
+		int ownedCommand = depths ? JdwpCommandPacket.TR_OWNED_MONITOR_STACK_DEPTH : JdwpCommandPacket.TR_OWNED_MONITORS;
+
+		// Send all requests first.
+		Map<ThreadReferenceImpl, CompletableFuture<JdwpReplyPacket>> ownedReplies = new LinkedHashMap<>(threads.size());
+		Map<ThreadReferenceImpl, CompletableFuture<JdwpReplyPacket>> contendedReplies = new LinkedHashMap<>(threads.size());
+		for (ThreadReference reference : threads) {
+			ThreadReferenceImpl thread = (ThreadReferenceImpl) reference;
+			thread.initJdwpRequest();
+			try {
+				if (owned) {
+					JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
+					thread.write(thread, outData);
+					ownedReplies.put(thread, thread.requestVMAsync(ownedCommand, outData));
+				}
+				if (contended) {
+					JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
+					thread.write(thread, outData);
+					contendedReplies.put(thread, thread.requestVMAsync(JdwpCommandPacket.TR_CURRENT_CONTENDED_MONITOR, outData));
+				}
+			} finally {
+				thread.handledJdwpRequest();
+			}
+		}
+
+		// Then collect the replies.
+		for (ThreadReference reference : threads) {
+			ThreadReferenceImpl thread = (ThreadReferenceImpl) reference;
+			thread.initJdwpRequest();
+			try {
+				List<com.sun.jdi.MonitorInfo> ownedMonitors = new ArrayList<>();
+				ObjectReference contendedMonitor = null;
+				boolean available = true;
+				CompletableFuture<JdwpReplyPacket> reply = ownedReplies.get(thread);
+				if (reply != null) {
+					JdwpReplyPacket replyPacket = thread.waitForReply(reply);
+					if (isMonitorStateAvailable(replyPacket)) {
+						thread.defaultReplyErrorHandler(replyPacket.errorCode());
+						DataInputStream replyData = replyPacket.dataInStream();
+						int nrOfMonitors = thread.readInt("owned monitors", replyData); //$NON-NLS-1$
+						for (int i = 0; i < nrOfMonitors; i++) {
+							ObjectReference monitor = ObjectReferenceImpl.readObjectRefWithTag(thread, replyData);
+							int depth = depths ? thread.readInt("stack depth", replyData) : -1; //$NON-NLS-1$
+							ownedMonitors.add(new MonitorInfoImpl(thread, depth, monitor, vm));
+						}
+					} else {
+						available = false;
+					}
+				}
+				reply = contendedReplies.get(thread);
+				if (reply != null) {
+					JdwpReplyPacket replyPacket = thread.waitForReply(reply);
+					if (isMonitorStateAvailable(replyPacket)) {
+						thread.defaultReplyErrorHandler(replyPacket.errorCode());
+						contendedMonitor = ObjectReferenceImpl.readObjectRefWithTag(thread, replyPacket.dataInStream());
+					} else {
+						available = false;
+					}
+				}
+				if (available) {
+					result.put(thread, new MonitorState(ownedMonitors, contendedMonitor));
+				}
+			} catch (IOException e) {
+				thread.defaultIOExceptionHandler(e);
+			} finally {
+				thread.handledJdwpRequest();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether the given reply of a monitor request carries monitor
+	 * information, i.e. the thread exists and is suspended.
+	 */
+	private static boolean isMonitorStateAvailable(JdwpReplyPacket replyPacket) {
+		switch (replyPacket.errorCode()) {
+		case JdwpReplyPacket.INVALID_THREAD:
+		case JdwpReplyPacket.INVALID_OBJECT:
+		case JdwpReplyPacket.THREAD_NOT_SUSPENDED:
+			return false;
+		default:
+			return true;
+		}
+	}
+
 	/**
 	 * Resumes this thread.
 	 *
@@ -630,6 +783,99 @@ public class ThreadReferenceImpl extends ObjectReferenceImpl implements	ThreadRe
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdi.ThreadReference#isVirtual()
+	 */
+	@Override
+	public boolean isVirtual() {
+		if (fIsVirtual != null) {
+			return fIsVirtual.booleanValue();
+		}
+		if (!virtualMachineImpl().supportsVirtualThreads()) {
+			fIsVirtual = Boolean.FALSE;
+			return false;
+		}
+		initJdwpRequest();
+		try {
+			JdwpReplyPacket replyPacket = requestVM(
+					JdwpCommandPacket.TR_IS_VIRTUAL, this);
+			switch (replyPacket.errorCode()) {
+			case JdwpReplyPacket.INVALID_THREAD:
+				throw new ObjectCollectedException();
+			}
+			defaultReplyErrorHandler(replyPacket.errorCode());
+			DataInputStream replyData = replyPacket.dataInStream();
+			fIsVirtual = Boolean.valueOf(readBoolean("is virtual", replyData)); //$NON-NLS-1$
+			return fIsVirtual.booleanValue();
+		} catch (IOException e) {
+			defaultIOExceptionHandler(e);
+			return false;
+		} finally {
+			handledJdwpRequest();
+		}
+	}
+
+	/**
+	 * Finds out which of the given threads are virtual. The requests for all
+	 * threads that are not classified yet are sent before any reply is
+	 * awaited, so the replies arrive within a single round trip instead of one
+	 * round trip per thread. The result is cached in each thread, so later
+	 * calls to {@link #isVirtual()} need no request.
+	 * <p>
+	 * Threads that no longer exist are left unclassified.
+	 * </p>
+	 *
+	 * @param threads
+	 *            the threads to classify
+	 */
+	public static void classifyVirtualThreads(List<? extends ThreadReference> threads) {
+		if (threads.isEmpty()) {
+			return;
+		}
+		VirtualMachineImpl vm = ((ThreadReferenceImpl) threads.get(0)).virtualMachineImpl();
+		boolean supported = vm.supportsVirtualThreads();
+
+		// Send all requests first.
+		Map<ThreadReferenceImpl, CompletableFuture<JdwpReplyPacket>> replies = new LinkedHashMap<>(threads.size());
+		for (ThreadReference reference : threads) {
+			ThreadReferenceImpl thread = (ThreadReferenceImpl) reference;
+			if (thread.fIsVirtual != null) {
+				continue;
+			}
+			if (!supported) {
+				thread.fIsVirtual = Boolean.FALSE;
+				continue;
+			}
+			thread.initJdwpRequest();
+			try {
+				JdwpPacketBuffer outData = JdwpPacketBuffer.acquire();
+				thread.write(thread, outData);
+				replies.put(thread, thread.requestVMAsync(JdwpCommandPacket.TR_IS_VIRTUAL, outData));
+			} finally {
+				thread.handledJdwpRequest();
+			}
+		}
+
+		// Then collect the replies.
+		for (Map.Entry<ThreadReferenceImpl, CompletableFuture<JdwpReplyPacket>> entry : replies.entrySet()) {
+			ThreadReferenceImpl thread = entry.getKey();
+			thread.initJdwpRequest();
+			try {
+				JdwpReplyPacket replyPacket = thread.waitForReply(entry.getValue());
+				if (replyPacket.errorCode() == JdwpReplyPacket.INVALID_THREAD) {
+					continue;
+				}
+				thread.defaultReplyErrorHandler(replyPacket.errorCode());
+				DataInputStream replyData = replyPacket.dataInStream();
+				thread.fIsVirtual = Boolean.valueOf(thread.readBoolean("is virtual", replyData)); //$NON-NLS-1$
+			} catch (IOException e) {
+				thread.defaultIOExceptionHandler(e);
+			} finally {
+				thread.handledJdwpRequest();
+			}
+		}
+	}
+
 	/**
 	 * Simulate the execution of a return instruction instead of executing the
 	 * next byte code in a method.
@@ -712,17 +958,18 @@ public class ThreadReferenceImpl extends ObjectReferenceImpl implements	ThreadRe
 	public static ThreadReferenceImpl read(MirrorImpl target, DataInputStream in)
 			throws IOException {
 		VirtualMachineImpl vmImpl = target.virtualMachineImpl();
-		JdwpThreadID ID = new JdwpThreadID(vmImpl);
-		ID.read(in);
+		long id = JdwpID.readValue(vmImpl.objectIDSize(), in);
 		if (target.fVerboseWriter != null)
-			target.fVerboseWriter.println("threadReference", ID.value()); //$NON-NLS-1$
+			target.fVerboseWriter.println("threadReference", id); //$NON-NLS-1$
 
-		if (ID.isNull())
+		if (id == 0)
 			return null;
 
 		ThreadReferenceImpl mirror = (ThreadReferenceImpl) vmImpl
-				.getCachedMirror(ID);
+				.getCachedObject(id);
 		if (mirror == null) {
+			JdwpThreadID ID = new JdwpThreadID(vmImpl);
+			ID.setValue(id);
 			mirror = new ThreadReferenceImpl(vmImpl, ID);
 			vmImpl.addCachedMirror(mirror);
 		}
@@ -16,64 +16,177 @@ package org.eclipse.jdi.internal;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Hashtable;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This class is used to cache values. It uses soft references to store cached
  * values. Once a value is garbage collected by the VM, the corresponding entry
- * is removed from the cache on the next invocation of put() or get().
+ * is removed from the cache on a later invocation of put() or remove().
  *
  * Note that WeakHashMap can't be used for this purpose because in WeakHashMap
  * soft references are only used for the keys, and values may not have 'strong'
  * references to keys otherwise they will never be garbage collected.
  *
+ * Values are keyed by the <code>long</code> value of their JDWP ID, so that
+ * lookups do not need an ID object. Entries are spread over lock-striped
+ * {@link LongHashMap}s, so lookups do not contend on a single lock. A cache
+ * can optionally be bounded: when it grows beyond its maximum size, entries
+ * that have not been read since the previous eviction pass are removed until
+ * the cache is back at 90% of its maximum size.
+ *
  */
 public class ValueCache {
+	/** Maximum number of reclaimed references processed per put(). */
+	private static final int MAX_CLEANUP_PER_PUT = 64;
+
+	/** Number of stripes, a power of two. */
+	private static final int STRIPES = 16;
+
 	/**
-	 * Map to store <key, Reference> pairs, where Reference is a soft reference
-	 * to an Object.
+	 * Soft reference to a cached value that remembers its key, so the entry can
+	 * be removed once the value is garbage collected, and whether it was read
+	 * since the last eviction pass.
 	 */
-	private Map<Object, SoftReference<Object>> cacheTable = new Hashtable<>();
+	private static class Entry extends SoftReference<Object> {
+		final long fKey;
+		volatile boolean fAccessed;
+
+		Entry(long key, Object value, ReferenceQueue<Object> queue) {
+			super(value, queue);
+			fKey = key;
+		}
+	}
+
 	/**
-	 * Map to store <Reference, key> pairs, to find the cacheTable-key of a
-	 * garbage collected Reference.
+	 * Stripes of <key, Entry> pairs, where Entry is a soft reference to an
+	 * Object. Each stripe is guarded by its own monitor.
 	 */
-	private Map<SoftReference<Object>, Object> refTable = new Hashtable<>();
+	private final LongHashMap<Entry>[] stripes;
+
+	/** Number of entries over all stripes. */
+	private final AtomicInteger size = new AtomicInteger();
 
 	/**
 	 * The reference-queue that is registered with the soft references. The
 	 * garbage collector will enqueue soft references that are garbage
 	 * collected.
 	 */
-	private ReferenceQueue<Object> refQueue = new ReferenceQueue<>();
+	private final ReferenceQueue<Object> refQueue = new ReferenceQueue<>();
+
+	/** Maximum number of entries, or 0 if the cache is unbounded. */
+	private final int maxSize;
+
+	/** Whether an eviction pass is in progress. */
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates an unbounded cache.
+	 */
+	public ValueCache() {
+		this(0);
+	}
 
 	/**
-	 * Clean up all entries from the table for which the values were garbage
-	 * collected.
+	 * Creates a cache holding at most the given number of entries.
+	 *
+	 * @param maxSize
+	 *            the maximum number of entries, or 0 for an unbounded cache
+	 */
+	@SuppressWarnings("unchecked")
+	public ValueCache(int maxSize) {
+		this.maxSize = maxSize;
+		stripes = new LongHashMap[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new LongHashMap<>();
+		}
+	}
+
+	private LongHashMap<Entry> stripe(long key) {
+		int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+		return stripes[h >>> 28];
+	}
+
+	/**
+	 * Clean up at most the given number of entries from the table for which
+	 * the values were garbage collected.
 	 */
-	private void cleanup() {
+	private void cleanup(int max) {
 		Reference<?> ref;
-		while ((ref = refQueue.poll()) != null) {
-			Object key = refTable.get(ref);
-			if (key != null)
-				cacheTable.remove(key);
-			refTable.remove(ref);
+		for (int i = 0; i < max && (ref = refQueue.poll()) != null; i++) {
+			Entry entry = (Entry) ref;
+			LongHashMap<Entry> stripe = stripe(entry.fKey);
+			synchronized (stripe) {
+				if (stripe.get(entry.fKey) == entry) {
+					stripe.remove(entry.fKey);
+					size.decrementAndGet();
+				}
+			}
 		}
 	}
 
 	/**
 	 * Put a new entry in the cache under the given key.
 	 */
-	public void put(Object key, Object value) {
-		cleanup();
-		SoftReference<Object> ref = new SoftReference<>(value, refQueue);
-		cacheTable.put(key, ref);
-		refTable.put(ref, key);
+	public void put(long key, Object value) {
+		cleanup(MAX_CLEANUP_PER_PUT);
+		Entry entry = new Entry(key, value, refQueue);
+		LongHashMap<Entry> stripe = stripe(key);
+		Entry previous;
+		synchronized (stripe) {
+			previous = stripe.put(key, entry);
+		}
+		if (previous == null && size.incrementAndGet() > maxSize && maxSize > 0) {
+			evict();
+		}
+	}
+
+	/**
+	 * Removes entries that have not been read since the previous pass until
+	 * the cache is at 90% of its maximum size. Entries that were read get a
+	 * second chance.
+	 */
+	private void evict() {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			cleanup(Integer.MAX_VALUE);
+			int target = maxSize - maxSize / 10;
+			for (int pass = 0; pass < 2 && size.get() > target; pass++) {
+				for (int i = 0; i < STRIPES && size.get() > target; i++) {
+					LongHashMap<Entry> stripe = stripes[i];
+					synchronized (stripe) {
+						for (Entry entry : stripe.values()) {
+							if (size.get() <= target) {
+								break;
+							}
+							if (entry.fAccessed && entry.get() != null) {
+								entry.fAccessed = false;
+							} else {
+								stripe.remove(entry.fKey);
+								size.decrementAndGet();
+								evictions.increment();
+							}
+						}
+					}
+				}
+			}
+		} finally {
+			evicting.set(false);
+		}
 	}
 
 	/**
@@ -81,37 +194,45 @@ public class ValueCache {
 	 *
 	 * @return Returns value that is cached under the given key, or null of one
 	 *         of the following is true: - The value has not been cached. - The
-	 *         value had been cached but is garbage collected.
+	 *         value had been cached but is garbage collected or evicted.
 	 */
-	public Object get(Object key) {
-		cleanup();
+	public Object get(long key) {
 		Object value = null;
-		SoftReference<?> ref = cacheTable.get(key);
-		if (ref != null) {
-			value = ref.get();
+		Entry entry;
+		LongHashMap<Entry> stripe = stripe(key);
+		synchronized (stripe) {
+			entry = stripe.get(key);
+		}
+		if (entry != null) {
+			value = entry.get();
+		}
+		if (value == null) {
+			misses.increment();
+		} else {
+			entry.fAccessed = true;
+			hits.increment();
 		}
 		return value;
 	}
 
 	/**
-	 * Returns a Collection view of the values contained in this cache.
+	 * Returns a Collection view of the values contained in this cache. The view
+	 * is backed by the cache and skips values that have been garbage collected;
+	 * its iterator visits the cache one stripe at a time, is weakly consistent
+	 * and does not support removal.
 	 */
 	public Collection<Object> values() {
-		cleanup();
-		List<Object> returnValues = new ArrayList<>();
-		synchronized (cacheTable) {
-			Iterator<SoftReference<Object>> iter = cacheTable.values().iterator();
-			SoftReference<Object> ref;
-			Object value;
-			while (iter.hasNext()) {
-				ref = iter.next();
-				value = ref.get();
-				if (value != null) {
-					returnValues.add(value);
-				}
+		return new AbstractCollection<Object>() {
+			@Override
+			public Iterator<Object> iterator() {
+				return new ValueIterator(null);
 			}
-		}
-		return returnValues;
+
+			@Override
+			public int size() {
+				return size.get();
+			}
+		};
 	}
 
 	/**
@@ -119,19 +240,10 @@ public class ValueCache {
 	 * the same runtime class as the given Class.
 	 */
 	public Collection<Object> valuesWithType(Class<?> type) {
-		cleanup();
 		List<Object> returnValues = new ArrayList<>();
-		synchronized (cacheTable) {
-			Iterator<SoftReference<Object>> iter = cacheTable.values().iterator();
-			SoftReference<Object> ref;
-			Object value;
-			while (iter.hasNext()) {
-				ref = iter.next();
-				value = ref.get();
-				if (value != null && value.getClass().equals(type)) {
-					returnValues.add(value);
-				}
-			}
+		Iterator<Object> iter = new ValueIterator(type);
+		while (iter.hasNext()) {
+			returnValues.add(iter.next());
 		}
 		return returnValues;
 	}
@@ -142,15 +254,93 @@ public class ValueCache {
 	 * @return Returns The value to which the key had been mapped in this
 	 *         hashtable, or null if the key did not have a mapping.
 	 */
-	public Object remove(Object key) {
-		cleanup();
-		Object value = null;
-		SoftReference<?> ref = cacheTable.get(key);
-		if (ref != null) {
-			value = ref.get();
-			refTable.remove(ref);
+	public Object remove(long key) {
+		cleanup(MAX_CLEANUP_PER_PUT);
+		Entry entry;
+		LongHashMap<Entry> stripe = stripe(key);
+		synchronized (stripe) {
+			entry = stripe.remove(key);
+		}
+		if (entry == null) {
+			return null;
+		}
+		size.decrementAndGet();
+		return entry.get();
+	}
+
+	/**
+	 * @return Returns the number of entries in this cache, including entries
+	 *         whose values were garbage collected but not yet cleaned up.
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * @return Returns the number of times get() found a value.
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return Returns the number of times get() did not find a value.
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return Returns the number of entries removed because the cache exceeded
+	 *         its maximum size.
+	 */
+	public long evictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Iterates over the values that are still reachable, optionally only those
+	 * of a given runtime class. Takes a snapshot of one stripe at a time.
+	 */
+	private class ValueIterator implements Iterator<Object> {
+		private final Class<?> fType;
+		private int fStripe = 0;
+		private Iterator<Entry> fEntries = Collections.emptyIterator();
+		private Object fNext;
+
+		ValueIterator(Class<?> type) {
+			fType = type;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (fNext == null) {
+				if (!fEntries.hasNext()) {
+					if (fStripe == STRIPES) {
+						return false;
+					}
+					LongHashMap<Entry> stripe = stripes[fStripe++];
+					synchronized (stripe) {
+						fEntries = stripe.values().iterator();
+					}
+					continue;
+				}
+				Object value = fEntries.next().get();
+				if (value != null && (fType == null || value.getClass().equals(fType))) {
+					fNext = value;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Object value = fNext;
+			fNext = null;
+			return value;
 		}
-		cacheTable.remove(key);
-		return value;
 	}
 }
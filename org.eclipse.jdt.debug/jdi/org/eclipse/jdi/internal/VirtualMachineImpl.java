@@ -91,13 +91,26 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 	/** If a launching connector is used, we store the process. */
 	private Process fLaunchedProcess;
 
+	/**
+	 * Maximum number of object mirrors that are cached. Reference type mirrors
+	 * are not bounded: evicting a type mirror that is still in use would hide
+	 * it from {@link #flushStoredJdwpResults()}.
+	 */
+	private static final int MAX_CACHED_OBJECTS = 100000;
+
 	/**
 	 * The following field contains cached Mirrors. Note that these are
 	 * optional: their only purpose is to speed up the debugger by being able to
 	 * use the stored results of JDWP calls.
 	 */
 	private ValueCache fCachedReftypes = new ValueCache();
-	private ValueCache fCachedObjects = new ValueCache();
+	private ValueCache fCachedObjects = new ValueCache(MAX_CACHED_OBJECTS);
+
+	/**
+	 * Replies of commands about types that only change when a type is
+	 * redefined, kept across re-creation of type and method mirrors.
+	 */
+	private final ReplyCache fReplyCache = new ReplyCache();
 
 	/** The following are the stored results of JDWP calls. */
 	private String fVersionDescription = null; // Text information on the VM
@@ -162,6 +175,11 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 	private PacketReceiveManager fPacketReceiveManager;
 	private PacketSendManager fPacketSendManager;
 
+	/**
+	 * Statistics of the JDWP commands exchanged with the VM.
+	 */
+	private final JdwpMetrics fMetrics = new JdwpMetrics();
+
 	/**
 	 * Creates a new Virtual Machine.
 	 */
@@ -172,6 +190,8 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 		fRequestTimeout = ((VirtualMachineManagerImpl) Bootstrap
 				.virtualMachineManager()).getGlobalRequestTimeout();
 
+		fMetrics.register();
+
 		fPacketReceiveManager = new PacketReceiveManager(connection, this);
 		Thread receiveThread = new Thread(fPacketReceiveManager,
 				JDIMessages.VirtualMachineImpl_0);
@@ -187,6 +207,21 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 		sendThread.start();
 	}
 
+	/**
+	 * @return Returns the statistics of the JDWP commands exchanged with the
+	 *         VM.
+	 */
+	public JdwpMetrics metrics() {
+		return fMetrics;
+	}
+
+	/**
+	 * Removes the JDWP metrics of this VM from the platform MBean server.
+	 */
+	public void unregisterMetrics() {
+		fMetrics.unregister();
+	}
+
 	/**
 	 * @return Returns size of JDWP ID.
 	 */
@@ -226,21 +261,59 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 	 * @return Returns cached mirror object, or null if method is not in cache.
 	 */
 	public ReferenceTypeImpl getCachedMirror(JdwpReferenceTypeID ID) {
-		return (ReferenceTypeImpl) fCachedReftypes.get(ID);
+		return getCachedReferenceType(ID.value());
 	}
 
 	/**
 	 * @return Returns cached mirror object, or null if method is not in cache.
 	 */
 	public ObjectReferenceImpl getCachedMirror(JdwpObjectID ID) {
-		return (ObjectReferenceImpl) fCachedObjects.get(ID);
+		return getCachedObject(ID.value());
+	}
+
+	/**
+	 * @return Returns cached mirror object for the given value of a reference
+	 *         type ID, or null if it is not in cache.
+	 */
+	public ReferenceTypeImpl getCachedReferenceType(long id) {
+		return (ReferenceTypeImpl) fCachedReftypes.get(id);
+	}
+
+	/**
+	 * @return Returns cached mirror object for the given value of an object
+	 *         ID, or null if it is not in cache.
+	 */
+	public ObjectReferenceImpl getCachedObject(long id) {
+		return (ObjectReferenceImpl) fCachedObjects.get(id);
+	}
+
+	/**
+	 * @return Returns the cache of reference type mirrors, for statistics.
+	 */
+	public ValueCache cachedReferenceTypes() {
+		return fCachedReftypes;
+	}
+
+	/**
+	 * @return Returns the cache of object mirrors, for statistics.
+	 */
+	public ValueCache cachedObjects() {
+		return fCachedObjects;
+	}
+
+	/**
+	 * @return Returns the cache of replies that only change when a type is
+	 *         redefined.
+	 */
+	public ReplyCache replyCache() {
+		return fReplyCache;
 	}
 
 	/**
 	 * Adds mirror object to cache.
 	 */
 	public void addCachedMirror(ReferenceTypeImpl mirror) {
-		fCachedReftypes.put(mirror.getRefTypeID(), mirror);
+		fCachedReftypes.put(mirror.getRefTypeID().value(), mirror);
 		// TBD: It is now yet possible to only ask for unload events for
 		// classes that we know of due to a limitation in the J9 VM.
 		// eventRequestManagerImpl().enableInternalClasUnloadEvent(mirror);
@@ -250,7 +323,7 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 	 * Adds mirror object to cache.
 	 */
 	public void addCachedMirror(ObjectReferenceImpl mirror) {
-		fCachedObjects.put(mirror.getObjectID(), mirror);
+		fCachedObjects.put(mirror.getObjectID().value(), mirror);
 	}
 
 	/**
@@ -263,6 +336,7 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 			ReferenceTypeImpl refType = (ReferenceTypeImpl) iter.next();
 			refType.flushStoredJdwpResults();
 		}
+		fReplyCache.clear();
 
 		fVersionDescription = null;
 		fGotIDSizes = false;
@@ -285,7 +359,8 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 		if (refTypeList.size() == 1) {
 			ReferenceTypeImpl refType = (ReferenceTypeImpl) refTypeList.get(0);
 			refType.flushStoredJdwpResults();
-			fCachedReftypes.remove(refType.getRefTypeID());
+			fCachedReftypes.remove(refType.getRefTypeID().value());
+			fReplyCache.invalidate(refType.getRefTypeID().value());
 			return;
 		}
 
@@ -303,7 +378,8 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 			if (!prepared) {
 				refType.flushStoredJdwpResults();
 				iter.remove();
-				fCachedReftypes.remove(refType.getRefTypeID());
+				fCachedReftypes.remove(refType.getRefTypeID().value());
+				fReplyCache.invalidate(refType.getRefTypeID().value());
 			}
 		}
 	}
@@ -1162,6 +1238,9 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 			defaultIOExceptionHandler(e);
 			return 0;
 		} finally {
+			// the changed classes are only known by name, and looking up their
+			// reference types would take more requests, so forget all replies
+			fReplyCache.clear();
 			handledJdwpRequest();
 		}
 	}
@@ -1271,7 +1350,7 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 				for (byte b : bytes) {
 					writeByte(b, "classByte", outData); //$NON-NLS-1$
 				}
-				fCachedReftypes.remove(type.getRefTypeID()); // flush local
+				fCachedReftypes.remove(type.getRefTypeID().value()); // flush local
 																// cache of
 																// redefined
 																// types
@@ -1315,6 +1394,11 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 			defaultIOExceptionHandler(ioe);
 			return;
 		} finally {
+			// invalidate after the reply, so that replies to commands sent
+			// before the redefinition completed are not kept
+			for (ReferenceType type : typesToBytes.keySet()) {
+				fReplyCache.invalidate(((ReferenceTypeImpl) type).getRefTypeID().value());
+			}
 			handledJdwpRequest();
 		}
 	}
@@ -1355,6 +1439,14 @@ public class VirtualMachineImpl extends MirrorImpl implements VirtualMachine,
 		return fCanUnrestrictedlyRedefineClasses;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdi.VirtualMachine#supportsVirtualThreads()
+	 */
+	@Override
+	public boolean supportsVirtualThreads() {
+		return isJdwpVersionGreaterOrEqual(19, 0);
+	}
+
 	/* (non-Javadoc)
 	 * @see com.sun.jdi.VirtualMachine#canUseSourceNameFilters()
 	 */
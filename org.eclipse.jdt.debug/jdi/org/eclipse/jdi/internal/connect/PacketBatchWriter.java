@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal.connect;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Implemented by connections that can put several JDWP packets on the wire
+ * with a single write. The {@link PacketSendManager} uses it to send all
+ * packets queued since its last drain at once.
+ */
+interface PacketBatchWriter {
+
+	/**
+	 * Writes the given packets, in order, with as few writes to the
+	 * underlying transport as possible.
+	 *
+	 * @param packets
+	 *            the packets to write, each a complete JDWP packet
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	void writePackets(List<byte[]> packets) throws IOException;
+}
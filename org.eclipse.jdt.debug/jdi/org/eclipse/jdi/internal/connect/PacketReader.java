@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal.connect;
+
+import java.io.IOException;
+
+import org.eclipse.jdi.internal.jdwp.JdwpPacket;
+
+/**
+ * Implemented by connections that can decode a JDWP packet straight from the
+ * transport, without first materializing the whole packet as a
+ * <code>byte[]</code>. The {@link PacketReceiveManager} prefers it over
+ * {@link com.sun.jdi.connect.spi.Connection#readPacket()}.
+ */
+interface PacketReader {
+
+	/**
+	 * Reads the next packet from the transport.
+	 *
+	 * @return the packet that was read
+	 * @throws IOException
+	 *             if reading fails or the connection is closed
+	 */
+	JdwpPacket readJdwpPacket() throws IOException;
+}
@@ -15,9 +15,16 @@ package org.eclipse.jdi.internal.connect;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdi.TimeoutException;
 import org.eclipse.jdi.internal.VirtualMachineImpl;
@@ -43,17 +50,47 @@ public class PacketReceiveManager extends PacketManager {
 	/** Generic timeout value for infinite timeout. */
 	public static final int TIMEOUT_INFINITE = -1;
 
+	/**
+	 * Time in milliseconds after which the id of a timed out request is
+	 * forgotten. A reply that arrives even later is parked like any other
+	 * unclaimed reply.
+	 */
+	private static final long TIMED_OUT_RETENTION = 10 * 60 * 1000;
+
+	/**
+	 * Times out pending asynchronous requests. Tasks are removed as soon as
+	 * they are cancelled, since most requests are answered in time.
+	 */
+	private static final ScheduledThreadPoolExecutor TIMEOUT_SCHEDULER;
+	static {
+		TIMEOUT_SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "JDI Request Timeout"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		TIMEOUT_SCHEDULER.setRemoveOnCancelPolicy(true);
+	}
+
 	/** List of Command packets received from Virtual Machine. */
 	private LinkedList<JdwpCommandPacket> fCommandPackets;
 
-	/** List of Reply packets received from Virtual Machine. */
-	private LinkedList<JdwpReplyPacket> fReplyPackets;
+	/**
+	 * Completion slots of Reply packets, keyed by the id of their command
+	 * packet. A slot is created by whichever comes first: the requester
+	 * waiting for the reply or the reply itself. Only the owner of a slot is
+	 * signalled when the reply arrives.
+	 */
+	private Map<Integer, CompletableFuture<JdwpReplyPacket>> fReplySlots;
 
 	/**
-	 * List of Packets that have timed out already. Maintained so that responses
-	 * can be discarded if/when they are received.
+	 * Ids of Packets that have timed out already, mapped to the time they
+	 * timed out. Maintained so that responses can be discarded if/when they
+	 * are received; entries expire after {@link #TIMED_OUT_RETENTION}.
 	 */
-	private ArrayList<Integer> fTimedOutPackets;
+	private Map<Integer, Long> fTimedOutPackets;
+
+	/** Time at which expired entries are next purged from fTimedOutPackets. */
+	private volatile long fNextTimedOutPurge;
 
 	private VirtualMachineImpl fVM;
 
@@ -64,8 +101,8 @@ public class PacketReceiveManager extends PacketManager {
 		super(connection);
 		fVM = vmImpl;
 		fCommandPackets = new LinkedList<>();
-		fReplyPackets = new LinkedList<>();
-		fTimedOutPackets = new ArrayList<>();
+		fReplySlots = new ConcurrentHashMap<>();
+		fTimedOutPackets = new ConcurrentHashMap<>();
 	}
 
 	@Override
@@ -74,9 +111,14 @@ public class PacketReceiveManager extends PacketManager {
 		synchronized (fCommandPackets) {
 			fCommandPackets.notifyAll();
 		}
-		synchronized (fReplyPackets) {
-			fReplyPackets.notifyAll();
+		Iterator<CompletableFuture<JdwpReplyPacket>> iter = fReplySlots.values().iterator();
+		while (iter.hasNext()) {
+			CompletableFuture<JdwpReplyPacket> reply = iter.next();
+			iter.remove();
+			reply.completeExceptionally(new VMDisconnectedException(
+					ConnectMessages.PacketReceiveManager_Got_IOException_from_Virtual_Machine_2));
 		}
+		fVM.unregisterMetrics();
 	}
 
 	/**
@@ -151,48 +193,56 @@ public class PacketReceiveManager extends PacketManager {
 	 * @return Returns a specified Reply Packet from the Virtual Machine.
 	 */
 	public JdwpReplyPacket getReply(int id, long timeToWait) {
+		Integer key = Integer.valueOf(id);
+		CompletableFuture<JdwpReplyPacket> reply = replySlot(key);
 		JdwpReplyPacket packet = null;
 		long remainingTime = timeToWait;
-		synchronized (fReplyPackets) {
-			final long timeBeforeWait = System.currentTimeMillis();
-			// Wait until reply is available.
-			while (!VMIsDisconnected() && remainingTime > 0) {
-				packet = removeReplyPacket(id);
-				if (packet != null) {
-					break;
-				}
-				try {
-					waitForPacketAvailable(remainingTime, fReplyPackets);
-				}
-				// if the remote VM is interrupted DO NOT drop the connection -
-				// see bug 171075
-				// just stop waiting for the reply and treat it as a timeout
-				catch (InterruptedException e) {
-					if (JDIDebugOptions.DEBUG) {
-						JDIDebugOptions.trace(null, "Interrupt observed while waiting for packet: " + id, e); //$NON-NLS-1$
-					}
-					// Do not stop waiting on interrupt, this causes
-					// sporadic TimeoutException's without timeout
-					// break;
+		final long timeBeforeWait = System.currentTimeMillis();
+		// Wait until reply is available.
+		while (!VMIsDisconnected() && remainingTime > 0) {
+			try {
+				packet = reply.get(remainingTime, TimeUnit.MILLISECONDS);
+				break;
+			}
+			// if the remote VM is interrupted DO NOT drop the connection -
+			// see bug 171075
+			// just stop waiting for the reply and treat it as a timeout
+			catch (InterruptedException e) {
+				if (JDIDebugOptions.DEBUG) {
+					JDIDebugOptions.trace(null, "Interrupt observed while waiting for packet: " + id, e); //$NON-NLS-1$
 				}
-				long waitedTime = System.currentTimeMillis() - timeBeforeWait;
-				remainingTime = timeToWait - waitedTime;
+				// Do not stop waiting on interrupt, this causes
+				// sporadic TimeoutException's without timeout
+				// break;
+			} catch (ExecutionException e) {
+				// completed exceptionally on disconnect
+				break;
+			} catch (java.util.concurrent.TimeoutException e) {
+				break;
 			}
+			long waitedTime = System.currentTimeMillis() - timeBeforeWait;
+			remainingTime = timeToWait - waitedTime;
 		}
 		if (packet == null) {
-			synchronized (fReplyPackets) {
-				packet = removeReplyPacket(id);
+			packet = replyNow(reply);
+		}
+		if (packet == null && !VMIsDisconnected()) {
+			// Mark the request as timed out before its slot is released, so
+			// that a late reply is discarded instead of creating a new slot.
+			timedOut(key);
+			packet = replyNow(reply);
+			if (packet != null) {
+				// the reply arrived before the request was marked
+				fTimedOutPackets.remove(key);
 			}
 		}
+		fReplySlots.remove(key, reply);
 		// Check for an IO Exception.
 		if (VMIsDisconnected())
 			throw new VMDisconnectedException(
 					ConnectMessages.PacketReceiveManager_Got_IOException_from_Virtual_Machine_2);
 		// Check for a timeout.
 		if (packet == null) {
-			synchronized (fTimedOutPackets) {
-				fTimedOutPackets.add(Integer.valueOf(id));
-			}
 			throw new TimeoutException(NLS.bind(
 					ConnectMessages.PacketReceiveManager_0, new String[] { id
 							+ "" })); //$NON-NLS-1$
@@ -207,6 +257,84 @@ public class PacketReceiveManager extends PacketManager {
 		return getReply(commandPacket.getId(), fVM.getRequestTimeout());
 	}
 
+	/**
+	 * Registers interest in the reply to the given command packet. Must be
+	 * called before the command packet is sent.
+	 *
+	 * @return Returns a future that is completed with the reply packet once it
+	 *         is received, or completed exceptionally if the request times out
+	 *         or the Virtual Machine disconnects. A request timeout of zero
+	 *         or less never expires.
+	 */
+	public CompletableFuture<JdwpReplyPacket> getReplyAsync(JdwpCommandPacket commandPacket) {
+		final Integer key = Integer.valueOf(commandPacket.getId());
+		final CompletableFuture<JdwpReplyPacket> reply = replySlot(key);
+		if (VMIsDisconnected()) {
+			fReplySlots.remove(key, reply);
+			reply.completeExceptionally(new VMDisconnectedException(
+					ConnectMessages.PacketReceiveManager_Got_IOException_from_Virtual_Machine_2));
+			return reply;
+		}
+		long timeout = fVM.getRequestTimeout();
+		ScheduledFuture<?> timer = null;
+		if (timeout > 0) {
+			timer = TIMEOUT_SCHEDULER.schedule(() -> {
+				// mark the request first so that a reply arriving meanwhile is discarded
+				timedOut(key);
+				boolean expired = fReplySlots.remove(key, reply)
+						&& reply.completeExceptionally(new TimeoutException(NLS.bind(
+								ConnectMessages.PacketReceiveManager_0, new String[] { key
+										+ "" }))); //$NON-NLS-1$
+				if (!expired) {
+					// answered in the meantime
+					fTimedOutPackets.remove(key);
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+		}
+		// nobody else claims the slot, release it as soon as it is completed
+		final ScheduledFuture<?> pendingTimer = timer;
+		reply.whenComplete((packet, e) -> {
+			fReplySlots.remove(key, reply);
+			if (pendingTimer != null) {
+				pendingTimer.cancel(false);
+			}
+		});
+		return reply;
+	}
+
+	/**
+	 * @return Returns the completion slot for the reply with the given id,
+	 *         creating it if necessary.
+	 */
+	private CompletableFuture<JdwpReplyPacket> replySlot(Integer id) {
+		return fReplySlots.computeIfAbsent(id, k -> new CompletableFuture<>());
+	}
+
+	/**
+	 * @return Returns the reply the given slot was completed with, or
+	 *         <code>null</code> if it is not completed or was completed
+	 *         exceptionally.
+	 */
+	private static JdwpReplyPacket replyNow(CompletableFuture<JdwpReplyPacket> reply) {
+		if (!reply.isDone() || reply.isCompletedExceptionally()) {
+			return null;
+		}
+		return reply.getNow(null);
+	}
+
+	/**
+	 * Remembers that the request with the given id has timed out, and purges
+	 * ids that timed out longer than {@link #TIMED_OUT_RETENTION} ago.
+	 */
+	private void timedOut(Integer id) {
+		long now = System.currentTimeMillis();
+		fTimedOutPackets.put(id, Long.valueOf(now));
+		if (now >= fNextTimedOutPurge) {
+			fNextTimedOutPurge = now + TIMED_OUT_RETENTION;
+			fTimedOutPackets.values().removeIf(time -> time.longValue() < now - TIMED_OUT_RETENTION);
+		}
+	}
+
 	/**
 	 * Wait for an available packet from the Virtual Machine.
 	 */
@@ -236,21 +364,6 @@ public class PacketReceiveManager extends PacketManager {
 		return null;
 	}
 
-	/**
-	 * @return Returns a specified reply packet from the reply packet list.
-	 */
-	private JdwpReplyPacket removeReplyPacket(int id) {
-		ListIterator<JdwpReplyPacket> iter = fReplyPackets.listIterator();
-		while (iter.hasNext()) {
-			JdwpReplyPacket packet = iter.next();
-			if (packet.getId() == id) {
-				iter.remove();
-				return packet;
-			}
-		}
-		return null;
-	}
-
 	/**
 	 * Add a command packet to the command packet list.
 	 */
@@ -258,6 +371,7 @@ public class PacketReceiveManager extends PacketManager {
 		if (isTimedOut(packet)) {
 			return; // already timed out. No need to keep this one
 		}
+		fVM.metrics().recordCommandFromVM(packet.getCommand(), packet.getLength());
 		synchronized (fCommandPackets) {
 			fCommandPackets.add(packet);
 			fCommandPackets.notifyAll();
@@ -272,26 +386,22 @@ public class PacketReceiveManager extends PacketManager {
 	 * @return whether the request for the given packet has already timed out
 	 */
 	private boolean isTimedOut(JdwpPacket packet) {
-		synchronized (fTimedOutPackets) {
-			if (fTimedOutPackets.isEmpty()) {
-				return false;
-			}
-			Integer id = Integer.valueOf(packet.getId());
-			return fTimedOutPackets.remove(id);
+		if (fTimedOutPackets.isEmpty()) {
+			return false;
 		}
+		return fTimedOutPackets.remove(Integer.valueOf(packet.getId())) != null;
 	}
 
 	/**
-	 * Add a reply packet to the reply packet list.
+	 * Complete the slot of a reply packet, waking up only its requester.
 	 */
 	private void addReplyPacket(JdwpReplyPacket packet) {
 		if (isTimedOut(packet)) {
 			return; // already timed out. No need to keep this one
 		}
-		synchronized (fReplyPackets) {
-			fReplyPackets.add(packet);
-			fReplyPackets.notifyAll();
-		}
+		Integer key = Integer.valueOf(packet.getId());
+		CompletableFuture<JdwpReplyPacket> reply = replySlot(key);
+		reply.complete(packet);
 	}
 
 	/**
@@ -300,8 +410,14 @@ public class PacketReceiveManager extends PacketManager {
 	 */
 	private void readAvailablePacket() throws IOException {
 		// Read a packet from the Input Stream.
-		byte[] bytes = getConnection().readPacket();
-		JdwpPacket packet = JdwpPacket.build(bytes);
+		JdwpPacket packet;
+		Connection connection = getConnection();
+		if (connection instanceof PacketReader) {
+			packet = ((PacketReader) connection).readJdwpPacket();
+		} else {
+			byte[] bytes = connection.readPacket();
+			packet = JdwpPacket.build(bytes);
+		}
 		// Add packet to command or reply queue.
 		if (packet instanceof JdwpCommandPacket)
 			addCommandPacket((JdwpCommandPacket) packet);
@@ -15,6 +15,7 @@ package org.eclipse.jdi.internal.connect;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 
 import org.eclipse.jdi.internal.jdwp.JdwpPacket;
@@ -32,12 +33,23 @@ public class PacketSendManager extends PacketManager {
 	/** List of packets to be sent to Virtual Machine */
 	private LinkedList<JdwpPacket> fOutgoingPackets;
 
+	/**
+	 * Packets taken from the outgoing list in one drain. Only used by the
+	 * sending thread and reused across drains.
+	 */
+	private ArrayList<JdwpPacket> fPacketsToSend;
+
+	/** Bytes of the packets of one drain, reused across drains. */
+	private ArrayList<byte[]> fBytesToSend;
+
 	/**
 	 * Create a new thread that send packets to the Virtual Machine.
 	 */
 	public PacketSendManager(Connection connection) {
 		super(connection);
 		fOutgoingPackets = new LinkedList<>();
+		fPacketsToSend = new ArrayList<>();
+		fBytesToSend = new ArrayList<>();
 	}
 
 	@Override
@@ -102,11 +114,13 @@ public class PacketSendManager extends PacketManager {
 	}
 
 	/**
-	 * Send available packets to the Virtual Machine.
+	 * Send available packets to the Virtual Machine. If the connection
+	 * supports it, all packets queued since the last drain are written at
+	 * once.
 	 */
 	private void sendAvailablePackets() throws InterruptedException,
 			IOException {
-		LinkedList<JdwpPacket> packetsToSend = new LinkedList<>();
+		ArrayList<JdwpPacket> packetsToSend = fPacketsToSend;
 		synchronized (fOutgoingPackets) {
 			while (fOutgoingPackets.isEmpty()) {
 				fOutgoingPackets.wait();
@@ -116,12 +130,30 @@ public class PacketSendManager extends PacketManager {
 		}
 
 		// Put available packets on Output Stream.
-		while (packetsToSend.size() > 0) {
-			// Note that only JdwpPackets are added to the list, so a
-			// ClassCastException can't occur.
-			JdwpPacket packet = packetsToSend.removeFirst();
-			byte[] bytes = packet.getPacketAsBytes();
-			getConnection().writePacket(bytes);
+		try {
+			Connection connection = getConnection();
+			if (connection instanceof PacketBatchWriter) {
+				// our own connections only write the length given in the
+				// header, so pooled packet buffers can be passed as they are
+				if (packetsToSend.size() > 1) {
+					for (JdwpPacket packet : packetsToSend) {
+						fBytesToSend.add(packet.getPacketBytes());
+					}
+					((PacketBatchWriter) connection).writePackets(fBytesToSend);
+				} else {
+					connection.writePacket(packetsToSend.get(0).getPacketBytes());
+				}
+			} else {
+				for (JdwpPacket packet : packetsToSend) {
+					connection.writePacket(packet.getPacketAsBytes());
+				}
+			}
+		} finally {
+			for (JdwpPacket packet : packetsToSend) {
+				packet.releaseBuffer();
+			}
+			packetsToSend.clear();
+			fBytesToSend.clear();
 		}
 	}
 }
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal.connect;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+import org.eclipse.jdi.internal.jdwp.JdwpPacket;
+
+import com.sun.jdi.connect.spi.ClosedConnectionException;
+import com.sun.jdi.connect.spi.Connection;
+
+/**
+ * A connection that performs IO through a blocking {@link SocketChannel}.
+ * <p>
+ * Packet headers are read into a buffer that is reused for every packet, and
+ * the data of a packet is read directly into the array that backs the
+ * resulting {@link JdwpPacket}, so each packet's bytes are copied exactly once.
+ * Batches of outgoing packets are sent with one gathering write over views of
+ * the packets' arrays.
+ * </p>
+ * <p>
+ * Used instead of {@link SocketConnection} when the system property
+ * {@link #ENABLE_PROPERTY} is set to <code>true</code>.
+ * </p>
+ */
+public class SocketChannelConnection extends Connection implements PacketBatchWriter, PacketReader {
+
+	/**
+	 * System property that can be passed down to Eclipse to use channel based
+	 * connections for socket transports.
+	 */
+	public static final String ENABLE_PROPERTY = "org.eclipse.jdi.internal.connect.SocketChannelConnection.enable"; //$NON-NLS-1$
+
+	/** Length of the JDWP packet header. */
+	private static final int HEADER_LENGTH = 11;
+
+	private SocketChannel fChannel;
+
+	/** Header of the packet being read. Guarded by fReadLock. */
+	private final ByteBuffer fHeader = ByteBuffer.allocate(HEADER_LENGTH);
+
+	/** Views of the packets of a gathering write. Guarded by fWriteLock. */
+	private ByteBuffer[] fGatherBuffers = new ByteBuffer[16];
+
+	private final Object fReadLock = new Object();
+
+	private final Object fWriteLock = new Object();
+
+	SocketChannelConnection(SocketChannel channel) {
+		fChannel = channel;
+	}
+
+	/**
+	 * @return whether channel based connections are enabled
+	 */
+	static boolean isEnabled() {
+		return String.valueOf(Boolean.TRUE).equals(System.getProperty(ENABLE_PROPERTY));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.sun.jdi.connect.spi.Connection#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (fChannel == null)
+			return;
+
+		fChannel.close();
+		fChannel = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.sun.jdi.connect.spi.Connection#isOpen()
+	 */
+	@Override
+	public synchronized boolean isOpen() {
+		return fChannel != null;
+	}
+
+	private synchronized SocketChannel channel() throws IOException {
+		if (fChannel == null) {
+			throw new ClosedConnectionException();
+		}
+		return fChannel;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.jdi.internal.connect.PacketReader#readJdwpPacket()
+	 */
+	@Override
+	public JdwpPacket readJdwpPacket() throws IOException {
+		SocketChannel channel = channel();
+		synchronized (fReadLock) {
+			fHeader.clear();
+			readFully(channel, fHeader);
+			JdwpPacket packet = JdwpPacket.buildFromHeader(fHeader.array());
+			byte[] data = packet.data();
+			if (data != null) {
+				readFully(channel, ByteBuffer.wrap(data));
+			}
+			return packet;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.sun.jdi.connect.spi.Connection#readPacket()
+	 */
+	@Override
+	public byte[] readPacket() throws IOException {
+		SocketChannel channel = channel();
+		synchronized (fReadLock) {
+			fHeader.clear();
+			readFully(channel, fHeader);
+			int packetLength = fHeader.getInt(0);
+			if (packetLength < HEADER_LENGTH) {
+				throw new IOException("JDWP Packet under 11 bytes"); //$NON-NLS-1$
+			}
+			byte[] packet = new byte[packetLength];
+			System.arraycopy(fHeader.array(), 0, packet, 0, HEADER_LENGTH);
+			readFully(channel, ByteBuffer.wrap(packet, HEADER_LENGTH, packetLength - HEADER_LENGTH));
+			return packet;
+		}
+	}
+
+	private void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read;
+			try {
+				read = channel.read(buffer);
+			} catch (IOException e) {
+				throw new ClosedConnectionException();
+			}
+			if (read < 0) {
+				throw new ClosedConnectionException();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.sun.jdi.connect.spi.Connection#writePacket(byte[])
+	 */
+	@Override
+	public void writePacket(byte[] packet) throws IOException {
+		SocketChannel channel = channel();
+		ByteBuffer buffer = ByteBuffer.wrap(packet, 0, checkPacket(packet));
+		synchronized (fWriteLock) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.jdi.internal.connect.PacketBatchWriter#writePackets(java.util.List)
+	 */
+	@Override
+	public void writePackets(List<byte[]> packets) throws IOException {
+		SocketChannel channel = channel();
+		int count = packets.size();
+		synchronized (fWriteLock) {
+			if (fGatherBuffers.length < count) {
+				fGatherBuffers = new ByteBuffer[Math.max(count, fGatherBuffers.length * 2)];
+			}
+			ByteBuffer[] buffers = fGatherBuffers;
+			try {
+				long remaining = 0;
+				for (int i = 0; i < count; i++) {
+					byte[] packet = packets.get(i);
+					buffers[i] = ByteBuffer.wrap(packet, 0, checkPacket(packet));
+					remaining += buffers[i].remaining();
+				}
+				while (remaining > 0) {
+					remaining -= channel.write(buffers, 0, count);
+				}
+			} finally {
+				for (int i = 0; i < count; i++) {
+					buffers[i] = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Validates a JDWP packet before it is written.
+	 *
+	 * @return the length of the packet as specified in its header
+	 */
+	private int checkPacket(byte[] packet) {
+		if (packet == null) {
+			throw new IllegalArgumentException(
+					"Invalid JDWP Packet, packet cannot be null"); //$NON-NLS-1$
+		}
+		if (packet.length < HEADER_LENGTH) {
+			throw new IllegalArgumentException(
+					"Invalid JDWP Packet, must be at least 11 bytes. PacketSize:" + packet.length); //$NON-NLS-1$
+		}
+		int packetSize = ((packet[0] & 0xFF) << 24) + ((packet[1] & 0xFF) << 16)
+				+ ((packet[2] & 0xFF) << 8) + (packet[3] & 0xFF);
+		if (packetSize < HEADER_LENGTH) {
+			throw new IllegalArgumentException(
+					"Invalid JDWP Packet, must be at least 11 bytes. PacketSize:" + packetSize); //$NON-NLS-1$
+		}
+		if (packetSize > packet.length) {
+			throw new IllegalArgumentException(
+					"Invalid JDWP packet: Specified length is greater than actual length"); //$NON-NLS-1$
+		}
+		return packetSize;
+	}
+}
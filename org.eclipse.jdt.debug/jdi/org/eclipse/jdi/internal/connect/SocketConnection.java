@@ -19,11 +19,28 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.util.List;
 
 import com.sun.jdi.connect.spi.ClosedConnectionException;
 import com.sun.jdi.connect.spi.Connection;
 
-public class SocketConnection extends Connection {
+public class SocketConnection extends Connection implements PacketBatchWriter {
+
+	/**
+	 * Batches larger than this are written packet by packet rather than
+	 * coalesced, e.g. batches holding a class redefinition.
+	 */
+	private static final int MAX_WRITE_BUFFER_SIZE = 1024 * 1024;
+
+	/** Initial size of the write buffer. */
+	private static final int INITIAL_WRITE_BUFFER_SIZE = 8192;
+
+	/**
+	 * A write buffer that grew beyond this size for a batch is dropped once
+	 * the batch is written, so that an occasional large batch does not pin a
+	 * large buffer for the lifetime of the connection.
+	 */
+	private static final int MAX_RETAINED_WRITE_BUFFER_SIZE = 64 * 1024;
 
 	// for attaching connector
 	private Socket fSocket;
@@ -32,6 +49,13 @@ public class SocketConnection extends Connection {
 
 	private OutputStream fOutput;
 
+	/**
+	 * Buffer in which {@link #writePackets(List)} coalesces packets, grown as
+	 * needed and reused across calls unless it grew beyond
+	 * {@link #MAX_RETAINED_WRITE_BUFFER_SIZE}. Guarded by the output stream.
+	 */
+	private byte[] fWriteBuffer = new byte[INITIAL_WRITE_BUFFER_SIZE];
+
 	SocketConnection(Socket socket, InputStream in, OutputStream out) {
 		fSocket = socket;
 		fInput = in;
@@ -109,6 +133,76 @@ public class SocketConnection extends Connection {
 		if (!isOpen()) {
 			throw new ClosedConnectionException();
 		}
+		int packetSize = checkPacket(packet);
+
+		OutputStream stream = outputStream();
+		synchronized (stream) {
+			// packet.length can be > packetSize. Sending too much will cause
+			// errors on the other side
+			stream.write(packet, 0, packetSize);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.jdi.internal.connect.PacketBatchWriter#writePackets(java.util.List)
+	 */
+	@Override
+	public void writePackets(List<byte[]> packets) throws IOException {
+		if (!isOpen()) {
+			throw new ClosedConnectionException();
+		}
+		int totalSize = 0;
+		for (byte[] packet : packets) {
+			totalSize += checkPacket(packet);
+		}
+
+		OutputStream stream = outputStream();
+		synchronized (stream) {
+			if (totalSize > MAX_WRITE_BUFFER_SIZE) {
+				for (byte[] packet : packets) {
+					stream.write(packet, 0, getPacketLength(packet));
+				}
+				stream.flush();
+				return;
+			}
+			if (fWriteBuffer.length < totalSize) {
+				fWriteBuffer = new byte[Math.min(Math.max(totalSize, fWriteBuffer.length * 2), MAX_WRITE_BUFFER_SIZE)];
+			}
+			try {
+				int offset = 0;
+				for (byte[] packet : packets) {
+					// only copy the specified length, see writePacket(byte[])
+					int packetSize = getPacketLength(packet);
+					System.arraycopy(packet, 0, fWriteBuffer, offset, packetSize);
+					offset += packetSize;
+				}
+				stream.write(fWriteBuffer, 0, offset);
+				stream.flush();
+			} finally {
+				if (fWriteBuffer.length > MAX_RETAINED_WRITE_BUFFER_SIZE) {
+					fWriteBuffer = new byte[INITIAL_WRITE_BUFFER_SIZE];
+				}
+			}
+		}
+	}
+
+	private OutputStream outputStream() throws IOException {
+		synchronized (this) {
+			if (!isOpen()) {
+				throw new ClosedConnectionException();
+			}
+			return fOutput;
+		}
+	}
+
+	/**
+	 * Validates a JDWP packet before it is written.
+	 *
+	 * @return the length of the packet as specified in its header
+	 */
+	private int checkPacket(byte[] packet) {
 		if (packet == null) {
 			throw new IllegalArgumentException(
 					"Invalid JDWP Packet, packet cannot be null"); //$NON-NLS-1$
@@ -128,20 +222,7 @@ public class SocketConnection extends Connection {
 			throw new IllegalArgumentException(
 					"Invalid JDWP packet: Specified length is greater than actual length"); //$NON-NLS-1$
 		}
-
-		OutputStream stream = null;
-		synchronized (this) {
-			if (!isOpen()) {
-				throw new ClosedConnectionException();
-			}
-			stream = fOutput;
-		}
-
-		synchronized (stream) {
-			// packet.length can be > packetSize. Sending too much will cause
-			// errors on the other side
-			stream.write(packet, 0, packetSize);
-		}
+		return packetSize;
 	}
 
 	private int getPacketLength(byte[] packet) {
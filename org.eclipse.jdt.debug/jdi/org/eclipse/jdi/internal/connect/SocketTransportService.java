@@ -21,9 +21,12 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.Arrays;
 
 import org.eclipse.jdi.TimeoutException;
@@ -105,6 +108,19 @@ public class SocketTransportService extends TransportService {
 		InputStream input = socket.getInputStream();
 		OutputStream output = socket.getOutputStream();
 		performHandshake(input, output, handshakeTimeout);
+		return createConnection(socket, input, output);
+	}
+
+	/**
+	 * Creates the connection for a socket that completed the handshake. Sockets
+	 * backed by a channel get a {@link SocketChannelConnection}.
+	 */
+	private Connection createConnection(Socket socket, InputStream input,
+			OutputStream output) {
+		SocketChannel channel = socket.getChannel();
+		if (channel != null) {
+			return new SocketChannelConnection(channel);
+		}
 		return new SocketConnection(socket, input, output);
 	}
 
@@ -139,16 +155,21 @@ public class SocketTransportService extends TransportService {
 		}
 
 		final IOException[] ex = new IOException[1];
-		final SocketConnection[] result = new SocketConnection[1];
+		final Connection[] result = new Connection[1];
 		Thread attachThread = new Thread(new Runnable() {
 			@Override
 			public void run() {
 				try {
-					Socket socket = new Socket(host, port);
+					Socket socket;
+					if (SocketChannelConnection.isEnabled()) {
+						socket = SocketChannel.open(new InetSocketAddress(host, port)).socket();
+					} else {
+						socket = new Socket(host, port);
+					}
 					InputStream input = socket.getInputStream();
 					OutputStream output = socket.getOutputStream();
 					performHandshake(input, output, handshakeTimeout);
-					result[0] = new SocketConnection(socket, input, output);
+					result[0] = createConnection(socket, input, output);
 				} catch (IOException e) {
 					ex[0] = e;
 				}
@@ -300,7 +321,12 @@ public class SocketTransportService extends TransportService {
 			host = "localhost"; //$NON-NLS-1$
 		}
 
-		fServerSocket = new ServerSocket(port);
+		if (SocketChannelConnection.isEnabled()) {
+			fServerSocket = ServerSocketChannel.open().socket();
+			fServerSocket.bind(new InetSocketAddress(port));
+		} else {
+			fServerSocket = new ServerSocket(port);
+		}
 		port = fServerSocket.getLocalPort();
 		ListenKey listenKey = new SocketListenKey(host + ":" + port); //$NON-NLS-1$
 		return listenKey;
@@ -134,13 +134,29 @@ public abstract class JdwpID {
 	 * Reads ID.
 	 */
 	public void read(DataInputStream inStream) throws IOException {
-		fValue = 0;
-		int size = getSize();
+		fValue = readValue(getSize(), inStream);
+	}
+
+	/**
+	 * Reads the value of an ID of the given size, without creating an ID
+	 * object. Used to look up cached mirrors by value.
+	 */
+	public static long readValue(int size, DataInputStream inStream) throws IOException {
+		long value = 0;
 		for (int i = 0; i < size; i++) {
 			int b = inStream.readUnsignedByte(); // Note that the byte must be
 													// treated as unsigned.
-			fValue = fValue << 8 | b;
+			value = value << 8 | b;
 		}
+		return value;
+	}
+
+	/**
+	 * Sets the value of this ID, e.g. with a value read by
+	 * {@link #readValue(int, DataInputStream)}.
+	 */
+	public void setValue(long value) {
+		fValue = value;
 	}
 
 	/**
@@ -156,6 +172,13 @@ public abstract class JdwpID {
 		}
 	}
 
+	/**
+	 * Writes ID to a packet buffer.
+	 */
+	public void write(JdwpPacketBuffer buffer) {
+		buffer.writeID(fValue, getSize());
+	}
+
 	/**
 	 * Retrieves constant mappings.
 	 */
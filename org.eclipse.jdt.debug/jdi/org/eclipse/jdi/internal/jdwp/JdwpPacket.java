@@ -18,6 +18,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 
 /**
  * This class implements the corresponding Java Debug Wire Protocol (JDWP)
@@ -37,6 +38,15 @@ public abstract class JdwpPacket {
 	protected byte fFlags = 0;
 	protected byte[] fDataBuf = null;
 
+	/**
+	 * Buffer in which the packet was built in place, until it is released
+	 * after sending. Packets are built and sent by different threads.
+	 */
+	private volatile JdwpPacketBuffer fBuffer = null;
+	private int fBufferDataLength = 0;
+	/** Whether the buffer of this packet was released after sending. */
+	private volatile boolean fBufferReleased = false;
+
 	/**
 	 * Set Id.
 	 */
@@ -76,13 +86,21 @@ public abstract class JdwpPacket {
 	 * @return Returns length of data in packet.
 	 */
 	public int getDataLength() {
-		return fDataBuf == null ? 0 : fDataBuf.length;
+		return fDataBuf == null ? fBufferDataLength : fDataBuf.length;
 	}
 
 	/**
-	 * @return Returns data of packet.
+	 * @return Returns data of packet. The data of a packet built in a
+	 *         {@link JdwpPacketBuffer} is copied, and is no longer available
+	 *         once the packet has been sent.
+	 * @throws IllegalStateException
+	 *             if the packet was built in a buffer that was released
 	 */
 	public byte[] data() {
+		JdwpPacketBuffer buffer = buffer();
+		if (buffer != null) {
+			return buffer.copyData();
+		}
 		return fDataBuf;
 	}
 
@@ -103,6 +121,97 @@ public abstract class JdwpPacket {
 	 */
 	public void setData(byte[] data) {
 		fDataBuf = data;
+		fBuffer = null;
+		fBufferDataLength = 0;
+		fBufferReleased = false;
+	}
+
+	/**
+	 * Assigns the data written to the given buffer to this packet. The packet
+	 * takes ownership of the buffer: it must not be written to afterwards, and
+	 * is returned to the pool by {@link #releaseBuffer()} once the packet has
+	 * been sent.
+	 */
+	public void setData(JdwpPacketBuffer buffer) {
+		fDataBuf = null;
+		fBuffer = buffer;
+		fBufferDataLength = buffer.dataLength();
+		fBufferReleased = false;
+	}
+
+	/**
+	 * Returns the buffer this packet was built in to the pool. Called once
+	 * the packet has been written.
+	 */
+	public void releaseBuffer() {
+		JdwpPacketBuffer buffer = fBuffer;
+		if (buffer != null) {
+			fBufferReleased = true;
+			fBuffer = null;
+			buffer.release();
+		}
+	}
+
+	/**
+	 * @return Returns the buffer this packet was built in, or
+	 *         <code>null</code> if its data is held in an array.
+	 * @throws IllegalStateException
+	 *             if the buffer was released
+	 */
+	private JdwpPacketBuffer buffer() {
+		JdwpPacketBuffer buffer = fBuffer;
+		if (buffer == null && fBufferReleased) {
+			throw new IllegalStateException("The data of a sent packet is no longer available"); //$NON-NLS-1$
+		}
+		return buffer;
+	}
+
+	/**
+	 * @return Returns the byte at the given index of the data.
+	 */
+	public byte getByte(int index) {
+		return fDataBuf[index];
+	}
+
+	/**
+	 * @return Returns the short at the given index of the data.
+	 */
+	public short getShort(int index) {
+		return (short) (((fDataBuf[index] & 0xff) << 8) | (fDataBuf[index + 1] & 0xff));
+	}
+
+	/**
+	 * @return Returns the int at the given index of the data.
+	 */
+	public int getInt(int index) {
+		return getInt(fDataBuf, index);
+	}
+
+	/**
+	 * @return Returns the long at the given index of the data.
+	 */
+	public long getLong(int index) {
+		return getID(index, 8);
+	}
+
+	/**
+	 * @return Returns the value of the ID of the given size at the given index
+	 *         of the data.
+	 */
+	public long getID(int index, int size) {
+		long value = 0;
+		for (int i = 0; i < size; i++) {
+			value = value << 8 | (fDataBuf[index + i] & 0xff);
+		}
+		return value;
+	}
+
+	/**
+	 * @return Returns the int at the given index of a byte array.
+	 */
+	private static int getInt(byte[] bytes, int index) {
+		return (bytes[index] & 0xff) << 24 | (bytes[index + 1] & 0xff) << 16
+				| (bytes[index + 2] & 0xff) << 8 | (bytes[index + 3] & 0xff);
 	}
 
 	/**
@@ -121,19 +230,28 @@ public abstract class JdwpPacket {
 	 * Constructs a JdwpPacket from a byte[].
 	 */
 	public static JdwpPacket build(byte[] bytes) throws IOException {
+		JdwpPacket packet = buildFromHeader(bytes);
+		if (packet.fDataBuf != null) {
+			System.arraycopy(bytes, MIN_PACKET_LENGTH, packet.fDataBuf, 0,
+					packet.fDataBuf.length);
+		}
+		return packet;
+	}
+
+	/**
+	 * Constructs a JdwpPacket from the header at the start of a byte[]. The
+	 * data of the packet is allocated but not filled in, so that callers can
+	 * read it directly into {@link #data()}.
+	 */
+	public static JdwpPacket buildFromHeader(byte[] bytes) throws IOException {
 		// length (int)
-		int a = (bytes[0] & 0xff) << 24;
-		int b = (bytes[1] & 0xff) << 16;
-		int c = (bytes[2] & 0xff) << 8;
-		int d = (bytes[3] & 0xff) << 0;
-		int packetLength = a + b + c + d;
+		int packetLength = getInt(bytes, 0);
+		if (packetLength < MIN_PACKET_LENGTH) {
+			throw new IOException("JDWP Packet under 11 bytes"); //$NON-NLS-1$
+		}
 
 		// id (int)
-		a = (bytes[4] & 0xff) << 24;
-		b = (bytes[5] & 0xff) << 16;
-		c = (bytes[6] & 0xff) << 8;
-		d = (bytes[7] & 0xff) << 0;
-		int id = a + b + c + d;
+		int id = getInt(bytes, 4);
 
 		// flags (byte)
 		byte flags = bytes[8];
@@ -149,21 +267,64 @@ public abstract class JdwpPacket {
 		packet.setId(id);
 		packet.setFlags(flags);
 
-		// Read specific header fields and data.
-		int index = 9;
-		index += packet.readSpecificHeaderFields(bytes, 9);
+		// Read specific header fields and allocate data.
+		packet.readSpecificHeaderFields(bytes, 9);
 		if (packetLength - MIN_PACKET_LENGTH > 0) {
 			packet.fDataBuf = new byte[packetLength - MIN_PACKET_LENGTH];
-			System.arraycopy(bytes, index, packet.fDataBuf, 0,
-					packet.fDataBuf.length);
 		}
 
 		return packet;
 	}
 
+	/**
+	 * @return Returns the packet as an array of exactly its length.
+	 */
 	public byte[] getPacketAsBytes() throws IOException {
+		JdwpPacketBuffer buffer = buffer();
+		if (buffer != null) {
+			byte[] bytes = buffer.bytes();
+			writeHeader(bytes);
+			if (bytes.length == getLength()) {
+				return bytes;
+			}
+			return Arrays.copyOf(bytes, getLength());
+		}
 		int len = getLength();
 		byte[] bytes = new byte[len];
+		int index = writeHeader(bytes);
+
+		if (index < len && fDataBuf != null) {
+			// copy data
+			System.arraycopy(fDataBuf, 0, bytes, index, fDataBuf.length);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the packet as bytes without copying it if it was built in a
+	 * {@link JdwpPacketBuffer}. The array may be longer than the packet, whose
+	 * length is given by the header, and is only valid until
+	 * {@link #releaseBuffer()} is called.
+	 *
+	 * @return Returns the packet, possibly followed by unused bytes.
+	 */
+	public byte[] getPacketBytes() throws IOException {
+		JdwpPacketBuffer buffer = buffer();
+		if (buffer != null) {
+			byte[] bytes = buffer.bytes();
+			writeHeader(bytes);
+			return bytes;
+		}
+		return getPacketAsBytes();
+	}
+
+	/**
+	 * Writes the header of this packet at the start of the given array.
+	 *
+	 * @return Returns the index of the first byte after the header.
+	 */
+	private int writeHeader(byte[] bytes) throws IOException {
+		int len = getLength();
 
 		// convert len to bytes
 		bytes[0] = (byte) (len >>> 24);
@@ -184,12 +345,7 @@ public abstract class JdwpPacket {
 		// convert specific header fields
 		int index = 9;
 		index += writeSpecificHeaderFields(bytes, index);
-
-		if (index < len && fDataBuf != null) {
-			// copy data
-			System.arraycopy(fDataBuf, 0, bytes, index, fDataBuf.length);
-		}
-		return bytes;
+		return index;
 	}
 
 	/**
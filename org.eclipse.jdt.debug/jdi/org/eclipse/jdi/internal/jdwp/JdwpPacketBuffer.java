@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdi.internal.jdwp;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A growable buffer in which a JDWP packet is built in place: the header is
+ * reserved at the start and filled in when the packet is sent, so the data
+ * written here is put on the wire without being copied. Buffers are pooled;
+ * obtain one with {@link #acquire()} and attach it to a command packet with
+ * {@link JdwpPacket#setData(JdwpPacketBuffer)}. The packet returns the buffer
+ * to the pool once it has been written.
+ */
+public final class JdwpPacketBuffer {
+	/** Initial capacity, enough for the data of most commands. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Buffers that grew beyond this capacity are not pooled. */
+	private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/** Pool of free buffers. */
+	private static final ArrayBlockingQueue<JdwpPacketBuffer> fgPool = new ArrayBlockingQueue<>(32);
+
+	private byte[] fBytes;
+	private int fPosition;
+
+	/**
+	 * Creates a new, empty buffer.
+	 */
+	public JdwpPacketBuffer() {
+		fBytes = new byte[INITIAL_CAPACITY];
+		fPosition = JdwpPacket.MIN_PACKET_LENGTH;
+	}
+
+	/**
+	 * @return Returns an empty buffer, taken from the pool if possible.
+	 */
+	public static JdwpPacketBuffer acquire() {
+		JdwpPacketBuffer buffer = fgPool.poll();
+		if (buffer == null) {
+			return new JdwpPacketBuffer();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns this buffer to the pool. It must not be used afterwards.
+	 */
+	void release() {
+		if (fBytes.length <= MAX_POOLED_CAPACITY) {
+			fPosition = JdwpPacket.MIN_PACKET_LENGTH;
+			fgPool.offer(this);
+		}
+	}
+
+	/**
+	 * @return Returns the length of the packet, including its header.
+	 */
+	public int packetLength() {
+		return fPosition;
+	}
+
+	/**
+	 * @return Returns the length of the data written so far.
+	 */
+	public int dataLength() {
+		return fPosition - JdwpPacket.MIN_PACKET_LENGTH;
+	}
+
+	/**
+	 * @return Returns the backing array, which holds the packet header
+	 *         followed by the data and may be longer than the packet.
+	 */
+	byte[] bytes() {
+		return fBytes;
+	}
+
+	/**
+	 * @return Returns a copy of the data written so far.
+	 */
+	byte[] copyData() {
+		return Arrays.copyOfRange(fBytes, JdwpPacket.MIN_PACKET_LENGTH, fPosition);
+	}
+
+	private void ensureCapacity(int count) {
+		if (fPosition + count > fBytes.length) {
+			fBytes = Arrays.copyOf(fBytes, Math.max(fBytes.length * 2, fPosition + count));
+		}
+	}
+
+	public void writeByte(int value) {
+		ensureCapacity(1);
+		fBytes[fPosition++] = (byte) value;
+	}
+
+	public void writeBoolean(boolean value) {
+		writeByte(value ? 1 : 0);
+	}
+
+	public void writeShort(int value) {
+		ensureCapacity(2);
+		fBytes[fPosition++] = (byte) (value >>> 8);
+		fBytes[fPosition++] = (byte) value;
+	}
+
+	public void writeChar(int value) {
+		writeShort(value);
+	}
+
+	public void writeInt(int value) {
+		ensureCapacity(4);
+		fBytes[fPosition++] = (byte) (value >>> 24);
+		fBytes[fPosition++] = (byte) (value >>> 16);
+		fBytes[fPosition++] = (byte) (value >>> 8);
+		fBytes[fPosition++] = (byte) value;
+	}
+
+	public void writeLong(long value) {
+		writeID(value, 8);
+	}
+
+	public void writeFloat(float value) {
+		writeInt(Float.floatToIntBits(value));
+	}
+
+	public void writeDouble(double value) {
+		writeLong(Double.doubleToLongBits(value));
+	}
+
+	/**
+	 * Writes the given number of low-order bytes of an ID, most significant
+	 * byte first.
+	 */
+	public void writeID(long value, int size) {
+		ensureCapacity(size);
+		for (int i = size - 1; i >= 0; i--) {
+			fBytes[fPosition++] = (byte) (value >>> 8 * i);
+		}
+	}
+
+	public void writeBytes(byte[] bytes, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, fBytes, fPosition, length);
+		fPosition += length;
+	}
+}
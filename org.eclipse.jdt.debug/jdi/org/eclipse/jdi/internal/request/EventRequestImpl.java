@@ -78,6 +78,7 @@ public abstract class EventRequestImpl extends MirrorImpl implements
 	public static final byte MODIF_KIND_STEP = 10;
 	public static final byte MODIF_KIND_INSTANCE = 11;
 	public static final byte MODIF_KIND_SOURCE_NAME_FILTER = 12;
+	public static final byte MODIF_KIND_PLATFORM_THREADS_ONLY = 13;
 
 	/** Mapping of command codes to strings. */
 	private static HashMap<Integer, String> fStepSizeMap = null;
@@ -115,6 +116,9 @@ public abstract class EventRequestImpl extends MirrorImpl implements
 	/** Thread filters. */
 	protected ArrayList<ThreadReference> fThreadFilters = null;
 
+	/** Platform threads only filter, for thread start and death requests. */
+	protected boolean fPlatformThreadsOnly = false;
+
 	/** Class filters. */
 	protected ArrayList<String> fClassFilters = null;
 
@@ -602,6 +606,9 @@ public abstract class EventRequestImpl extends MirrorImpl implements
 				count += fSourceNameFilters.size();
 			}
 		}
+		if (fPlatformThreadsOnly && supportsVirtualThreads()) {
+			count++;
+		}
 		return count;
 	}
 
@@ -709,6 +716,20 @@ public abstract class EventRequestImpl extends MirrorImpl implements
 				}
 			}
 		}
+		if (fPlatformThreadsOnly && supportsVirtualThreads()) {
+			writeByte(MODIF_KIND_PLATFORM_THREADS_ONLY,
+					"modifier", modifierKindMap(), outData); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns whether the target VM supports virtual threads (a JDWP 19
+	 * feature).
+	 *
+	 * @return whether the target VM supports virtual threads
+	 */
+	private boolean supportsVirtualThreads() {
+		return ((VirtualMachineImpl) virtualMachine()).supportsVirtualThreads();
 	}
 
 	/**
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdi.internal.request;
 
+import org.eclipse.jdi.ThreadLifecycleRequest;
 import org.eclipse.jdi.internal.VirtualMachineImpl;
 import org.eclipse.jdi.internal.event.ThreadDeathEventImpl;
 
@@ -24,7 +25,7 @@ import com.sun.jdi.request.ThreadDeathRequest;
  *
  */
 public class ThreadDeathRequestImpl extends EventRequestImpl implements
-		ThreadDeathRequest {
+		ThreadDeathRequest, ThreadLifecycleRequest {
 	/**
 	 * Creates new ThreadDeathRequest.
 	 */
@@ -32,6 +33,15 @@ public class ThreadDeathRequestImpl extends EventRequestImpl implements
 		super("ThreadDeathRequest", vmImpl); //$NON-NLS-1$
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdi.ThreadLifecycleRequest#addPlatformThreadsOnlyFilter()
+	 */
+	@Override
+	public void addPlatformThreadsOnlyFilter() {
+		checkDisabled();
+		fPlatformThreadsOnly = true;
+	}
+
 	/**
 	 * @return Returns JDWP EventKind.
 	 */
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdi.internal.request;
 
+import org.eclipse.jdi.ThreadLifecycleRequest;
 import org.eclipse.jdi.internal.VirtualMachineImpl;
 import org.eclipse.jdi.internal.event.ThreadStartEventImpl;
 
@@ -24,7 +25,7 @@ import com.sun.jdi.request.ThreadStartRequest;
  *
  */
 public class ThreadStartRequestImpl extends EventRequestImpl implements
-		ThreadStartRequest {
+		ThreadStartRequest, ThreadLifecycleRequest {
 	/**
 	 * Creates new ThreadStartRequest.
 	 */
@@ -32,6 +33,15 @@ public class ThreadStartRequestImpl extends EventRequestImpl implements
 		super("ThreadStartRequest", vmImpl); //$NON-NLS-1$
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdi.ThreadLifecycleRequest#addPlatformThreadsOnlyFilter()
+	 */
+	@Override
+	public void addPlatformThreadsOnlyFilter() {
+		checkDisabled();
+		fPlatformThreadsOnly = true;
+	}
+
 	/**
 	 * @return Returns JDWP EventKind.
 	 */
@@ -402,6 +402,27 @@ public interface IJavaDebugTarget extends IDebugTarget, IStepFilters {
 	 */
 	public boolean supportsMonitorInformation();
 
+	/**
+	 * Returns a snapshot of the monitors owned and contended by the suspended
+	 * threads of this target, along with the deadlocks among them. The
+	 * monitor information of all threads is retrieved at once, which is
+	 * considerably cheaper than querying each thread separately. The snapshot
+	 * is empty if this target does not support monitor information.
+	 *
+	 * @return a snapshot of the monitors of the suspended threads of this
+	 *         target
+	 * @exception DebugException
+	 *                if this method fails. Reasons include:
+	 *                <ul>
+	 *                <li>Failure communicating with the VM. The
+	 *                DebugException's status code contains the underlying
+	 *                exception responsible for the failure.</li>
+	 *                </ul>
+	 * @see #supportsMonitorInformation()
+	 * @since 3.20
+	 */
+	public IJavaMonitorSnapshot getMonitorSnapshot() throws DebugException;
+
 	/**
 	 * Returns whether this target supports access watchpoints.
 	 *
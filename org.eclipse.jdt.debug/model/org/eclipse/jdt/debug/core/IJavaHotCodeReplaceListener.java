@@ -20,6 +20,11 @@ import org.eclipse.debug.core.DebugException;
  * modified in the workspace, targets that support hot code replace are updated
  * with new class files.
  * <p>
+ * When code is replaced in several targets at once, each target is updated on
+ * its own thread, so listeners may be notified for different targets
+ * concurrently, and not on the thread that triggered the replacement.
+ * </p>
+ * <p>
  * Clients may implement this interface
  * </p>
  *
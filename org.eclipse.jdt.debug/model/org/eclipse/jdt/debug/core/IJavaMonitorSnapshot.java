@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.debug.core;
+
+/**
+ * The monitors owned and contended by the suspended threads of a Java debug
+ * target at the time the snapshot was taken, and the deadlocks among them.
+ * <p>
+ * A deadlock is a cycle in the wait-for graph of the snapshot: each thread of
+ * the cycle waits for a monitor owned by the next thread of the cycle. Threads
+ * that wait for a monitor owned by a deadlocked thread are blocked, but not
+ * part of a deadlock.
+ * </p>
+ * <p>
+ * A snapshot does not change once taken and does not communicate with the
+ * target VM.
+ * </p>
+ *
+ * @see IJavaDebugTarget#getMonitorSnapshot()
+ * @since 3.20
+ * @noimplement This interface is not intended to be implemented by clients.
+ * @noextend This interface is not intended to be extended by clients.
+ */
+public interface IJavaMonitorSnapshot {
+
+	/**
+	 * Returns the threads of this snapshot, i.e. the threads that were
+	 * suspended when the snapshot was taken.
+	 *
+	 * @return the threads of this snapshot
+	 */
+	public IJavaThread[] getThreads();
+
+	/**
+	 * Returns the monitors owned by the given thread, in the order reported
+	 * by the VM, or an empty array if the thread is not part of this snapshot.
+	 *
+	 * @param thread
+	 *            a thread
+	 * @return the monitors owned by the given thread
+	 */
+	public IJavaObject[] getOwnedMonitors(IJavaThread thread);
+
+	/**
+	 * Returns the depth of the stack frame of the given thread in which the
+	 * given monitor was acquired, the top frame having depth <code>0</code>.
+	 * Returns <code>-1</code> if the depth is not known, e.g. for monitors
+	 * acquired by JNI code or when the VM can't tell, or if the thread does
+	 * not own the monitor.
+	 *
+	 * @param thread
+	 *            a thread
+	 * @param monitor
+	 *            a monitor owned by the thread
+	 * @return stack depth at which the monitor was acquired, or
+	 *         <code>-1</code>
+	 */
+	public int getOwnedMonitorDepth(IJavaThread thread, IJavaObject monitor);
+
+	/**
+	 * Returns the monitor the given thread waits for, or <code>null</code> if
+	 * none or if the thread is not part of this snapshot.
+	 *
+	 * @param thread
+	 *            a thread
+	 * @return the contended monitor or <code>null</code>
+	 */
+	public IJavaObject getContendedMonitor(IJavaThread thread);
+
+	/**
+	 * Returns the thread owning the given monitor, or <code>null</code> if
+	 * none of the threads of this snapshot owns it.
+	 *
+	 * @param monitor
+	 *            a monitor
+	 * @return the owning thread or <code>null</code>
+	 */
+	public IJavaThread getOwningThread(IJavaObject monitor);
+
+	/**
+	 * Returns the threads waiting for the given monitor.
+	 *
+	 * @param monitor
+	 *            a monitor
+	 * @return the threads waiting for the given monitor, possibly empty
+	 */
+	public IJavaThread[] getContendingThreads(IJavaObject monitor);
+
+	/**
+	 * Returns the deadlocks found in this snapshot. Each deadlock is the cycle
+	 * of threads waiting for each other, starting with any of them: each
+	 * thread waits for a monitor owned by the next one, and the last one
+	 * waits for a monitor owned by the first one.
+	 *
+	 * @return the deadlocks, possibly empty
+	 */
+	public IJavaThread[][] getDeadlocks();
+
+	/**
+	 * Returns whether the given thread is part of a deadlock or waits for a
+	 * monitor owned by a thread that is, i.e. will wait forever.
+	 *
+	 * @param thread
+	 *            a thread
+	 * @return whether the given thread is deadlocked
+	 */
+	public boolean isInDeadlock(IJavaThread thread);
+
+	/**
+	 * Returns whether a deadlocked thread waits for the given monitor, see
+	 * {@link #isInDeadlock(IJavaThread)}.
+	 *
+	 * @param monitor
+	 *            a monitor
+	 * @return whether the given monitor is involved in a deadlock
+	 */
+	public boolean isInDeadlock(IJavaObject monitor);
+}
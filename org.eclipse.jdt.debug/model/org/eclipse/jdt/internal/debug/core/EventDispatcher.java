@@ -18,10 +18,15 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugEvent;
@@ -30,13 +35,17 @@ import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.jdt.debug.core.IJavaLineBreakpoint;
 import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
 
+import com.sun.jdi.ThreadReference;
 import com.sun.jdi.VMDisconnectedException;
 import com.sun.jdi.VirtualMachine;
+import com.sun.jdi.event.ClassPrepareEvent;
 import com.sun.jdi.event.Event;
 import com.sun.jdi.event.EventIterator;
 import com.sun.jdi.event.EventQueue;
 import com.sun.jdi.event.EventSet;
+import com.sun.jdi.event.LocatableEvent;
 import com.sun.jdi.event.ThreadDeathEvent;
+import com.sun.jdi.event.ThreadStartEvent;
 import com.sun.jdi.event.VMDeathEvent;
 import com.sun.jdi.event.VMDisconnectEvent;
 import com.sun.jdi.event.VMStartEvent;
@@ -59,6 +68,15 @@ import com.sun.jdi.request.EventRequest;
  * only resumed in if all event handlers agree that the thread should be
  * resumed.
  * </p>
+ * <p>
+ * By default event sets are dispatched one at a time on the thread reading the
+ * event queue. If {@link JDIDebugPlugin#PREF_EVENT_DISPATCH_THREADS} is set,
+ * event sets are instead handed to that many worker threads, partitioned by
+ * the thread the events occurred in. Events of one thread are dispatched in
+ * the order they were received, while events of different threads are
+ * dispatched concurrently. Event sets that are not associated with a thread,
+ * such as VM start and death, are dispatched once all workers are idle.
+ * </p>
  */
 
 public class EventDispatcher implements Runnable {
@@ -74,7 +92,32 @@ public class EventDispatcher implements Runnable {
 	 * Table of event listeners. Table is a mapping of <code>EventRequest</code>
 	 * to <code>IJDIEventListener</code>.
 	 */
-	private HashMap<EventRequest, IJDIEventListener> fEventHandlers;
+	private final Map<EventRequest, IJDIEventListener> fEventHandlers;
+
+	/**
+	 * The maximum number of event sets queued for one worker. When a worker
+	 * falls behind, reading from the event queue is suspended until it catches
+	 * up.
+	 */
+	private static final int WORKER_QUEUE_CAPACITY = 256;
+
+	/**
+	 * Workers event sets are dispatched on, or <code>null</code> if event sets
+	 * are dispatched on the thread reading the event queue.
+	 */
+	private DispatchWorker[] fWorkers;
+
+	/**
+	 * The number of workers to dispatch event sets on, 0 if event sets are
+	 * dispatched on the thread reading the event queue.
+	 */
+	private final int fWorkerCount;
+
+	/**
+	 * The number of event sets handed to workers that have not been
+	 * dispatched yet. Guarded by this dispatcher.
+	 */
+	private int fPendingSets;
 
 	/**
 	 * Queue of debug model events to fire, created when processing events on
@@ -90,9 +133,41 @@ public class EventDispatcher implements Runnable {
 	 *            the target this event dispatcher belongs to
 	 */
 	public EventDispatcher(JDIDebugTarget target) {
-		fEventHandlers = new HashMap<>(10);
+		this(target, Platform.getPreferencesService().getInt(
+				JDIDebugPlugin.getUniqueIdentifier(),
+				JDIDebugPlugin.PREF_EVENT_DISPATCH_THREADS, 0, null));
+	}
+
+	/**
+	 * Constructs a new event dispatcher listening for events originating from
+	 * the specified debug target's underlying VM.
+	 *
+	 * @param target
+	 *            the target this event dispatcher belongs to
+	 * @param workerCount
+	 *            the number of worker threads to dispatch event sets on, or 0
+	 *            to dispatch them on the thread reading the event queue
+	 */
+	public EventDispatcher(JDIDebugTarget target, int workerCount) {
+		fEventHandlers = new ConcurrentHashMap<>(10);
 		fTarget = target;
 		fShutdown = false;
+		fWorkerCount = Math.max(0, workerCount);
+	}
+
+	/**
+	 * Returns the listener registered for the request of the given event.
+	 *
+	 * @param event
+	 *            the event
+	 * @return the listener for the event, or <code>null</code> if none
+	 */
+	private IJDIEventListener getListener(Event event) {
+		EventRequest request = event.request();
+		if (request == null) {
+			return null;
+		}
+		return fEventHandlers.get(request);
 	}
 
 	/**
@@ -133,7 +208,7 @@ public class EventDispatcher implements Runnable {
 				continue;
 			}
 			// Dispatch events to registered listeners, if any
-			IJDIEventListener listener = fEventHandlers.get(event.request());
+			IJDIEventListener listener = getListener(event);
 			listeners[index] = listener;
 			if (listener != null) {
 				if (listener instanceof IJavaLineBreakpoint) {
@@ -183,8 +258,7 @@ public class EventDispatcher implements Runnable {
 					continue;
 				}
 				// Dispatch events to registered listeners, if any
-				IJDIEventListener listener = fEventHandlers
-						.get(event.request());
+				IJDIEventListener listener = getListener(event);
 				if (listener != null) {
 					vote = true;
 					resume = listener.handleEvent(event, fTarget, !resume, eventSet) && resume;
@@ -241,7 +315,7 @@ public class EventDispatcher implements Runnable {
 			if (event == null) {
 				continue;
 			}
-			IJDIEventListener listener = fEventHandlers.get(event.request());
+			IJDIEventListener listener = getListener(event);
 			if (listener instanceof IJavaLineBreakpoint) {
 				try {
 					if (((IJavaLineBreakpoint) listener).isConditionEnabled()) {
@@ -302,7 +376,11 @@ public class EventDispatcher implements Runnable {
 
 					if (eventSet != null) {
 						if (!requiresExpressionEvaluation(eventSet)) {
-							dispatch(eventSet);
+							if (fWorkerCount > 0) {
+								dispatchOnWorker(eventSet);
+							} else {
+								dispatch(eventSet);
+							}
 						} else {
 							// 269231 always evaluate expressions in a separate job to avoid deadlocks
 							Job job = new AbstractDispatchJob("JDI Expression Evaluation Event Dispatch") { //$NON-NLS-1$
@@ -323,6 +401,144 @@ public class EventDispatcher implements Runnable {
 		}
 	}
 
+	/**
+	 * Hands the given event set to the worker responsible for the thread the
+	 * events occurred in, waiting while that worker's queue is full. Event sets
+	 * without a thread are dispatched on the calling thread once all workers
+	 * are idle, so that they are seen after all events received before them.
+	 *
+	 * @param eventSet
+	 *            events to dispatch
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	private void dispatchOnWorker(EventSet eventSet) throws InterruptedException {
+		ThreadReference thread = getThread(eventSet);
+		if (thread == null) {
+			awaitWorkers();
+			dispatch(eventSet);
+			return;
+		}
+		DispatchWorker[] workers = fWorkers;
+		if (workers == null) {
+			workers = new DispatchWorker[fWorkerCount];
+			String name = Thread.currentThread().getName();
+			for (int i = 0; i < workers.length; i++) {
+				workers[i] = new DispatchWorker(name + " [" + i + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+				workers[i].start();
+			}
+			fWorkers = workers;
+		}
+		synchronized (this) {
+			fPendingSets++;
+		}
+		DispatchWorker worker = workers[Math.floorMod(Long.hashCode(thread.uniqueID()), workers.length)];
+		while (!worker.offer(eventSet)) {
+			if (isShutdown()) {
+				setDispatched();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Waits until all event sets handed to workers have been dispatched.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	private synchronized void awaitWorkers() throws InterruptedException {
+		while (fPendingSets > 0 && !isShutdown()) {
+			wait(1000);
+		}
+	}
+
+	/**
+	 * Notes that a worker has dispatched an event set.
+	 */
+	private synchronized void setDispatched() {
+		if (--fPendingSets == 0) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Returns the thread the events in the given event set occurred in. All
+	 * events in a set that are associated with a thread occurred in the same
+	 * thread.
+	 *
+	 * @param eventSet
+	 *            the event set
+	 * @return the thread of the events, or <code>null</code> if the events are
+	 *         not associated with a thread
+	 */
+	private static ThreadReference getThread(EventSet eventSet) {
+		EventIterator iter = eventSet.eventIterator();
+		while (iter.hasNext()) {
+			Event event = iter.nextEvent();
+			if (event instanceof LocatableEvent) {
+				return ((LocatableEvent) event).thread();
+			}
+			if (event instanceof ThreadStartEvent) {
+				return ((ThreadStartEvent) event).thread();
+			}
+			if (event instanceof ThreadDeathEvent) {
+				return ((ThreadDeathEvent) event).thread();
+			}
+			if (event instanceof ClassPrepareEvent) {
+				return ((ClassPrepareEvent) event).thread();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Dispatches the event sets of the threads assigned to it, in the order
+	 * they were received.
+	 */
+	private class DispatchWorker extends Thread {
+
+		private final BlockingQueue<EventSet> fQueue = new ArrayBlockingQueue<>(WORKER_QUEUE_CAPACITY);
+
+		DispatchWorker(String name) {
+			super(name);
+			setDaemon(true);
+		}
+
+		/**
+		 * Queues the given event set, waiting up to a second for space.
+		 *
+		 * @return whether the event set was queued
+		 */
+		boolean offer(EventSet eventSet) throws InterruptedException {
+			return fQueue.offer(eventSet, 1000, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public void run() {
+			while (!isShutdown()) {
+				EventSet eventSet;
+				try {
+					eventSet = fQueue.poll(1000, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					break;
+				}
+				if (eventSet != null) {
+					try {
+						dispatch(eventSet);
+					} catch (VMDisconnectedException e) {
+						// the disconnect event shuts the dispatcher down
+					} catch (RuntimeException e) {
+						// keep dispatching the other event sets of this worker
+						JDIDebugPlugin.log(e);
+					} finally {
+						setDispatched();
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Shutdown this event dispatcher - i.e. causes this event dispatcher to
 	 * stop reading and dispatching events from the event queue. The thread
@@ -331,6 +547,9 @@ public class EventDispatcher implements Runnable {
 	public void shutdown() {
 		fShutdown = true;
 		Job.getJobManager().cancel(this);
+		synchronized (this) {
+			notifyAll();
+		}
 	}
 
 	/**
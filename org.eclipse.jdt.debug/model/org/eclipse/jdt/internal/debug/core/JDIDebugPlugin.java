@@ -30,6 +30,7 @@ import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.model.IBreakpoint;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.jdi.Bootstrap;
 import org.eclipse.jdt.core.IJavaProject;
@@ -44,6 +45,7 @@ import org.eclipse.jdt.debug.core.IJavaType;
 import org.eclipse.jdt.debug.core.JDIDebugModel;
 import org.eclipse.jdt.debug.eval.IAstEvaluationEngine;
 import org.eclipse.jdt.internal.debug.core.breakpoints.BreakpointListenerManager;
+import org.eclipse.jdt.internal.debug.core.breakpoints.JavaLineBreakpoint;
 import org.eclipse.jdt.internal.debug.core.hcr.JavaHotCodeReplaceManager;
 import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
 import org.eclipse.jdt.internal.debug.core.model.JDIThread;
@@ -118,6 +120,102 @@ public class JDIDebugPlugin extends Plugin implements IEclipsePreferences.IPrefe
 	public static final String PREF_ENABLE_ADVANCED_SOURCELOOKUP = JDIDebugPlugin
 			.getUniqueIdentifier() + ".enable_advanced_sourcelookup"; //$NON-NLS-1$
 
+	/**
+	 * Integer preference determining the number of worker threads JDI events
+	 * are dispatched on, partitioned by the thread they occurred in. 0 means
+	 * events are dispatched one at a time on the thread reading them.
+	 *
+	 * @since 3.20
+	 */
+	public static final String PREF_EVENT_DISPATCH_THREADS = JDIDebugPlugin
+			.getUniqueIdentifier() + ".event_dispatch_threads"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether breakpoint conditions consisting
+	 * of a single expression are compiled into a class injected into the
+	 * target and run there, rather than interpreted by the debugger.
+	 *
+	 * @since 3.20
+	 */
+	public static final String PREF_EVALUATE_CONDITIONS_IN_TARGET = JDIDebugPlugin
+			.getUniqueIdentifier() + ".evaluate_conditions_in_target"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference determining how many milliseconds a thread hitting a
+	 * conditional breakpoint waits for the condition to be evaluated. 0 means
+	 * no limit. When the condition is still running at the deadline, its
+	 * evaluation is terminated after the current instruction if possible, and
+	 * the thread votes once the evaluation has ended.
+	 *
+	 * @since 3.20
+	 */
+	public static final String PREF_CONDITION_EVALUATION_TIMEOUT = JDIDebugPlugin
+			.getUniqueIdentifier() + ".condition_evaluation_timeout"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference determining how many breakpoint conditions can be
+	 * evaluated at the same time in a debug target. 0 means no limit.
+	 *
+	 * @since 3.20
+	 */
+	public static final String PREF_MAX_CONDITION_EVALUATIONS = JDIDebugPlugin
+			.getUniqueIdentifier() + ".max_condition_evaluations"; //$NON-NLS-1$
+
+	/**
+	 * String preference determining what happens to a conditional breakpoint
+	 * hit whose condition cannot be evaluated within the limits set by
+	 * {@link #PREF_CONDITION_EVALUATION_TIMEOUT} and
+	 * {@link #PREF_MAX_CONDITION_EVALUATIONS}. One of
+	 * {@link #CONDITION_OVERLOAD_SUSPEND}, {@link #CONDITION_OVERLOAD_SKIP} or
+	 * {@link #CONDITION_OVERLOAD_SAMPLE}.
+	 *
+	 * @since 3.20
+	 */
+	public static final String PREF_CONDITION_OVERLOAD_POLICY = JDIDebugPlugin
+			.getUniqueIdentifier() + ".condition_overload_policy"; //$NON-NLS-1$
+
+	/**
+	 * Overload policy suspending the thread, as if the condition were true.
+	 *
+	 * @since 3.20
+	 */
+	public static final String CONDITION_OVERLOAD_SUSPEND = "suspend"; //$NON-NLS-1$
+
+	/**
+	 * Overload policy resuming the thread, as if the condition were false.
+	 *
+	 * @since 3.20
+	 */
+	public static final String CONDITION_OVERLOAD_SKIP = "skip"; //$NON-NLS-1$
+
+	/**
+	 * Overload policy suspending the thread for one in every
+	 * {@link #CONDITION_OVERLOAD_SAMPLE_INTERVAL} overloaded hits of a
+	 * breakpoint, and resuming it otherwise.
+	 *
+	 * @since 3.20
+	 */
+	public static final String CONDITION_OVERLOAD_SAMPLE = "sample"; //$NON-NLS-1$
+
+	/**
+	 * Interval of the overloaded hits suspending with
+	 * {@link #CONDITION_OVERLOAD_SAMPLE}.
+	 *
+	 * @since 3.20
+	 */
+	public static final int CONDITION_OVERLOAD_SAMPLE_INTERVAL = 10;
+
+	/**
+	 * Boolean preference controlling the virtual thread mode of debug targets
+	 * supporting virtual threads. In this mode thread start and death events
+	 * are only requested for platform threads, and a virtual thread is only
+	 * added to its target when it hits a breakpoint or is listed explicitly.
+	 *
+	 * @since 3.20
+	 */
+	public static final String PREF_VIRTUAL_THREAD_MODE = JDIDebugPlugin
+			.getUniqueIdentifier() + ".virtual_thread_mode"; //$NON-NLS-1$
+
 	/**
 	 * Extension point for java logical structures.
 	 *
@@ -393,6 +491,24 @@ public class JDIDebugPlugin extends Plugin implements IEclipsePreferences.IPrefe
 					((IJavaDebugTarget) target).setRequestTimeout(value);
 				}
 			}
+		} else if (event.getKey().equals(PREF_MAX_CONDITION_EVALUATIONS)) {
+			int value = Platform.getPreferencesService().getInt(
+					JDIDebugPlugin.getUniqueIdentifier(),
+					PREF_MAX_CONDITION_EVALUATIONS, 0, null);
+			IDebugTarget[] targets = DebugPlugin.getDefault().getLaunchManager().getDebugTargets();
+			for (IDebugTarget target : targets) {
+				if (target instanceof JDIDebugTarget) {
+					((JDIDebugTarget) target).setMaxConditionEvaluations(value);
+				}
+			}
+		} else if (event.getKey().equals(PREF_EVALUATE_CONDITIONS_IN_TARGET)) {
+			// conditions compiled before must be compiled again the other way
+			IBreakpoint[] breakpoints = DebugPlugin.getDefault().getBreakpointManager().getBreakpoints(JDIDebugModel.getPluginIdentifier());
+			for (IBreakpoint breakpoint : breakpoints) {
+				if (breakpoint instanceof JavaLineBreakpoint) {
+					((JavaLineBreakpoint) breakpoint).clearCompiledConditions();
+				}
+			}
 		}
 	}
 
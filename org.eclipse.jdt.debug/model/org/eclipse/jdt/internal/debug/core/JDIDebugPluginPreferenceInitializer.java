@@ -50,5 +50,11 @@ public class JDIDebugPluginPreferenceInitializer extends
 		node.putBoolean(JDIDebugModel.PREF_SHOW_STEP_RESULT_REMOTE, false);
 		node.putInt(JDIDebugModel.PREF_SHOW_STEP_TIMEOUT, JDIDebugModel.DEF_SHOW_STEP_TIMEOUT);
 		node.putBoolean(JDIDebugPlugin.PREF_ENABLE_ADVANCED_SOURCELOOKUP, true);
+		node.putInt(JDIDebugPlugin.PREF_EVENT_DISPATCH_THREADS, 0);
+		node.putBoolean(JDIDebugPlugin.PREF_EVALUATE_CONDITIONS_IN_TARGET, false);
+		node.putInt(JDIDebugPlugin.PREF_CONDITION_EVALUATION_TIMEOUT, 0);
+		node.putInt(JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS, 0);
+		node.put(JDIDebugPlugin.PREF_CONDITION_OVERLOAD_POLICY, JDIDebugPlugin.CONDITION_OVERLOAD_SUSPEND);
+		node.putBoolean(JDIDebugPlugin.PREF_VIRTUAL_THREAD_MODE, false);
 	}
 }
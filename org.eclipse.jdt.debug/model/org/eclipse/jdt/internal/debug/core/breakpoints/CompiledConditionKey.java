@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.debug.core.breakpoints;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IVariable;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.debug.core.IJavaStackFrame;
+import org.eclipse.jdt.debug.core.IJavaVariable;
+import org.eclipse.jdt.internal.debug.core.model.LambdaUtils;
+
+/**
+ * Identifies the context a breakpoint condition is compiled in. A condition
+ * compiles to the same expression in every frame with an equal key, whichever
+ * thread the frame belongs to: the key holds the target, the project, the
+ * declaring and receiving types, the method, the line and the names and
+ * signatures of the variables visible to the condition.
+ */
+final class CompiledConditionKey {
+
+	private final IDebugTarget fTarget;
+	private final IJavaProject fProject;
+	private final String fDeclaringTypeName;
+	private final String fReceivingTypeName;
+	private final String fMethodName;
+	private final String fSignature;
+	private final boolean fStatic;
+	private final int fLineNumber;
+	private final String fVariables;
+	private final int fHashCode;
+
+	private CompiledConditionKey(IDebugTarget target, IJavaProject project, String declaringTypeName, String receivingTypeName, String methodName, String signature, boolean isStatic, int lineNumber, String variables) {
+		fTarget = target;
+		fProject = project;
+		fDeclaringTypeName = declaringTypeName;
+		fReceivingTypeName = receivingTypeName;
+		fMethodName = methodName;
+		fSignature = signature;
+		fStatic = isStatic;
+		fLineNumber = lineNumber;
+		fVariables = variables;
+		fHashCode = Objects.hash(target, project, declaringTypeName, receivingTypeName, methodName, signature, Boolean.valueOf(isStatic), Integer.valueOf(lineNumber), variables);
+	}
+
+	/**
+	 * Returns the key of the context a condition is compiled in for the given
+	 * frame.
+	 *
+	 * @param frame
+	 *            the frame the condition is evaluated in
+	 * @param project
+	 *            the project the condition is compiled in
+	 * @return compile context key
+	 * @throws DebugException
+	 *             if the frame's attributes cannot be retrieved
+	 */
+	static CompiledConditionKey forFrame(IJavaStackFrame frame, IJavaProject project) throws DebugException {
+		StringBuilder variables = new StringBuilder();
+		appendVariables(variables, Arrays.asList(frame.getLocalVariables()));
+		if (LambdaUtils.isLambdaFrame(frame)) {
+			// the condition may also refer to the locals of the enclosing method
+			variables.append('|');
+			appendVariables(variables, LambdaUtils.getLambdaFrameVariables(frame));
+		}
+		return new CompiledConditionKey(frame.getDebugTarget(), project, frame.getDeclaringTypeName(), frame.getReceivingTypeName(), frame.getMethodName(), frame.getSignature(), frame.isStatic(), frame.getLineNumber(), variables.toString());
+	}
+
+	private static void appendVariables(StringBuilder buffer, List<? extends IVariable> variables) throws DebugException {
+		for (IVariable variable : variables) {
+			buffer.append(variable.getName()).append(' ');
+			if (variable instanceof IJavaVariable) {
+				buffer.append(((IJavaVariable) variable).getGenericSignature());
+			}
+			buffer.append(';');
+		}
+	}
+
+	/**
+	 * Returns the target this key belongs to.
+	 *
+	 * @return debug target
+	 */
+	IDebugTarget getTarget() {
+		return fTarget;
+	}
+
+	@Override
+	public int hashCode() {
+		return fHashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompiledConditionKey)) {
+			return false;
+		}
+		CompiledConditionKey other = (CompiledConditionKey) obj;
+		return fHashCode == other.fHashCode && fStatic == other.fStatic && fLineNumber == other.fLineNumber && fTarget == other.fTarget
+				&& Objects.equals(fProject, other.fProject) && Objects.equals(fDeclaringTypeName, other.fDeclaringTypeName)
+				&& Objects.equals(fReceivingTypeName, other.fReceivingTypeName) && Objects.equals(fMethodName, other.fMethodName)
+				&& Objects.equals(fSignature, other.fSignature) && fVariables.equals(other.fVariables);
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.debug.core.breakpoints;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the hits of a conditional breakpoint and of the evaluations of
+ * its condition, used to spot slow conditions.
+ *
+ * @since 3.20
+ */
+public class ConditionEvaluationStatistics {
+
+	private final AtomicLong fHits = new AtomicLong();
+	private final AtomicLong fEvaluations = new AtomicLong();
+	private final AtomicLong fTotalEvaluationTime = new AtomicLong();
+	private final AtomicLong fMaxEvaluationTime = new AtomicLong();
+	private final AtomicLong fTimeouts = new AtomicLong();
+	private final AtomicLong fOverloads = new AtomicLong();
+
+	/**
+	 * Records a hit of the breakpoint whose condition is to be evaluated.
+	 */
+	void hit() {
+		fHits.incrementAndGet();
+	}
+
+	/**
+	 * Records a completed evaluation of the condition.
+	 *
+	 * @param nanos
+	 *            time the evaluation took, in nanoseconds
+	 */
+	void evaluated(long nanos) {
+		fEvaluations.incrementAndGet();
+		fTotalEvaluationTime.addAndGet(nanos);
+		fMaxEvaluationTime.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Records a hit that was not decided before the evaluation deadline.
+	 */
+	void timedOut() {
+		fTimeouts.incrementAndGet();
+	}
+
+	/**
+	 * Records a hit whose condition was not evaluated as too many evaluations
+	 * were running.
+	 *
+	 * @return the number of such hits so far, including this one
+	 */
+	long overloaded() {
+		return fOverloads.incrementAndGet();
+	}
+
+	/**
+	 * Resets all counters, as the condition has changed.
+	 */
+	void reset() {
+		fHits.set(0);
+		fEvaluations.set(0);
+		fTotalEvaluationTime.set(0);
+		fMaxEvaluationTime.set(0);
+		fTimeouts.set(0);
+		fOverloads.set(0);
+	}
+
+	/**
+	 * @return the number of hits of the breakpoint with a condition to
+	 *         evaluate
+	 */
+	public long getHitCount() {
+		return fHits.get();
+	}
+
+	/**
+	 * @return the number of completed evaluations of the condition
+	 */
+	public long getEvaluationCount() {
+		return fEvaluations.get();
+	}
+
+	/**
+	 * @return the total time of the completed evaluations, in nanoseconds
+	 */
+	public long getTotalEvaluationTime() {
+		return fTotalEvaluationTime.get();
+	}
+
+	/**
+	 * @return the average time of the completed evaluations, in nanoseconds
+	 */
+	public long getAverageEvaluationTime() {
+		long evaluations = fEvaluations.get();
+		return evaluations == 0 ? 0 : fTotalEvaluationTime.get() / evaluations;
+	}
+
+	/**
+	 * @return the longest time of a completed evaluation, in nanoseconds
+	 */
+	public long getMaxEvaluationTime() {
+		return fMaxEvaluationTime.get();
+	}
+
+	/**
+	 * @return the number of hits not decided before the evaluation deadline
+	 */
+	public long getTimeoutCount() {
+		return fTimeouts.get();
+	}
+
+	/**
+	 * @return the number of hits whose condition was not evaluated as too
+	 *         many evaluations were running
+	 */
+	public long getOverloadCount() {
+		return fOverloads.get();
+	}
+}
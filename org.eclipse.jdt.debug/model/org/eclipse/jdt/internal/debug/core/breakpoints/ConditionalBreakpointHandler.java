@@ -14,9 +14,13 @@
 package org.eclipse.jdt.internal.debug.core.breakpoints;
 
 import java.text.MessageFormat;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugException;
@@ -38,6 +42,7 @@ import org.eclipse.jdt.debug.eval.ICompiledExpression;
 import org.eclipse.jdt.debug.eval.IEvaluationListener;
 import org.eclipse.jdt.debug.eval.IEvaluationResult;
 import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
+import org.eclipse.jdt.internal.debug.core.breakpoints.JavaLineBreakpoint.CompiledCondition;
 import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
 import org.eclipse.jdt.internal.debug.core.model.JDINullValue;
 import org.eclipse.jdt.internal.debug.core.model.JDIThread;
@@ -80,18 +85,81 @@ public class ConditionalBreakpointHandler implements IJavaBreakpointListener {
 		 */
 		private int fVote;
 
+		/**
+		 * Whether the evaluation has completed and the vote is known
+		 */
+		private boolean fComplete;
+
+		/**
+		 * Permits held while the evaluation runs, released once it completes
+		 */
+		private Semaphore[] fPermits = new Semaphore[0];
+
+		/**
+		 * Whether the permits have been released
+		 */
+		private AtomicBoolean fReleased = new AtomicBoolean();
+
+		/**
+		 * Time the evaluation started at, in nanoseconds
+		 */
+		private long fStartTime;
+
 		EvaluationListener(JavaLineBreakpoint breakpoint) {
 			fBreakpoint = breakpoint;
 		}
 
 		@Override
 		public void evaluationComplete(IEvaluationResult result) {
-			fVote = determineVote(result);
+			fBreakpoint.getConditionStatistics().evaluated(System.nanoTime() - fStartTime);
+			int vote;
+			try {
+				vote = determineVote(result);
+			} finally {
+				releasePermits();
+			}
 			synchronized (fLock) {
+				fVote = vote;
+				fComplete = true;
 				fLock.notifyAll();
 			}
 		}
 
+		/**
+		 * Records the start of the evaluation, holding the given permits until
+		 * it completes.
+		 *
+		 * @param permits
+		 *            acquired permits
+		 */
+		void started(Semaphore... permits) {
+			fPermits = permits;
+			fStartTime = System.nanoTime();
+		}
+
+		/**
+		 * Releases the permits held for the evaluation, once.
+		 */
+		void releasePermits() {
+			if (fReleased.compareAndSet(false, true)) {
+				for (Semaphore permit : fPermits) {
+					if (permit != null) {
+						permit.release();
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns whether the evaluation has completed. Must be called while
+		 * holding the lock.
+		 *
+		 * @return whether the vote is known
+		 */
+		boolean isComplete() {
+			return fComplete;
+		}
+
 		/**
 		 * Processes the result to determine whether to suspend or resume.
 		 *
@@ -232,24 +300,81 @@ public class ConditionalBreakpointHandler implements IJavaBreakpointListener {
 					// If no engine is available, suspend
 					return SUSPEND;
 				}
-				ICompiledExpression expression = lineBreakpoint
-						.getExpression(thread);
-				if (expression == null) {
-					expression = engine.getCompiledExpression(condition, frame);
-					lineBreakpoint.setExpression(thread, expression);
-				}
+				CompiledCondition compiledCondition = lineBreakpoint
+						.getCompiledCondition(frame, engine, condition);
+				ICompiledExpression expression = compiledCondition.getExpression();
 				if (expression.hasErrors()) {
 					fireConditionHasErrors(lineBreakpoint,
 							getMessages(expression));
 					return SUSPEND;
 				}
+				ConditionEvaluationStatistics statistics = lineBreakpoint.getConditionStatistics();
+				statistics.hit();
+				long timeout = Platform.getPreferencesService().getInt(
+						JDIDebugPlugin.getUniqueIdentifier(),
+						JDIDebugPlugin.PREF_CONDITION_EVALUATION_TIMEOUT, 0,
+						null);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+				Semaphore targetPermits = ((JDIDebugTarget) target).getConditionEvaluationPermits();
+				if (targetPermits != null && !targetPermits.tryAcquire()) {
+					return getOverloadVote(statistics);
+				}
+				Semaphore evaluationPermit = compiledCondition.getEvaluationPermit();
+				try {
+					if (!acquire(evaluationPermit, timeout)) {
+						if (targetPermits != null) {
+							targetPermits.release();
+						}
+						return getOverloadVote(statistics);
+					}
+				} catch (InterruptedException e) {
+					if (targetPermits != null) {
+						targetPermits.release();
+					}
+					fireConditionHasRuntimeErrors(lineBreakpoint,
+							new DebugException(new Status(IStatus.ERROR,
+									JDIDebugPlugin.getUniqueIdentifier(),
+									JDIDebugBreakpointMessages.ConditionalBreakpointHandler_0,
+									e)));
+					return SUSPEND;
+				}
+				listener.started(evaluationPermit, targetPermits);
 				Object lock = listener.getLock();
 				synchronized (lock) {
-					engine.evaluateExpression(expression, frame, listener,
-							DebugEvent.EVALUATION_IMPLICIT, false);
-					// TODO: timeout?
 					try {
-						lock.wait();
+						engine.evaluateExpression(expression, frame, listener,
+								DebugEvent.EVALUATION_IMPLICIT, false);
+					} catch (DebugException e) {
+						listener.releasePermits();
+						throw e;
+					}
+					try {
+						boolean timedOut = false;
+						while (!listener.isComplete()) {
+							if (timeout <= 0 || timedOut) {
+								lock.wait();
+							} else {
+								long remaining = deadline - System.nanoTime();
+								if (remaining <= 0) {
+									// the thread is running the evaluation and
+									// only suspends once it completes, so stop
+									// the evaluation after its current
+									// instruction when possible and wait for
+									// it to end before voting
+									timedOut = true;
+									statistics.timedOut();
+									fireConditionHasRuntimeErrors(lineBreakpoint,
+											new DebugException(new Status(IStatus.ERROR,
+													JDIDebugPlugin.getUniqueIdentifier(),
+													MessageFormat.format(JDIDebugBreakpointMessages.ConditionalBreakpointHandler_2, Long.toString(timeout)))));
+									if (thread.canTerminateEvaluation()) {
+										thread.terminateEvaluation();
+									}
+								} else {
+									TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+								}
+							}
+						}
 					} catch (InterruptedException e) {
 						fireConditionHasRuntimeErrors(
 								lineBreakpoint,
@@ -293,6 +418,49 @@ public class ConditionalBreakpointHandler implements IJavaBreakpointListener {
 		return 0;
 	}
 
+	/**
+	 * Acquires the given permit, waiting at most the given time.
+	 *
+	 * @param permit
+	 *            the permit to acquire
+	 * @param timeout
+	 *            time to wait in milliseconds, 0 to wait indefinitely
+	 * @return whether the permit was acquired
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	private boolean acquire(Semaphore permit, long timeout) throws InterruptedException {
+		if (timeout <= 0) {
+			permit.acquire();
+			return true;
+		}
+		return permit.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the vote for a hit whose condition cannot be evaluated as too
+	 * many evaluations are running, according to
+	 * {@link JDIDebugPlugin#PREF_CONDITION_OVERLOAD_POLICY}.
+	 *
+	 * @param statistics
+	 *            statistics of the breakpoint that was hit
+	 * @return vote
+	 */
+	private int getOverloadVote(ConditionEvaluationStatistics statistics) {
+		long overloads = statistics.overloaded();
+		String policy = Platform.getPreferencesService().getString(
+				JDIDebugPlugin.getUniqueIdentifier(),
+				JDIDebugPlugin.PREF_CONDITION_OVERLOAD_POLICY,
+				JDIDebugPlugin.CONDITION_OVERLOAD_SUSPEND, null);
+		if (JDIDebugPlugin.CONDITION_OVERLOAD_SKIP.equals(policy)) {
+			return DONT_SUSPEND;
+		}
+		if (JDIDebugPlugin.CONDITION_OVERLOAD_SAMPLE.equals(policy)) {
+			return overloads % JDIDebugPlugin.CONDITION_OVERLOAD_SAMPLE_INTERVAL == 1 ? SUSPEND : DONT_SUSPEND;
+		}
+		return SUSPEND;
+	}
+
 	/**
 	 * Returns an evaluation engine for evaluating this breakpoint's condition
 	 * in the given target and project context.
@@ -22,6 +22,8 @@ public class JDIDebugBreakpointMessages extends NLS {
 
 	public static String ConditionalBreakpointHandler_1;
 
+	public static String ConditionalBreakpointHandler_2;
+
 	public static String JavaBreakpoint___Hit_Count___0___1;
 	public static String JavaBreakpoint_Exception;
 	public static String JavaPatternBreakpoint_0;
@@ -307,7 +307,7 @@ public abstract class JavaBreakpoint extends Breakpoint implements IJavaBreakpoi
 		ThreadReference threadRef = ((LocatableEvent) event).thread();
 		JDIThread thread = target.findThread(threadRef);
 		if (thread == null) {
-			thread = target.findThread(threadRef);
+			thread = target.findOrCreateThread(threadRef);
 		}
 		if (thread == null || thread.isIgnoringBreakpoints()) {
 			return true;
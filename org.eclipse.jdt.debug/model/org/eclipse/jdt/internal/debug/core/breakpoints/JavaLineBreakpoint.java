@@ -22,12 +22,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
@@ -41,12 +44,14 @@ import org.eclipse.jdt.debug.core.IJavaLineBreakpoint;
 import org.eclipse.jdt.debug.core.IJavaStackFrame;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.core.JDIDebugModel;
+import org.eclipse.jdt.debug.eval.IAstEvaluationEngine;
 import org.eclipse.jdt.debug.eval.ICompiledExpression;
 import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
 import org.eclipse.jdt.internal.debug.core.JavaDebugUtils;
 import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
 import org.eclipse.jdt.internal.debug.core.model.JDIStackFrame;
 import org.eclipse.jdt.internal.debug.core.model.JDIThread;
+import org.eclipse.jdt.internal.debug.eval.ast.engine.ASTEvaluationEngine;
 
 import com.sun.jdi.AbsentInformationException;
 import com.sun.jdi.ClassNotPreparedException;
@@ -101,10 +106,17 @@ public class JavaLineBreakpoint extends JavaBreakpoint implements
 	private Map<IJavaThread, ICompiledExpression> fSuspendEvents = new HashMap<>();
 	/**
 	 * The map of cached compiled expressions (ICompiledExpression) for this
-	 * breakpoint, keyed by thread. This value must be cleared every time the
-	 * breakpoint is added to a target.
+	 * breakpoint, keyed by the context the condition is compiled in, so that
+	 * threads hitting the breakpoint at the same location share a compiled
+	 * condition. This value must be cleared every time the breakpoint is added
+	 * to a target, its condition changes or types are redefined in the target.
 	 */
-	private Map<IJavaThread, ICompiledExpression> fCompiledExpressions = new HashMap<>();
+	private Map<CompiledConditionKey, CompiledCondition> fCompiledExpressions = new ConcurrentHashMap<>();
+
+	/**
+	 * Hit and evaluation counters of this breakpoint's condition
+	 */
+	private final ConditionEvaluationStatistics fConditionStatistics = new ConditionEvaluationStatistics();
 
 	/**
 	 * Cache of projects for stack frames to avoid repetitive project resolution
@@ -218,7 +230,7 @@ public class JavaLineBreakpoint extends JavaBreakpoint implements
 	 * threads in the given target.
 	 */
 	protected void clearCachedExpressionFor(JDIDebugTarget target) {
-		removeCachedThreads(fCompiledExpressions, target);
+		fCompiledExpressions.keySet().removeIf(key -> key.getTarget() == target);
 
 		// clean up cached projects for stack frames
 		synchronized (fProjectsByFrame) {
@@ -528,6 +540,7 @@ public class JavaLineBreakpoint extends JavaBreakpoint implements
 	public void setCondition(String condition) throws CoreException {
 		// Clear the cached compiled expressions
 		fCompiledExpressions.clear();
+		fConditionStatistics.reset();
 		fConditionValues.clear();
 		fSuspendEvents.clear();
 		if (condition != null && condition.trim().length() == 0) {
@@ -590,7 +603,6 @@ public class JavaLineBreakpoint extends JavaBreakpoint implements
 	@Override
 	protected void cleanupForThreadTermination(JDIThread thread) {
 		fSuspendEvents.remove(thread);
-		fCompiledExpressions.remove(thread);
 		super.cleanupForThreadTermination(thread);
 	}
 
@@ -639,28 +651,72 @@ public class JavaLineBreakpoint extends JavaBreakpoint implements
 	}
 
 	/**
-	 * Returns existing compiled expression for the given thread or
-	 * <code>null</code>.
+	 * Returns the compiled condition of this breakpoint for the given frame,
+	 * compiling it with the given engine if no frame with the same compile
+	 * context has been seen yet.
+	 *
+	 * @param frame
+	 *            frame the breakpoint was hit in
+	 * @param engine
+	 *            engine to compile the condition with
+	 * @param condition
+	 *            the condition to compile
+	 * @return compiled condition
+	 * @throws DebugException
+	 *             if the compile context of the frame cannot be determined
+	 */
+	CompiledCondition getCompiledCondition(IJavaStackFrame frame,
+			IAstEvaluationEngine engine, String condition) throws DebugException {
+		CompiledConditionKey key = CompiledConditionKey.forFrame(frame,
+				engine.getJavaProject());
+		return fCompiledExpressions.computeIfAbsent(key,
+				k -> new CompiledCondition(compileCondition(frame, engine, condition)));
+	}
+
+	/**
+	 * Returns the hit and evaluation counters of this breakpoint's condition.
 	 *
-	 * @param thread
-	 *            thread the breakpoint was hit in
-	 * @return compiled expression or <code>null</code>
+	 * @return condition evaluation statistics
 	 */
-	protected ICompiledExpression getExpression(IJavaThread thread) {
-		return fCompiledExpressions.get(thread);
+	public ConditionEvaluationStatistics getConditionStatistics() {
+		return fConditionStatistics;
 	}
 
 	/**
-	 * Sets the compiled expression for a thread.
+	 * Compiles the condition of this breakpoint in the context of the given
+	 * frame, to be run in the target when enabled by
+	 * {@link JDIDebugPlugin#PREF_EVALUATE_CONDITIONS_IN_TARGET}.
+	 */
+	private ICompiledExpression compileCondition(IJavaStackFrame frame,
+			IAstEvaluationEngine engine, String condition) {
+		boolean inTarget = Platform.getPreferencesService().getBoolean(
+				JDIDebugPlugin.getUniqueIdentifier(),
+				JDIDebugPlugin.PREF_EVALUATE_CONDITIONS_IN_TARGET, false,
+				null);
+		if (inTarget && engine instanceof ASTEvaluationEngine) {
+			return ((ASTEvaluationEngine) engine).getCompiledExpression(
+					condition, frame, true);
+		}
+		return engine.getCompiledExpression(condition, frame);
+	}
+
+	/**
+	 * Discards the compiled conditions of this breakpoint for the given
+	 * target, as types of the target have been redefined.
 	 *
-	 * @param thread
-	 *            thread the breakpoint was hit in
-	 * @param expression
-	 *            associated compiled expression
+	 * @param target
+	 *            the target in which types have been redefined
 	 */
-	protected void setExpression(IJavaThread thread,
-			ICompiledExpression expression) {
-		fCompiledExpressions.put(thread, expression);
+	public void typesRedefined(JDIDebugTarget target) {
+		clearCachedExpressionFor(target);
+	}
+
+	/**
+	 * Discards the compiled conditions of this breakpoint in all targets, as
+	 * {@link JDIDebugPlugin#PREF_EVALUATE_CONDITIONS_IN_TARGET} has changed.
+	 */
+	public void clearCompiledConditions() {
+		fCompiledExpressions.clear();
 	}
 
 	/**
@@ -680,4 +736,27 @@ public class JavaLineBreakpoint extends JavaBreakpoint implements
 		return prev;
 	}
 
+	/**
+	 * A compiled condition with the permit to evaluate it. The instructions of
+	 * a compiled expression hold the state of the evaluation running them, so
+	 * threads sharing a compiled condition evaluate it one at a time.
+	 */
+	static final class CompiledCondition {
+
+		private final ICompiledExpression fExpression;
+
+		private final Semaphore fEvaluationPermit = new Semaphore(1);
+
+		CompiledCondition(ICompiledExpression expression) {
+			fExpression = expression;
+		}
+
+		ICompiledExpression getExpression() {
+			return fExpression;
+		}
+
+		Semaphore getEvaluationPermit() {
+			return fEvaluationPermit;
+		}
+	}
 }
@@ -13,7 +13,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.debug.core.breakpoints;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -29,6 +31,7 @@ import org.eclipse.jdt.debug.core.IJavaMethodBreakpoint;
 import org.eclipse.jdt.debug.core.JDIDebugModel;
 import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
 import org.eclipse.jdt.internal.debug.core.model.JDIDebugTarget;
+import org.eclipse.jdt.internal.debug.core.model.JDIMethod;
 import org.eclipse.jdt.internal.debug.core.model.JDIThread;
 import org.eclipse.jdt.internal.debug.core.model.LambdaUtils;
 import org.eclipse.jdt.internal.debug.core.model.MethodResult;
@@ -41,6 +44,7 @@ import com.sun.jdi.ObjectReference;
 import com.sun.jdi.ReferenceType;
 import com.sun.jdi.ThreadReference;
 import com.sun.jdi.VMDisconnectedException;
+import com.sun.jdi.VirtualMachine;
 import com.sun.jdi.event.BreakpointEvent;
 import com.sun.jdi.event.Event;
 import com.sun.jdi.event.LocatableEvent;
@@ -93,6 +97,14 @@ public class JavaMethodBreakpoint extends JavaLineBreakpoint implements
 	 */
 	protected static final String NATIVE = "org.eclipse.jdt.debug.core.native"; //$NON-NLS-1$
 
+	/**
+	 * Request property marking the breakpoint requests installed at the
+	 * return instructions of the method, which stand in for a method exit
+	 * request. (value <code>"org.eclipse.jdt.debug.core.methodReturn"</code>).
+	 * This property is a <code>Boolean</code>.
+	 */
+	private static final String METHOD_RETURN = "org.eclipse.jdt.debug.core.methodReturn"; //$NON-NLS-1$
+
 	/**
 	 * Cache of method name attribute
 	 */
@@ -284,21 +296,13 @@ public class JavaMethodBreakpoint extends JavaLineBreakpoint implements
 		if (manager != null) {
 			try {
 				if (entry) {
-					if (classFilter instanceof ClassType && getMethodName() != null
-							&& getMethodSignature() != null) {
-						// use a line breakpoint if possible for better performance
-						ClassType clazz = (ClassType) classFilter;
-						if (clazz.name().equals(getTypeName())) {
-							// only use line breakpoint when there is an exact match
-							Method method = clazz.concreteMethodByName(
-									getMethodName(), getMethodSignature());
-							if (method != null && !method.isNative()) {
-								Location location = method.location();
-								if (location != null && location.codeIndex() != -1) {
-									request = manager
-											.createBreakpointRequest(location);
-								}
-							}
+					// use a line breakpoint if possible for better performance
+					Method method = getExactMethod(classFilter);
+					if (method != null) {
+						Location location = method.location();
+						if (location != null && location.codeIndex() != -1) {
+							request = manager
+									.createBreakpointRequest(location);
 						}
 					}
 					if (request == null) {
@@ -338,6 +342,127 @@ public class JavaMethodBreakpoint extends JavaLineBreakpoint implements
 		return null;
 	}
 
+	/**
+	 * Returns the method of the given class filter this breakpoint is set on,
+	 * or <code>null</code> if the class filter is not the exact class of this
+	 * breakpoint or the method has no bytecodes.
+	 *
+	 * @param classFilter
+	 *            a <code>String</code> or <code>ReferenceType</code> class
+	 *            filter
+	 * @return the method this breakpoint is set on or <code>null</code>
+	 */
+	private Method getExactMethod(Object classFilter) {
+		if (classFilter instanceof ClassType && getMethodName() != null
+				&& getMethodSignature() != null) {
+			ClassType clazz = (ClassType) classFilter;
+			// only when there is an exact match
+			if (clazz.name().equals(getTypeName())) {
+				Method method = clazz.concreteMethodByName(getMethodName(),
+						getMethodSignature());
+				if (method != null && !method.isNative()) {
+					return method;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns new breakpoint requests at each return instruction of the method
+	 * of this breakpoint in the given type, standing in for a method exit
+	 * request for better performance, as a method exit request reports the
+	 * exit of all methods of the type. Returns <code>null</code> if a method
+	 * exit request is required instead, i.e. when the method returns a value
+	 * to be shown as method result, when a hit count applies to all exits of
+	 * the method, when the return instructions can't be located or when the
+	 * method returns at its first instruction.
+	 * <p>
+	 * Unlike a method exit request, these requests do not report the exit of
+	 * the method by a thrown exception.
+	 * </p>
+	 *
+	 * @param target
+	 *            the target in which to create the requests
+	 * @param type
+	 *            the type on which to create the requests
+	 * @return method return requests or <code>null</code>
+	 * @exception CoreException
+	 *                if an exception occurs accessing this breakpoint's
+	 *                underlying marker
+	 */
+	protected List<EventRequest> createMethodReturnRequests(JDIDebugTarget target,
+			ReferenceType type) throws CoreException {
+		if (getHitCount() > 0) {
+			return null;
+		}
+		EventRequestManager manager = target.getEventRequestManager();
+		VirtualMachine vm = target.getVM();
+		if (manager == null || vm == null) {
+			return null;
+		}
+		try {
+			Method method = getExactMethod(type);
+			if (method == null || !"void".equals(method.returnTypeName()) //$NON-NLS-1$
+					|| !vm.canGetBytecodes()) {
+				return null;
+			}
+			long[] codeIndexes = JDIMethod.getReturnCodeIndexes(method);
+			if (codeIndexes == null || codeIndexes.length == 0) {
+				return null;
+			}
+			Location start = method.location();
+			if (start == null) {
+				return null;
+			}
+			for (long codeIndex : codeIndexes) {
+				if (codeIndex == start.codeIndex()) {
+					// the entry and exit would be reported by the same event
+					// set, so the exit would hide the entry
+					return null;
+				}
+			}
+			List<Location> locations = new ArrayList<>(codeIndexes.length);
+			for (long codeIndex : codeIndexes) {
+				Location location = method.locationOfCodeIndex(codeIndex);
+				if (location == null) {
+					return null;
+				}
+				locations.add(location);
+			}
+			List<EventRequest> requests = new ArrayList<>(locations.size());
+			for (Location location : locations) {
+				BreakpointRequest request = manager.createBreakpointRequest(location);
+				request.putProperty(METHOD_RETURN, Boolean.TRUE);
+				configureRequest(request, target);
+				requests.add(request);
+			}
+			return requests;
+		} catch (VMDisconnectedException e) {
+			if (!target.isAvailable()) {
+				return null;
+			}
+			JDIDebugPlugin.log(e);
+		} catch (RuntimeException e) {
+			target.internalError(e);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether the given request reports the exit of the method, i.e.
+	 * is a method exit request or a breakpoint request at a return
+	 * instruction.
+	 *
+	 * @param request
+	 *            a request of this breakpoint
+	 * @return whether the given request reports the exit of the method
+	 */
+	private boolean isExitRequest(EventRequest request) {
+		return request instanceof MethodExitRequest
+				|| (request instanceof BreakpointRequest && Boolean.TRUE.equals(request.getProperty(METHOD_RETURN)));
+	}
+
 	/**
 	 * @see JavaBreakpoint#setRequestThreadFilter(EventRequest)
 	 */
@@ -378,11 +503,11 @@ public class JavaMethodBreakpoint extends JavaLineBreakpoint implements
 	protected void updateEnabledState(EventRequest request,
 			JDIDebugTarget target) throws CoreException {
 		boolean enabled = isEnabled();
-		if (request instanceof MethodEntryRequest
+		if (isExitRequest(request)) {
+			enabled = enabled && isExit();
+		} else if (request instanceof MethodEntryRequest
 				|| request instanceof BreakpointRequest) {
 			enabled = enabled && isEntry();
-		} else if (request instanceof MethodExitRequest) {
-			enabled = enabled && isExit();
 		}
 
 		if (enabled != request.isEnabled()) {
@@ -443,6 +568,16 @@ public class JavaMethodBreakpoint extends JavaLineBreakpoint implements
 			}
 			return result;
 		} else if (event instanceof BreakpointEvent) {
+			if (isExitRequest(event.request())) {
+				fLastEventTypes.put(thread.getDebugTarget(), EXIT_EVENT);
+				boolean result = super.handleBreakpointEvent(event, thread, suspendVote);
+				if (!result) {
+					// about to suspend, store result of the void method
+					Method method = ((BreakpointEvent) event).location().method();
+					thread.setMethodResult(new MethodResult(method, -1, method.virtualMachine().mirrorOfVoid(), ResultType.returning));
+				}
+				return result;
+			}
 			fLastEventTypes.put(thread.getDebugTarget(), ENTRY_EVENT);
 			return super.handleBreakpointEvent(event, thread, suspendVote);
 		}
@@ -752,10 +887,16 @@ public class JavaMethodBreakpoint extends JavaLineBreakpoint implements
 			return false;
 		}
 		EventRequest entryRequest = createMethodEntryRequest(target, type);
-		EventRequest exitRequest = createMethodExitRequest(target, type);
+		List<EventRequest> returnRequests = createMethodReturnRequests(target, type);
 
 		registerRequest(entryRequest, target);
-		registerRequest(exitRequest, target);
+		if (returnRequests != null) {
+			for (EventRequest returnRequest : returnRequests) {
+				registerRequest(returnRequest, target);
+			}
+		} else {
+			registerRequest(createMethodExitRequest(target, type), target);
+		}
 		return true;
 	}
 
@@ -31,6 +31,7 @@ public class JDIDebugHCRMessages extends NLS {
 	public static String JavaHotCodeReplaceManager_hcr_class_circularity_error;
 	public static String JavaHotCodeReplaceManager_Hot_code_replace_failed___VM_disconnected__1;
 	public static String JavaHotCodeReplaceManager_Hot_code_replace_failed___VM_disconnected__2;
+	public static String JavaHotCodeReplaceManager_hot_code_replace_thread;
 
 	static {
 		// load message values from bundle file
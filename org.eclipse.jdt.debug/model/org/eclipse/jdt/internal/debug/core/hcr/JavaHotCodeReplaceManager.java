@@ -14,6 +14,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.debug.core.hcr;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,6 +25,12 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -117,14 +125,65 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 	 * <li>key: project (IProject)</li>
 	 * <li>value: build date (ProjectBuildTime)</li>
 	 * </ol>
+	 * Read by the code replacement of several targets at once.
 	 */
-	private Map<IProject, ProjectBuildTime> fProjectBuildTimes = new HashMap<>();
+	private Map<IProject, ProjectBuildTime> fProjectBuildTimes = new ConcurrentHashMap<>();
 	private static Date fStartupDate = new Date();
 
 	/**
 	 * Cache of compilation unit deltas renewed on each HCR attempt.
 	 */
-	private Map<ICompilationUnit, CompilationUnitDelta> fDeltaCache = new HashMap<>();
+	private Map<ICompilationUnit, CompilationUnitDelta> fDeltaCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Digests of the class bytes last redefined in each target, keyed by type
+	 * name, used to skip types whose class files did not change since.
+	 */
+	private Map<JDIDebugTarget, Map<String, byte[]>> fRedefinedDigests = new ConcurrentHashMap<>();
+
+	/**
+	 * The contents of a changed class file, read once per hot code replace and
+	 * shared by all targets.
+	 */
+	private static class ClassFileContents {
+
+		/**
+		 * The bytes of the class file, or <code>null</code> if it could not be
+		 * read
+		 */
+		private final byte[] fBytes;
+
+		private byte[] fDigest;
+
+		ClassFileContents(IResource resource) {
+			byte[] bytes = null;
+			try {
+				bytes = Util.getResourceContentsAsByteArray((IFile) resource);
+			} catch (JavaModelException jme) {
+				// the type is not replaced
+			}
+			fBytes = bytes;
+		}
+
+		byte[] getBytes() {
+			return fBytes;
+		}
+
+		/**
+		 * Returns the SHA-1 digest of the class file, or <code>null</code> if it
+		 * could not be read.
+		 */
+		synchronized byte[] getDigest() {
+			if (fDigest == null && fBytes != null) {
+				try {
+					fDigest = MessageDigest.getInstance("SHA-1").digest(fBytes); //$NON-NLS-1$
+				} catch (NoSuchAlgorithmException e) {
+					// every Java platform supports SHA-1
+				}
+			}
+			return fDigest;
+		}
+	}
 
 	/**
 	 * Utility object used for tracking build times of projects. The HCR manager
@@ -138,12 +197,12 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 		private Date fCurrentDate = new Date();
 		private Date fPreviousDate = new Date();
 
-		public void setCurrentBuildDate(Date date) {
+		public synchronized void setCurrentBuildDate(Date date) {
 			fPreviousDate = fCurrentDate;
 			fCurrentDate = date;
 		}
 
-		public void setLastBuildDate(Date date) {
+		public synchronized void setLastBuildDate(Date date) {
 			fPreviousDate = date;
 			if (fPreviousDate.getTime() > fCurrentDate.getTime()) {
 				// If the previous date is set later than the current
@@ -155,7 +214,7 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 		/**
 		 * Returns the last build time
 		 */
-		public Date getLastBuildDate() {
+		public synchronized Date getLastBuildDate() {
 			return fPreviousDate;
 		}
 	}
@@ -280,14 +339,8 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 	 */
 	private void updateProjectBuildTime(List<IProject> projects) {
 		Date currentDate = new Date();
-		ProjectBuildTime buildTime = null;
 		for(IProject project : projects) {
-			buildTime = fProjectBuildTimes.get(project);
-			if (buildTime == null) {
-				buildTime = new ProjectBuildTime();
-				fProjectBuildTimes.put(project, buildTime);
-			}
-			buildTime.setCurrentBuildDate(currentDate);
+			fProjectBuildTimes.computeIfAbsent(project, p -> new ProjectBuildTime()).setCurrentBuildDate(currentDate);
 		}
 	}
 
@@ -297,13 +350,11 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 	 * is set to the hot code replace manager's startup time.
 	 */
 	protected long getLastProjectBuildTime(IProject project) {
-		ProjectBuildTime time = fProjectBuildTimes
-				.get(project);
-		if (time == null) {
-			time = new ProjectBuildTime();
-			time.setLastBuildDate(fStartupDate);
-			fProjectBuildTimes.put(project, time);
-		}
+		ProjectBuildTime time = fProjectBuildTimes.computeIfAbsent(project, p -> {
+			ProjectBuildTime startup = new ProjectBuildTime();
+			startup.setLastBuildDate(fStartupDate);
+			return startup;
+		});
 		return time.getLastBuildDate().getTime();
 	}
 
@@ -418,97 +469,223 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 				JDIDebugPlugin.getUniqueIdentifier(),
 				DebugException.TARGET_REQUEST_FAILED,
 				"At least one target failed to drop to frame after successful hot code replace.", null); //$NON-NLS-1$
-		Iterator<JDIDebugTarget> iter = targets.iterator();
-		while (iter.hasNext()) {
-			JDIDebugTarget target = iter.next();
+		List<JDIDebugTarget> hcrTargets = new ArrayList<>(targets.size());
+		for (JDIDebugTarget target : targets) {
 			if (!target.isAvailable()) {
 				deregisterTarget(target);
 				continue;
 			}
-			if (!isHCREnabled(target)) {
-				continue;
+			if (isHCREnabled(target)) {
+				hcrTargets.add(target);
 			}
-			// Make a local copy of the resources/names to swap so we can filter
-			// unloaded types on a per-target basis.
-			List<IResource> resourcesToReplace = new ArrayList<>(resources);
-			List<String> qualifiedNamesToReplace = new ArrayList<>(qualifiedNames);
-
-			// Make sure we only try to replace types from related projects
-			target.filterUnrelatedResources(resourcesToReplace, qualifiedNamesToReplace);
-			if (qualifiedNamesToReplace.isEmpty()) {
-				// If none of the changed types are related to our target, do nothing.
-				continue;
+		}
+		// class files are read once and shared by the targets
+		Map<IResource, ClassFileContents> classFiles = new ConcurrentHashMap<>();
+		if (hcrTargets.size() == 1) {
+			doHotCodeReplace(hcrTargets.get(0), resources, qualifiedNames, classFiles, ms);
+		} else if (!hcrTargets.isEmpty()) {
+			// targets are independent VMs, replace the types in all of them at
+			// once
+			ExecutorService executor = Executors.newFixedThreadPool(hcrTargets.size(), runnable -> {
+				Thread thread = new Thread(runnable, JDIDebugHCRMessages.JavaHotCodeReplaceManager_hot_code_replace_thread);
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				List<Callable<Object>> tasks = new ArrayList<>(hcrTargets.size());
+				for (JDIDebugTarget target : hcrTargets) {
+					tasks.add(Executors.callable(() -> doHotCodeReplace(target, resources, qualifiedNames, classFiles, ms)));
+				}
+				for (Future<Object> future : executor.invokeAll(tasks)) {
+					try {
+						future.get();
+					} catch (ExecutionException e) {
+						JDIDebugPlugin.log(e.getCause());
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				executor.shutdown();
 			}
+		}
+		if (!ms.isOK()) {
+			JDIDebugPlugin.log(ms);
+		}
+		fDeltaCache.clear();
+	}
 
-			target.filterNotLoadedTypes(resourcesToReplace, qualifiedNamesToReplace);
+	/**
+	 * Performs a hot code replace with the given resources in the given
+	 * target.
+	 *
+	 * @param target
+	 *            the target in which to perform HCR
+	 * @param resources
+	 *            the resources which correspond to the changed classes
+	 * @param qualifiedNames
+	 *            the names of the changed classes
+	 * @param classFiles
+	 *            the contents of the class files read so far, shared by the
+	 *            targets
+	 * @param ms
+	 *            status collecting drop to frame failures
+	 */
+	private void doHotCodeReplace(JDIDebugTarget target, List<IResource> resources,
+			List<String> qualifiedNames, Map<IResource, ClassFileContents> classFiles, MultiStatus ms) {
+		// Make a local copy of the resources/names to swap so we can filter
+		// unloaded types on a per-target basis.
+		List<IResource> resourcesToReplace = new ArrayList<>(resources);
+		List<String> qualifiedNamesToReplace = new ArrayList<>(qualifiedNames);
+
+		// Make sure we only try to replace types from related projects
+		target.filterUnrelatedResources(resourcesToReplace, qualifiedNamesToReplace);
+		if (qualifiedNamesToReplace.isEmpty()) {
+			// If none of the changed types are related to our target, do nothing.
+			return;
+		}
+
+		List<String> relatedNames = new ArrayList<>(qualifiedNamesToReplace);
+		target.filterNotLoadedTypes(resourcesToReplace, qualifiedNamesToReplace);
+		forgetUnloadedTypes(target, relatedNames, qualifiedNamesToReplace);
+		if (qualifiedNamesToReplace.isEmpty()) {
+			// If none of the changed types are loaded, do nothing.
+			return;
+		}
+
+		if (target.supportsJDKHotCodeReplace()) {
+			filterUnchangedTypes(target, resourcesToReplace, qualifiedNamesToReplace, classFiles);
 			if (qualifiedNamesToReplace.isEmpty()) {
-				// If none of the changed types are loaded, do nothing.
-				continue;
+				// If the target already runs the changed class files, do nothing.
+				return;
 			}
+		}
 
-			List<IThread> poppedThreads = new ArrayList<>();
-			target.setIsPerformingHotCodeReplace(true);
-			try {
-				boolean framesPopped = false;
-				if (target.canPopFrames()) {
-					// JDK 1.4 drop to frame support:
-					// JDK 1.4 spec is faulty around methods that have
-					// been rendered obsolete after class redefinition.
-					// Thus, pop the frames that contain affected methods
-					// *before* the class redefinition to avoid problems.
-					try {
-						attemptPopFrames(target, resourcesToReplace,
-								qualifiedNamesToReplace, poppedThreads);
-						framesPopped = true; // No exception occurred
-					} catch (DebugException de) {
-						if (shouldLogHCRException(de)) {
+		List<IThread> poppedThreads = new ArrayList<>();
+		target.setIsPerformingHotCodeReplace(true);
+		try {
+			boolean framesPopped = false;
+			if (target.canPopFrames()) {
+				// JDK 1.4 drop to frame support:
+				// JDK 1.4 spec is faulty around methods that have
+				// been rendered obsolete after class redefinition.
+				// Thus, pop the frames that contain affected methods
+				// *before* the class redefinition to avoid problems.
+				try {
+					attemptPopFrames(target, resourcesToReplace,
+							qualifiedNamesToReplace, poppedThreads);
+					framesPopped = true; // No exception occurred
+				} catch (DebugException de) {
+					if (shouldLogHCRException(de)) {
+						synchronized (ms) {
 							ms.merge(de.getStatus());
 						}
 					}
 				}
-				target.removeOutOfSynchTypes(qualifiedNamesToReplace);
-				if (target.supportsJDKHotCodeReplace()) {
-					redefineTypesJDK(target, resourcesToReplace,
+			}
+			target.removeOutOfSynchTypes(qualifiedNamesToReplace);
+			if (target.supportsJDKHotCodeReplace()) {
+				redefineTypesJDK(target, resourcesToReplace,
+						qualifiedNamesToReplace, classFiles);
+			} else if (target.supportsJ9HotCodeReplace()) {
+				redefineTypesJ9(target, qualifiedNamesToReplace);
+			}
+			if (containsObsoleteMethods(target)) {
+				fireObsoleteMethods(target);
+			}
+			try {
+				if (target.canPopFrames() && framesPopped) {
+					// Second half of JDK 1.4 drop to frame support:
+					// All affected frames have been popped and the classes
+					// have been reloaded. Step into the first changed
+					// frame of each affected thread.
+					// must re-set 'is doing HCR' to be able to step
+					target.setIsPerformingHotCodeReplace(false);
+					attemptStepIn(poppedThreads);
+				} else {
+					// J9 drop to frame support:
+					// After redefining classes, drop to frame
+					attemptDropToFrame(target, resourcesToReplace,
 							qualifiedNamesToReplace);
-				} else if (target.supportsJ9HotCodeReplace()) {
-					redefineTypesJ9(target, qualifiedNamesToReplace);
-				}
-				if (containsObsoleteMethods(target)) {
-					fireObsoleteMethods(target);
 				}
-				try {
-					if (target.canPopFrames() && framesPopped) {
-						// Second half of JDK 1.4 drop to frame support:
-						// All affected frames have been popped and the classes
-						// have been reloaded. Step into the first changed
-						// frame of each affected thread.
-						// must re-set 'is doing HCR' to be able to step
-						target.setIsPerformingHotCodeReplace(false);
-						attemptStepIn(poppedThreads);
-					} else {
-						// J9 drop to frame support:
-						// After redefining classes, drop to frame
-						attemptDropToFrame(target, resourcesToReplace,
-								qualifiedNamesToReplace);
-					}
-				} catch (DebugException de) {
-					if (shouldLogHCRException(de)) {
+			} catch (DebugException de) {
+				if (shouldLogHCRException(de)) {
+					synchronized (ms) {
 						ms.merge(de.getStatus());
 					}
 				}
-				fireHCRSucceeded(target);
-			} catch (DebugException de) {
-				// target update failed
-				fireHCRFailed(target, de);
 			}
-			// also re-set 'is doing HCR' here in case HCR failed
-			target.setIsPerformingHotCodeReplace(false);
-			target.fireChangeEvent(DebugEvent.CONTENT);
+			fireHCRSucceeded(target);
+		} catch (DebugException de) {
+			// target update failed
+			fireHCRFailed(target, de);
 		}
-		if (!ms.isOK()) {
-			JDIDebugPlugin.log(ms);
+		// also re-set 'is doing HCR' here in case HCR failed
+		target.setIsPerformingHotCodeReplace(false);
+		target.fireChangeEvent(DebugEvent.CONTENT);
+	}
+
+	/**
+	 * Removes the types from the given lists whose class files have the same
+	 * contents as the bytes last redefined in the given target.
+	 */
+	private void filterUnchangedTypes(JDIDebugTarget target, List<IResource> resources,
+			List<String> qualifiedNames, Map<IResource, ClassFileContents> classFiles) {
+		Map<String, byte[]> digests = fRedefinedDigests.get(target);
+		if (digests == null) {
+			return;
+		}
+		Iterator<IResource> resourceIter = resources.iterator();
+		Iterator<String> nameIter = qualifiedNames.iterator();
+		while (resourceIter.hasNext()) {
+			IResource resource = resourceIter.next();
+			String name = nameIter.next();
+			byte[] digest = getClassFile(resource, classFiles).getDigest();
+			if (digest != null && Arrays.equals(digest, digests.get(name))) {
+				resourceIter.remove();
+				nameIter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Forgets the digests of the changed types that are not loaded in the given
+	 * target, as they are loaded from the class files on disk when next used.
+	 */
+	private void forgetUnloadedTypes(JDIDebugTarget target, List<String> changedNames, List<String> loadedNames) {
+		Map<String, byte[]> digests = fRedefinedDigests.get(target);
+		if (digests != null && changedNames.size() != loadedNames.size()) {
+			changedNames.removeAll(loadedNames);
+			digests.keySet().removeAll(changedNames);
 		}
-		fDeltaCache.clear();
+	}
+
+	/**
+	 * Records the digests of the class files just redefined in the given
+	 * target.
+	 */
+	private void recordRedefinedTypes(JDIDebugTarget target, List<IResource> resources,
+			List<String> qualifiedNames, Map<IResource, ClassFileContents> classFiles) {
+		Map<String, byte[]> digests = fRedefinedDigests.computeIfAbsent(target, t -> new ConcurrentHashMap<>());
+		Iterator<IResource> resourceIter = resources.iterator();
+		Iterator<String> nameIter = qualifiedNames.iterator();
+		while (resourceIter.hasNext()) {
+			byte[] digest = getClassFile(resourceIter.next(), classFiles).getDigest();
+			String name = nameIter.next();
+			if (digest != null) {
+				digests.put(name, digest);
+			} else {
+				digests.remove(name);
+			}
+		}
+	}
+
+	/**
+	 * Returns the contents of the given class file, reading it on first
+	 * access.
+	 */
+	private ClassFileContents getClassFile(IResource resource, Map<IResource, ClassFileContents> classFiles) {
+		return classFiles.computeIfAbsent(resource, ClassFileContents::new);
 	}
 
 	private boolean isHCREnabled(JDIDebugTarget target) {
@@ -571,6 +748,7 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 			}
 			switch (result) {
 			case org.eclipse.jdi.hcr.VirtualMachine.RELOAD_SUCCESS:
+				target.typesRedefined();
 				break;
 			case org.eclipse.jdi.hcr.VirtualMachine.RELOAD_IGNORED:
 				target.targetRequestFailed(
@@ -596,11 +774,11 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 	 * This method is to be used for JDK hot code replace.
 	 */
 	private void redefineTypesJDK(JDIDebugTarget target, List<IResource> resources,
-			List<String> qualifiedNames) throws DebugException {
+			List<String> qualifiedNames, Map<IResource, ClassFileContents> classFiles) throws DebugException {
 		if (target.supportsJDKHotCodeReplace()) {
 			target.setHCROccurred(true);
 			Map<ReferenceType, byte[]> typesToBytes = getTypesToBytes(target, resources,
-					qualifiedNames);
+					qualifiedNames, classFiles);
 			try {
 				VirtualMachine vm = target.getVM();
 				if (vm == null) {
@@ -609,6 +787,8 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 							new VMDisconnectedException());
 				}
 				vm.redefineClasses(typesToBytes);
+				target.typesRedefined();
+				recordRedefinedTypes(target, resources, qualifiedNames, classFiles);
 			} catch (UnsupportedOperationException exception) {
 				String detail = exception.getMessage();
 				if (detail != null) {
@@ -694,11 +874,14 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 	 *            the fully qualified type names corresponding to the
 	 *            classfiles. The typeNames correspond to the resources on a
 	 *            one-to-one basis.
+	 * @param classFiles
+	 *            the contents of the class files read so far, shared by the
+	 *            targets
 	 * @return a mapping of class files to bytes key: class file value: the
 	 *         bytes which make up that classfile
 	 */
 	private Map<ReferenceType, byte[]> getTypesToBytes(JDIDebugTarget target, List<IResource> resources,
-			List<String> qualifiedNames) {
+			List<String> qualifiedNames, Map<IResource, ClassFileContents> classFiles) {
 		Map<ReferenceType, byte[]> typesToBytes = new HashMap<>(resources.size());
 		Iterator<IResource> resourceIter = resources.iterator();
 		Iterator<String> nameIter = qualifiedNames.iterator();
@@ -708,10 +891,8 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 			resource = resourceIter.next();
 			name = nameIter.next();
 			List<ReferenceType> classes = target.jdiClassesByName(name);
-			byte[] bytes = null;
-			try {
-				bytes = Util.getResourceContentsAsByteArray((IFile) resource);
-			} catch (JavaModelException jme) {
+			byte[] bytes = getClassFile(resource, classFiles).getBytes();
+			if (bytes == null) {
 				continue;
 			}
 			for(ReferenceType type : classes) {
@@ -974,8 +1155,13 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 			throws CoreException {
 		CompilationUnitDelta delta = fDeltaCache.get(cu);
 		if (delta == null) {
+			// targets replacing code concurrently may compute the same delta,
+			// keep the first one
 			delta = new CompilationUnitDelta(cu, time);
-			fDeltaCache.put(cu, delta);
+			CompilationUnitDelta previous = fDeltaCache.putIfAbsent(cu, delta);
+			if (previous != null) {
+				delta = previous;
+			}
 		}
 		return delta;
 	}
@@ -1301,6 +1487,8 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 	/**
 	 * Adds the given listener to the collection of hot code replace listeners.
 	 * Listeners are notified when hot code replace attempts succeed or fail.
+	 * When code is replaced in several targets, listeners are notified from
+	 * one pool thread per target, concurrently.
 	 */
 	public void addHotCodeReplaceListener(IJavaHotCodeReplaceListener listener) {
 		fHotCodeReplaceListeners.add(listener);
@@ -1400,6 +1588,7 @@ public class JavaHotCodeReplaceManager implements IResourceChangeListener,
 		if (!fHotSwapTargets.remove(target)) {
 			fNoHotSwapTargets.remove(target);
 		}
+		fRedefinedDigests.remove(target);
 		ILaunch[] launches = DebugPlugin.getDefault().getLaunchManager()
 				.getLaunches();
 		// If there are no more active JDIDebugTargets, stop
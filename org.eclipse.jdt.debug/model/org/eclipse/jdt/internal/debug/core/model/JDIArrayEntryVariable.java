@@ -81,6 +81,28 @@ public class JDIArrayEntryVariable extends JDIModificationVariable {
 		fLogicalParent = logicalParent;
 	}
 
+	/**
+	 * Constructs an array entry at the given index in an array, whose value
+	 * has already been retrieved.
+	 *
+	 * @param target
+	 *            debug target containing the array entry
+	 * @param array
+	 *            array containing the entry
+	 * @param index
+	 *            index into the array
+	 * @param logicalParent
+	 *            original logical parent value, or <code>null</code> if not a
+	 *            child of a logical structure
+	 * @param value
+	 *            the current value of the entry
+	 */
+	public JDIArrayEntryVariable(JDIDebugTarget target, ArrayReference array,
+			int index, IJavaValue logicalParent, Value value) {
+		this(target, array, index, logicalParent);
+		setPrefetchedValue(value);
+	}
+
 	/**
 	 * Returns this variable's current underlying value.
 	 */
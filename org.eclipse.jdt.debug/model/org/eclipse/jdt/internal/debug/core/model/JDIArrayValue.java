@@ -225,11 +225,26 @@ public class JDIArrayValue extends JDIObjectValue implements IJavaArray,
 		if ((offset + length - 1) >= getLength()) {
 			requestFailed(JDIDebugModelMessages.JDIArrayValue_8, new IndexOutOfBoundsException(Integer.toString(offset + length - 1)));
 		}
+		// retrieve the values of the whole range at once rather than one
+		// request per entry
+		List<Value> values = Collections.emptyList();
+		if (length > 0) {
+			try {
+				values = getArrayReference().getValues(offset, length);
+			} catch (IndexOutOfBoundsException e) {
+				throw e;
+			} catch (RuntimeException e) {
+				targetRequestFailed(
+						MessageFormat.format(
+								JDIDebugModelMessages.JDIArrayValue_exception_while_retrieving_values_from_array,
+								e.toString()), e);
+			}
+		}
 		IVariable[] variables = new IVariable[length];
 		int index = offset;
 		for (int i = 0; i < length; i++) {
 			variables[i] = new JDIArrayEntryVariable(getJavaDebugTarget(),
-					getArrayReference(), index, fLogicalParent);
+					getArrayReference(), index, fLogicalParent, values.get(i));
 			index++;
 		}
 		return variables;
@@ -53,6 +53,7 @@ public class JDIDebugModelMessages extends NLS {
 	public static String JDIDebugTarget_does_not_support_termination;
 	public static String JDIDebugTarget_exception_disconnecting;
 	public static String JDIDebugTarget_exception_resume;
+	public static String JDIDebugTarget_exception_retrieving_monitor_information;
 	public static String JDIDebugTarget_exception_retrieving_version_information;
 	public static String JDIDebugTarget_exception_suspend;
 	public static String JDIDebugTarget_exception_terminating;
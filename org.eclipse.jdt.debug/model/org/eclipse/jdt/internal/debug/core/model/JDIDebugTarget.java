@@ -28,6 +28,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFile;
@@ -63,7 +65,9 @@ import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.ISuspendResume;
 import org.eclipse.debug.core.model.IThread;
+import org.eclipse.jdi.ThreadLifecycleRequest;
 import org.eclipse.jdi.TimeoutException;
+import org.eclipse.jdi.internal.ThreadReferenceImpl;
 import org.eclipse.jdi.internal.VirtualMachineImpl;
 import org.eclipse.jdi.internal.jdwp.JdwpReplyPacket;
 import org.eclipse.jdt.core.IClasspathEntry;
@@ -82,6 +86,7 @@ import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
 import org.eclipse.jdt.debug.core.IJavaBreakpoint;
 import org.eclipse.jdt.debug.core.IJavaDebugTarget;
 import org.eclipse.jdt.debug.core.IJavaHotCodeReplaceListener;
+import org.eclipse.jdt.debug.core.IJavaMonitorSnapshot;
 import org.eclipse.jdt.debug.core.IJavaObject;
 import org.eclipse.jdt.debug.core.IJavaThread;
 import org.eclipse.jdt.debug.core.IJavaThreadGroup;
@@ -119,6 +124,7 @@ import com.sun.jdi.event.VMStartEvent;
 import com.sun.jdi.request.ClassPrepareRequest;
 import com.sun.jdi.request.EventRequest;
 import com.sun.jdi.request.EventRequestManager;
+import com.sun.jdi.request.ThreadDeathRequest;
 
 /**
  * Debug target for JDI debug model.
@@ -129,12 +135,11 @@ public class JDIDebugTarget extends JDIDebugElement implements
 
 	/**
 	 * Threads contained in this debug target. When a thread starts it is added
-	 * to the list. When a thread ends it is removed from the list.
+	 * to the registry. When a thread ends it is removed from the registry.
 	 *
-	 * TODO investigate making this a synchronized collection, to remove all this copying
 	 * @see #getThreadIterator()
 	 */
-	private List<JDIThread> fThreads;
+	private JDIThreadRegistry fThreads;
 
 	/**
 	 * List of thread groups in this target.
@@ -214,6 +219,19 @@ public class JDIDebugTarget extends JDIDebugElement implements
 	 */
 	private ThreadStartHandler fThreadStartHandler;
 
+	/**
+	 * The thread death event handler
+	 */
+	private ThreadDeathHandler fThreadDeathHandler;
+
+	/**
+	 * Whether virtual threads are only added to this target when they are
+	 * needed, rather than on start.
+	 *
+	 * @see JDIDebugPlugin#PREF_VIRTUAL_THREAD_MODE
+	 */
+	private boolean fVirtualThreadMode;
+
 	/**
 	 * Handles changes in thread names, detected via a breakpoint in {@link java.lang.Thread#setName(String)}.
 	 */
@@ -256,6 +274,11 @@ public class JDIDebugTarget extends JDIDebugElement implements
 	 */
 	private int fStepFilterMask;
 
+	/**
+	 * Step filter classification of the methods stepped into
+	 */
+	private final StepFilterCache fStepFilterCache = new StepFilterCache();
+
 	/**
 	 * Step filter bit mask - indicates if step filters are enabled.
 	 */
@@ -314,6 +337,13 @@ public class JDIDebugTarget extends JDIDebugElement implements
 	 */
 	private ListenerList<IJavaHotCodeReplaceListener> fHCRListeners = new ListenerList<>();
 
+	/**
+	 * Limits the number of breakpoint conditions evaluated at the same time in
+	 * this target, or <code>null</code> if there is no limit. Replaced when
+	 * the limit changes.
+	 */
+	private volatile Semaphore fConditionEvaluationPermits;
+
 	/**
 	 * Java scope of the current launch, "null" means everything is in scope
 	 */
@@ -373,10 +403,13 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		setName(name);
 		prepareBreakpointsSearchScope();
 		setBreakpoints(new ArrayList<>(5));
-		setThreadList(new ArrayList<>());
+		fThreads = new JDIThreadRegistry();
 		fGroups = new ArrayList<>(5);
 		setOutOfSynchTypes(new ArrayList<>(0));
 		setHCROccurred(false);
+		setMaxConditionEvaluations(Platform.getPreferencesService().getInt(
+				JDIDebugPlugin.getUniqueIdentifier(),
+				JDIDebugPlugin.PREF_MAX_CONDITION_EVALUATIONS, 0, null));
 		initialize();
 		DebugPlugin.getDefault().getLaunchManager().addLaunchListener(this);
 		DebugPlugin.getDefault().getBreakpointManager()
@@ -451,31 +484,12 @@ public class JDIDebugTarget extends JDIDebugElement implements
 
 	/**
 	 * Returns an iterator over the collection of threads. The returned iterator
-	 * is made on a copy of the thread list so that it is thread safe. This
-	 * method should always be used instead of getThreadList().iterator()
+	 * is made on a snapshot of the threads so that it is thread safe.
 	 *
 	 * @return an iterator over the collection of threads
 	 */
 	private Iterator<JDIThread> getThreadIterator() {
-		List<JDIThread> threadList;
-		synchronized (fThreads) {
-			//TODO investigate making fThreads be a synchronized collection, to remove all this copying
-			threadList = new ArrayList<>(fThreads);
-		}
-		return threadList.iterator();
-	}
-
-	/**
-	 * Sets the list of threads contained in this debug target. Set to an empty
-	 * collection on creation. Threads are added and removed as they start and
-	 * end. On termination this collection is set to the immutable singleton
-	 * empty list.
-	 *
-	 * @param threads
-	 *            empty list
-	 */
-	private void setThreadList(List<JDIThread> threads) {
-		fThreads = threads;
+		return fThreads.iterator();
 	}
 
 	/**
@@ -553,6 +567,7 @@ public class JDIDebugTarget extends JDIDebugElement implements
 				JDIDebugModel.PREF_REQUEST_TIMEOUT,
 				JDIDebugModel.DEF_REQUEST_TIMEOUT,
 				null));
+		fVirtualThreadMode = computeVirtualThreadMode();
 		initializeRequests();
 		initializeState();
 		initializeBreakpoints();
@@ -595,9 +610,17 @@ public class JDIDebugTarget extends JDIDebugElement implements
 				internalError(e);
 			}
 			if (threads != null) {
+				if (isVirtualThreadMode()) {
+					classifyVirtualThreads(threads);
+				}
 				Iterator<ThreadReference> initialThreads = threads.iterator();
 				while (initialThreads.hasNext()) {
-					createThread(initialThreads.next());
+					ThreadReference thread = initialThreads.next();
+					if (isVirtualThreadMode() && isVirtual(thread)) {
+						// added on demand, see findOrCreateThread(ThreadReference)
+						continue;
+					}
+					createThread(thread);
 				}
 			}
 		}
@@ -613,7 +636,80 @@ public class JDIDebugTarget extends JDIDebugElement implements
 	protected void initializeRequests() {
 		setThreadStartHandler(new ThreadStartHandler());
 		setThreadNameChangeHandler(new ThreadNameChangeHandler());
-		new ThreadDeathHandler();
+		fThreadDeathHandler = new ThreadDeathHandler();
+	}
+
+	/**
+	 * Returns whether this target should run in virtual thread mode, i.e.
+	 * whether the preference is set and the target VM supports virtual
+	 * threads.
+	 *
+	 * @return whether this target should run in virtual thread mode
+	 */
+	private boolean computeVirtualThreadMode() {
+		VirtualMachine vm = getVM();
+		if (!(vm instanceof org.eclipse.jdi.VirtualMachine)) {
+			return false;
+		}
+		if (!Platform.getPreferencesService().getBoolean(
+				JDIDebugPlugin.getUniqueIdentifier(),
+				JDIDebugPlugin.PREF_VIRTUAL_THREAD_MODE, false, null)) {
+			return false;
+		}
+		try {
+			return ((org.eclipse.jdi.VirtualMachine) vm).supportsVirtualThreads();
+		} catch (RuntimeException e) {
+			internalError(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Returns whether this target is in virtual thread mode. In virtual thread
+	 * mode, only platform threads are added to this target when they start.
+	 * Virtual threads are added when they suspend on a breakpoint or when
+	 * listed with {@link #getVirtualThreads(int, int)}, and are removed when
+	 * they end.
+	 *
+	 * @return whether this target is in virtual thread mode
+	 * @see JDIDebugPlugin#PREF_VIRTUAL_THREAD_MODE
+	 */
+	public boolean isVirtualThreadMode() {
+		return fVirtualThreadMode;
+	}
+
+	/**
+	 * Returns whether the given thread is a virtual thread.
+	 *
+	 * @param thread
+	 *            thread reference
+	 * @return whether the given thread is a virtual thread
+	 */
+	static boolean isVirtual(ThreadReference thread) {
+		return thread instanceof org.eclipse.jdi.ThreadReference
+				&& ((org.eclipse.jdi.ThreadReference) thread).isVirtual();
+	}
+
+	/**
+	 * Finds out which of the given threads are virtual with one round trip to
+	 * the target VM, rather than one per thread. The result is cached in the
+	 * thread references, so later calls to {@link #isVirtual(ThreadReference)}
+	 * need no request.
+	 *
+	 * @param threads
+	 *            thread references
+	 */
+	static void classifyVirtualThreads(List<ThreadReference> threads) {
+		if (threads.isEmpty() || !(threads.get(0) instanceof ThreadReferenceImpl)) {
+			return;
+		}
+		try {
+			ThreadReferenceImpl.classifyVirtualThreads(threads);
+		} catch (VMDisconnectedException e) {
+			// the target is gone
+		} catch (RuntimeException e) {
+			JDIDebugPlugin.log(e);
+		}
 	}
 
 	/**
@@ -651,9 +747,7 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		if (isDisconnected()) {
 			return null;
 		}
-		synchronized (fThreads) {
-			fThreads.add(jdiThread);
-		}
+		fThreads.add(jdiThread);
 		jdiThread.fireCreationEvent();
 		return jdiThread;
 	}
@@ -678,23 +772,7 @@ public class JDIDebugTarget extends JDIDebugElement implements
 
 	@Override
 	public IThread[] getThreads() {
-		synchronized (fThreads) {
-			IThread[] threads = new IThread[fThreads.size()];
-			int index = 0;
-			for (JDIThread thread : fThreads) {
-				if (!thread.isSystemThread()) {
-					threads[index] = thread;
-					++index;
-				}
-			}
-			for (JDIThread thread : fThreads) {
-				if (thread.isSystemThread()) {
-					threads[index] = thread;
-					++index;
-				}
-			}
-			return threads;
-		}
+		return fThreads.getThreads();
 	}
 
 	@Override
@@ -947,6 +1025,24 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		fHasHCROccurred = occurred;
 	}
 
+	/**
+	 * Returns the step filter classification of the methods of this target.
+	 *
+	 * @return the step filter classification of the methods of this target
+	 */
+	StepFilterCache getStepFilterCache() {
+		return fStepFilterCache;
+	}
+
+	/**
+	 * Notification that types of this target were redefined by a hot code
+	 * replace. Forgets the step filter classification of methods, as their
+	 * bytecodes may have changed.
+	 */
+	public void typesRedefined() {
+		fStepFilterCache.clear();
+	}
+
 	public void removeOutOfSynchTypes(List<String> qualifiedNames) {
 		fOutOfSynchTypes.removeAll(qualifiedNames);
 	}
@@ -1017,6 +1113,31 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		return fHasHCROccurred;
 	}
 
+	/**
+	 * Returns the permits limiting the number of breakpoint conditions
+	 * evaluated at the same time in this target, or <code>null</code> if
+	 * there is no limit.
+	 *
+	 * @return condition evaluation permits or <code>null</code>
+	 */
+	public Semaphore getConditionEvaluationPermits() {
+		return fConditionEvaluationPermits;
+	}
+
+	/**
+	 * Sets the number of breakpoint conditions that can be evaluated at the
+	 * same time in this target. Evaluations already running keep the permits
+	 * they hold under the previous limit, so the new limit applies to the
+	 * evaluations started from now on.
+	 *
+	 * @param max
+	 *            maximum number of concurrent condition evaluations, 0 for no
+	 *            limit
+	 */
+	public void setMaxConditionEvaluations(int max) {
+		fConditionEvaluationPermits = max > 0 ? new Semaphore(max) : null;
+	}
+
 	/**
 	 * Reinstall all breakpoints installed in the given resources
 	 * @param resources
@@ -1032,6 +1153,8 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		for (IJavaBreakpoint element : copy) {
 			breakpoint = element;
 			if (breakpoint instanceof JavaLineBreakpoint) {
+				// conditions may refer to any of the redefined types
+				((JavaLineBreakpoint) breakpoint).typesRedefined(this);
 				try {
 					installedType = breakpoint.getTypeName();
 					if (classNames.contains(installedType)) {
@@ -1055,14 +1178,121 @@ public class JDIDebugTarget extends JDIDebugElement implements
 	 * @return the associated model thread
 	 */
 	public JDIThread findThread(ThreadReference tr) {
-		Iterator<JDIThread> iter = getThreadIterator();
-		while (iter.hasNext()) {
-			JDIThread thread = iter.next();
-			if (thread.getUnderlyingThread().equals(tr)) {
+		return fThreads.find(tr);
+	}
+
+	/**
+	 * Finds and returns the JDI thread for the associated thread reference. In
+	 * virtual thread mode, a virtual thread that is not part of this target
+	 * yet is added to it. Returns <code>null</code> if there is no such
+	 * thread.
+	 *
+	 * @param tr
+	 *            the underlying thread reference
+	 * @return the associated model thread or <code>null</code>
+	 * @see #isVirtualThreadMode()
+	 */
+	public JDIThread findOrCreateThread(ThreadReference tr) {
+		JDIThread thread = findThread(tr);
+		if (thread == null && isVirtualThreadMode()) {
+			try {
+				if (isVirtual(tr)) {
+					thread = createVirtualThread(tr);
+				}
+			} catch (VMDisconnectedException | ObjectCollectedException e) {
+				return null;
+			}
+		}
+		return thread;
+	}
+
+	/**
+	 * Returns at most <code>count</code> virtual threads of this target,
+	 * skipping the first <code>start</code> ones, in the order of
+	 * {@link VirtualMachine#allThreads()}. Returned threads are added to this
+	 * target. Only virtual threads on the current page are materialized, so
+	 * large numbers of virtual threads can be browsed page by page. Threads
+	 * are told apart with one round trip to the target VM, and the result is
+	 * cached in the thread references.
+	 * <p>
+	 * Note that the target VM only reports virtual threads when its debug
+	 * agent runs with <code>includevirtualthreads=y</code>.
+	 * </p>
+	 *
+	 * @param start
+	 *            number of virtual threads to skip
+	 * @param count
+	 *            maximum number of virtual threads to return
+	 * @return the virtual threads on the requested page, possibly empty
+	 */
+	public List<JDIThread> getVirtualThreads(int start, int count) {
+		List<JDIThread> page = new ArrayList<>();
+		VirtualMachine vm = getVM();
+		if (vm == null || count <= 0) {
+			return page;
+		}
+		List<ThreadReference> threads;
+		try {
+			threads = vm.allThreads();
+		} catch (RuntimeException e) {
+			internalError(e);
+			return page;
+		}
+		classifyVirtualThreads(threads);
+		int index = 0;
+		for (ThreadReference reference : threads) {
+			try {
+				JDIThread thread = findThread(reference);
+				boolean virtual = thread != null ? thread.isVirtual() : isVirtual(reference);
+				if (!virtual || index++ < start) {
+					continue;
+				}
+				if (thread == null) {
+					thread = isVirtualThreadMode() ? createVirtualThread(reference) : createThread(reference);
+				}
+				if (thread != null) {
+					page.add(thread);
+					if (page.size() == count) {
+						break;
+					}
+				}
+			} catch (ObjectCollectedException e) {
+				// the thread ended meanwhile
+			} catch (VMDisconnectedException e) {
+				break;
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * Adds the given virtual thread to this target, unless already added, and
+	 * requests its death event so it is removed once it ends.
+	 *
+	 * @param tr
+	 *            the underlying virtual thread reference
+	 * @return the associated model thread or <code>null</code> if it could
+	 *         not be created or has ended
+	 */
+	private JDIThread createVirtualThread(ThreadReference tr) {
+		synchronized (fThreadDeathHandler) {
+			JDIThread thread = findThread(tr);
+			if (thread != null) {
 				return thread;
 			}
+			thread = createThread(tr);
+			if (thread != null) {
+				fThreadDeathHandler.watch(thread);
+				if (tr.status() == ThreadReference.THREAD_STATUS_ZOMBIE) {
+					// ended before its death event was requested
+					fThreadDeathHandler.unwatch(thread);
+					thread.terminated();
+					fThreads.remove(thread);
+					return null;
+				}
+			}
+			return thread;
 		}
-		return null;
 	}
 
 	@Override
@@ -1905,9 +2135,7 @@ public class JDIDebugTarget extends JDIDebugElement implements
 			JDIThread child = itr.next();
 			child.terminated();
 		}
-		synchronized (fThreads) {
-			fThreads.clear();
-		}
+		fThreads.clear();
 	}
 
 	/**
@@ -2259,6 +2487,9 @@ public class JDIDebugTarget extends JDIDebugElement implements
 			if (manager != null) {
 				try {
 					EventRequest req = manager.createThreadStartRequest();
+					if (isVirtualThreadMode() && req instanceof ThreadLifecycleRequest) {
+						((ThreadLifecycleRequest) req).addPlatformThreadsOnlyFilter();
+					}
 					req.setSuspendPolicy(EventRequest.SUSPEND_NONE);
 					req.enable();
 					addJDIEventListener(this, req);
@@ -2346,6 +2577,9 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		// terminated threads marked for removal from the fThreads list
 		private Map<Event, JDIThread> toRemove = Collections.synchronizedMap(new HashMap<>());
 
+		// death requests of the virtual threads added to this target in virtual thread mode
+		private Map<JDIThread, EventRequest> fVirtualThreadRequests = new ConcurrentHashMap<>();
+
 		protected ThreadDeathHandler() {
 			createRequest();
 		}
@@ -2358,15 +2592,66 @@ public class JDIDebugTarget extends JDIDebugElement implements
 			if (manager != null) {
 				try {
 					EventRequest req = manager.createThreadDeathRequest();
+					if (isVirtualThreadMode() && req instanceof ThreadLifecycleRequest) {
+						((ThreadLifecycleRequest) req).addPlatformThreadsOnlyFilter();
+					}
+					req.setSuspendPolicy(EventRequest.SUSPEND_NONE);
+					req.enable();
+					addJDIEventListener(this, req);
+				} catch (RuntimeException e) {
+					logError(e);
+				}
+			}
+		}
+
+		/**
+		 * Creates and registers a request to listen to the death event of the
+		 * given virtual thread, which is not covered by the platform threads
+		 * only request of this handler.
+		 *
+		 * @param thread
+		 *            a virtual thread
+		 */
+		void watch(JDIThread thread) {
+			EventRequestManager manager = getEventRequestManager();
+			if (manager != null) {
+				try {
+					ThreadDeathRequest req = manager.createThreadDeathRequest();
+					req.addThreadFilter(thread.getUnderlyingThread());
 					req.setSuspendPolicy(EventRequest.SUSPEND_NONE);
 					req.enable();
 					addJDIEventListener(this, req);
+					fVirtualThreadRequests.put(thread, req);
 				} catch (RuntimeException e) {
 					logError(e);
 				}
 			}
 		}
 
+		/**
+		 * Deletes the death event request of the given virtual thread, if
+		 * any.
+		 *
+		 * @param thread
+		 *            a virtual thread
+		 */
+		void unwatch(JDIThread thread) {
+			EventRequest req = fVirtualThreadRequests.remove(thread);
+			if (req != null) {
+				removeJDIEventListener(this, req);
+				EventRequestManager manager = getEventRequestManager();
+				if (manager != null) {
+					try {
+						manager.deleteEventRequest(req);
+					} catch (VMDisconnectedException e) {
+						// nothing to clean up
+					} catch (RuntimeException e) {
+						logError(e);
+					}
+				}
+			}
+		}
+
 		/**
 		 * Locates the model thread associated with the underlying JDI thread that has terminated, and marks it for removal from the collection of
 		 * threads belonging to this debug target. A terminate event is fired for the model thread.
@@ -2406,9 +2691,8 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		public void eventSetComplete(Event event, JDIDebugTarget target, boolean suspendVote, EventSet eventSet) {
 			JDIThread thread = toRemove.remove(event);
 			if (thread != null) {
-				synchronized (fThreads) {
-					fThreads.remove(thread);
-				}
+				fThreads.remove(thread);
+				unwatch(thread);
 			}
 		}
 
@@ -2793,10 +3077,12 @@ public class JDIDebugTarget extends JDIDebugElement implements
 	@Override
 	public void setStepFilters(String[] list) {
 		fStepFilters = list;
+		fStepFilterCache.clear();
 	}
 
 	@Override
 	public void setStepFiltersEnabled(boolean enabled) {
+		fStepFilterCache.clear();
 		if (enabled) {
 			fStepFilterMask = fStepFilterMask | STEP_FILTERS_ENABLED;
 		} else {
@@ -2807,7 +3093,7 @@ public class JDIDebugTarget extends JDIDebugElement implements
 
 	@Override
 	public boolean hasThreads() {
-		return fThreads.size() > 0;
+		return !fThreads.isEmpty();
 	}
 
 	@Override
@@ -2882,6 +3168,11 @@ public class JDIDebugTarget extends JDIDebugElement implements
 		return false;
 	}
 
+	@Override
+	public IJavaMonitorSnapshot getMonitorSnapshot() throws DebugException {
+		return JDIMonitorSnapshot.create(this);
+	}
+
 	/**
 	 * Sets whether or not this debug target is currently performing a hot code
 	 * replace.
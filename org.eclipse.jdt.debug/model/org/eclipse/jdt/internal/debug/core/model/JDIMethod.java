@@ -15,6 +15,9 @@
 
 package org.eclipse.jdt.internal.debug.core.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.sun.jdi.Method;
 
 /**
@@ -45,6 +48,52 @@ public class JDIMethod {
 
 	private static final int RETURN = 0xb1;
 
+	private static final int TABLESWITCH = 0xaa;
+	private static final int LOOKUPSWITCH = 0xab;
+	private static final int WIDE = 0xc4;
+	private static final int IINC = 0x84;
+
+	/**
+	 * Length of each instruction by opcode, <code>0</code> for instructions of
+	 * variable length and invalid opcodes
+	 */
+	private static final byte[] INSTRUCTION_LENGTHS = new byte[256];
+
+	static {
+		fill(0x00, 0x0f, 1); // nop, constants
+		fill(0x10, 0x10, 2); // bipush
+		fill(0x11, 0x11, 3); // sipush
+		fill(0x12, 0x12, 2); // ldc
+		fill(0x13, 0x14, 3); // ldc_w, ldc2_w
+		fill(0x15, 0x19, 2); // loads
+		fill(0x1a, 0x35, 1); // loads, array loads
+		fill(0x36, 0x3a, 2); // stores
+		fill(0x3b, 0x83, 1); // stores, array stores, stack, arithmetic
+		fill(IINC, IINC, 3);
+		fill(0x85, 0x98, 1); // conversions, comparisons
+		fill(0x99, 0xa8, 3); // branches, goto, jsr
+		fill(0xa9, 0xa9, 2); // ret
+		fill(0xac, 0xb1, 1); // returns
+		fill(0xb2, 0xb8, 3); // field access, invocations
+		fill(0xb9, 0xba, 5); // invokeinterface, invokedynamic
+		fill(0xbb, 0xbb, 3); // new
+		fill(0xbc, 0xbc, 2); // newarray
+		fill(0xbd, 0xbd, 3); // anewarray
+		fill(0xbe, 0xbf, 1); // arraylength, athrow
+		fill(0xc0, 0xc1, 3); // checkcast, instanceof
+		fill(0xc2, 0xc3, 1); // monitorenter, monitorexit
+		fill(0xc5, 0xc5, 4); // multianewarray
+		fill(0xc6, 0xc7, 3); // ifnull, ifnonnull
+		fill(0xc8, 0xc9, 5); // goto_w, jsr_w
+		fill(0xca, 0xca, 1); // breakpoint
+	}
+
+	private static void fill(int fromOpCode, int toOpCode, int length) {
+		for (int opCode = fromOpCode; opCode <= toOpCode; opCode++) {
+			INSTRUCTION_LENGTHS[opCode] = (byte) length;
+		}
+	}
+
 	/**
 	 * Determines if the opcode passes in is one of the value return
 	 * instructions.
@@ -117,4 +166,67 @@ public class JDIMethod {
 				&& isXLoad1(bytecodes[1]) && (bytecodes[2] & 0xFF) == PUTFIELD
 				&& (bytecodes[5] & 0xFF) == RETURN;
 	}
+
+	/**
+	 * Returns the code indexes of the return instructions of the given method,
+	 * or <code>null</code> if the bytecodes of the method can not be decoded.
+	 *
+	 * @param method
+	 *            Method to check
+	 * @return code indexes of the 'return' and 'Xreturn' instructions, or
+	 *         <code>null</code>
+	 */
+	public static long[] getReturnCodeIndexes(Method method) {
+		byte[] bytecodes = method.bytecodes();
+		if (bytecodes == null) {
+			return null;
+		}
+		List<Long> indexes = new ArrayList<>();
+		int pc = 0;
+		while (pc < bytecodes.length) {
+			int opCode = bytecodes[pc] & 0xFF;
+			int length;
+			if (opCode == TABLESWITCH || opCode == LOOKUPSWITCH) {
+				// operands are 4-byte aligned
+				int operands = pc + 1 + (3 - pc % 4);
+				if (operands + 12 > bytecodes.length) {
+					return null;
+				}
+				if (opCode == TABLESWITCH) {
+					long low = readInt(bytecodes, operands + 4);
+					long high = readInt(bytecodes, operands + 8);
+					length = (int) Math.min(Integer.MAX_VALUE, operands - pc + 12 + 4 * (high - low + 1));
+				} else {
+					long pairs = readInt(bytecodes, operands + 4);
+					length = (int) Math.min(Integer.MAX_VALUE, operands - pc + 8 + 8 * pairs);
+				}
+			} else if (opCode == WIDE) {
+				if (pc + 1 >= bytecodes.length) {
+					return null;
+				}
+				length = (bytecodes[pc + 1] & 0xFF) == IINC ? 6 : 4;
+			} else {
+				length = INSTRUCTION_LENGTHS[opCode];
+				if (isXReturn(bytecodes[pc]) || opCode == RETURN) {
+					indexes.add(Long.valueOf(pc));
+				}
+			}
+			if (length <= 0) {
+				return null;
+			}
+			pc += length;
+		}
+		if (pc != bytecodes.length) {
+			return null;
+		}
+		long[] result = new long[indexes.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = indexes.get(i).longValue();
+		}
+		return result;
+	}
+
+	private static int readInt(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+	}
 }
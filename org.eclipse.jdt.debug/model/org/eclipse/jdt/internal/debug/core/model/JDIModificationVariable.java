@@ -203,6 +203,7 @@ public abstract class JDIModificationVariable extends JDIVariable {
 	@Override
 	public final void setValue(String expression) throws DebugException {
 		Value value = generateVMValue(expression);
+		clearPrefetchedValue();
 		setJDIValue(value);
 	}
 
@@ -217,6 +218,7 @@ public abstract class JDIModificationVariable extends JDIVariable {
 	public final void setValue(IValue v) throws DebugException {
 		if (v instanceof JDIValue) {
 			JDIValue value = (JDIValue) v;
+			clearPrefetchedValue();
 			setJDIValue(value.getUnderlyingValue());
 		}
 	}
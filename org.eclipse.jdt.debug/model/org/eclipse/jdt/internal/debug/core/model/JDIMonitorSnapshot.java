@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.debug.core.model;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IThread;
+import org.eclipse.jdi.internal.ThreadReferenceImpl;
+import org.eclipse.jdi.internal.ThreadReferenceImpl.MonitorState;
+import org.eclipse.jdi.internal.VirtualMachineImpl;
+import org.eclipse.jdt.debug.core.IJavaMonitorSnapshot;
+import org.eclipse.jdt.debug.core.IJavaObject;
+import org.eclipse.jdt.debug.core.IJavaThread;
+
+import com.sun.jdi.IncompatibleThreadStateException;
+import com.sun.jdi.MonitorInfo;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ThreadReference;
+import com.sun.jdi.VirtualMachine;
+
+/**
+ * The monitors of the suspended threads of a debug target and the wait-for
+ * graph among them.
+ *
+ * @see JDIDebugTarget#getMonitorSnapshot()
+ */
+public class JDIMonitorSnapshot implements IJavaMonitorSnapshot {
+
+	private static final IJavaThread[] NO_THREADS = new IJavaThread[0];
+
+	private static final IJavaObject[] NO_MONITORS = new IJavaObject[0];
+
+	/**
+	 * Search states of threads while looking for cycles
+	 */
+	private static final Integer ON_PATH = Integer.valueOf(1);
+
+	private static final Integer DONE = Integer.valueOf(2);
+
+	/**
+	 * The threads of this snapshot, in the order of the debug target
+	 */
+	private final List<IJavaThread> fThreads = new ArrayList<>();
+
+	/**
+	 * Owned monitors by thread
+	 */
+	private final Map<IJavaThread, IJavaObject[]> fOwnedMonitors = new HashMap<>();
+
+	/**
+	 * Stack depths of the owned monitors by thread, in the same order as the
+	 * owned monitors
+	 */
+	private final Map<IJavaThread, int[]> fOwnedMonitorDepths = new HashMap<>();
+
+	/**
+	 * Contended monitor by thread
+	 */
+	private final Map<IJavaThread, IJavaObject> fContendedMonitors = new HashMap<>();
+
+	/**
+	 * Owning thread by monitor
+	 */
+	private final Map<IJavaObject, IJavaThread> fOwningThreads = new HashMap<>();
+
+	/**
+	 * Contending threads by monitor
+	 */
+	private final Map<IJavaObject, List<IJavaThread>> fContendingThreads = new HashMap<>();
+
+	/**
+	 * Cycles of the wait-for graph
+	 */
+	private final List<IJavaThread[]> fDeadlocks = new ArrayList<>();
+
+	/**
+	 * Threads of a cycle, or waiting for a thread of a cycle
+	 */
+	private final Set<IJavaThread> fDeadlockedThreads = new HashSet<>();
+
+	/**
+	 * Monitors waited for by deadlocked threads
+	 */
+	private final Set<IJavaObject> fDeadlockedMonitors = new HashSet<>();
+
+	/**
+	 * Model objects of the monitors, so each monitor is represented by a
+	 * single object
+	 */
+	private final Map<ObjectReference, IJavaObject> fMonitors = new HashMap<>();
+
+	private final JDIDebugTarget fTarget;
+
+	private JDIMonitorSnapshot(JDIDebugTarget target) {
+		fTarget = target;
+	}
+
+	/**
+	 * Takes a snapshot of the monitors of the suspended threads of the given
+	 * debug target.
+	 *
+	 * @param target
+	 *            the debug target
+	 * @return the monitor snapshot of the given target
+	 * @throws DebugException
+	 *             if the monitor information can't be retrieved
+	 */
+	public static JDIMonitorSnapshot create(JDIDebugTarget target) throws DebugException {
+		JDIMonitorSnapshot snapshot = new JDIMonitorSnapshot(target);
+		if (!target.supportsMonitorInformation()) {
+			return snapshot;
+		}
+		Map<ThreadReference, JDIThread> threads = new LinkedHashMap<>();
+		for (IThread thread : target.getThreads()) {
+			if (thread instanceof JDIThread && thread.isSuspended()) {
+				JDIThread jdiThread = (JDIThread) thread;
+				threads.put(jdiThread.getUnderlyingThread(), jdiThread);
+			}
+		}
+		try {
+			VirtualMachine vm = target.getVM();
+			if (vm instanceof VirtualMachineImpl) {
+				Map<ThreadReference, MonitorState> states = ThreadReferenceImpl.getMonitorStates(new ArrayList<>(threads.keySet()));
+				for (Map.Entry<ThreadReference, MonitorState> entry : states.entrySet()) {
+					MonitorState state = entry.getValue();
+					snapshot.addThread(threads.get(entry.getKey()), state.ownedMonitors(), state.contendedMonitor());
+				}
+			} else if (vm != null) {
+				for (Map.Entry<ThreadReference, JDIThread> entry : threads.entrySet()) {
+					ThreadReference thread = entry.getKey();
+					try {
+						snapshot.addThread(entry.getValue(), ownedMonitors(vm, thread), thread.currentContendedMonitor());
+					} catch (IncompatibleThreadStateException e) {
+						// resumed in the meantime
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			target.targetRequestFailed(MessageFormat.format(JDIDebugModelMessages.JDIDebugTarget_exception_retrieving_monitor_information, e.toString()), e);
+		}
+		snapshot.findDeadlocks();
+		return snapshot;
+	}
+
+	/**
+	 * Returns the owned monitors of the given thread with their stack depths,
+	 * for VMs other than the JDI implementation of this plug-in.
+	 */
+	private static List<MonitorInfo> ownedMonitors(VirtualMachine vm, ThreadReference thread) throws IncompatibleThreadStateException {
+		if (vm.canGetMonitorFrameInfo()) {
+			return thread.ownedMonitorsAndFrames();
+		}
+		List<MonitorInfo> monitors = new ArrayList<>();
+		for (ObjectReference monitor : thread.ownedMonitors()) {
+			monitors.add(new MonitorInfo() {
+				@Override
+				public VirtualMachine virtualMachine() {
+					return vm;
+				}
+
+				@Override
+				public ObjectReference monitor() {
+					return monitor;
+				}
+
+				@Override
+				public int stackDepth() {
+					return -1;
+				}
+
+				@Override
+				public ThreadReference thread() {
+					return thread;
+				}
+			});
+		}
+		return monitors;
+	}
+
+	private void addThread(JDIThread thread, List<MonitorInfo> ownedMonitors, ObjectReference contendedMonitor) {
+		fThreads.add(thread);
+		IJavaObject[] owned = new IJavaObject[ownedMonitors.size()];
+		int[] depths = new int[owned.length];
+		for (int i = 0; i < owned.length; i++) {
+			MonitorInfo info = ownedMonitors.get(i);
+			owned[i] = getMonitor(info.monitor());
+			depths[i] = info.stackDepth();
+			fOwningThreads.put(owned[i], thread);
+		}
+		fOwnedMonitors.put(thread, owned);
+		fOwnedMonitorDepths.put(thread, depths);
+		if (contendedMonitor != null) {
+			IJavaObject contended = getMonitor(contendedMonitor);
+			fContendedMonitors.put(thread, contended);
+			fContendingThreads.computeIfAbsent(contended, m -> new ArrayList<>()).add(thread);
+		}
+	}
+
+	private IJavaObject getMonitor(ObjectReference monitor) {
+		return fMonitors.computeIfAbsent(monitor, m -> new JDIObjectValue(fTarget, m));
+	}
+
+	/**
+	 * Returns the thread the given thread waits for, or <code>null</code> if
+	 * none.
+	 */
+	private IJavaThread getBlockingThread(IJavaThread thread) {
+		IJavaObject monitor = fContendedMonitors.get(thread);
+		return monitor != null ? fOwningThreads.get(monitor) : null;
+	}
+
+	/**
+	 * Finds the cycles of the wait-for graph. Each thread waits for at most one
+	 * thread, so following the threads waited for from any thread ends either
+	 * at a thread that doesn't wait, or in a cycle.
+	 */
+	private void findDeadlocks() {
+		Map<IJavaThread, Integer> states = new HashMap<>();
+		for (IJavaThread thread : fThreads) {
+			List<IJavaThread> path = new ArrayList<>();
+			IJavaThread current = thread;
+			while (current != null && !states.containsKey(current)) {
+				states.put(current, ON_PATH);
+				path.add(current);
+				current = getBlockingThread(current);
+			}
+			boolean deadlocked = false;
+			if (current != null) {
+				if (ON_PATH.equals(states.get(current))) {
+					List<IJavaThread> cycle = path.subList(path.indexOf(current), path.size());
+					fDeadlocks.add(cycle.toArray(new IJavaThread[cycle.size()]));
+					deadlocked = true;
+				} else {
+					deadlocked = fDeadlockedThreads.contains(current);
+				}
+			}
+			for (IJavaThread visited : path) {
+				states.put(visited, DONE);
+				if (deadlocked) {
+					fDeadlockedThreads.add(visited);
+					fDeadlockedMonitors.add(fContendedMonitors.get(visited));
+				}
+			}
+		}
+	}
+
+	@Override
+	public IJavaThread[] getThreads() {
+		return fThreads.toArray(new IJavaThread[fThreads.size()]);
+	}
+
+	@Override
+	public IJavaObject[] getOwnedMonitors(IJavaThread thread) {
+		IJavaObject[] monitors = fOwnedMonitors.get(thread);
+		return monitors != null ? monitors.clone() : NO_MONITORS;
+	}
+
+	@Override
+	public int getOwnedMonitorDepth(IJavaThread thread, IJavaObject monitor) {
+		IJavaObject[] monitors = fOwnedMonitors.get(thread);
+		if (monitors != null) {
+			for (int i = 0; i < monitors.length; i++) {
+				if (monitors[i].equals(monitor)) {
+					return fOwnedMonitorDepths.get(thread)[i];
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public IJavaObject getContendedMonitor(IJavaThread thread) {
+		return fContendedMonitors.get(thread);
+	}
+
+	@Override
+	public IJavaThread getOwningThread(IJavaObject monitor) {
+		return fOwningThreads.get(monitor);
+	}
+
+	@Override
+	public IJavaThread[] getContendingThreads(IJavaObject monitor) {
+		List<IJavaThread> threads = fContendingThreads.get(monitor);
+		return threads != null ? threads.toArray(new IJavaThread[threads.size()]) : NO_THREADS;
+	}
+
+	@Override
+	public IJavaThread[][] getDeadlocks() {
+		return fDeadlocks.toArray(new IJavaThread[fDeadlocks.size()][]);
+	}
+
+	@Override
+	public boolean isInDeadlock(IJavaThread thread) {
+		return fDeadlockedThreads.contains(thread);
+	}
+
+	@Override
+	public boolean isInDeadlock(IJavaObject monitor) {
+		return fDeadlockedMonitors.contains(monitor);
+	}
+}
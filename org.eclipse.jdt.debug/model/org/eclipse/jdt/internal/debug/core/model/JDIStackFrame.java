@@ -20,7 +20,9 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IStatus;
@@ -39,6 +41,7 @@ import org.eclipse.jdi.internal.ReferenceTypeImpl;
 import org.eclipse.jdi.internal.ValueImpl;
 import org.eclipse.jdi.internal.VirtualMachineImpl;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.Signature;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
@@ -74,6 +77,7 @@ import com.sun.jdi.ObjectReference;
 import com.sun.jdi.ReferenceType;
 import com.sun.jdi.StackFrame;
 import com.sun.jdi.Type;
+import com.sun.jdi.Value;
 import com.sun.jdi.VirtualMachine;
 
 /**
@@ -142,6 +146,16 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 	@SuppressWarnings("restriction")
 	private static final String SYNTHETIC_OUTER_LOCAL_PREFIX = new String(org.eclipse.jdt.internal.compiler.lookup.TypeConstants.SYNTHETIC_OUTER_LOCAL_PREFIX);
 
+	/**
+	 * Maximum number of lambda methods whose captured variable names are cached
+	 */
+	private static final int LAMBDA_NAMES_CACHE_SIZE = 64;
+
+	/**
+	 * Captured variable names of the lambdas found at a lambda method's first line (see {@link #getLambdaNamesKey(ITypeRoot, Method, int)})
+	 */
+	private static final LambdaVariableNamesCache fgLambdaVariableNames = new LambdaVariableNamesCache(LAMBDA_NAMES_CACHE_SIZE);
+
 	/**
 	 * Creates a new stack frame in the given thread.
 	 *
@@ -267,17 +281,14 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 			if (!exists() || isObsolete() || !getThread().canStepReturn()) {
 				return false;
 			}
-			List<IJavaStackFrame> frames = ((JDIThread) getThread())
-					.computeStackFrames();
-			if (frames != null && !frames.isEmpty()) {
-				boolean bottomFrame = this
-						.equals(frames.get(frames.size() - 1));
+			// only the frame below this one is needed, not the whole stack
+			int index = fThread.indexOfStackFrame(this);
+			if (index >= 0) {
+				boolean bottomFrame = getDepth() == 0;
 				boolean aboveObsoleteFrame = false;
 				if (!bottomFrame) {
-					int index = frames.indexOf(this);
-					if (index < frames.size() - 1
-							&& ((JDIStackFrame) frames.get(index + 1))
-									.isObsolete()) {
+					JDIStackFrame next = fThread.getStackFrame(index + 1);
+					if (next != null && next.isObsolete()) {
 						aboveObsoleteFrame = true;
 					}
 				}
@@ -373,10 +384,9 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 					}
 				}
 				if (LambdaUtils.isLambdaFrame(this)) {
-					List<IJavaStackFrame> frames = fThread.computeStackFrames();
-					int previousIndex = frames.indexOf(this) + 1;
-					if (previousIndex > 0 && previousIndex < frames.size()) {
-						IJavaStackFrame previousFrame = frames.get(previousIndex);
+					int index = fThread.indexOfStackFrame(this);
+					IJavaStackFrame previousFrame = index >= 0 ? fThread.getStackFrame(index + 1) : null;
+					if (previousFrame != null) {
 						ObjectReference underlyingThisObject = ((JDIStackFrame) previousFrame).getUnderlyingThisObject();
 						IJavaValue closureValue = JDIValue.createValue((JDIDebugTarget) getDebugTarget(), underlyingThisObject);
 						tryToResolveLambdaVariableNames(closureValue, underlyingThisObject);
@@ -391,14 +401,62 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 					LocalVariable var = variables.next();
 					fVariables.add(new JDILocalVariable(this, var));
 				}
+				prefetchValues(fVariables);
 			} else if (fRefreshVariables) {
 				updateVariables();
+				prefetchValues(fVariables);
 			}
 			fRefreshVariables = false;
 			return fVariables;
 		}
 	}
 
+	/**
+	 * Retrieves the values of the given local variables with a single request,
+	 * and those of the given static fields with another, instead of one
+	 * request per variable when the values are displayed.
+	 *
+	 * @param variables
+	 *            the variables of this frame
+	 */
+	private void prefetchValues(List<IJavaVariable> variables) throws DebugException {
+		List<JDILocalVariable> locals = new ArrayList<>();
+		List<JDIFieldVariable> statics = new ArrayList<>();
+		for (IJavaVariable variable : variables) {
+			if (variable instanceof JDILocalVariable) {
+				locals.add((JDILocalVariable) variable);
+			} else if (variable instanceof JDIFieldVariable) {
+				statics.add((JDIFieldVariable) variable);
+			}
+		}
+		try {
+			StackFrame frame = locals.isEmpty() || !isSuspended() ? null : getUnderlyingStackFrame();
+			if (frame != null) {
+				List<LocalVariable> underlyingLocals = new ArrayList<>(locals.size());
+				for (JDILocalVariable local : locals) {
+					underlyingLocals.add(local.getLocal());
+				}
+				Map<LocalVariable, Value> values = frame.getValues(underlyingLocals);
+				for (JDILocalVariable local : locals) {
+					local.setPrefetchedValue(values.get(local.getLocal()));
+				}
+			}
+			if (!statics.isEmpty()) {
+				List<Field> fields = new ArrayList<>(statics.size());
+				for (JDIFieldVariable field : statics) {
+					fields.add(field.getField());
+				}
+				Map<Field, Value> values = getUnderlyingMethod().declaringType().getValues(fields);
+				for (JDIFieldVariable field : statics) {
+					field.setPrefetchedValue(values.get(field.getField()));
+				}
+			}
+		} catch (RuntimeException e) {
+			// the values are retrieved one at a time when displayed, and
+			// failures are reported then
+		}
+	}
+
 	/**
 	 * Tries to resolve "real" captured variable names by inspecting corresponding Java source code (if available)
 	 */
@@ -413,14 +471,26 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 			if (type == null) {
 				return;
 			}
-			ASTParser parser = ASTParser.newParser(AST.getJLSLatest());
-			parser.setResolveBindings(true);
-			parser.setSource(type.getTypeRoot());
 			try {
-				CompilationUnit cu = (CompilationUnit) parser.createAST(null);
-				List<Location> allLineLocations = getUnderlyingMethod().allLineLocations();
+				Method method = getUnderlyingMethod();
+				List<Location> allLineLocations = method.allLineLocations();
 				int lineNo = allLineLocations.get(0).lineNumber();
-				cu.accept(new LambdaASTVisitor(false, underlyingThisObject, getUnderlyingMethod().isStatic(), cu, lineNo));
+				ITypeRoot typeRoot = type.getTypeRoot();
+				String key = getLambdaNamesKey(typeRoot, method, lineNo);
+				List<String[]> names = fgLambdaVariableNames.get(key);
+				if (names == null) {
+					ASTParser parser = ASTParser.newParser(AST.getJLSLatest());
+					parser.setResolveBindings(true);
+					parser.setSource(typeRoot);
+					CompilationUnit cu = (CompilationUnit) parser.createAST(null);
+					LambdaASTVisitor visitor = new LambdaASTVisitor(false, cu, lineNo);
+					cu.accept(visitor);
+					names = visitor.getCapturedNames();
+					fgLambdaVariableNames.put(key, names);
+				}
+				for (String[] capturedNames : names) {
+					renameCapturedFields(underlyingThisObject, method.isStatic(), capturedNames);
+				}
 			} catch (AbsentInformationException | IllegalStateException e) {
 				// Nothing to be done - either no source or no line numbers
 			}
@@ -450,16 +520,64 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 		return false;
 	}
 
+	/**
+	 * Returns the key of the captured variable names of the given lambda method in {@link #fgLambdaVariableNames}. The key includes the
+	 * modification stamp of the source so that names are resolved again once the source changes.
+	 */
+	private static String getLambdaNamesKey(ITypeRoot typeRoot, Method method, int lineNo) {
+		long stamp = IResource.NULL_STAMP;
+		IResource resource = typeRoot.getResource();
+		if (resource != null) {
+			stamp = resource.getModificationStamp();
+		}
+		return LambdaVariableNamesCache.getKey(typeRoot.getHandleIdentifier(), method.declaringType().name(), method.name(), method.signature(), lineNo, stamp);
+	}
+
+	/**
+	 * Replaces the synthetic fields of the given lambda object with copies named after the captured variables, removing the captured 'this' of
+	 * lambdas declared in instance methods. Fields are left untouched if their number does not match the captured variables.
+	 */
+	private static void renameCapturedFields(ObjectReference underlyingThisObject, boolean methodIsStatic, String[] capturedNames) {
+		List<Field> allFields = underlyingThisObject.referenceType().fields();
+		ListIterator<Field> listIterator = allFields.listIterator();
+		int i = 0;
+		if (methodIsStatic) {
+			if (capturedNames.length == allFields.size()) {
+				while (listIterator.hasNext()) {
+					FieldImpl field = (FieldImpl) listIterator.next();
+					FieldImpl newField = createRenamedCopy(field, capturedNames[i]);
+					listIterator.set(newField);
+					i++;
+				}
+			}
+		} else {
+			if (capturedNames.length + 1 == allFields.size()) {
+				while (listIterator.hasNext()) {
+					FieldImpl field = (FieldImpl) listIterator.next();
+					// remove 'this' field from the fields of the lambda
+					if (i == 0) {
+						listIterator.remove();
+					} else {
+						FieldImpl newField = createRenamedCopy(field, capturedNames[i - 1]);
+						listIterator.set(newField);
+					}
+					i++;
+				}
+			}
+		}
+	}
+
+	private static FieldImpl createRenamedCopy(FieldImpl field, String newName) {
+		return new FieldImpl((VirtualMachineImpl) field.virtualMachine(), (ReferenceTypeImpl) field.declaringType(), field.getFieldID(), newName, field.signature(), field.genericSignature(), field.modifiers());
+	}
+
 	private final static class LambdaASTVisitor extends ASTVisitor {
-		private final ObjectReference underlyingThisObject;
-		private boolean methodIsStatic;
 		private CompilationUnit cu;
 		private int lineNo;
+		private List<String[]> capturedNames = new ArrayList<>();
 
-		private LambdaASTVisitor(boolean visitDocTags, ObjectReference underlyingThisObject, boolean methodIsStatic, CompilationUnit cu, int lineNo) {
+		private LambdaASTVisitor(boolean visitDocTags, CompilationUnit cu, int lineNo) {
 			super(visitDocTags);
-			this.underlyingThisObject = underlyingThisObject;
-			this.methodIsStatic = methodIsStatic;
 			this.cu = cu;
 			this.lineNo = lineNo;
 		}
@@ -479,40 +597,19 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 			if (synVars == null || synVars.length == 0) {// name cannot be updated if Synthetic Outer Locals are not available
 				return true;
 			}
-			List<Field> allFields = underlyingThisObject.referenceType().fields();
-			ListIterator<Field> listIterator = allFields.listIterator();
-			int i = 0;
-			if (methodIsStatic) {
-				if (synVars.length == allFields.size()) {
-					while (listIterator.hasNext()) {
-						FieldImpl field = (FieldImpl) listIterator.next();
-						String newName = synVars[i].getName();
-						FieldImpl newField = createRenamedCopy(field, newName);
-						listIterator.set(newField);
-						i++;
-					}
-				}
-			} else {
-				if (synVars.length + 1 == allFields.size()) {
-					while (listIterator.hasNext()) {
-						FieldImpl field = (FieldImpl) listIterator.next();
-						// remove 'this' field from the fields of the lambda
-						if (i == 0) {
-							listIterator.remove();
-						} else {
-							String newName = synVars[i - 1].getName();
-							FieldImpl newField = createRenamedCopy(field, newName);
-							listIterator.set(newField);
-						}
-						i++;
-					}
-				}
+			String[] names = new String[synVars.length];
+			for (int i = 0; i < synVars.length; i++) {
+				names[i] = synVars[i].getName();
 			}
+			capturedNames.add(names);
 			return true;
 		}
 
-		private FieldImpl createRenamedCopy(FieldImpl field, String newName) {
-			return new FieldImpl((VirtualMachineImpl) field.virtualMachine(), (ReferenceTypeImpl) field.declaringType(), field.getFieldID(), newName, field.signature(), field.genericSignature(), field.modifiers());
+		/**
+		 * @return the captured variable names of the lambdas containing the line, in source order
+		 */
+		List<String[]> getCapturedNames() {
+			return capturedNames;
 		}
 	}
 
@@ -688,12 +785,10 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 		if (isTopStackFrame()) {
 			getThread().stepReturn();
 		} else {
-			List<IJavaStackFrame> frames = ((JDIThread) getThread())
-					.computeStackFrames();
-			int index = frames.indexOf(this);
-			if (index >= 0 && index < frames.size() - 1) {
-				IStackFrame nextFrame = frames.get(index + 1);
-				((JDIThread) getThread()).stepToFrame(nextFrame);
+			int index = fThread.indexOfStackFrame(this);
+			IStackFrame nextFrame = index >= 0 ? fThread.getStackFrame(index + 1) : null;
+			if (nextFrame != null) {
+				fThread.stepToFrame(nextFrame);
 			}
 		}
 	}
@@ -847,36 +942,32 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 			if (jdkSupport || j9Support) {
 				// Also ensure that this frame and no frames above this
 				// frame are native. Unable to pop native stack frames.
-				List<IJavaStackFrame> frames = thread.computeStackFrames();
+				// only the frames down to the one below this one are needed
+				int thisIndex = thread.indexOfStackFrame(this);
+				if (thisIndex < 0) {
+					return false;
+				}
 				if (jdkSupport) {
 					// JDK 1.4 VMs are currently unable to pop the bottom
 					// stack frame.
-					if ((frames.size() > 0)
-							&& frames.get(frames.size() - 1) == this) {
+					if (getDepth() == 0) {
 						return false;
 					}
 				}
-				int index = 0;
-				JDIStackFrame frame = null;
-				while (index < frames.size()) {
-					frame = (JDIStackFrame) frames.get(index);
-					index++;
-					if (frame.isNative()) {
+				for (int index = 0; index <= thisIndex; index++) {
+					if (thread.getStackFrame(index).isNative()) {
 						return false;
 					}
-					if (frame.equals(this)) {
-						if (jdkSupport) {
-							// JDK 1.4 VMs are currently unable to pop the
-							// frame directly above a native frame
-							if (index < frames.size()
-									&& ((JDIStackFrame) frames.get(index))
-											.isNative()) {
-								return false;
-							}
-						}
-						return true;
+				}
+				if (jdkSupport) {
+					// JDK 1.4 VMs are currently unable to pop the
+					// frame directly above a native frame
+					JDIStackFrame next = thread.getStackFrame(thisIndex + 1);
+					if (next != null && next.isNative()) {
+						return false;
 					}
 				}
+				return true;
 			}
 			return false;
 		} catch (DebugException e) {
@@ -1317,6 +1408,16 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 		}
 	}
 
+	/**
+	 * Returns the depth of this frame in the call stack, 0 being the bottom
+	 * of the stack, or a negative value if this frame is new or invalid.
+	 */
+	int getDepth() {
+		synchronized (fThread) {
+			return fDepth;
+		}
+	}
+
 	/**
 	 * @see ITerminate#canTerminate()
 	 */
@@ -1365,10 +1466,10 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 				}
 				if (fThread.isSuspended()) {
 					// re-index stack frames - See Bug 47198
-					fThread.computeStackFrames();
+					fThread.computeTopStackFrames();
 					if (fDepth == -1) {
 						// try it once more before throwing error
-						fThread.computeStackFrames();
+						fThread.computeTopStackFrames();
 						if (fDepth == -1) {
 						// If depth is -1, then this is an invalid frame
 							throw new DebugException(new Status(IStatus.ERROR, JDIDebugPlugin.getUniqueIdentifier(), IJavaStackFrame.ERR_INVALID_STACK_FRAME, JDIDebugModelMessages.JDIStackFrame_25, new IllegalStateException()));
@@ -1684,11 +1785,9 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 					if (isTopStackFrame()) {
 						return true;
 					}
-					List<IJavaStackFrame> frames = fThread.computeStackFrames();
-					int index = frames.indexOf(this);
+					int index = fThread.indexOfStackFrame(this);
 					if (index > 0) {
-						JDIStackFrame prev = (JDIStackFrame) frames
-								.get(index - 1);
+						JDIStackFrame prev = fThread.getStackFrame(index - 1);
 						return prev.canDropToFrame();
 					}
 				}
@@ -1721,10 +1820,9 @@ public class JDIStackFrame extends JDIDebugElement implements IJavaStackFrame {
 			} catch (ClassNotLoadedException e) {
 				targetRequestFailed(JDIDebugModelMessages.JDIThread_48, e);
 			}
-			List<IJavaStackFrame> frames = fThread.computeStackFrames();
-			int index = frames.indexOf(this);
+			int index = fThread.indexOfStackFrame(this);
 			if (index > 0) {
-				JDIStackFrame prev = (JDIStackFrame) frames.get(index - 1);
+				JDIStackFrame prev = fThread.getStackFrame(index - 1);
 				fThread.popFrame(prev);
 				fThread.forceReturn(value);
 			}
@@ -17,6 +17,7 @@
 package org.eclipse.jdt.internal.debug.core.model;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -39,7 +40,6 @@ import org.eclipse.debug.core.model.IBreakpoint;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.model.IStep;
-import org.eclipse.debug.core.model.IStepFilter;
 import org.eclipse.debug.core.model.ISuspendResume;
 import org.eclipse.debug.core.model.ITerminate;
 import org.eclipse.debug.core.model.IThread;
@@ -136,9 +136,21 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 	 */
 	private String fPreviousName;
 	/**
-	 * Collection of stack frames
+	 * Collection of stack frames. Only the top frames of deep stacks are
+	 * retrieved until deeper frames are asked for, so this may be a prefix of
+	 * the stack.
 	 */
 	private volatile List<IJavaStackFrame> fStackFrames;
+	/**
+	 * Number of frames on the stack when stack frames were last computed, or
+	 * -1 if not known.
+	 */
+	private int fFrameCount = -1;
+	/**
+	 * Number of stack frames retrieved at once when frames are asked for by
+	 * range.
+	 */
+	private static final int STACK_FRAME_WINDOW = 64;
 	/**
 	 * Underlying thread group, cached on first access.
 	 */
@@ -602,6 +614,31 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		return list.toArray(new IStackFrame[list.size()]);
 	}
 
+	/**
+	 * Returns the stack frames of this thread in the given range. Only the
+	 * frames down to the end of the range are retrieved from the VM, rounded
+	 * up to a window of frames.
+	 *
+	 * @param index
+	 *            index of the first frame, 0 being the top frame
+	 * @param length
+	 *            maximum number of frames to return
+	 * @return the stack frames in the given range, fewer if the stack is not
+	 *         as deep
+	 * @throws DebugException
+	 *             if an exception occurs retrieving frames
+	 */
+	public synchronized IStackFrame[] getStackFrames(int index, int length)
+			throws DebugException {
+		int end = (int) Math.min((long) index + length, Integer.MAX_VALUE);
+		List<IJavaStackFrame> list = computeStackFrames(fRefreshChildren, end);
+		if (index >= list.size()) {
+			return new IStackFrame[0];
+		}
+		List<IJavaStackFrame> range = list.subList(index, Math.min(end, list.size()));
+		return range.toArray(new IStackFrame[range.size()]);
+	}
+
 	/**
 	 * @see #computeStackFrames()
 	 *
@@ -614,49 +651,82 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 	 */
 	protected synchronized List<IJavaStackFrame> computeStackFrames(boolean refreshChildren)
 			throws DebugException {
+		return computeStackFrames(refreshChildren, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Computes at least the given number of top stack frames, or all of them if
+	 * the stack is not as deep. Frames are retrieved in windows of
+	 * {@link #STACK_FRAME_WINDOW} frames.
+	 * <p>
+	 * When frames are refreshed, existing frames are re-bound to the frame at
+	 * the same depth from the bottom of the stack. The total number of frames
+	 * is known from the frame count, so the top frames can be matched without
+	 * retrieving the rest of the stack.
+	 * </p>
+	 *
+	 * @param refreshChildren
+	 *            whether or not this method should request new stack frames
+	 *            from the VM
+	 * @param length
+	 *            the number of top frames needed
+	 * @return the top stack frames, at least <code>length</code> of them if
+	 *         the stack is that deep
+	 * @throws DebugException
+	 *             if an exception occurs retrieving frames
+	 */
+	private List<IJavaStackFrame> computeStackFrames(boolean refreshChildren, int length)
+			throws DebugException {
 		if (isSuspended()) {
 			if (isTerminated()) {
 				fStackFrames.clear();
+				fFrameCount = -1;
 			} else if (refreshChildren) {
-				List<StackFrame> frames = getUnderlyingFrames();
 				int oldSize = fStackFrames.size();
 				if (oldSize > 0) {
 					((JDIStackFrame) fStackFrames.get(0)).setIsTop(false);
 				}
-				int newSize = frames.size();
-				int discard = oldSize - newSize; // number of old frames to
-													// discard, if any
-				for (int i = 0; i < discard; i++) {
-					JDIStackFrame invalid = (JDIStackFrame) fStackFrames
-							.remove(0);
-					invalid.bind(null, -1);
-				}
-				int newFrames = newSize - oldSize; // number of frames to
-													// create, if any
-				int depth = oldSize;
-				for (int i = newFrames - 1; i >= 0; i--) {
-					fStackFrames.add(0, new JDIStackFrame(this,
-							frames.get(i), depth));
-					depth++;
+				int oldCount = fFrameCount;
+				int newCount = getUnderlyingFrameCount();
+				// keep at least as many frames as were retrieved before, so
+				// that frames the user has seen keep their identity
+				int newSize = Math.min(newCount, Math.max(windowSize(length), oldSize));
+				List<StackFrame> frames = getUnderlyingFrames(0, newSize, newCount);
+				newSize = frames.size();
+				// the frame at index i of the old stack is at index i + shift
+				// of the new one, if the stack has the same bottom
+				int shift = oldSize > 0 ? newCount - oldCount : 0;
+				List<IJavaStackFrame> newFrames = new ArrayList<>(newSize);
+				boolean[] rebound = new boolean[oldSize];
+				for (int i = 0; i < newSize; i++) {
+					int depth = newCount - 1 - i;
+					int old = i - shift;
+					if (old >= 0 && old < oldSize) {
+						rebound[old] = true;
+						newFrames.add(((JDIStackFrame) fStackFrames.get(old)).bind(frames.get(i), depth));
+					} else {
+						newFrames.add(new JDIStackFrame(this, frames.get(i), depth));
+					}
 				}
-				int numToRebind = Math.min(newSize, oldSize); // number of
-																// frames to
-																// attempt to
-																// re-bind
-				int offset = newSize - 1;
-				for (depth = 0; depth < numToRebind; depth++) {
-					JDIStackFrame oldFrame = (JDIStackFrame) fStackFrames
-							.get(offset);
-					StackFrame frame = frames.get(offset);
-					JDIStackFrame newFrame = oldFrame.bind(frame, depth);
-					if (newFrame != oldFrame) {
-						fStackFrames.set(offset, newFrame);
+				for (int i = 0; i < oldSize; i++) {
+					if (!rebound[i]) {
+						((JDIStackFrame) fStackFrames.get(i)).bind(null, -1);
 					}
-					offset--;
 				}
+				fStackFrames.clear();
+				fStackFrames.addAll(newFrames);
+				fFrameCount = newCount;
 				if (newSize > 0) {
 					((JDIStackFrame) fStackFrames.get(0)).setIsTop(true);
 				}
+			} else if (fStackFrames.size() < length && fStackFrames.size() < fFrameCount) {
+				// retrieve the next window of deeper frames
+				int start = fStackFrames.size();
+				int newSize = Math.min(fFrameCount, windowSize(length));
+				List<StackFrame> frames = getUnderlyingFrames(start, newSize - start, fFrameCount);
+				for (int i = 0; i < frames.size(); i++) {
+					fStackFrames.add(new JDIStackFrame(this, frames.get(i), fFrameCount - 1 - start - i));
+				}
 			}
 			fRefreshChildren = false;
 		} else {
@@ -665,6 +735,17 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		return fStackFrames;
 	}
 
+	/**
+	 * Returns the given number of frames rounded up to a multiple of
+	 * {@link #STACK_FRAME_WINDOW}.
+	 */
+	private static int windowSize(int length) {
+		if (length > Integer.MAX_VALUE - STACK_FRAME_WINDOW) {
+			return Integer.MAX_VALUE;
+		}
+		return (length + STACK_FRAME_WINDOW - 1) / STACK_FRAME_WINDOW * STACK_FRAME_WINDOW;
+	}
+
 	/**
 	 * Returns this thread's current stack frames as a list, computing them if
 	 * required. Returns an empty collection if this thread is not currently
@@ -714,7 +795,78 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		return computeStackFrames(true);
 	}
 
-	private List<StackFrame> getUnderlyingFrames() throws DebugException {
+	/**
+	 * Returns the stack frames of this thread retrieved so far, computing at
+	 * least the top window of frames. Frames retrieved before the last resume
+	 * are re-bound, but deeper frames are not retrieved.
+	 *
+	 * @return the top stack frames, possibly not all of them
+	 * @throws DebugException
+	 *             if an exception occurs retrieving frames
+	 */
+	synchronized List<IJavaStackFrame> computeTopStackFrames() throws DebugException {
+		return computeStackFrames(fRefreshChildren, 1);
+	}
+
+	/**
+	 * Returns the stack frame at the given index, 0 being the top frame,
+	 * retrieving frames only down to the window containing it.
+	 *
+	 * @param index
+	 *            index of the frame
+	 * @return the stack frame at the given index, or <code>null</code> if the
+	 *         stack is not as deep
+	 * @throws DebugException
+	 *             if an exception occurs retrieving frames
+	 */
+	synchronized JDIStackFrame getStackFrame(int index) throws DebugException {
+		if (index < 0) {
+			return null;
+		}
+		List<IJavaStackFrame> frames = computeStackFrames(fRefreshChildren, index + 1);
+		return index < frames.size() ? (JDIStackFrame) frames.get(index) : null;
+	}
+
+	/**
+	 * Returns the index of the given frame on the stack of this thread, 0
+	 * being the top frame. The index is derived from the depth of the frame
+	 * and the frame count, so frames below the given one are not retrieved.
+	 *
+	 * @param frame
+	 *            a stack frame
+	 * @return the index of the frame, or -1 if it is not a current frame of
+	 *         this thread
+	 * @throws DebugException
+	 *             if an exception occurs retrieving frames
+	 */
+	synchronized int indexOfStackFrame(IStackFrame frame) throws DebugException {
+		List<IJavaStackFrame> frames = computeTopStackFrames();
+		if (!(frame instanceof JDIStackFrame) || fFrameCount < 0) {
+			return -1;
+		}
+		int depth = ((JDIStackFrame) frame).getDepth();
+		if (depth < 0) {
+			return -1;
+		}
+		int index = fFrameCount - 1 - depth;
+		if (index >= 0 && index < frames.size() && frames.get(index) == frame) {
+			return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the given range of underlying frames.
+	 *
+	 * @param start
+	 *            index of the first frame, 0 being the top frame
+	 * @param length
+	 *            number of frames
+	 * @param frameCount
+	 *            number of frames on the stack
+	 * @return the frames in the range
+	 */
+	private List<StackFrame> getUnderlyingFrames(int start, int length, int frameCount) throws DebugException {
 		if (!isSuspended()) {
 			// Checking isSuspended here eliminates a race condition in resume
 			// between the time stack frames are preserved and the time the
@@ -724,7 +876,10 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 					null, IJavaThread.ERR_THREAD_NOT_SUSPENDED);
 		}
 		try {
-			return fThread.frames();
+			if (start == 0 && length == frameCount) {
+				return fThread.frames();
+			}
+			return fThread.frames(start, length);
 		} catch (IncompatibleThreadStateException e) {
 			requestFailed(
 					JDIDebugModelMessages.JDIThread_Unable_to_retrieve_stack_frame___thread_not_suspended__1,
@@ -1267,7 +1422,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		setRequestTimeout(restoreTimeout);
 		// update preserved stack frames
 		try {
-			computeStackFrames();
+			computeTopStackFrames();
 		} catch (DebugException e) {
 			logError(e);
 		}
@@ -1340,7 +1495,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 
 	@Override
 	public synchronized IStackFrame getTopStackFrame() throws DebugException {
-		List<IJavaStackFrame> c = computeStackFrames();
+		List<IJavaStackFrame> c = computeStackFrames(fRefreshChildren, 1);
 		if (c.isEmpty()) {
 			return null;
 		}
@@ -1568,6 +1723,15 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		return fIsSystemThread;
 	}
 
+	/**
+	 * Returns whether this thread is a virtual thread.
+	 *
+	 * @return whether this thread is a virtual thread
+	 */
+	public boolean isVirtual() {
+		return JDIDebugTarget.isVirtual(fThread);
+	}
+
 	@Override
 	public boolean isDaemon() throws DebugException {
 		return fIsDaemon;
@@ -1606,7 +1770,9 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 	@Override
 	public synchronized boolean isOutOfSynch() throws DebugException {
 		if (isSuspended() && ((JDIDebugTarget) getDebugTarget()).hasHCRFailed()) {
-			List<IJavaStackFrame> frames = computeStackFrames();
+			// only the frames retrieved so far, deeper frames are checked
+			// once retrieved
+			List<IJavaStackFrame> frames = computeTopStackFrames();
 			for(IJavaStackFrame frame : frames) {
 				if(((JDIStackFrame)frame).isOutOfSynch()) {
 					return true;
@@ -1726,6 +1892,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 	 */
 	protected synchronized void disposeStackFrames() {
 		fStackFrames.clear();
+		fFrameCount = -1;
 		fRefreshChildren = true;
 	}
 
@@ -2107,11 +2274,9 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 			try {
 				// Pop the frame and all frames above it
 				StackFrame jdiFrame = null;
-				int desiredSize = fStackFrames.size()
-						- fStackFrames.indexOf(frame) - 1;
-				int lastSize = fStackFrames.size() + 1; // Set up to pass the
-														// first test
-				int size = fStackFrames.size();
+				int size = getFrameCount();
+				int desiredSize = size - indexOfStackFrame(frame) - 1;
+				int lastSize = size + 1; // Set up to pass the first test
 				while (size < lastSize && size > desiredSize) {
 					// Keep popping frames until the stack stops getting smaller
 					// or popFrame is gone.
@@ -2121,7 +2286,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 					preserveStackFrames();
 					fThread.popFrames(jdiFrame);
 					lastSize = size;
-					size = computeStackFrames().size();
+					size = getFrameCount();
 				}
 			} catch (IncompatibleThreadStateException exception) {
 				targetRequestFailed(MessageFormat.format(
@@ -2391,7 +2556,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 				}
 				Location location = frame.location();
 				setOriginalStepLocation(location);
-				setOriginalStepStackDepth(computeStackFrames().size());
+				setOriginalStepStackDepth(getFrameCount());
 				setStepRequest(createStepRequest());
 				setPendingStepHandler(this);
 				addJDIEventListener(this, getStepRequest());
@@ -2505,11 +2670,11 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 					}
 					fStepResultCandidate = null;
 					fStepResultTimeoutTriggered.set(false);
-					List<IJavaStackFrame> frames = computeStackFrames();
+					List<IJavaStackFrame> frames = computeTopStackFrames();
 					int frameCount = 0;
 					StackFrame currentFrame = null;
 					if (!frames.isEmpty()) {
-						frameCount = frames.size();
+						frameCount = getFrameCount();
 						currentFrame = ((JDIStackFrame) frames.get(0)).getUnderlyingStackFrame();
 					} else {
 						// can happen, e.g. when step filters are active.
@@ -2915,19 +3080,16 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		protected boolean locationIsFiltered(Method method, boolean orig) {
 			if (isStepFiltersEnabled()) {
 				JDIDebugTarget target = getJavaDebugTarget();
+				StepFilterCache cache = target.getStepFilterCache();
 				if ((target.isFilterStaticInitializers() && method.isStaticInitializer())
 						|| (target.isFilterSynthetics() && method.isSynthetic())
 						|| (target.isFilterConstructors() && method.isConstructor())
-						|| (target.isFilterGetters() && JDIMethod.isGetterMethod(method))
-						|| (target.isFilterSetters() && JDIMethod.isSetterMethod(method))) {
+						|| (target.isFilterGetters() && cache.isGetter(method))
+						|| (target.isFilterSetters() && cache.isSetter(method))) {
 					return true;
 				}
-				if(!orig) {
-					for (IStepFilter contributedFilter : DebugPlugin.getStepFilters(JDIDebugPlugin.getUniqueIdentifier())) {
-						if (contributedFilter.isFiltered(method)) {
-							return true;
-						}
-					}
+				if (!orig && cache.isFilteredByContributedFilters(method)) {
+					return true;
 				}
 			}
 			return false;
@@ -3119,8 +3281,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		 *                </ul>
 		 */
 		protected StepToFrameHandler(IStackFrame frame) throws DebugException {
-			List<IJavaStackFrame> frames = computeStackFrames();
-			setRemainingFrames(frames.size() - frames.indexOf(frame));
+			setRemainingFrames(getFrameCount() - indexOfStackFrame(frame));
 		}
 
 		/**
@@ -3200,8 +3361,7 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 		 *                </ul>
 		 */
 		protected DropToFrameHandler(IStackFrame frame) throws DebugException {
-			List<IJavaStackFrame> frames = computeStackFrames();
-			setFramesToDrop(frames.indexOf(frame));
+			setFramesToDrop(indexOfStackFrame(frame));
 		}
 
 		/**
@@ -3533,7 +3693,11 @@ public class JDIThread extends JDIDebugElement implements IJavaThread {
 	}
 
 	@Override
-	public int getFrameCount() throws DebugException {
+	public synchronized int getFrameCount() throws DebugException {
+		if (isSuspended() && !fRefreshChildren && fFrameCount >= 0) {
+			// known since the frames were computed for this suspend
+			return fFrameCount;
+		}
 		return getUnderlyingFrameCount();
 	}
 
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.debug.core.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.debug.core.model.IThread;
+
+import com.sun.jdi.ThreadReference;
+
+/**
+ * The threads of a debug target. Threads are looked up by the unique ID of
+ * their underlying thread reference in constant time, and iterated over
+ * snapshots which are only copied when threads start or end.
+ */
+final class JDIThreadRegistry {
+
+	/**
+	 * Threads in the order they were added
+	 */
+	private final List<JDIThread> fThreads = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Threads keyed by the unique ID of their underlying thread reference
+	 */
+	private final Map<Long, JDIThread> fThreadsById = new ConcurrentHashMap<>();
+
+	/**
+	 * Threads with non-system threads first, as returned by
+	 * {@link #getThreads()}, or <code>null</code> if threads were added or
+	 * removed since last computed
+	 */
+	private volatile IThread[] fOrderedThreads;
+
+	/**
+	 * Adds the given thread.
+	 *
+	 * @param thread
+	 *            the thread to add
+	 */
+	synchronized void add(JDIThread thread) {
+		fThreads.add(thread);
+		fThreadsById.put(Long.valueOf(thread.getUnderlyingThread().uniqueID()), thread);
+		fOrderedThreads = null;
+	}
+
+	/**
+	 * Removes the given thread.
+	 *
+	 * @param thread
+	 *            the thread to remove
+	 */
+	synchronized void remove(JDIThread thread) {
+		if (fThreads.remove(thread)) {
+			fThreadsById.remove(Long.valueOf(thread.getUnderlyingThread().uniqueID()), thread);
+			fOrderedThreads = null;
+		}
+	}
+
+	/**
+	 * Removes all threads.
+	 */
+	synchronized void clear() {
+		fThreads.clear();
+		fThreadsById.clear();
+		fOrderedThreads = null;
+	}
+
+	/**
+	 * Returns the thread for the given underlying thread reference, or
+	 * <code>null</code> if none.
+	 *
+	 * @param reference
+	 *            underlying thread reference
+	 * @return the associated model thread or <code>null</code>
+	 */
+	JDIThread find(ThreadReference reference) {
+		JDIThread thread = fThreadsById.get(Long.valueOf(reference.uniqueID()));
+		if (thread != null && thread.getUnderlyingThread().equals(reference)) {
+			return thread;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the threads. The iterator does
+	 * not reflect threads added or removed after it was created and does not
+	 * support removal.
+	 *
+	 * @return iterator over the threads
+	 */
+	Iterator<JDIThread> iterator() {
+		return fThreads.iterator();
+	}
+
+	/**
+	 * Returns the threads, non-system threads first.
+	 *
+	 * @return the threads
+	 */
+	IThread[] getThreads() {
+		IThread[] threads = fOrderedThreads;
+		if (threads == null) {
+			synchronized (this) {
+				threads = fOrderedThreads;
+				if (threads == null) {
+					threads = new IThread[fThreads.size()];
+					int index = 0;
+					for (JDIThread thread : fThreads) {
+						if (!thread.isSystemThread()) {
+							threads[index++] = thread;
+						}
+					}
+					for (JDIThread thread : fThreads) {
+						if (thread.isSystemThread()) {
+							threads[index++] = thread;
+						}
+					}
+					fOrderedThreads = threads;
+				}
+			}
+		}
+		return threads.clone();
+	}
+
+	/**
+	 * Returns whether there are any threads.
+	 *
+	 * @return whether there are any threads
+	 */
+	boolean isEmpty() {
+		return fThreads.isEmpty();
+	}
+}
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.model.IValue;
@@ -49,6 +50,12 @@ public class JDIValue extends JDIDebugElement implements IJavaValue {
 	private Value fValue;
 	private List<IJavaVariable> fVariables;
 
+	/**
+	 * Suspend count of the target when the values of the fields in
+	 * <code>fVariables</code> were last retrieved together.
+	 */
+	private int fFieldsPrefetchIndex = -1;
+
 	/**
 	 * A flag indicating if this value is still allocated (valid)
 	 */
@@ -228,8 +235,15 @@ public class JDIValue extends JDIDebugElement implements IJavaValue {
 	 */
 	@Override
 	public IVariable[] getVariables() throws DebugException {
-		List<IJavaVariable> list = getVariablesList();
-		return list.toArray(new IVariable[list.size()]);
+		synchronized (this) {
+			List<IJavaVariable> list = getVariablesList();
+			// only the children about to be displayed need their values
+			if (list == fVariables && fValue instanceof ObjectReference && !isArray()
+					&& fFieldsPrefetchIndex != getJavaDebugTarget().getSuspendCount()) {
+				prefetchFieldValues((ObjectReference) fValue);
+			}
+			return list.toArray(new IVariable[list.size()]);
+		}
 	}
 
 	/**
@@ -291,6 +305,35 @@ public class JDIValue extends JDIDebugElement implements IJavaValue {
 		}
 	}
 
+	/**
+	 * Retrieves the values of all field variables of the given object with one
+	 * request for the instance fields and one for the static fields, instead
+	 * of one request per field when the values are displayed.
+	 *
+	 * @param object
+	 *            the object whose fields are in <code>fVariables</code>
+	 */
+	private void prefetchFieldValues(ObjectReference object) {
+		fFieldsPrefetchIndex = getJavaDebugTarget().getSuspendCount();
+		if (fVariables.isEmpty()) {
+			return;
+		}
+		List<Field> fields = new ArrayList<>(fVariables.size());
+		for (IJavaVariable variable : fVariables) {
+			fields.add(((JDIFieldVariable) variable).getField());
+		}
+		try {
+			Map<Field, Value> values = object.getValues(fields);
+			for (IJavaVariable variable : fVariables) {
+				JDIFieldVariable field = (JDIFieldVariable) variable;
+				field.setPrefetchedValue(values.get(field.getField()));
+			}
+		} catch (RuntimeException e) {
+			// the values are retrieved one at a time when displayed, and
+			// failures are reported then
+		}
+	}
+
 	/**
 	 * Group statics and instance variables, sort alphabetically within each
 	 * group.
@@ -474,6 +517,9 @@ public class JDIValue extends JDIDebugElement implements IJavaValue {
 	}
 
 	/**
+	 * Only needs the number of children, so the values of the fields are not
+	 * retrieved.
+	 *
 	 * @see IValue#hasVariables()
 	 */
 	@Override
@@ -43,6 +43,16 @@ public abstract class JDIVariable extends JDIDebugElement implements
 	 */
 	private int fLastChangeIndex = -1;
 
+	/**
+	 * Value that was retrieved together with the values of related variables,
+	 * and is returned on the next retrieval instead of asking the VM again,
+	 * provided the target has not been suspended again since. Guarded by this
+	 * variable, together with the two fields below.
+	 */
+	private Value fPrefetchedValue;
+	private boolean fPrefetched = false;
+	private int fPrefetchIndex = -1;
+
 	protected final static String jdiStringSignature = "Ljava/lang/String;"; //$NON-NLS-1$
 
 	public JDIVariable(JDIDebugTarget target) {
@@ -70,6 +80,17 @@ public abstract class JDIVariable extends JDIDebugElement implements
 	 *                if unable to access the value
 	 */
 	protected final Value getCurrentValue() throws DebugException {
+		synchronized (this) {
+			// label and content jobs may ask for the value concurrently
+			if (fPrefetched) {
+				Value value = fPrefetchedValue;
+				boolean current = fPrefetchIndex == getJavaDebugTarget().getSuspendCount();
+				clearPrefetchedValue();
+				if (current) {
+					return value;
+				}
+			}
+		}
 		try {
 			return retrieveValue();
 		} catch (RuntimeException e) {
@@ -87,6 +108,29 @@ public abstract class JDIVariable extends JDIDebugElement implements
 	 */
 	protected abstract Value retrieveValue() throws DebugException;
 
+	/**
+	 * Sets the current value of this variable, retrieved together with the
+	 * values of related variables. It is returned by the next call to
+	 * {@link #getCurrentValue()} instead of asking the VM again.
+	 *
+	 * @param value
+	 *            the current underlying value
+	 */
+	protected synchronized void setPrefetchedValue(Value value) {
+		fPrefetchedValue = value;
+		fPrefetched = true;
+		fPrefetchIndex = getJavaDebugTarget().getSuspendCount();
+	}
+
+	/**
+	 * Discards a value set with {@link #setPrefetchedValue(Value)}, for
+	 * instance because the variable is being modified.
+	 */
+	protected synchronized void clearPrefetchedValue() {
+		fPrefetchedValue = null;
+		fPrefetched = false;
+	}
+
 	/**
 	 * Returns the current value of this variable. The value is cached, but on
 	 * each access we see if the value has changed and update if required.
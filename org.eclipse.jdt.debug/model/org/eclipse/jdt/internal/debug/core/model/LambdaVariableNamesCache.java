@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.debug.core.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Captured variable names of the lambdas found at a lambda method's first
+ * line, in source order. Entries are keyed by the source, the lambda method
+ * and the modification stamp of the source (see
+ * {@link #getKey(String, String, String, String, int, long)}), so names are
+ * resolved again once the source changes. The cache holds plain names rather
+ * than ASTs, and evicts the least recently used entries once it holds more
+ * than its maximum number of entries.
+ */
+public final class LambdaVariableNamesCache {
+
+	/**
+	 * Names by key, in access order
+	 */
+	private final Map<String, List<String[]>> fNames;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param maxSize
+	 *            maximum number of lambda methods whose names are cached
+	 */
+	@SuppressWarnings("serial")
+	public LambdaVariableNamesCache(final int maxSize) {
+		fNames = new LinkedHashMap<String, List<String[]>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, List<String[]>> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the key of the captured variable names of a lambda method.
+	 *
+	 * @param typeRoot
+	 *            handle identifier of the source of the method
+	 * @param declaringType
+	 *            name of the type declaring the method
+	 * @param methodName
+	 *            name of the method
+	 * @param signature
+	 *            signature of the method
+	 * @param lineNo
+	 *            first line of the method
+	 * @param stamp
+	 *            modification stamp of the source
+	 * @return the key of the names of the method
+	 */
+	public static String getKey(String typeRoot, String declaringType, String methodName, String signature, int lineNo, long stamp) {
+		StringBuilder key = new StringBuilder(typeRoot);
+		key.append('#').append(declaringType);
+		key.append('.').append(methodName).append(signature);
+		key.append(':').append(lineNo);
+		key.append('@').append(stamp);
+		return key.toString();
+	}
+
+	/**
+	 * Returns the cached names for the given key, marking them as most recently
+	 * used.
+	 *
+	 * @param key
+	 *            key of a lambda method
+	 * @return the captured variable names of each lambda, or <code>null</code>
+	 *         if not cached
+	 */
+	public synchronized List<String[]> get(String key) {
+		return fNames.get(key);
+	}
+
+	/**
+	 * Caches the names for the given key, evicting the least recently used
+	 * entry if the cache is full.
+	 *
+	 * @param key
+	 *            key of a lambda method
+	 * @param names
+	 *            the captured variable names of each lambda
+	 */
+	public synchronized void put(String key, List<String[]> names) {
+		fNames.put(key, names);
+	}
+
+	/**
+	 * @return the number of cached lambda methods
+	 */
+	public synchronized int size() {
+		return fNames.size();
+	}
+}
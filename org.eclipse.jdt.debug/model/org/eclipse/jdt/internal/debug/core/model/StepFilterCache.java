@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.debug.core.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IStepFilter;
+import org.eclipse.jdt.internal.debug.core.JDIDebugPlugin;
+
+import com.sun.jdi.Method;
+
+/**
+ * Step filter classification of the methods of a debug target. Whether a method
+ * is a simple getter or setter requires its bytecodes from the target VM, and
+ * whether it is filtered by contributed step filters requires consulting all of
+ * them, so both are computed once per method and remembered until the cache is
+ * cleared. Whether a classification actually filters the method is left to the
+ * step filter settings of the debug target at the time of the step.
+ */
+final class StepFilterCache {
+
+	private static final int GETTER = 0x01;
+
+	private static final int SETTER = 0x02;
+
+	private static final int ACCESSOR_KNOWN = 0x04;
+
+	private static final int CONTRIBUTED = 0x08;
+
+	private static final int CONTRIBUTED_KNOWN = 0x10;
+
+	/**
+	 * Classification bits by method
+	 */
+	private final Map<Method, Integer> fKinds = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns whether the given method is a simple getter.
+	 *
+	 * @param method
+	 *            method to check
+	 * @return whether the given method is a simple getter
+	 * @see JDIMethod#isGetterMethod(Method)
+	 */
+	boolean isGetter(Method method) {
+		return (accessorKind(method) & GETTER) != 0;
+	}
+
+	/**
+	 * Returns whether the given method is a simple setter.
+	 *
+	 * @param method
+	 *            method to check
+	 * @return whether the given method is a simple setter
+	 * @see JDIMethod#isSetterMethod(Method)
+	 */
+	boolean isSetter(Method method) {
+		return (accessorKind(method) & SETTER) != 0;
+	}
+
+	/**
+	 * Returns whether the given method is filtered by any of the step filters
+	 * contributed to the Java debug model.
+	 *
+	 * @param method
+	 *            method to check
+	 * @return whether a contributed step filter filters the given method
+	 * @see DebugPlugin#getStepFilters(String)
+	 */
+	boolean isFilteredByContributedFilters(Method method) {
+		int kind = kind(method);
+		if ((kind & CONTRIBUTED_KNOWN) == 0) {
+			kind |= CONTRIBUTED_KNOWN;
+			for (IStepFilter contributedFilter : DebugPlugin.getStepFilters(JDIDebugPlugin.getUniqueIdentifier())) {
+				if (contributedFilter.isFiltered(method)) {
+					kind |= CONTRIBUTED;
+					break;
+				}
+			}
+			fKinds.merge(method, Integer.valueOf(kind), (a, b) -> Integer.valueOf(a.intValue() | b.intValue()));
+		}
+		return (kind & CONTRIBUTED) != 0;
+	}
+
+	/**
+	 * Forgets all classifications, i.e. when classes were redefined or the step
+	 * filters changed.
+	 */
+	void clear() {
+		fKinds.clear();
+	}
+
+	private int accessorKind(Method method) {
+		int kind = kind(method);
+		if ((kind & ACCESSOR_KNOWN) == 0) {
+			kind |= ACCESSOR_KNOWN;
+			if (JDIMethod.isGetterMethod(method)) {
+				kind |= GETTER;
+			} else if (JDIMethod.isSetterMethod(method)) {
+				kind |= SETTER;
+			}
+			fKinds.merge(method, Integer.valueOf(kind), (a, b) -> Integer.valueOf(a.intValue() | b.intValue()));
+		}
+		return kind;
+	}
+
+	private int kind(Method method) {
+		Integer kind = fKinds.get(method);
+		return kind != null ? kind.intValue() : 0;
+	}
+}
@@ -30,7 +30,27 @@ public class ClassfileTransformer {
 	/** supported ASM API version, must match {@link #MAX_CLASS_MAJOR} above */
 	private static final int ASM_API = Opcodes.ASM9;
 
+	private final SourceDebugExtensionInjector injector = new SourceDebugExtensionInjector(STRATA_ID);
+
+	/**
+	 * Returns the given classfile with SMAP {@code SourceDebugExtension} referring to the given codesource location, or {@code null} if the
+	 * classfile does not need to be changed.
+	 */
 	public byte[] transform(byte[] classfileBuffer, final String location) {
+		try {
+			return injector.inject(classfileBuffer, location);
+		}
+		catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			// not understood by the classfile splicer, let ASM deal with it
+			return transformWithVisitor(classfileBuffer, location);
+		}
+	}
+
+	/**
+	 * Adds SMAP {@code SourceDebugExtension} by reading and writing the whole classfile with ASM. Slower than
+	 * {@link SourceDebugExtensionInjector}, used when the injector fails to process the classfile.
+	 */
+	byte[] transformWithVisitor(byte[] classfileBuffer, final String location) {
 
 		final ClassReader r = new ClassReader(classfileBuffer, 0, classfileBuffer.length);
 		final ClassWriter w = new ClassWriter(r, 0);
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.launching.internal.weaving;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds SMAP {@code SourceDebugExtension} attribute to classfiles by splicing classfile bytes. Only the constant pool tags and the attribute
+ * headers are read, the constant pool, fields and methods are copied as-is. The result is the same as the one of the ASM based
+ * {@link ClassfileTransformer#transformWithVisitor(byte[], String)}, except that the new attribute is appended to the class attributes
+ * instead of being written in ASM's attribute order, and is produced without parsing and rewriting the whole classfile.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html">The class File Format</a>
+ */
+final class SourceDebugExtensionInjector {
+
+	private static final byte[] SOURCE_FILE = encode("SourceFile"); //$NON-NLS-1$
+
+	private static final byte[] SOURCE_DEBUG_EXTENSION = encode("SourceDebugExtension"); //$NON-NLS-1$
+
+	// more locations than this are unlikely, unless a class loader defines each class with its own location
+	private static final int MAX_CACHED_LOCATIONS = 1024;
+
+	private static final int CONSTANT_Utf8 = 1;
+
+	private final byte[] smapHeader;
+
+	private final byte[] smapFiles;
+
+	/**
+	 * Encoded SMAP tail for each codesource location
+	 */
+	private final Map<String, byte[]> smapTails = new ConcurrentHashMap<>();
+
+	SourceDebugExtensionInjector(String strataId) {
+		smapHeader = encode("SMAP\n"); //$NON-NLS-1$
+		// default strata name
+		smapFiles = encode("\nJava\n*S " + strataId + "\n*F\n1 "); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Returns the given classfile with SMAP {@code SourceDebugExtension} attribute referring to the given codesource location, or {@code null}
+	 * if the classfile does not need to be changed, i.e. if it has no {@code SourceFile} attribute or already has a {@code SourceDebugExtension}
+	 * attribute.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the classfile is not valid or uses unsupported constant pool entries
+	 * @throws IndexOutOfBoundsException
+	 *             if the classfile is truncated
+	 */
+	byte[] inject(byte[] classfile, String location) {
+		if (u4(classfile, 0) != 0xCAFEBABE) {
+			throw new IllegalArgumentException("Invalid classfile magic"); //$NON-NLS-1$
+		}
+
+		int constantPoolCount = u2(classfile, 8);
+		int[] constantOffsets = new int[constantPoolCount];
+		int sourceFileIndex = 0;
+		int sourceDebugExtensionIndex = 0;
+		int offset = 10;
+		for (int index = 1; index < constantPoolCount; index++) {
+			constantOffsets[index] = offset;
+			int tag = classfile[offset];
+			switch (tag) {
+				case CONSTANT_Utf8:
+					int length = u2(classfile, offset + 1);
+					if (equals(classfile, offset + 3, length, SOURCE_FILE)) {
+						sourceFileIndex = index;
+					} else if (equals(classfile, offset + 3, length, SOURCE_DEBUG_EXTENSION)) {
+						sourceDebugExtensionIndex = index;
+					}
+					offset += 3 + length;
+					break;
+				case 7: // Class
+				case 8: // String
+				case 16: // MethodType
+				case 19: // Module
+				case 20: // Package
+					offset += 3;
+					break;
+				case 15: // MethodHandle
+					offset += 4;
+					break;
+				case 3: // Integer
+				case 4: // Float
+				case 9: // Fieldref
+				case 10: // Methodref
+				case 11: // InterfaceMethodref
+				case 12: // NameAndType
+				case 17: // Dynamic
+				case 18: // InvokeDynamic
+					offset += 5;
+					break;
+				case 5: // Long
+				case 6: // Double
+					offset += 9;
+					index++; // takes two constant pool entries
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported constant pool tag " + tag); //$NON-NLS-1$
+			}
+		}
+		int constantPoolEnd = offset;
+
+		// access_flags, this_class, super_class, interfaces
+		offset += 6;
+		offset += 2 + 2 * u2(classfile, offset);
+		offset = skipMembers(classfile, offset); // fields
+		offset = skipMembers(classfile, offset); // methods
+
+		int attributesOffset = offset;
+		int attributesCount = u2(classfile, offset);
+		int sourceIndex = 0;
+		offset += 2;
+		for (int i = 0; i < attributesCount; i++) {
+			int nameIndex = u2(classfile, offset);
+			if (nameIndex == 0) {
+				throw new IllegalArgumentException("Invalid attribute name"); //$NON-NLS-1$
+			}
+			if (nameIndex == sourceDebugExtensionIndex) {
+				// TODO merge SMAP if present (always present when used together with Equinox weaver)
+				return null;
+			}
+			if (nameIndex == sourceFileIndex) {
+				sourceIndex = u2(classfile, offset + 6);
+			}
+			offset += 6 + attributeLength(classfile, offset + 2);
+		}
+		if (offset != classfile.length) {
+			throw new IllegalArgumentException("Invalid classfile length"); //$NON-NLS-1$
+		}
+		if (sourceIndex == 0) {
+			return null; // nothing to map
+		}
+		if (sourceIndex >= constantPoolCount || classfile[constantOffsets[sourceIndex]] != CONSTANT_Utf8) {
+			throw new IllegalArgumentException("Invalid SourceFile attribute"); //$NON-NLS-1$
+		}
+		if (sourceDebugExtensionIndex == 0 && constantPoolCount == 0xFFFF) {
+			return null; // no room for the attribute name
+		}
+
+		// source file name is already encoded in the constant pool, copy it as-is
+		int sourceOffset = constantOffsets[sourceIndex] + 3;
+		int sourceLength = u2(classfile, constantOffsets[sourceIndex] + 1);
+		byte[] smapTail = getSmapTail(location);
+		int smapLength = smapHeader.length + sourceLength + smapFiles.length + sourceLength + smapTail.length;
+
+		int newConstantLength = sourceDebugExtensionIndex == 0 ? 3 + SOURCE_DEBUG_EXTENSION.length : 0;
+		byte[] result = new byte[classfile.length + newConstantLength + 6 + smapLength];
+
+		System.arraycopy(classfile, 0, result, 0, constantPoolEnd);
+		int resultOffset = constantPoolEnd;
+		if (sourceDebugExtensionIndex == 0) {
+			sourceDebugExtensionIndex = constantPoolCount;
+			putU2(result, 8, constantPoolCount + 1);
+			result[resultOffset] = CONSTANT_Utf8;
+			putU2(result, resultOffset + 1, SOURCE_DEBUG_EXTENSION.length);
+			resultOffset = put(result, resultOffset + 3, SOURCE_DEBUG_EXTENSION, 0, SOURCE_DEBUG_EXTENSION.length);
+		}
+		resultOffset = put(result, resultOffset, classfile, constantPoolEnd, attributesOffset - constantPoolEnd);
+		putU2(result, resultOffset, attributesCount + 1);
+		resultOffset = put(result, resultOffset + 2, classfile, attributesOffset + 2, classfile.length - attributesOffset - 2);
+
+		putU2(result, resultOffset, sourceDebugExtensionIndex);
+		putU4(result, resultOffset + 2, smapLength);
+		resultOffset += 6;
+		resultOffset = put(result, resultOffset, smapHeader, 0, smapHeader.length);
+		resultOffset = put(result, resultOffset, classfile, sourceOffset, sourceLength);
+		resultOffset = put(result, resultOffset, smapFiles, 0, smapFiles.length);
+		resultOffset = put(result, resultOffset, classfile, sourceOffset, sourceLength);
+		put(result, resultOffset, smapTail, 0, smapTail.length);
+
+		return result;
+	}
+
+	private byte[] getSmapTail(String location) {
+		byte[] smapTail = smapTails.get(location);
+		if (smapTail == null) {
+			// JSR-045, StratumSection
+			// "One FileSection and one LineSection (in either order) must follow the StratumSection"
+			smapTail = encode("\n2 " + location + "\n*L\n*E\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			if (smapTails.size() >= MAX_CACHED_LOCATIONS) {
+				smapTails.clear();
+			}
+			smapTails.put(location, smapTail);
+		}
+		return smapTail;
+	}
+
+	private static int skipMembers(byte[] classfile, int offset) {
+		int count = u2(classfile, offset);
+		offset += 2;
+		for (int i = 0; i < count; i++) {
+			// access_flags, name_index, descriptor_index
+			int attributesCount = u2(classfile, offset + 6);
+			offset += 8;
+			for (int j = 0; j < attributesCount; j++) {
+				offset += 6 + attributeLength(classfile, offset + 2);
+			}
+		}
+		return offset;
+	}
+
+	private static boolean equals(byte[] classfile, int offset, int length, byte[] value) {
+		if (length != value.length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (classfile[offset + i] != value[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int u2(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+	}
+
+	private static int u4(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+	}
+
+	private static int attributeLength(byte[] bytes, int offset) {
+		int length = u4(bytes, offset);
+		if (length < 0) {
+			throw new IllegalArgumentException("Invalid attribute length"); //$NON-NLS-1$
+		}
+		return length;
+	}
+
+	private static void putU2(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 8);
+		bytes[offset + 1] = (byte) value;
+	}
+
+	private static void putU4(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 24);
+		bytes[offset + 1] = (byte) (value >>> 16);
+		bytes[offset + 2] = (byte) (value >>> 8);
+		bytes[offset + 3] = (byte) value;
+	}
+
+	private static int put(byte[] bytes, int offset, byte[] value, int valueOffset, int length) {
+		System.arraycopy(value, valueOffset, bytes, offset, length);
+		return offset + length;
+	}
+
+	/**
+	 * Encodes the given string in modified UTF-8, the encoding of classfile strings.
+	 */
+	private static byte[] encode(String value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 0x01 && c <= 0x7F) {
+				bytes.write(c);
+			} else if (c <= 0x7FF) {
+				bytes.write(0xC0 | (c >> 6) & 0x1F);
+				bytes.write(0x80 | c & 0x3F);
+			} else {
+				bytes.write(0xE0 | (c >> 12) & 0xF);
+				bytes.write(0x80 | (c >> 6) & 0x3F);
+				bytes.write(0x80 | c & 0x3F);
+			}
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.launching.internal.weaving;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the classfile splicing {@link ClassfileTransformer#transform(byte[], String)} with the ASM based
+ * {@link ClassfileTransformer#transformWithVisitor(byte[], String)} on classfiles of various sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassfileTransformerBenchmark {
+
+	private static final String LOCATION = "file:/home/user/.m2/repository/org/example/example/1.0/example-1.0.jar"; //$NON-NLS-1$
+
+	@Param({ "java/lang/Object", "java/util/ArrayList", "java/lang/String", "java/util/concurrent/ConcurrentHashMap" })
+	public String className;
+
+	private byte[] classfile;
+
+	private ClassfileTransformer transformer;
+
+	@Setup
+	public void setup() throws IOException {
+		try (InputStream is = ClassLoader.getSystemResourceAsStream(className + ".class")) { //$NON-NLS-1$
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buf = new byte[4096];
+			int len;
+			while ((len = is.read(buf)) > 0) {
+				bytes.write(buf, 0, len);
+			}
+			classfile = bytes.toByteArray();
+		}
+		transformer = new ClassfileTransformer();
+	}
+
+	@Benchmark
+	public byte[] splice() {
+		return transformer.transform(classfile, LOCATION);
+	}
+
+	@Benchmark
+	public byte[] visitor() {
+		return transformer.transformWithVisitor(classfile, LOCATION);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ClassfileTransformerBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.launching.internal.weaving;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Tests that the classfile splicing {@link SourceDebugExtensionInjector#inject(byte[], String)} produces the same classfiles as the ASM based
+ * {@link ClassfileTransformer#transformWithVisitor(byte[], String)}, up to the order of the class attributes.
+ */
+public class SourceDebugExtensionInjectorTest {
+
+	private static final String LOCATION = "file:/home/user/.m2/repository/org/example/example/1.0/example-1.0.jar"; //$NON-NLS-1$
+
+	private static final String SMAP = "SMAP\nExample.java\nJava\n*S other\n*F\n1 Example.java\n*L\n*E\n"; //$NON-NLS-1$
+
+	private final ClassfileTransformer transformer = new ClassfileTransformer();
+
+	private final SourceDebugExtensionInjector injector = new SourceDebugExtensionInjector("jdt"); //$NON-NLS-1$
+
+	@Test
+	public void testSourceFile() {
+		ClassWriter w = newClass();
+		w.visitSource("Example.java", null); //$NON-NLS-1$
+		assertSameAsVisitor(endClass(w));
+	}
+
+	@Test
+	public void testNoSourceFile() {
+		byte[] classfile = endClass(newClass());
+		assertNull("Classfile without source should not change", injector.inject(classfile, LOCATION)); //$NON-NLS-1$
+		assertArrayEquals("Classfile without source should not change", classfile, transformer.transformWithVisitor(classfile, LOCATION)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testSourceDebugExtension() {
+		ClassWriter w = newClass();
+		w.visitSource("Example.java", SMAP); //$NON-NLS-1$
+		byte[] classfile = endClass(w);
+		assertNull("Existing SMAP should not change", injector.inject(classfile, LOCATION)); //$NON-NLS-1$
+		assertArrayEquals("Existing SMAP should not change", classfile, transformer.transformWithVisitor(classfile, LOCATION)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testSourceDebugExtensionConstant() {
+		ClassWriter w = newClass();
+		w.newUTF8("SourceDebugExtension"); //$NON-NLS-1$
+		w.visitSource("Example.java", null); //$NON-NLS-1$
+		assertSameAsVisitor(endClass(w));
+	}
+
+	@Test
+	public void testLongAndDoubleConstants() {
+		ClassWriter w = newClass();
+		w.visitField(Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "LONG", "J", null, Long.valueOf(Long.MAX_VALUE)).visitEnd(); //$NON-NLS-1$ //$NON-NLS-2$
+		MethodVisitor m = w.visitMethod(Opcodes.ACC_STATIC, "constants", "()D", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		m.visitCode();
+		m.visitLdcInsn(Long.valueOf(42L));
+		m.visitInsn(Opcodes.POP2);
+		m.visitLdcInsn(Double.valueOf(Math.PI));
+		m.visitInsn(Opcodes.DRETURN);
+		m.visitMaxs(2, 0);
+		m.visitEnd();
+		w.newUTF8("after the wide constants"); //$NON-NLS-1$
+		w.visitSource("Example.java", null); //$NON-NLS-1$
+		assertSameAsVisitor(endClass(w));
+	}
+
+	/**
+	 * ASM writes the class attributes in its own order, while the injector appends the {@code SourceDebugExtension} attribute, so compiled
+	 * classes with more class attributes than {@code SourceFile} only match once the attributes are put in ASM's order.
+	 */
+	@Test
+	public void testJDKClasses() throws IOException {
+		for (String className : new String[] { "java/lang/Object", "java/util/ArrayList", "java/lang/String", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				"java/util/concurrent/ConcurrentHashMap" }) { //$NON-NLS-1$
+			byte[] classfile = readClass(className);
+			byte[] injected = injector.inject(classfile, LOCATION);
+			assertNotNull("SMAP should be injected into " + className, injected); //$NON-NLS-1$
+			ClassReader r = new ClassReader(injected);
+			ClassWriter w = new ClassWriter(r, 0);
+			r.accept(w, 0);
+			assertArrayEquals("Injected classfile differs from ASM for " + className, transformer.transformWithVisitor(classfile, LOCATION), //$NON-NLS-1$
+					w.toByteArray());
+		}
+	}
+
+	private void assertSameAsVisitor(byte[] classfile) {
+		byte[] injected = injector.inject(classfile, LOCATION);
+		assertNotNull("SMAP should be injected", injected); //$NON-NLS-1$
+		assertArrayEquals("Injected classfile differs from ASM", transformer.transformWithVisitor(classfile, LOCATION), injected); //$NON-NLS-1$
+	}
+
+	private static ClassWriter newClass() {
+		ClassWriter w = new ClassWriter(0);
+		w.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, "org/example/Example", null, "java/lang/Object", null); //$NON-NLS-1$ //$NON-NLS-2$
+		return w;
+	}
+
+	private static byte[] endClass(ClassWriter w) {
+		w.visitEnd();
+		return w.toByteArray();
+	}
+
+	private static byte[] readClass(String className) throws IOException {
+		try (InputStream is = ClassLoader.getSystemResourceAsStream(className + ".class")) { //$NON-NLS-1$
+			assertNotNull("Missing class " + className, is); //$NON-NLS-1$
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buf = new byte[4096];
+			int len;
+			while ((len = is.read(buf)) > 0) {
+				bytes.write(buf, 0, len);
+			}
+			return bytes.toByteArray();
+		}
+	}
+}
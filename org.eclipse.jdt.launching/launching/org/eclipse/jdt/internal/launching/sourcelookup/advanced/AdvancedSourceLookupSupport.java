@@ -67,6 +67,8 @@ public class AdvancedSourceLookupSupport {
 		finally {
 			workspaceProjectsLock.unlock();
 		}
+
+		FileHashing.closeIndex();
 	}
 
 	public static void schedule(IRunnableWithProgress task) {
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.launching.sourcelookup.advanced;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Persistent index of file content digests, keyed by canonical file path, length and last modification time. Allows digests computed during
+ * previous sessions to be reused instead of hashing the same files again after restart.
+ *
+ * <p>
+ * The index is a fixed-size, memory-mapped hash table of {@value #CAPACITY} slots. Each slot holds the 64-bit hash of a canonical path, the file
+ * length, the file last modification time, the SHA1 digest of the file and a check value protecting against partially written slots. A path is
+ * stored in one of the {@value #PROBES} slots following its hash; when all of them are taken by other paths, the first one is overwritten, so
+ * the index behaves as a bounded cache.
+ */
+public class FileHashIndex implements Closeable {
+
+	private static final int MAGIC = 0x4A444849; // "JDHI"
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final int DIGEST_SIZE = 20;
+
+	// path hash (8), length (8), last modified (8), digest (20), check (4)
+	private static final int SLOT_SIZE = 48;
+
+	private static final int CAPACITY = 1 << 16;
+
+	private static final int PROBES = 16;
+
+	private final FileChannel channel;
+
+	private MappedByteBuffer buffer;
+
+	private FileHashIndex(FileChannel channel, MappedByteBuffer buffer) {
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Opens the index stored in the given file, creating it if it does not exist or is not a valid index.
+	 */
+	public static FileHashIndex open(File file) throws IOException {
+		File parent = file.getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			long size = HEADER_SIZE + (long) CAPACITY * SLOT_SIZE;
+			boolean valid = channel.size() == size;
+			if (!valid) {
+				// discard whatever is there before mapping, the file can't be truncated once mapped
+				channel.truncate(0);
+			}
+			MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+			if (valid) {
+				valid = buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getInt(8) == CAPACITY && buffer.getInt(12) == SLOT_SIZE;
+			}
+			if (!valid) {
+				for (int slot = 0; slot < CAPACITY; slot++) {
+					buffer.putLong(slotOffset(slot), 0L);
+				}
+				buffer.putInt(4, VERSION);
+				buffer.putInt(8, CAPACITY);
+				buffer.putInt(12, SLOT_SIZE);
+				buffer.putInt(0, MAGIC);
+			}
+			return new FileHashIndex(channel, buffer);
+		}
+		catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the digest of the given file as recorded in the index, or {@code null} if the index does not have the digest of the file with the
+	 * given length and last modification time.
+	 */
+	public synchronized byte[] get(File canonicalFile, long length, long lastModified) {
+		if (buffer == null) {
+			return null;
+		}
+		long pathHash = pathHash(canonicalFile);
+		int first = firstSlot(pathHash);
+		for (int i = 0; i < PROBES; i++) {
+			int offset = slotOffset((first + i) & (CAPACITY - 1));
+			if (buffer.getLong(offset) == pathHash) {
+				if (buffer.getLong(offset + 8) != length || buffer.getLong(offset + 16) != lastModified) {
+					return null; // the file has changed since
+				}
+				byte[] digest = new byte[DIGEST_SIZE];
+				for (int b = 0; b < DIGEST_SIZE; b++) {
+					digest[b] = buffer.get(offset + 24 + b);
+				}
+				if (buffer.getInt(offset + 24 + DIGEST_SIZE) != check(pathHash, length, lastModified, digest)) {
+					return null; // slot was not completely written
+				}
+				return digest;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Records the digest of the given file with the given length and last modification time, replacing any digest recorded for the file before.
+	 */
+	public synchronized void put(File canonicalFile, long length, long lastModified, byte[] digest) {
+		if (buffer == null || digest.length != DIGEST_SIZE) {
+			return;
+		}
+		long pathHash = pathHash(canonicalFile);
+		int first = firstSlot(pathHash);
+		int offset = -1;
+		for (int i = 0; i < PROBES; i++) {
+			int probe = slotOffset((first + i) & (CAPACITY - 1));
+			long slotHash = buffer.getLong(probe);
+			if (slotHash == pathHash) {
+				offset = probe;
+				break;
+			}
+			if (slotHash == 0 && offset < 0) {
+				offset = probe;
+			}
+		}
+		if (offset < 0) {
+			offset = slotOffset(first); // all slots are taken, evict
+		}
+		// invalidate the slot while it is being written
+		buffer.putLong(offset, 0L);
+		buffer.putLong(offset + 8, length);
+		buffer.putLong(offset + 16, lastModified);
+		for (int b = 0; b < DIGEST_SIZE; b++) {
+			buffer.put(offset + 24 + b, digest[b]);
+		}
+		buffer.putInt(offset + 24 + DIGEST_SIZE, check(pathHash, length, lastModified, digest));
+		buffer.putLong(offset, pathHash);
+	}
+
+	/**
+	 * Writes the index to disk and closes it. The index returns no digests once closed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (buffer == null) {
+			return;
+		}
+		try {
+			buffer.force();
+		}
+		finally {
+			buffer = null;
+			channel.close();
+		}
+	}
+
+	private static int slotOffset(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private static int firstSlot(long pathHash) {
+		return (int) (pathHash ^ (pathHash >>> 32)) & (CAPACITY - 1);
+	}
+
+	/**
+	 * Returns 64-bit FNV-1a hash of the path, never {@code 0} as that marks empty slots.
+	 */
+	private static long pathHash(File canonicalFile) {
+		String path = canonicalFile.getPath();
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < path.length(); i++) {
+			hash ^= path.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash != 0 ? hash : 1;
+	}
+
+	private static int check(long pathHash, long length, long lastModified, byte[] digest) {
+		int check = Long.hashCode(pathHash);
+		check = check * 31 + Long.hashCode(length);
+		check = check * 31 + Long.hashCode(lastModified);
+		check = check * 31 + Arrays.hashCode(digest);
+		return check;
+	}
+}
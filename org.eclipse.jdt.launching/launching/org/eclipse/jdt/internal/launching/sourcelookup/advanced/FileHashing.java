@@ -23,10 +23,13 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.eclipse.jdt.internal.launching.LaunchingPlugin;
+
 /**
  * Helpers to compute file content digests. Provides long-lived hasher instance with bounded cache of most recently requested files, which is useful
  * to handle source lookup requests. Also provides factory of hasher instances with unbounded caches, which is useful to perform bulk workspace
- * indexing.
+ * indexing. All hashers share a persistent {@link FileHashIndex} stored in the launching plugin state location, so files are not hashed again
+ * after restart unless they changed.
  */
 public class FileHashing {
 
@@ -38,6 +41,46 @@ public class FileHashing {
 	// this is used when performing source lookup and number of unique files requested during the same debugging session is likely to be small.
 	private static final HasherImpl HASHER = new HasherImpl(5000);
 
+	private static final String INDEX_FILE = "fileHashes.index"; //$NON-NLS-1$
+
+	private static FileHashIndex index;
+
+	private static boolean indexOpened;
+
+	/**
+	 * Returns the persistent digest index, opening it on first use, or {@code null} if the index is not available.
+	 */
+	private static synchronized FileHashIndex getIndex() {
+		if (!indexOpened) {
+			indexOpened = true;
+			LaunchingPlugin plugin = LaunchingPlugin.getDefault();
+			if (plugin != null) {
+				try {
+					index = FileHashIndex.open(plugin.getStateLocation().append(INDEX_FILE).toFile());
+				}
+				catch (IOException | IllegalStateException e) {
+					LaunchingPlugin.log(e); // hash files on every session
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Writes the persistent digest index to disk and closes it.
+	 */
+	public static synchronized void closeIndex() {
+		if (index != null) {
+			try {
+				index.close();
+			}
+			catch (IOException e) {
+				LaunchingPlugin.log(e);
+			}
+			index = null;
+		}
+	}
+
 	/**
 	 * Returns default long-lived Hasher instance with bounded hash cache.
 	 */
@@ -154,7 +197,20 @@ public class FileHashing {
 					}
 				}
 				// don't hold cache lock while hashing file
-				HashCode hashCode = sha1(file);
+				HashCode hashCode = null;
+				FileHashIndex index = getIndex();
+				if (index != null) {
+					byte[] digest = index.get(cacheKey.file, cacheKey.length, cacheKey.lastModified);
+					if (digest != null) {
+						hashCode = new HashCode(digest);
+					}
+				}
+				if (hashCode == null) {
+					hashCode = sha1(file);
+					if (index != null) {
+						index.put(cacheKey.file, cacheKey.length, cacheKey.lastModified, hashCode.bytes);
+					}
+				}
 				synchronized (cache) {
 					cache.put(cacheKey, hashCode);
 				}
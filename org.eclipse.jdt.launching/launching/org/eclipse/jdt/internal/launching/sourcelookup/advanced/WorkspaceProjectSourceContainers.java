@@ -22,10 +22,12 @@ import static org.eclipse.jdt.core.IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGE
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +38,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.debug.core.sourcelookup.ISourceContainer;
@@ -309,16 +312,43 @@ public class WorkspaceProjectSourceContainers {
 		final IJavaModel javaModel = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot());
 		final IJavaProject[] javaProjects = javaModel.getJavaProjects();
 
-		SubMonitor progress = SubMonitor.convert(monitor, javaProjects.length);
-
-		// TODO this can take significant time for large workspaces, consider running on multiple threads
-		// NB: can't persist state across restarts because java element change events are not delivered when this plugin isn't active
+		// NB: can't persist project state across restarts because java element change events are not delivered when this plugin isn't active
+		// file hashes are persisted by FileHashing, however, so only files changed since the last session are hashed again
 
 		Hasher hasher = FileHashing.newHasher(); // short-lived hasher for bulk workspace indexing
 
-		List<IWorkspaceProjectDescriber> describers = getJavaProjectDescribers();
-		for (IJavaProject project : javaProjects) {
-			addJavaProject(project, describers, hasher, progress.split(1));
+		addJavaProjects(Arrays.asList(javaProjects), getJavaProjectDescribers(), hasher, monitor);
+	}
+
+	/**
+	 * Describes the given projects, hashes their locations and dependencies on all available cores, then registers the projects.
+	 */
+	private void addJavaProjects(Collection<IJavaProject> projects, List<IWorkspaceProjectDescriber> describers, FileHashing.Hasher hasher, IProgressMonitor monitor) throws CoreException {
+		SubMonitor progress = SubMonitor.convert(monitor, 3 * projects.size());
+
+		Map<IJavaProject, JavaProjectDescriptionBuilder> builders = new LinkedHashMap<>();
+		Set<File> files = new HashSet<>();
+		for (IJavaProject project : projects) {
+			JavaProjectDescriptionBuilder builder = describeJavaProject(project, describers);
+			builders.put(project, builder);
+			files.addAll(builder.locations);
+			files.addAll(builder.dependencyLocations.keySet());
+			progress.split(1);
+		}
+
+		// hashing dominates indexing time, the hasher caches the results for addJavaProject below
+		SubMonitor hashing = progress.split(projects.size());
+		files.parallelStream().forEach(file -> {
+			if (!hashing.isCanceled()) {
+				hasher.hash(file);
+			}
+		});
+		if (hashing.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+
+		for (Map.Entry<IJavaProject, JavaProjectDescriptionBuilder> entry : builders.entrySet()) {
+			addJavaProject(entry.getKey(), entry.getValue(), hasher, progress.split(1));
 		}
 	}
 
@@ -331,7 +361,7 @@ public class WorkspaceProjectSourceContainers {
 		}
 	}
 
-	private void addJavaProject(IJavaProject project, List<IWorkspaceProjectDescriber> describers, FileHashing.Hasher hasher, IProgressMonitor monitor) throws CoreException {
+	private JavaProjectDescriptionBuilder describeJavaProject(IJavaProject project, List<IWorkspaceProjectDescriber> describers) throws CoreException {
 		if (project == null) {
 			throw new IllegalArgumentException();
 		}
@@ -342,6 +372,10 @@ public class WorkspaceProjectSourceContainers {
 			describer.describeProject(project, builder);
 		}
 
+		return builder;
+	}
+
+	private void addJavaProject(IJavaProject project, JavaProjectDescriptionBuilder builder, FileHashing.Hasher hasher, IProgressMonitor monitor) {
 		Set<File> locations = builder.locations;
 		List<Supplier<ISourceContainer>> factories = builder.factories;
 		Map<File, IPackageFragmentRoot> dependencies = builder.dependencyLocations;
@@ -426,17 +460,14 @@ public class WorkspaceProjectSourceContainers {
 	}
 
 	void updateProjects(final Set<IJavaProject> remove, final Set<IJavaProject> add, IProgressMonitor monitor) throws CoreException {
-		SubMonitor progress = SubMonitor.convert(monitor, 1 + add.size());
+		SubMonitor progress = SubMonitor.convert(monitor, 2);
 
 		progress.split(1);
 		for (IJavaProject project : remove) {
 			removeJavaProject(project);
 		}
-		List<IWorkspaceProjectDescriber> describers = getJavaProjectDescribers();
 		Hasher hasher = FileHashing.newHasher();
-		for (IJavaProject project : add) {
-			addJavaProject(project, describers, hasher, progress.split(1));
-		}
+		addJavaProjects(add, getJavaProjectDescribers(), hasher, progress.split(1));
 	}
 
 }